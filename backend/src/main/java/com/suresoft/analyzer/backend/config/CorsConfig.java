@@ -8,6 +8,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class CorsConfig implements WebMvcConfigurer {
     @Override
     public void addCorsMappings(CorsRegistry registry) {
+        // rerun 뷰어(nginx)에서 직접 받는 RRD - 쿠키 없이 token 으로 인증하므로 origin 제한 없음 (먼저 등록해야 우선 적용)
+        registry.addMapping("/api/visualization/rrd/**")
+                .allowedOrigins("*")
+                .allowedMethods("GET", "HEAD", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("Accept-Ranges", "Content-Range", "Content-Length", "Content-Encoding", "ETag", "Last-Modified")
+                .maxAge(3600);
+
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000","http://localhost:3001") //TODO : 실제 도메인으로 변경
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "OPTIONS", "DELETE")
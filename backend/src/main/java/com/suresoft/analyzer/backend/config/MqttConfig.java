@@ -1,13 +1,15 @@
 package com.suresoft.analyzer.backend.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttClient;
-import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
 public class MqttConfig {
     @Value("${mqtt.broker}")
@@ -16,10 +18,21 @@ public class MqttConfig {
     @Value("${mqtt.client-id:backend-subscriber}")
     private String clientId;
 
+    /**
+     * 구독용 (VisualizationMqttSubscriber)
+     */
     @Bean
     public MqttClient mqttClient() throws MqttException {
-        System.out.println(broker + " : " + clientId);
+        log.info("📡 MQTT 브로커: {} | ClientId: {}", broker, clientId);
 
         return new MqttClient(broker, clientId, new MemoryPersistence());
     }
+
+    /**
+     * 발행용 (MqttPublisher) - 구독 콜백 처리와 발행이 서로를 기다리지 않도록 연결을 나눈다.
+     */
+    @Bean
+    public MqttAsyncClient mqttAsyncClient() throws MqttException {
+        return new MqttAsyncClient(broker, clientId + "-publisher", new MemoryPersistence());
+    }
 }
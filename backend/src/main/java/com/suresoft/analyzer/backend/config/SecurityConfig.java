@@ -33,6 +33,21 @@ public class SecurityConfig{
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/login","/api/auth/refresh","/api/auth/assign","/swagger-ui/**","/v3/api-docs/**","/swagger-resources/**","/ws/**").permitAll()
+                        // 뷰어 iframe 은 헤더를 보낼 수 없어 RRDStreamService 가 token 으로 직접 확인한다.
+                        .requestMatchers("/api/visualization/rrd/**").permitAll()
+                        .requestMatchers("/api/visualization/worker/credential").permitAll()
+                        // 전체 사용자 / 프로젝트에 걸친 운영 지표는 관리자만 조회
+                        .requestMatchers(
+                                "/api/visualization/jobs/scheduler",
+                                "/api/visualization/workers",
+                                "/api/visualization/ingestion",
+                                "/api/visualization/mqtt-publisher",
+                                "/api/visualization/rrd-bandwidth",
+                                "/api/visualization/rrd-tiering",
+                                "/api/s3/client-registry/stats",
+                                "/api/s3/object-cache/stats",
+                                "/api/storage/upload-files/metadata/progress"
+                        ).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
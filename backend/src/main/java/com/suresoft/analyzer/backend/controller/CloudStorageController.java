@@ -1,16 +1,26 @@
 package com.suresoft.analyzer.backend.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.suresoft.analyzer.backend.dto.common.ApiResponse;
 import com.suresoft.analyzer.backend.dto.storage.DeleteUploadFilesResultDto;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileCatalogPageDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileDto;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileMetadataProgressDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileUsageDto;
 import com.suresoft.analyzer.backend.dto.storage.request.UploadFileCreateRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.UploadFileFilterRequestDto;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
 import com.suresoft.analyzer.backend.security.CustomUserDetails;
 import com.suresoft.analyzer.backend.service.storage.StorageService;
+import com.suresoft.analyzer.backend.service.storage.UploadFileMetadataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +31,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CloudStorageController {
     private final StorageService storageService;
+    private final UploadFileMetadataService uploadFileMetadataService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/upload-files/me")
     public ResponseEntity<ApiResponse<List<UploadFileDto>>> getUploadFilesByUserId(@AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -28,6 +40,32 @@ public class CloudStorageController {
         return ResponseEntity.ok(ApiResponse.success("업로드파일 목록 조회 성공",files));
     }
 
+    /**
+     * 업로드 파일 목록 페이지 조회 (keyword / extensionIds / parserIds 필터, sort, cursor)
+     * 응답 ETag 가 If-None-Match 와 같으면 본문 없이 304 를 돌려준다.
+     */
+    @GetMapping("/upload-files/catalog")
+    public ResponseEntity<ApiResponse<UploadFileCatalogPageDto>> getUploadFileCatalog(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @ModelAttribute UploadFileFilterRequestDto filter,
+            WebRequest webRequest
+    ) {
+        UploadFileCatalogPageDto page = storageService.getUploadFileCatalog(userDetails.getUserId(), filter);
+        String eTag = eTagOf(page);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(ApiResponse.success("업로드파일 목록 조회 성공", page));
+    }
+
+    /**
+     * 업로드 파일 메타데이터 확인 작업 진행 현황
+     */
+    @GetMapping("/upload-files/metadata/progress")
+    public ResponseEntity<ApiResponse<UploadFileMetadataProgressDto>> getUploadFileMetadataProgress() {
+        return ResponseEntity.ok(ApiResponse.success("메타데이터 확인 진행 현황 조회 성공", uploadFileMetadataService.getProgress()));
+    }
+
     @GetMapping("/upload-file")
     public ResponseEntity<ApiResponse<UploadFileDto>> getUploadFile(@RequestParam String id) {
         UploadFileDto file = storageService.getById(id);
@@ -38,7 +76,7 @@ public class CloudStorageController {
     public ResponseEntity<ApiResponse<String>> createUploadFile(@AuthenticationPrincipal CustomUserDetails userDetails, @RequestBody UploadFileCreateRequest dto) {
         String uploadFileId = storageService.createUploadFile(dto); // 파일 생성만
 
-        // 생성된 파일의 시간을 구하는 로직을 비동기로 실행하고 파일 total time 업데이트 하는 메서드
+        // 시작 시각 / 길이 / 크기는 등록 후 UploadFileMetadataService 가 비동기로 채운다.
         return ResponseEntity.ok(ApiResponse.success("업로드 파일 생성 성공", uploadFileId));
     }
 
@@ -93,4 +131,12 @@ public class CloudStorageController {
         UploadFileUsageDto usageDto = storageService.getUploadFileUsage(uploadFileId);
         return ResponseEntity.ok(usageDto);
     }
+
+    private String eTagOf(Object body) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "JSON 직렬화 실패");
+        }
+    }
 }
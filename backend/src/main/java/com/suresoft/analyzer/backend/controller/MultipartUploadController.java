@@ -0,0 +1,84 @@
+package com.suresoft.analyzer.backend.controller;
+
+import com.suresoft.analyzer.backend.dto.common.ApiResponse;
+import com.suresoft.analyzer.backend.dto.storage.MultipartUploadDto;
+import com.suresoft.analyzer.backend.dto.storage.PresignedPartUrlDto;
+import com.suresoft.analyzer.backend.dto.storage.request.MultipartPartCompleteRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.MultipartPartUrlsRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.MultipartUploadStartRequest;
+import com.suresoft.analyzer.backend.security.CustomUserDetails;
+import com.suresoft.analyzer.backend.service.storage.MultipartUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 대용량 로그(pcap, RIFF, 영상) 멀티파트 업로드
+ * 시작 → 파트 URL 발급 → 클라이언트가 파트를 S3 로 병렬 PUT → 파트 ETag 보고 → 완료(업로드 파일 등록)
+ */
+@RestController
+@RequestMapping("/api/s3/multipart")
+@RequiredArgsConstructor
+public class MultipartUploadController {
+    private final MultipartUploadService multipartUploadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<MultipartUploadDto>> startUpload(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                       @RequestBody MultipartUploadStartRequest request) {
+        MultipartUploadDto upload = multipartUploadService.start(request, userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("멀티파트 업로드 시작", upload));
+    }
+
+    /**
+     * 진행 중인 내 업로드 목록 (재개용)
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<MultipartUploadDto>>> getInProgressUploads(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        List<MultipartUploadDto> uploads = multipartUploadService.getInProgressUploads(userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("진행 중인 업로드 목록 조회 성공", uploads));
+    }
+
+    /**
+     * 업로드 상태 조회 (업로드된 파트 / 남은 파트)
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<MultipartUploadDto>> getUpload(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                     @PathVariable String uploadId) {
+        MultipartUploadDto upload = multipartUploadService.getUpload(uploadId, userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("업로드 상태 조회 성공", upload));
+    }
+
+    @PostMapping("/{uploadId}/part-urls")
+    public ResponseEntity<ApiResponse<List<PresignedPartUrlDto>>> getPartUrls(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                             @PathVariable String uploadId,
+                                                                             @RequestBody MultipartPartUrlsRequest request) {
+        List<PresignedPartUrlDto> urls = multipartUploadService.presignParts(uploadId, request.getPartNumbers(), userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("파트 업로드 URL 발급 성공", urls));
+    }
+
+    @PutMapping("/{uploadId}/parts/{partNumber}")
+    public ResponseEntity<ApiResponse<Void>> recordPart(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                        @PathVariable String uploadId,
+                                                        @PathVariable int partNumber,
+                                                        @RequestBody MultipartPartCompleteRequest request) {
+        multipartUploadService.recordPart(uploadId, partNumber, request, userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("파트 업로드 기록 성공", null));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<MultipartUploadDto>> completeUpload(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                          @PathVariable String uploadId) {
+        MultipartUploadDto upload = multipartUploadService.complete(uploadId, userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("멀티파트 업로드 완료", upload));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abortUpload(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                         @PathVariable String uploadId) {
+        multipartUploadService.abort(uploadId, userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("멀티파트 업로드 취소", null));
+    }
+}
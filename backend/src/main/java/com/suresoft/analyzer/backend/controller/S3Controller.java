@@ -1,10 +1,16 @@
 package com.suresoft.analyzer.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.suresoft.analyzer.backend.dto.AwsCredentialsRequest;
 import com.suresoft.analyzer.backend.dto.common.ApiResponse;
 import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
 import com.suresoft.analyzer.backend.dto.storage.BucketDto;
+import com.suresoft.analyzer.backend.dto.storage.BucketIndexStatusDto;
+import com.suresoft.analyzer.backend.dto.storage.BucketUsageDto;
+import com.suresoft.analyzer.backend.dto.storage.FolderChildrenResponseDto;
+import com.suresoft.analyzer.backend.dto.storage.S3ClientRegistryStatsDto;
+import com.suresoft.analyzer.backend.dto.storage.S3ObjectCacheStatsDto;
 import com.suresoft.analyzer.backend.entity.auth.UserEntity;
 import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
 import com.suresoft.analyzer.backend.entity.storage.UploadFileEntity;
@@ -12,14 +18,22 @@ import com.suresoft.analyzer.backend.exception.ErrorCode;
 import com.suresoft.analyzer.backend.repository.auth.UserRepository;
 import com.suresoft.analyzer.backend.repository.storage.UploadFileRepository;
 import com.suresoft.analyzer.backend.security.CustomUserDetails;
+import com.suresoft.analyzer.backend.service.storage.BucketObjectIndexService;
+import com.suresoft.analyzer.backend.service.storage.S3ClientRegistry;
+import com.suresoft.analyzer.backend.service.storage.S3ObjectCacheService;
 import com.suresoft.analyzer.backend.service.storage.S3Service;
 import com.suresoft.analyzer.backend.service.auth.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,15 +42,27 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/s3")
 public class S3Controller {
     private final S3Service s3Service;
+    private final S3ClientRegistry s3ClientRegistry;
+    private final BucketObjectIndexService bucketObjectIndexService;
+    private final S3ObjectCacheService s3ObjectCacheService;
     private final AuthService authService ;
     private final UserRepository userRepository;
     private final UploadFileRepository uploadFileRepository;
+    private final ObjectMapper objectMapper;
+    // 버킷 객체 트리 스트리밍 응답의 비동기 타임아웃 (이 엔드포인트에만 적용)
+    private final long streamTimeoutMs;
 
-    public S3Controller(S3Service s3Service, AuthService authService, UserRepository userRepository, UploadFileRepository uploadFileRepository) {
+    public S3Controller(S3Service s3Service, S3ClientRegistry s3ClientRegistry, BucketObjectIndexService bucketObjectIndexService, S3ObjectCacheService s3ObjectCacheService, AuthService authService, UserRepository userRepository, UploadFileRepository uploadFileRepository, ObjectMapper objectMapper,
+                        @Value("${s3.listing.stream-timeout-ms:600000}") long streamTimeoutMs) {
         this.s3Service = s3Service;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.bucketObjectIndexService = bucketObjectIndexService;
+        this.s3ObjectCacheService = s3ObjectCacheService;
         this.authService = authService;
         this.userRepository = userRepository;
         this.uploadFileRepository = uploadFileRepository;
+        this.objectMapper = objectMapper;
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
     /**
@@ -149,12 +175,26 @@ public class S3Controller {
             @RequestParam String bucketName,
             @RequestParam(required = false, defaultValue = "") String prefix
     ) throws Exception {
-        List<TreeFolderNodeDto> tree = s3Service.extractFoldersOnly(bucketName, prefix);
+        List<TreeFolderNodeDto> tree = bucketObjectIndexService.getFolderTree(bucketName, prefix);
         return ResponseEntity.ok(ApiResponse.success("폴더 트리 조회 성공", tree));
     }
 
 
 
+    /**
+     * 폴더 한 단계 하위 항목 조회 (트리를 펼칠 때마다 호출, cursor 로 페이지 이어받기)
+     */
+    @GetMapping("/folder-children")
+    public ResponseEntity<ApiResponse<FolderChildrenResponseDto>> getFolderChildren(
+            @RequestParam String bucketName,
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "1000") int pageSize
+    ) {
+        FolderChildrenResponseDto children = s3Service.listFolderChildren(bucketName, prefix, cursor, pageSize);
+        return ResponseEntity.ok(ApiResponse.success("폴더 하위 항목 조회 성공", children));
+    }
+
     @GetMapping("/get-bucket-objects")
     public ResponseEntity<ApiResponse<Object>> getBucketObjects(@AuthenticationPrincipal CustomUserDetails userDetails,
                                                                 @RequestParam String bucketName,
@@ -163,11 +203,40 @@ public class S3Controller {
         UserEntity user = userRepository.findByEmail(userDetails.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
 
-        Object res = new ObjectMapper().readValue(s3Service.getBucketAndObjectsInfoAsJson(bucketName, prefix), Object.class);
+        Object res = bucketObjectIndexService.getBucketObjects(bucketName, prefix);
 
         return ResponseEntity.ok(ApiResponse.success("폴더 트리 조회 성공", res));
     }
 
+    /**
+     * 버킷 객체 트리 스트리밍 조회 (S3 실시간 조회, 페이지가 도착하는 대로 응답에 기록)
+     * 응답 형식은 get-bucket-objects 와 같다.
+     */
+    @GetMapping("/get-bucket-objects/stream")
+    public ResponseEntity<StreamingResponseBody> streamBucketObjects(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                     @RequestParam String bucketName,
+                                                                     @RequestParam(required = false, defaultValue = "") String prefix,
+                                                                     HttpServletRequest request) {
+        // 응답을 쓰기 시작하면 상태 코드를 바꿀 수 없으므로 버킷 확인은 미리 한다.
+        BucketEntity bucket = s3Service.findBucketByNameOrThrow(bucketName);
+
+        // 전역 비동기 타임아웃 대신 이 응답에만 긴 타임아웃 적용 (비동기 처리 시작 시 반영됨)
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(streamTimeoutMs);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", "폴더 트리 조회 성공");
+                generator.writeFieldName("result");
+                s3Service.writeBucketAndObjectsInfo(bucket, prefix, generator);
+                generator.writeNullField("errorCode");
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PutMapping("/set-currentUsed-bucket/{bucketId}")
     public ResponseEntity<ApiResponse<Void>> assignBucket(
             @AuthenticationPrincipal CustomUserDetails userDetails,
@@ -201,24 +270,62 @@ public class S3Controller {
             @RequestParam String bucketName,
             @AuthenticationPrincipal CustomUserDetails userDetails
     ) {
-        s3Service.initializeS3Client(bucketName);
-
-        long usedSize = s3Service.calculateTotalSize(bucketName);
+        BucketUsageDto usage = bucketObjectIndexService.getBucketUsage(bucketName);
 
         Map<String, Object> result = new HashMap<>();
-        result.put("usedSize", usedSize); // byte 단위
+        result.put("usedSize", usage.getUsedSize()); // byte 단위
+        result.put("objectCount", usage.getObjectCount());
+        result.put("updatedAt", usage.getUpdatedAt()); // 집계 갱신 시각
+        result.put("stale", usage.isStale());
 
         return ResponseEntity.ok(ApiResponse.success("버킷 사용량 조회 성공", result));
     }
 
+    @GetMapping("/bucket-usage/prefixes")
+    public ResponseEntity<ApiResponse<List<BucketUsageDto>>> getBucketPrefixUsage(
+            @RequestParam String bucketName,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        List<BucketUsageDto> result = bucketObjectIndexService.getPrefixUsage(bucketName);
+        return ResponseEntity.ok(ApiResponse.success("prefix 별 사용량 조회 성공", result));
+    }
+
     @GetMapping("/get-files-under-folder")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getFilesUnderFolder(
             @RequestParam String bucketName,
             @RequestParam(required = false, defaultValue = "") String prefix
     ) throws Exception {
-        List<Map<String, Object>> files = s3Service.getAllFilesUnderFolder(bucketName, prefix);
+        List<Map<String, Object>> files = bucketObjectIndexService.getFilesUnderFolder(bucketName, prefix);
         return ResponseEntity.ok(ApiResponse.success("폴더 내 파일 조회 성공", files));
     }
 
+    /**
+     * 버킷 객체 인덱스 동기화 요청 (백그라운드)
+     */
+    @PostMapping("/index/sync")
+    public ResponseEntity<ApiResponse<BucketIndexStatusDto>> syncBucketIndex(@RequestParam String bucketName) {
+        return ResponseEntity.ok(ApiResponse.success("버킷 인덱스 동기화 요청 성공", bucketObjectIndexService.requestSync(bucketName)));
+    }
+
+    @GetMapping("/index/status")
+    public ResponseEntity<ApiResponse<BucketIndexStatusDto>> getBucketIndexStatus(@RequestParam String bucketName) {
+        return ResponseEntity.ok(ApiResponse.success("버킷 인덱스 상태 조회 성공", bucketObjectIndexService.getStatus(bucketName)));
+    }
+
+    /**
+     * 버킷 클라이언트 캐시 및 커넥션 풀 지표 조회
+     */
+    @GetMapping("/client-registry/stats")
+    public ResponseEntity<ApiResponse<S3ClientRegistryStatsDto>> getClientRegistryStats() {
+        return ResponseEntity.ok(ApiResponse.success("S3 클라이언트 지표 조회 성공", s3ClientRegistry.getStats()));
+    }
+
+    /**
+     * 로컬 객체 캐시 지표 조회 (적중률, 삭제 횟수 등)
+     */
+    @GetMapping("/object-cache/stats")
+    public ResponseEntity<ApiResponse<S3ObjectCacheStatsDto>> getObjectCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("객체 캐시 지표 조회 성공", s3ObjectCacheService.getStats()));
+    }
 
 }
\ No newline at end of file
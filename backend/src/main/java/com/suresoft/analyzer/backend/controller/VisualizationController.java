@@ -7,15 +7,24 @@ import com.suresoft.analyzer.backend.dto.visualization.response.*;
 import com.suresoft.analyzer.backend.entity.auth.UserEntity;
 import com.suresoft.analyzer.backend.exception.ApiException;
 import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import com.suresoft.analyzer.backend.mqtt.VisualizationMqttIngestor;
 import com.suresoft.analyzer.backend.repository.auth.UserRepository;
 import com.suresoft.analyzer.backend.repository.storage.UploadFileRepository;
 import com.suresoft.analyzer.backend.security.CustomUserDetails;
+import com.suresoft.analyzer.backend.service.visualization.RRDStreamService;
+import com.suresoft.analyzer.backend.service.visualization.RRDTieringService;
+import com.suresoft.analyzer.backend.service.visualization.VisualizationJobScheduler;
 import com.suresoft.analyzer.backend.service.visualization.VisualizationService;
+import com.suresoft.analyzer.backend.service.visualization.VisualizationWorkerPool;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 
@@ -24,6 +33,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class VisualizationController {
     private final VisualizationService visualizationService;
+    private final VisualizationJobScheduler visualizationJobScheduler;
+    private final VisualizationWorkerPool visualizationWorkerPool;
+    private final VisualizationMqttIngestor visualizationMqttIngestor;
+    private final MqttPublisher mqttPublisher;
+    private final RRDStreamService rrdStreamService;
+    private final RRDTieringService rrdTieringService;
     private final UploadFileRepository uploadFileRepository;
     private final UserRepository userRepository;
 
@@ -42,11 +57,133 @@ public class VisualizationController {
     @PostMapping("/start")
     public ResponseEntity<ApiResponse<String>> startVisualization(@AuthenticationPrincipal CustomUserDetails userDetails, @RequestBody StartVisualizationRequestDto dto){
         String userId = userDetails.getUserId();
-        String message = visualizationService.startVisualizationProcess(userId,dto.getProjectId(),dto.getBlueprints());
+        String message = visualizationService.startVisualizationProcess(userId,dto.getProjectId(),dto.getPriority(),dto.getBlueprints());
 
         return ResponseEntity.ok(ApiResponse.success("시각화 파일 처리 시작",message));
     }
 
+    /**
+     *
+     * @param userDetails Request 요청 보낸 사용자 정보
+     * @return 사용자의 최근 시각화 작업 (대기 중이면 대기 순번과 예상 대기 시간 포함)
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<ApiResponse<List<VisualizationJobResponseDto>>> getMyVisualizationJobs(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        List<VisualizationJobResponseDto> jobs = visualizationJobScheduler.getUserJobs(userDetails.getUserId());
+        return ResponseEntity.ok(ApiResponse.success("시각화 작업 목록 조회 성공", jobs));
+    }
+
+    /**
+     *
+     * @param jobId 실패 / 취소된 시각화 작업 ID
+     * @return 대기열에 다시 등록된 작업 (마지막으로 완료된 세그먼트 다음부터 처리)
+     */
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<ApiResponse<VisualizationJobResponseDto>> resumeVisualizationJob(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable String jobId) {
+        VisualizationJobResponseDto job = visualizationJobScheduler.resume(userDetails.getUserId(), jobId);
+        return ResponseEntity.ok(ApiResponse.success("시각화 작업 재개 요청 성공", job));
+    }
+
+    /**
+     *
+     * @param jobId 대기 / 실행 중인 시각화 작업 ID
+     * @return 취소된 작업 (실행 중이었다면 컨테이너가 종료되면 CANCELLED, 완료된 세그먼트는 유지)
+     */
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<ApiResponse<VisualizationJobResponseDto>> cancelVisualizationJob(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable String jobId) {
+        VisualizationJobResponseDto job = visualizationJobScheduler.cancel(userDetails.getUserId(), jobId);
+        return ResponseEntity.ok(ApiResponse.success("시각화 작업 취소 요청 성공", job));
+    }
+
+    @GetMapping("/jobs/scheduler")
+    public ResponseEntity<ApiResponse<VisualizationSchedulerStatsDto>> getSchedulerStats() {
+        return ResponseEntity.ok(ApiResponse.success("시각화 스케줄러 상태 조회 성공", visualizationJobScheduler.getStats()));
+    }
+
+    /**
+     * 워커 전용 : 작업 메시지의 일회용 token 을 버킷 자격 증명으로 교환 (token 으로 인증하므로 로그인 없이 호출)
+     * @return 자격 증명 (Base64 JSON, --credential 과 같은 형식)
+     */
+    @PostMapping("/worker/credential")
+    public ResponseEntity<ApiResponse<String>> exchangeWorkerCredential(@RequestBody WorkerCredentialRequestDto dto) {
+        String credential = visualizationWorkerPool.exchangeCredential(dto.getWorkerId(), dto.getJobId(), dto.getToken());
+        return ResponseEntity.ok(ApiResponse.success("워커 자격 증명 발급 성공", credential));
+    }
+
+    @GetMapping("/workers")
+    public ResponseEntity<ApiResponse<List<VisualizationWorkerDto>>> getWorkers() {
+        return ResponseEntity.ok(ApiResponse.success("시각화 워커 상태 조회 성공", visualizationWorkerPool.getWorkers()));
+    }
+
+    /**
+     * @return 컨테이너 진행 메시지 처리 대기열 상태 (지연 / 처리량 / backpressure)
+     */
+    @GetMapping("/ingestion")
+    public ResponseEntity<ApiResponse<VisualizationIngestionStatsDto>> getIngestionStats() {
+        return ResponseEntity.ok(ApiResponse.success("시각화 메시지 처리 상태 조회 성공", visualizationMqttIngestor.getStats()));
+    }
+
+    /**
+     * @return MQTT 발행 대기열 상태 (in-flight / 합친 progress / 버린 메시지)
+     */
+    @GetMapping("/mqtt-publisher")
+    public ResponseEntity<ApiResponse<MqttPublisherStatsDto>> getMqttPublisherStats() {
+        return ResponseEntity.ok(ApiResponse.success("MQTT 발행 상태 조회 성공", mqttPublisher.getStats()));
+    }
+
+    /**
+     * @return 뷰어 iframe 이 /rrd/** 요청에 붙일 프로젝트 단위 token (소유자 / 같은 팀 구성원만 발급)
+     */
+    @GetMapping("/project/{projectId}/rrd-token")
+    public ResponseEntity<ApiResponse<RRDStreamTokenResponseDto>> issueRRDStreamToken(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable String projectId) {
+        return ResponseEntity.ok(ApiResponse.success("RRD token 발급 성공", rrdStreamService.issueToken(userDetails.getUserId(), projectId)));
+    }
+
+    /**
+     * @param fromUs 구간 시작 (프로젝트 시작 기준 us, 없으면 처음부터)
+     * @param toUs   구간 끝 (없으면 끝까지)
+     * @return 구간과 겹치는 세그먼트의 시간 / 크기 / 엔티티 정보
+     */
+    @GetMapping("/project/{projectId}/segments")
+    public ResponseEntity<ApiResponse<RRDSegmentManifestResponseDto>> getSegmentManifest(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                                          @PathVariable String projectId,
+                                                                                          @RequestParam(required = false) Long fromUs,
+                                                                                          @RequestParam(required = false) Long toUs) {
+        RRDSegmentManifestResponseDto manifest = visualizationService.getSegmentManifest(userDetails.getUserId(), projectId, fromUs, toUs);
+        return ResponseEntity.ok(ApiResponse.success("세그먼트 manifest 조회 성공", manifest));
+    }
+
+    /**
+     * RRD 세그먼트 전송 (Range / 조건부 요청 지원)
+     * @param path  RRD 루트 기준 경로 ({userId}/{projectId}/... 또는 teams/{teamId}/...)
+     * @param token Authorization 헤더 대신 쓰는 프로젝트 token
+     */
+    @GetMapping("/rrd/{*path}")
+    public void streamRRD(@AuthenticationPrincipal CustomUserDetails userDetails,
+                          @PathVariable String path,
+                          @RequestParam(required = false) String token,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        String userId = userDetails != null ? userDetails.getUserId() : null;
+        rrdStreamService.stream(userId, token, path.startsWith("/") ? path.substring(1) : path, request, response);
+    }
+
+    /**
+     * @return 프로젝트별 RRD 전송량 (많은 순)
+     */
+    @GetMapping("/rrd-bandwidth")
+    public ResponseEntity<ApiResponse<List<RRDBandwidthDto>>> getRRDBandwidth() {
+        return ResponseEntity.ok(ApiResponse.success("RRD 전송량 조회 성공", rrdStreamService.getBandwidth()));
+    }
+
+    /**
+     * @return RRD 로컬 사용량 / 버킷 보관 / 복원 현황
+     */
+    @GetMapping("/rrd-tiering")
+    public ResponseEntity<ApiResponse<RRDTieringStatsDto>> getRRDTieringStats() {
+        return ResponseEntity.ok(ApiResponse.success("RRD 계층 저장 현황 조회 성공", rrdTieringService.getStats()));
+    }
+
     @GetMapping("/rrd-files")
     public ResponseEntity<ApiResponse<List<RRDFileResponseDto>>> getRRDFiles(@RequestParam String projectId) {
 
@@ -0,0 +1,17 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BucketIndexStatusDto {
+    private String bucketName;
+    private EBucketIndexStatus status;
+    private long objectCount;
+    private long totalSize;
+    private LocalDateTime lastSyncedAt;
+    private String lastError;
+}
@@ -0,0 +1,16 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BucketUsageDto {
+    private String prefix; // 버킷 전체 사용량이면 null
+    private long usedSize; // byte 단위
+    private long objectCount;
+    private LocalDateTime updatedAt; // 마지막으로 집계가 갱신된 시각
+    private boolean stale; // 백그라운드 재계산 대기 중 여부
+}
@@ -0,0 +1,8 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+public enum EBucketIndexStatus {
+    NOT_INDEXED,
+    SYNCING,
+    READY,
+    FAILED
+}
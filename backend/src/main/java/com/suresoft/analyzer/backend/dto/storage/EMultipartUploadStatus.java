@@ -0,0 +1,7 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+public enum EMultipartUploadStatus {
+    IN_PROGRESS, // 파트 업로드 중 (중단 후 재개 가능)
+    COMPLETED,   // S3 병합 완료 + 업로드 파일 등록 완료
+    ABORTED      // 사용자 취소 또는 만료
+}
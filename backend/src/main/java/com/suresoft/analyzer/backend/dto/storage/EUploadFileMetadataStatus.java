@@ -0,0 +1,8 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+public enum EUploadFileMetadataStatus {
+    PENDING,     // 등록 직후, 메타데이터 확인 대기
+    COMPLETED,
+    FAILED,
+    UNSUPPORTED  // 헤더로 알 수 없는 형식
+}
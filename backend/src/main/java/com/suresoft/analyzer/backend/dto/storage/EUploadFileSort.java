@@ -0,0 +1,6 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+public enum EUploadFileSort {
+    CREATED_AT, // 기본 : 최신순
+    NAME        // 기본 : 이름 오름차순
+}
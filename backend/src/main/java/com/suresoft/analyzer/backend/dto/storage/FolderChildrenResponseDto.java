@@ -0,0 +1,18 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class FolderChildrenResponseDto {
+    private String prefix; // 조회한 폴더 경로 ("" 이면 루트)
+    private List<TreeFolderNodeDto<Void>> folders; // 바로 아래 폴더 (children 은 펼칠 때 조회)
+    private List<TreeFolderNodeDto<Map<String, Object>>> files; // 바로 아래 파일
+    private String nextCursor; // 다음 페이지 조회용 커서 (없으면 null)
+    private boolean hasMore;
+}
@@ -0,0 +1,12 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MultipartPartDto {
+    private int partNumber;
+    private String etag;
+    private long size;
+}
@@ -0,0 +1,22 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class MultipartUploadDto {
+    private String id;
+    private String bucketId;
+    private String path;
+    private String name;
+    private long fileSize;
+    private long partSize;
+    private int partCount;
+    private EMultipartUploadStatus status;
+    private List<MultipartPartDto> uploadedParts;
+    private List<Integer> missingPartNumbers; // 재개 시 업로드해야 할 파트
+    private String uploadFileId; // 완료 후 등록된 업로드 파일 id
+}
@@ -0,0 +1,14 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class PresignedPartUrlDto {
+    private int partNumber;
+    private String url; // 클라이언트가 파트 바이트를 PUT 할 주소
+    private Instant expiresAt;
+}
@@ -0,0 +1,17 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class S3ClientRegistryStatsDto {
+    private int cachedClients; // 현재 캐시된 버킷 클라이언트 수
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int maxConnections; // 공유 커넥션 풀 최대 크기
+    private int leasedConnections; // 최근 요청 기준 사용 중인 커넥션 수
+    private int pendingAcquires; // 최근 요청 기준 커넥션 대기 수
+    private int availableConnections;
+}
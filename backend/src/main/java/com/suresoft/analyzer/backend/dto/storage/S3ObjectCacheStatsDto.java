@@ -0,0 +1,18 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class S3ObjectCacheStatsDto {
+    private int cachedObjects; // 현재 디스크에 캐시된 객체 수
+    private long usedBytes;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private double hitRate; // hits / (hits + misses)
+    private long evictions;
+    private long evictedBytes;
+    private long downloadedBytes; // 캐시 미스로 S3 에서 받은 누적 용량
+}
@@ -0,0 +1,14 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UploadFileCatalogPageDto {
+    private List<UploadFileDto> files;
+    private String nextCursor; // 다음 페이지 조회용 커서 (없으면 null)
+    private boolean hasMore;
+}
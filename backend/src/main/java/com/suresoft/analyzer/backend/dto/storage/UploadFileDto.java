@@ -16,4 +16,7 @@ public class UploadFileDto {
     private String parserId;
     private Long timestamp;
     private String dbcFileId;
+    private Long durationMicro;
+    private Long fileSize;
+    private EUploadFileMetadataStatus metadataStatus;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.suresoft.analyzer.backend.dto.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UploadFileMetadataProgressDto {
+    private int queued; // 대기 중인 파일 수
+    private int running; // 확인 중인 파일 수
+    private long completed;
+    private long unsupported;
+    private long failed;
+    private long bytesRead; // ranged GET 으로 읽은 누적 바이트
+}
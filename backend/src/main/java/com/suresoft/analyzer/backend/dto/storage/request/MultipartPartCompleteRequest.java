@@ -0,0 +1,11 @@
+package com.suresoft.analyzer.backend.dto.storage.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MultipartPartCompleteRequest {
+    private String etag; // 파트 PUT 응답의 ETag 헤더
+    private long size;
+}
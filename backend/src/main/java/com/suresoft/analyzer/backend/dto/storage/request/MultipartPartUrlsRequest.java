@@ -0,0 +1,12 @@
+package com.suresoft.analyzer.backend.dto.storage.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class MultipartPartUrlsRequest {
+    private List<Integer> partNumbers; // 1부터 시작
+}
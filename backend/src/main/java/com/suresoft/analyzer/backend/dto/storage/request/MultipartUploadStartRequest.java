@@ -0,0 +1,19 @@
+package com.suresoft.analyzer.backend.dto.storage.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MultipartUploadStartRequest {
+    // 완료 시 등록할 업로드 파일 정보 (UploadFileCreateRequest 와 동일)
+    private String name;
+    private String path;
+    private String bucketId;
+    private String parserId;
+    private String dbcFileId;
+
+    private long fileSize; // byte 단위
+    private Long partSize; // 생략하면 서버 기본값
+    private String contentType;
+}
@@ -1,5 +1,6 @@
 package com.suresoft.analyzer.backend.dto.storage.request;
 
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileSort;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,6 +12,9 @@ public class UploadFileFilterRequestDto {
     private String keyword;
     private List<String> extensionIds;
     private List<String> parserIds;
-}
-
 
+    private EUploadFileSort sort = EUploadFileSort.CREATED_AT;
+    private Boolean ascending; // null 이면 정렬 기준별 기본값 (생성일 : 내림차순, 이름 : 오름차순)
+    private String cursor; // 이전 페이지 응답의 nextCursor
+    private int pageSize = 100;
+}
@@ -0,0 +1,8 @@
+package com.suresoft.analyzer.backend.dto.visualization;
+
+public enum ERrdStorageTier {
+    // env.path/rrd/{user}/{project} 에 있음
+    LOCAL,
+    // 버킷에 압축본만 있음 (다음 조회 시 복원)
+    ARCHIVED
+}
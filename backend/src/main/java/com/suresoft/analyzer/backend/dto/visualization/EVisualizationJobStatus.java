@@ -0,0 +1,9 @@
+package com.suresoft.analyzer.backend.dto.visualization;
+
+public enum EVisualizationJobStatus {
+    QUEUED, // 실행 슬롯 / 자원 대기
+    RUNNING, // 컨테이너 실행 중
+    COMPLETED,
+    FAILED,
+    CANCELLED // 사용자 취소 / 프로젝트 삭제 / 새 작업에 선점 (완료된 세그먼트는 유지)
+}
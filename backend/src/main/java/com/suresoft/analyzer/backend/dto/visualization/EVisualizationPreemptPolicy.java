@@ -0,0 +1,13 @@
+package com.suresoft.analyzer.backend.dto.visualization;
+
+/**
+ * 새 시각화 요청이 기존 작업을 취소(선점)하는 범위 (visualization.scheduler.preempt-policy)
+ */
+public enum EVisualizationPreemptPolicy {
+    // 선점하지 않음 (같은 프로젝트에 대기 / 실행 중인 작업이 있으면 그 작업을 반환)
+    NONE,
+    // 같은 프로젝트를 다른 청사진으로 다시 시작하면 이전 작업을 취소
+    SAME_PROJECT,
+    // SAME_PROJECT + 사용자별 동시 실행 수가 차 있으면 그 사용자의 가장 오래 실행 중인 작업 (우선순위가 같거나 낮은) 을 취소
+    SAME_USER
+}
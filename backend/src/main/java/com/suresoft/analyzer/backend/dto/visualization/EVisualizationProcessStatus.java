@@ -3,5 +3,6 @@ package com.suresoft.analyzer.backend.dto.visualization;
 public enum EVisualizationProcessStatus {
     NOT_STARTED,
     PROCESSING,
-    COMPLETE
+    COMPLETE,
+    CANCELLED // 처리 중 취소 (완료된 세그먼트까지만 볼 수 있음)
 }
@@ -18,6 +18,8 @@ public class FileMetadataDto {
     private String entityName;
     private String dbcFileName;
     private List<SelectedSignalDto> selectedSignals;
+    private String localPath; // 공유 객체 캐시에 받아둔 파일의 컨테이너 기준 경로 (없으면 S3 직접 조회)
+    private String artifactKey; // 엔티티 RRD 재사용 키 (컨테이너가 시간 오프셋을 더해 최종 키를 만든다)
 
     @Getter
     @AllArgsConstructor
@@ -12,5 +12,6 @@ import java.util.List;
 public class StartVisualizationRequestDto {
     private String projectId;
     private int rrdFileCount;
+    private Integer priority; // 클수록 먼저 실행 (-10 ~ 10, 기본 0)
     private List<CreateProjectBlueprintSettingRequest> blueprints;
 }
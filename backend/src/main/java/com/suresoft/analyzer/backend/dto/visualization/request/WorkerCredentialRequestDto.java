@@ -0,0 +1,13 @@
+package com.suresoft.analyzer.backend.dto.visualization.request;
+
+import lombok.Getter;
+
+/**
+ * 워커가 작업 메시지로 받은 일회용 token 을 버킷 자격 증명으로 교환할 때 보내는 요청
+ */
+@Getter
+public class WorkerCredentialRequestDto {
+    private String workerId;
+    private String jobId;
+    private String token;
+}
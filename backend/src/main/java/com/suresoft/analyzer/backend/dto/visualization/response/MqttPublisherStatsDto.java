@@ -0,0 +1,20 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MqttPublisherStatsDto {
+    private boolean connected;
+    private int queueDepth; // 발행 대기 중인 메시지 수
+    private int queueCapacity;
+    private int inflight; // 브로커 응답을 기다리는 메시지 수
+    private int maxInflight;
+    private long requested; // publish 호출 수
+    private long published;
+    private long coalesced; // 대기 중인 progress 에 합쳐져 따로 보내지 않은 메시지 수
+    private long dropped; // 대기열이 가득 차 버린 progress 수
+    private long rejected; // 대기열에 자리가 나지 않아 실패 처리한 STATUS / COMMAND 수
+    private long failed;
+}
@@ -0,0 +1,16 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RRDBandwidthDto {
+    private String projectId; // 프로젝트를 알 수 없는 팀 공유 RRD 는 teams/{teamId}
+    private long bytesSent;
+    private long requests;
+    private long rangeResponses; // 206 응답 수
+    private long notModifiedResponses; // 304 응답 수
+    private long compressedResponses; // gzip 으로 보낸 응답 수
+    private long lastAccessMillis;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 @AllArgsConstructor
@@ -13,4 +15,5 @@ public class RRDFileResponseDto {
     private String id;
     private String name;
     private String rrdUrl;
+    private List<String> entityRrdUrls; // 뷰어에서 rrdUrl 과 함께 불러올 엔티티별 RRD
 }
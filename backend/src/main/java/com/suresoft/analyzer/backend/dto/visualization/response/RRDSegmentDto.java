@@ -0,0 +1,20 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RRDSegmentDto {
+    private String id;
+    private Integer segmentIndex;
+    private String name;
+    private Long startUs; // 프로젝트 시작 기준
+    private Long endUs;
+    private Long byteSize; // 프로젝트 세그먼트 + 엔티티별 RRD 합
+    private String rrdUrl;
+    private List<String> entityRrdUrls;
+    private List<String> entityNames;
+}
@@ -0,0 +1,16 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RRDSegmentManifestResponseDto {
+    private String projectId;
+    private long durationUs; // 마지막 세그먼트 끝 (탐색 막대 길이)
+    private long segmentCount; // 전체 세그먼트 수
+    private long totalBytes;
+    private List<RRDSegmentDto> segments; // 요청 구간과 겹치는 세그먼트 (시간 순)
+}
@@ -0,0 +1,11 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RRDStreamTokenResponseDto {
+    private String token; // /api/visualization/rrd/** 요청에 ?token= 으로 붙인다. (뷰어 iframe 은 Authorization 헤더를 보낼 수 없음)
+    private long expiresAt; // epoch millis
+}
@@ -0,0 +1,22 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RRDTieringStatsDto {
+    private long quotaBytes;
+    private long localBytes; // 마지막 검사 시 로컬 RRD 전체 (팀 공유 RRD 포함)
+    private long teamBytes; // 그중 팀 공유 엔티티 RRD (참조하는 프로젝트가 모두 보관되면 함께 내림)
+    private int archivedProjects;
+    private int archivedArtifacts; // 버킷에 보관된 팀 공유 엔티티 RRD
+    private long archives; // 버킷으로 내린 횟수
+    private long archiveUploadsSkipped; // 버킷 압축본이 최신이라 업로드 없이 로컬만 지운 횟수
+    private long restores;
+    private long restoreMillis; // 복원에 걸린 누적 시간
+    private long reclaimedBytes; // 삭제된 프로젝트 / 참조가 없어진 팀 공유 RRD 에서 회수한 로컬 용량
+    private long reclaimedArtifacts; // 참조가 없어져 회수한 팀 공유 엔티티 RRD
+    private long failures;
+    private long lastScanMillis; // 마지막 검사 시각 (epoch millis)
+}
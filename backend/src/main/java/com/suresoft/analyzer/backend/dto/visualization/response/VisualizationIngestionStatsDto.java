@@ -0,0 +1,24 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VisualizationIngestionStatsDto {
+    private int queueDepth; // 처리 대기 중인 메시지 수
+    private int queueCapacity;
+    private long received;
+    private long processed;
+    private long rejected; // 프로젝트가 없거나 소유자가 다른 메시지
+    private long failed; // 저장 / 발행 중 오류
+    private long batches;
+    private long insertedRows; // RRD_FILE 에 저장한 세그먼트 수
+    private double averageBatchSize;
+    private long backpressureEvents; // 대기열이 가득 차 MQTT 콜백 스레드가 기다린 횟수
+    private long blockedMillis; // 그동안 기다린 누적 시간
+    private long lastLagMillis; // 마지막 배치의 수신 → 처리 완료 지연 (가장 오래 기다린 메시지 기준)
+    private long maxLagMillis;
+    private double throughputPerSecond; // 최근 처리량
+    private int cachedProjects; // 소유자를 캐시한 프로젝트 수
+}
@@ -0,0 +1,25 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class VisualizationJobResponseDto {
+    private String jobId;
+    private String projectId;
+    private EVisualizationJobStatus status;
+    private int priority;
+    private Integer queuePosition; // 전체 대기열 기준 순번 (1부터, 대기 중일 때만)
+    private Long waitedMillis; // 요청 후 실행까지 (대기 중이면 지금까지) 기다린 시간
+    private Long estimatedWaitMillis; // 실행 시작까지 예상 대기 시간 (대기 중일 때만)
+    private String errorMessage;
+    private int completedSegments; // 완료된 세그먼트 수 (재개 시작 위치)
+    private int resumeCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,22 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VisualizationSchedulerStatsDto {
+    private int queued;
+    private int running;
+    private int maxConcurrent;
+    private int maxPerUser;
+    private double usedCpus; // 실행 중인 컨테이너에 할당한 CPU 합
+    private double hostCpus;
+    private long usedMemoryMb;
+    private long hostMemoryMb; // 컨테이너에 할당 가능한 메모리 (예약분 제외)
+    private long averageRunMillis; // 최근 실행 시간 평균 (예상 대기 시간 계산에 사용)
+    private String preemptPolicy;
+    private int cancelling; // 컨테이너 종료를 기다리는 작업 수
+    private long cancelled; // 취소한 작업 수 (선점 포함)
+    private long preempted; // 새 작업에 선점된 작업 수
+}
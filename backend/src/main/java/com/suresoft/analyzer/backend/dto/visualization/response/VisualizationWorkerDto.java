@@ -0,0 +1,14 @@
+package com.suresoft.analyzer.backend.dto.visualization.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VisualizationWorkerDto {
+    private String workerId;
+    private String state; // STARTING, IDLE, BUSY, DEAD
+    private String jobId; // 처리 중인 작업 (없으면 null)
+    private long lastHeartbeatAgoMillis;
+    private int restarts;
+}
@@ -0,0 +1,56 @@
+package com.suresoft.analyzer.backend.entity.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EBucketIndexStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "BUCKET_INDEX_STATE")
+public class BucketIndexStateEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bucket_id", nullable = false, unique = true)
+    private BucketEntity bucket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EBucketIndexStatus status = EBucketIndexStatus.NOT_INDEXED;
+
+    @Column(name = "bucket_owner")
+    private String bucketOwner;
+
+    @Column(name = "object_count", nullable = false)
+    private long objectCount;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "last_sync_started_at")
+    private LocalDateTime lastSyncStartedAt;
+
+    // 마지막으로 전체 동기화가 성공한 시각
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    // 사용량(objectCount, totalSize)이 마지막으로 갱신된 시각 (prefix 단위 재계산 포함)
+    @Column(name = "usage_updated_at")
+    private LocalDateTime usageUpdatedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public BucketIndexStateEntity(BucketEntity bucket) {
+        this.bucket = bucket;
+    }
+}
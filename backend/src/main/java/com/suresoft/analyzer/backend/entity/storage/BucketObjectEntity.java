@@ -0,0 +1,65 @@
+package com.suresoft.analyzer.backend.entity.storage;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * 버킷 객체 인덱스
+ * - folder = false : 실제 S3 객체 (폴더 마커 포함)
+ * - folder = true  : 객체 키에서 파생된 폴더(prefix)
+ * object_key 는 "C" collation 으로 저장하여 S3 목록 순서(바이트 순)와 동일하게 정렬되고,
+ * prefix 범위 조회가 (bucket_id, object_key) 인덱스를 그대로 탈 수 있도록 한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "BUCKET_OBJECT",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bucket_object_key", columnNames = {"bucket_id", "object_key", "folder"}),
+        indexes = @Index(name = "idx_bucket_object_parent", columnList = "bucket_id, parent_prefix, folder"))
+public class BucketObjectEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bucket_id", nullable = false)
+    private BucketEntity bucket;
+
+    @Column(name = "object_key", nullable = false, columnDefinition = "varchar(1024) COLLATE \"C\"")
+    private String objectKey;
+
+    // 상위 폴더 경로 ("a/b/"), 루트는 ""
+    @Column(name = "parent_prefix", nullable = false, columnDefinition = "varchar(1024) COLLATE \"C\"")
+    private String parentPrefix;
+
+    @Column(name = "name", nullable = false, length = 1024)
+    private String name;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    @Column(name = "folder", nullable = false)
+    private boolean folder;
+
+    @Column(name = "object_size", nullable = false)
+    private long size;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
+    @Column(name = "indexed_at", nullable = false)
+    private LocalDateTime indexedAt;
+}
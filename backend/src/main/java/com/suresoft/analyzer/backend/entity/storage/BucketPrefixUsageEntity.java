@@ -0,0 +1,45 @@
+package com.suresoft.analyzer.backend.entity.storage;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 버킷 최상위 prefix(녹화 세션 폴더)별 사용량
+ * prefix 는 "session/" 형태이며, 루트에 바로 있는 객체는 "" 로 집계한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "BUCKET_PREFIX_USAGE",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bucket_prefix_usage", columnNames = {"bucket_id", "prefix"}))
+public class BucketPrefixUsageEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bucket_id", nullable = false)
+    private BucketEntity bucket;
+
+    @Column(name = "prefix", nullable = false, columnDefinition = "varchar(1024) COLLATE \"C\"")
+    private String prefix;
+
+    @Column(name = "object_count", nullable = false)
+    private long objectCount;
+
+    @Column(name = "total_bytes", nullable = false)
+    private long totalBytes;
+
+    // 업로드 파일 등록 등으로 S3 와 달라졌을 수 있어 백그라운드 재계산이 필요한 상태
+    @Column(name = "stale", nullable = false)
+    private boolean stale;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,84 @@
+package com.suresoft.analyzer.backend.entity.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EMultipartUploadStatus;
+import com.suresoft.analyzer.backend.entity.auth.UserEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 진행 중인 S3 멀티파트 업로드
+ * 완료 시 등록할 업로드 파일 정보(name, parser, dbc)를 함께 보관한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "MULTIPART_UPLOAD")
+public class MultipartUploadEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bucket_id", nullable = false)
+    private BucketEntity bucket;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    @Column(name = "object_key", nullable = false, length = 1024)
+    private String objectKey;
+
+    // S3 CreateMultipartUpload 가 발급한 uploadId
+    @Column(name = "s3_upload_id", nullable = false, length = 1024)
+    private String s3UploadId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "parser_id")
+    private String parserId;
+
+    @Column(name = "dbc_file_id")
+    private String dbcFileId;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "part_size", nullable = false)
+    private long partSize;
+
+    @Column(name = "part_count", nullable = false)
+    private int partCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EMultipartUploadStatus status = EMultipartUploadStatus.IN_PROGRESS;
+
+    // 완료 후 등록된 업로드 파일 id
+    @Column(name = "upload_file_id")
+    private String uploadFileId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
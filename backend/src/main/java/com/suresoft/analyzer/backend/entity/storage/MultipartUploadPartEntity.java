@@ -0,0 +1,45 @@
+package com.suresoft.analyzer.backend.entity.storage;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "MULTIPART_UPLOAD_PART",
+        uniqueConstraints = @UniqueConstraint(name = "uk_multipart_upload_part", columnNames = {"upload_id", "part_number"}))
+public class MultipartUploadPartEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false)
+    private MultipartUploadEntity upload;
+
+    @Column(name = "part_number", nullable = false)
+    private int partNumber;
+
+    @Column(name = "etag", nullable = false)
+    private String etag;
+
+    @Column(name = "part_size", nullable = false)
+    private long size;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    public MultipartUploadPartEntity(MultipartUploadEntity upload, int partNumber, String etag, long size) {
+        this.upload = upload;
+        this.partNumber = partNumber;
+        this.etag = etag;
+        this.size = size;
+        this.uploadedAt = LocalDateTime.now();
+    }
+}
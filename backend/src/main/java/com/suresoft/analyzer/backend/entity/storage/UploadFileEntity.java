@@ -1,5 +1,6 @@
 package com.suresoft.analyzer.backend.entity.storage;
 
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileMetadataStatus;
 import com.suresoft.analyzer.backend.entity.system.ParserEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -12,7 +13,13 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "UPLOAD_FILE")
+@Table(name = "UPLOAD_FILE",
+        indexes = {
+                @Index(name = "idx_upload_file_s3_url", columnList = "s3_url"),
+                @Index(name = "idx_upload_file_bucket_created", columnList = "bucket_id, created_at, id"),
+                @Index(name = "idx_upload_file_bucket_name", columnList = "bucket_id, name, id"),
+                @Index(name = "idx_upload_file_content_id", columnList = "content_id")
+        })
 public class UploadFileEntity {
 
     @Id
@@ -28,6 +35,28 @@ public class UploadFileEntity {
     @Column(name="timestamp_micro", nullable = true)
     private Long timestampMicro;
 
+    // 헤더 / 마지막 레코드 기준 기록 길이 (마이크로초)
+    @Column(name="duration_micro", nullable = true)
+    private Long durationMicro;
+
+    @Column(name="file_size", nullable = true)
+    private Long fileSize;
+
+    // 내용 식별자 (ETag + 크기), 같은 내용의 파일은 처리 결과를 공유한다. 메타데이터 확인 작업이 채운다.
+    @Column(name="content_id", length = 128, nullable = true)
+    private String contentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="metadata_status", nullable = true)
+    private EUploadFileMetadataStatus metadataStatus = EUploadFileMetadataStatus.PENDING;
+
+    // 메타데이터 확인 실패 횟수와 다음 재시도 시각 (더 이상 재시도하지 않으면 null)
+    @Column(name="metadata_attempts", nullable = true)
+    private Integer metadataAttempts;
+
+    @Column(name="metadata_retry_at", nullable = true)
+    private LocalDateTime metadataRetryAt;
+
     @Column(name="created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,49 @@
+package com.suresoft.analyzer.backend.entity.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.ERrdStorageTier;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 팀 공유 엔티티 RRD 디렉터리의 저장 위치 (로컬 / 버킷 압축본)
+ * 참조하는 프로젝트는 RRD_ARTIFACT_REF 에 기록한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "RRD_ARTIFACT")
+public class RRDArtifactEntity {
+
+    // RRD 루트 기준 디렉터리 (teams/{team}/entities/{key 앞 2자리}/{key})
+    @Id
+    @Column(name = "artifact_dir", length = 512)
+    private String artifactDir;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tier", nullable = false)
+    private ERrdStorageTier tier = ERrdStorageTier.LOCAL;
+
+    // 마지막 검사 시 로컬 디렉터리 크기
+    @Column(name = "local_bytes", nullable = false)
+    private long localBytes;
+
+    @Column(name = "archive_bucket_id")
+    private String archiveBucketId;
+
+    @Column(name = "archive_key", length = 512)
+    private String archiveKey;
+
+    @Column(name = "archive_bytes", nullable = false)
+    private long archiveBytes;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    @Column(name = "restored_at")
+    private LocalDateTime restoredAt;
+}
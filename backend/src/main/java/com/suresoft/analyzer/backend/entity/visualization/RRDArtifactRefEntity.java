@@ -0,0 +1,31 @@
+package com.suresoft.analyzer.backend.entity.visualization;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 프로젝트가 사용하는 팀 공유 엔티티 RRD (세그먼트 저장 시 기록, 프로젝트 회수 시 삭제)
+ * 쓰기는 VisualizationMqttIngestor / RRDTieringService 에서 JdbcTemplate 으로 한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "RRD_ARTIFACT_REF",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rrd_artifact_ref", columnNames = {"project_id", "artifact_dir"}),
+        indexes = @Index(name = "idx_rrd_artifact_ref_dir", columnList = "artifact_dir"))
+public class RRDArtifactRefEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    // 프로젝트가 삭제된 뒤에도 참조를 정리할 수 있도록 id 만 보관
+    @Column(name = "project_id", nullable = false)
+    private String projectId;
+
+    @Column(name = "artifact_dir", nullable = false, length = 512)
+    private String artifactDir;
+}
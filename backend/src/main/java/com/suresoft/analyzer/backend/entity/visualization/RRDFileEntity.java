@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "RRD_FILE")
+@Table(name = "RRD_FILE",
+        // 시간 구간 조회 (start_us < to AND end_us > from)
+        indexes = @Index(name = "idx_rrd_file_project_time", columnList = "visualization_project_id, start_us, end_us"))
 public class RRDFileEntity {
 
     @Id
@@ -25,6 +27,28 @@ public class RRDFileEntity {
     @Column(name="rrd_url", nullable = false, unique = true)
     private String rrdUrl;
 
+    // 같은 세그먼트의 엔티티별 RRD URL (줄바꿈 구분, rrdUrl 과 함께 불러온다) - 엔티티 단위 저장 이전 프로젝트는 null
+    @Column(name="entity_rrd_urls", columnDefinition = "text")
+    private String entityRrdUrls;
+
+    // 세그먼트 manifest (프로젝트 시작 기준 us, 시간 정보 저장 이전 세그먼트는 null)
+    @Column(name="segment_index")
+    private Integer segmentIndex;
+
+    @Column(name="start_us")
+    private Long startUs;
+
+    @Column(name="end_us")
+    private Long endUs;
+
+    // 프로젝트 세그먼트 + 엔티티별 RRD 의 합
+    @Column(name="byte_size")
+    private Long byteSize;
+
+    // 세그먼트에 들어 있는 엔티티 이름 (줄바꿈 구분)
+    @Column(name="entity_names", columnDefinition = "text")
+    private String entityNames;
+
     @Column(name="created_at", nullable = false)
     private LocalDateTime createdAt;
 
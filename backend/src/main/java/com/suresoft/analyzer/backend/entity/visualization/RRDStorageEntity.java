@@ -0,0 +1,60 @@
+package com.suresoft.analyzer.backend.entity.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.ERrdStorageTier;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 프로젝트 RRD 디렉터리의 저장 위치 (로컬 / 버킷 압축본)
+ * 프로젝트가 삭제된 뒤에도 남은 파일을 정리할 수 있도록 프로젝트 id 만 보관한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "RRD_STORAGE",
+        indexes = @Index(name = "idx_rrd_storage_tier_access", columnList = "tier, last_access_at"))
+public class RRDStorageEntity {
+
+    @Id
+    @Column(name = "project_id")
+    private String projectId;
+
+    // 디렉터리 경로 ({user}/{project})
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tier", nullable = false)
+    private ERrdStorageTier tier = ERrdStorageTier.LOCAL;
+
+    // 마지막 검사 시 로컬 디렉터리 크기
+    @Column(name = "local_bytes", nullable = false)
+    private long localBytes;
+
+    @Column(name = "archive_bucket_id")
+    private String archiveBucketId;
+
+    @Column(name = "archive_key", length = 512)
+    private String archiveKey;
+
+    @Column(name = "archive_bytes", nullable = false)
+    private long archiveBytes;
+
+    // 버킷의 압축본이 로컬 내용과 같은지 (복원 후 다시 내릴 때 업로드 생략, 재처리하면 false)
+    @Column(name = "archive_current", nullable = false)
+    private boolean archiveCurrent;
+
+    @Column(name = "last_access_at", nullable = false)
+    private LocalDateTime lastAccessAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    @Column(name = "restored_at")
+    private LocalDateTime restoredAt;
+}
@@ -0,0 +1,98 @@
+package com.suresoft.analyzer.backend.entity.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationJobStatus;
+import com.suresoft.analyzer.backend.entity.auth.UserEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 시각화 컨테이너 실행 요청 (대기열)
+ * 서버가 재시작되어도 대기 중인 요청이 남도록 실행에 필요한 정보(파일 메타데이터 JSON)를 함께 보관한다.
+ * 세그먼트가 끝날 때마다 체크포인트를 기록해 중단된 작업은 마지막으로 완료된 세그먼트 다음부터 다시 실행한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "VISUALIZATION_JOB",
+        indexes = {
+                @Index(name = "idx_visualization_job_status", columnList = "status, priority, created_at"),
+                @Index(name = "idx_visualization_job_project", columnList = "project_id")
+        })
+public class VisualizationJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    // 프로젝트 삭제와 무관하게 이력을 남기도록 id 만 보관
+    @Column(name = "project_id", nullable = false)
+    private String projectId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity user;
+
+    // 엔티티 RRD 를 공유하는 범위 (팀이 없으면 공유하지 않음)
+    @Column(name = "team_id")
+    private String teamId;
+
+    @Column(name = "bucket_id", nullable = false)
+    private String bucketId;
+
+    // 컨테이너에 전달할 FileMetadataDto 목록 (JSON)
+    @Column(name = "file_metadata", nullable = false, columnDefinition = "text")
+    private String fileMetadata;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EVisualizationJobStatus status = EVisualizationJobStatus.QUEUED;
+
+    // 클수록 먼저 실행
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    // 컨테이너에 할당할 자원 (--cpus / --memory)
+    @Column(name = "cpus", nullable = false)
+    private double cpus;
+
+    @Column(name = "memory_mb", nullable = false)
+    private long memoryMb;
+
+    @Column(name = "error_message", length = 1024)
+    private String errorMessage;
+
+    // 마지막으로 완료된 세그먼트 다음 위치 (파일별 읽기 위치, JSON) - 재개 시 컨테이너에 그대로 전달
+    @Column(name = "checkpoint", columnDefinition = "text")
+    private String checkpoint;
+
+    // 완료된 세그먼트 수 (재개 시 이 세그먼트부터 처리)
+    @Column(name = "completed_segments", nullable = false)
+    private int completedSegments;
+
+    // 재개한 횟수 (자동 + 수동)
+    @Column(name = "resume_count", nullable = false)
+    private int resumeCount;
+
+    // 그중 실패 후 자동으로 재개한 횟수 (auto-resume-attempts 와 비교, 수동 재개는 세지 않음)
+    @Column(name = "auto_resume_count", nullable = false)
+    private int autoResumeCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -21,6 +21,7 @@ public enum ErrorCode {
     DUPLICATE_RESOURCE("E409-01", HttpStatus.CONFLICT, "이미 존재하는 리소스입니다."),
     INVAILD_STORAGE("E409-02" , HttpStatus.BAD_REQUEST, "유효하지 않은 저장소입니다."),
     FILE_IN_USE("E409-03", HttpStatus.CONFLICT, "해당 파일은 다른 곳에서 사용 중이라 삭제할 수 없습니다."),
+    BUCKET_INDEXING("E503-01", HttpStatus.SERVICE_UNAVAILABLE, "버킷 인덱스를 만드는 중입니다. 잠시 후 다시 시도해주세요."),
 
     BAD_REQUEST("E400-01", HttpStatus.BAD_REQUEST, "잘못된 요청입니다."),
 
@@ -0,0 +1,13 @@
+package com.suresoft.analyzer.backend.mqtt;
+
+/**
+ * 발행 메시지 종류 (종류별로 QoS 를 따로 설정)
+ */
+public enum EMqttMessageClass {
+    // 진행 상황 : 토픽별로 마지막 상태만 보내도 되는 메시지 (밀리면 합쳐서 발행)
+    PROGRESS,
+    // 상태 변경 : 작업 / 업로드 상태 등 하나도 빠지면 안 되는 알림
+    STATUS,
+    // 명령 : 워커에 작업 전달 등
+    COMMAND
+}
@@ -1,33 +1,341 @@
 package com.suresoft.analyzer.backend.mqtt;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
-import org.eclipse.paho.client.mqttv3.MqttClient;
+import com.suresoft.analyzer.backend.dto.visualization.response.MqttPublisherStatsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
 
+/**
+ * 비동기 MQTT 발행 (구독용 MqttClient 와 별도의 MqttAsyncClient 사용)
+ * - publish 는 대기열에 넣고 바로 반환하며, 전용 스레드가 꺼내 발행한다.
+ * - 동시에 브로커 응답을 기다리는 메시지 수는 max-inflight 로 제한한다.
+ * - PROGRESS 메시지는 토픽별로 아직 보내지 않은 메시지가 있으면 합쳐서 (merge 가 없으면 교체) 한 번만 보낸다.
+ *   같은 토픽의 다른 종류 메시지가 뒤에 들어오면 그 이후 progress 는 합치지 않아 순서가 뒤바뀌지 않는다.
+ * - QoS 는 메시지 종류별로 설정한다. (mqtt.publisher.qos.*)
+ * - 대기열이 가득 차면 PROGRESS 만 버린다. STATUS / COMMAND 는 대기 중인 가장 오래된 PROGRESS 를 밀어내고,
+ *   밀어낼 PROGRESS 가 없으면 enqueue-timeout-ms 동안 자리가 날 때까지 기다린다.
+ * - publish 는 브로커 전달 결과 (QoS 1 이면 PUBACK) 를 CompletableFuture 로 돌려주므로 호출한 쪽이 실패를 처리할 수 있다.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class MqttPublisher {
 
-    private final MqttClient mqttClient;
+    private static final long RECONNECT_WAIT_MILLIS = 1_000;
+    private static final long CONNECT_TIMEOUT_MILLIS = 5_000;
+
+    private final MqttAsyncClient mqttAsyncClient;
     private final ObjectMapper objectMapper;
 
-    public void publish(String topic, Object payload) {
+    private final int queueCapacity;
+    private final int maxInflight;
+    private final long enqueueTimeoutMillis;
+    private final Map<EMqttMessageClass, Integer> qos = new EnumMap<>(EMqttMessageClass.class);
+    private final Semaphore inflight;
+
+    // 아래 두 자료구조는 lock 으로 보호
+    private final Object lock = new Object();
+    private final ArrayDeque<PendingMessage> queue = new ArrayDeque<>();
+    // key : topic, value : 대기열에 있는 그 토픽의 마지막 PROGRESS 메시지
+    private final Map<String, PendingMessage> pendingProgress = new HashMap<>();
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong(); // 버린 PROGRESS
+    private final AtomicLong rejected = new AtomicLong(); // 자리가 나지 않아 실패 처리한 STATUS / COMMAND
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running = true;
+    private volatile boolean everConnected;
+    private Thread dispatcher;
+
+    public MqttPublisher(MqttAsyncClient mqttAsyncClient,
+                         ObjectMapper objectMapper,
+                         @Value("${mqtt.publisher.queue-capacity:10000}") int queueCapacity,
+                         @Value("${mqtt.publisher.max-inflight:64}") int maxInflight,
+                         @Value("${mqtt.publisher.enqueue-timeout-ms:5000}") long enqueueTimeoutMillis,
+                         @Value("${mqtt.publisher.qos.progress:0}") int progressQos,
+                         @Value("${mqtt.publisher.qos.status:1}") int statusQos,
+                         @Value("${mqtt.publisher.qos.command:1}") int commandQos) {
+        this.mqttAsyncClient = mqttAsyncClient;
+        this.objectMapper = objectMapper;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxInflight = Math.max(1, maxInflight);
+        this.enqueueTimeoutMillis = Math.max(0, enqueueTimeoutMillis);
+        this.inflight = new Semaphore(this.maxInflight);
+        qos.put(EMqttMessageClass.PROGRESS, progressQos);
+        qos.put(EMqttMessageClass.STATUS, statusQos);
+        qos.put(EMqttMessageClass.COMMAND, commandQos);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::runLoop, "mqtt-publisher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        synchronized (lock) {
+            queue.forEach(pending -> pending.delivered.completeExceptionally(new IllegalStateException("MQTT 발행 종료")));
+            queue.clear();
+            pendingProgress.clear();
+        }
         try {
-            String json = objectMapper.writeValueAsString(payload);
-            MqttMessage message = new MqttMessage(json.getBytes(StandardCharsets.UTF_8));
-            message.setQos(1);
-            mqttClient.publish(topic, message);
+            if (mqttAsyncClient.isConnected()) {
+                mqttAsyncClient.disconnect(CONNECT_TIMEOUT_MILLIS);
+            }
+        } catch (MqttException e) {
+            log.warn("⚠️ MQTT 발행 연결 종료 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 상태 알림 발행 (합치지 않음)
+     * @return 브로커 전달 결과 (대기열에 자리가 나지 않거나 발행에 실패하면 예외로 완료)
+     */
+    public CompletableFuture<Void> publish(String topic, Object payload) {
+        return publish(topic, payload, EMqttMessageClass.STATUS);
+    }
+
+    public CompletableFuture<Void> publish(String topic, Object payload, EMqttMessageClass messageClass) {
+        return enqueue(topic, payload, messageClass, null);
+    }
+
+    /**
+     * 진행 상황 발행 - 같은 토픽에 아직 보내지 않은 메시지가 있으면 merge(이전, 새 메시지) 결과로 교체
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void publishLatest(String topic, T payload, BinaryOperator<T> merge) {
+        enqueue(topic, payload, EMqttMessageClass.PROGRESS, (BinaryOperator<Object>) merge);
+    }
+
+    private CompletableFuture<Void> enqueue(String topic, Object payload, EMqttMessageClass messageClass, BinaryOperator<Object> merge) {
+        requested.incrementAndGet();
+        synchronized (lock) {
+            if (messageClass == EMqttMessageClass.PROGRESS) {
+                PendingMessage pending = pendingProgress.get(topic);
+                if (pending != null) {
+                    pending.payload = merge != null ? merge.apply(pending.payload, payload) : payload;
+                    coalesced.incrementAndGet();
+                    return pending.delivered;
+                }
+                if (queue.size() >= queueCapacity) {
+                    if (dropped.incrementAndGet() % 100 == 1) {
+                        log.warn("⚠️ MQTT 발행 대기열 가득 참 - progress 버림 | topic: {} | 누적 {}건", topic, dropped.get());
+                    }
+                    return CompletableFuture.failedFuture(new IllegalStateException("MQTT 발행 대기열이 가득 찼습니다."));
+                }
+            } else {
+                // 이 메시지 뒤에 오는 progress 가 앞의 progress 에 합쳐져 이 메시지를 앞지르지 않도록
+                pendingProgress.remove(topic);
+                if (!awaitCapacity()) {
+                    rejected.incrementAndGet();
+                    log.error("❌ MQTT 발행 대기열 가득 참 - {} 메시지 실패 처리 | topic: {}", messageClass, topic);
+                    return CompletableFuture.failedFuture(new IllegalStateException("MQTT 발행 대기열이 가득 찼습니다."));
+                }
+            }
+
+            PendingMessage pending = new PendingMessage(topic, payload, messageClass);
+            queue.addLast(pending);
+            if (messageClass == EMqttMessageClass.PROGRESS) {
+                pendingProgress.put(topic, pending);
+            }
+            lock.notifyAll();
+            return pending.delivered;
+        }
+    }
+
+    /**
+     * STATUS / COMMAND 자리 확보 - 가장 오래된 PROGRESS 를 밀어내고, 없으면 enqueue-timeout-ms 동안 대기 (lock 안에서 호출)
+     */
+    private boolean awaitCapacity() {
+        long deadline = System.currentTimeMillis() + enqueueTimeoutMillis;
+        while (queue.size() >= queueCapacity) {
+            if (shedOldestProgress()) {
+                continue;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0 || !running) {
+                return false;
+            }
+            try {
+                lock.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean shedOldestProgress() {
+        Iterator<PendingMessage> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            PendingMessage pending = iterator.next();
+            if (pending.messageClass == EMqttMessageClass.PROGRESS) {
+                iterator.remove();
+                pendingProgress.remove(pending.topic, pending);
+                pending.delivered.completeExceptionally(new IllegalStateException("대기열 확보를 위해 progress 를 버렸습니다."));
+                dropped.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                PendingMessage message = take();
+                if (message == null) {
+                    continue;
+                }
+                awaitConnected();
+                inflight.acquire();
+                send(message);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("❌ MQTT 발행 스레드 오류", e);
+            }
+        }
+    }
+
+    private PendingMessage take() throws InterruptedException {
+        synchronized (lock) {
+            while (queue.isEmpty() && running) {
+                lock.wait();
+            }
+            PendingMessage message = queue.pollFirst();
+            // 꺼낸 뒤에는 더 이상 합치지 않는다.
+            if (message != null && pendingProgress.get(message.topic) == message) {
+                pendingProgress.remove(message.topic);
+            }
+            // 자리를 기다리는 STATUS / COMMAND 를 깨운다.
+            lock.notifyAll();
+            return message;
+        }
+    }
+
+    /**
+     * 연결될 때까지 대기 (연결이 끊긴 동안 progress 는 대기열에서 계속 합쳐진다)
+     * 첫 연결 이후의 재연결은 automaticReconnect 가 처리한다.
+     */
+    private void awaitConnected() throws InterruptedException {
+        while (running && !mqttAsyncClient.isConnected()) {
+            if (!everConnected) {
+                connect();
+            }
+            if (!mqttAsyncClient.isConnected()) {
+                Thread.sleep(RECONNECT_WAIT_MILLIS);
+            }
+        }
+    }
+
+    private void connect() {
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setKeepAliveInterval(60);
+        options.setMaxInflight(maxInflight);
+        try {
+            mqttAsyncClient.connect(options).waitForCompletion(CONNECT_TIMEOUT_MILLIS);
+            everConnected = true;
+            log.info("📡 MQTT 발행 연결 성공 | ClientId: {}", mqttAsyncClient.getClientId());
+        } catch (MqttException e) {
+            log.warn("⚠️ MQTT 발행 연결 실패 - 재시도: {}", e.getMessage());
+        }
+    }
+
+    private void send(PendingMessage pending) {
+        try {
+            MqttMessage message = new MqttMessage(objectMapper.writeValueAsBytes(pending.payload));
+            message.setQos(qos.get(pending.messageClass));
+            mqttAsyncClient.publish(pending.topic, message, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken asyncActionToken) {
+                    inflight.release();
+                    published.incrementAndGet();
+                    pending.delivered.complete(null);
+                }
+
+                @Override
+                public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+                    inflight.release();
+                    failed.incrementAndGet();
+                    log.warn("⚠️ MQTT 발행 실패 | topic: {} | {}", pending.topic, exception.getMessage());
+                    pending.delivered.completeExceptionally(exception);
+                }
+            });
+        } catch (JsonProcessingException | MqttException e) {
+            inflight.release();
+            failed.incrementAndGet();
+            log.warn("⚠️ MQTT 발행 실패 | topic: {} | {}", pending.topic, e.getMessage());
+            pending.delivered.completeExceptionally(e);
+        }
+    }
+
+    public MqttPublisherStatsDto getStats() {
+        int queueDepth;
+        synchronized (lock) {
+            queueDepth = queue.size();
+        }
+        return new MqttPublisherStatsDto(
+                mqttAsyncClient.isConnected(),
+                queueDepth,
+                queueCapacity,
+                maxInflight - inflight.availablePermits(),
+                maxInflight,
+                requested.get(),
+                published.get(),
+                coalesced.get(),
+                dropped.get(),
+                rejected.get(),
+                failed.get()
+        );
+    }
 
-            // ✅ 콘솔 로그로 출력
-            System.out.println("📤 MQTT 발행: " + topic + " → " + json);
+    private static final class PendingMessage {
+        private final String topic;
+        private final EMqttMessageClass messageClass;
+        private final CompletableFuture<Void> delivered = new CompletableFuture<>();
+        private Object payload; // lock 안에서만 교체
 
-        } catch (Exception e) {
-            System.err.println("❌ MQTT 발행 실패: " + e.getMessage());
-            e.printStackTrace();
+        private PendingMessage(String topic, Object payload, EMqttMessageClass messageClass) {
+            this.topic = topic;
+            this.payload = payload;
+            this.messageClass = messageClass;
         }
     }
-}
\ No newline at end of file
+}
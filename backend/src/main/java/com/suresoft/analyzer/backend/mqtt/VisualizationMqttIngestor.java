@@ -0,0 +1,409 @@
+package com.suresoft.analyzer.backend.mqtt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationProcessStatus;
+import com.suresoft.analyzer.backend.dto.visualization.response.VisualizationIngestionStatsDto;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import com.suresoft.analyzer.backend.service.visualization.RRDTieringService;
+import com.suresoft.analyzer.backend.service.visualization.VisualizationJobScheduler;
+import com.suresoft.analyzer.backend.service.visualization.VisualizationTeamTreeCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시각화 컨테이너가 보낸 progress / complete 메시지 처리 (VisualizationMqttSubscriber 에서 전달)
+ * - MQTT 콜백 스레드는 대기열에 넣기만 하고, 전용 스레드가 쌓인 메시지를 한 번에 꺼내 처리한다.
+ * - 한 번에 꺼낸 메시지는 프로젝트별로 묶어 (프로젝트 안에서는 받은 순서 유지) 세그먼트 행을 한 번의 batch upsert 로 저장한 뒤
+ *   체크포인트 기록 / 프론트 발행 / 완료 처리를 한다.
+ * - 프로젝트 소유자는 캐시해 메시지마다 프로젝트 / 사용자를 조회하지 않는다. (완료 시 제거)
+ * - 대기열이 가득 차면 콜백 스레드를 기다리게 해 브로커 쪽으로 속도를 늦춘다. (메시지는 버리지 않음)
+ */
+@Slf4j
+@Component
+public class VisualizationMqttIngestor {
+
+    // 재개된 작업이 같은 세그먼트를 다시 보내도 행이 중복되지 않도록 rrd_url 기준 upsert
+    private static final String UPSERT_RRD_FILE_SQL =
+            "INSERT INTO rrd_file (id, name, rrd_url, entity_rrd_urls, created_at, visualization_project_id, " +
+            "segment_index, start_us, end_us, byte_size, entity_names) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (rrd_url) DO UPDATE SET name = EXCLUDED.name, entity_rrd_urls = EXCLUDED.entity_rrd_urls, " +
+            "segment_index = EXCLUDED.segment_index, start_us = EXCLUDED.start_us, end_us = EXCLUDED.end_us, " +
+            "byte_size = EXCLUDED.byte_size, entity_names = EXCLUDED.entity_names";
+
+    private static final int MAX_CACHED_PROJECTS = 10_000;
+    private static final long THROUGHPUT_WINDOW_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VisualizationProjectRepository visualizationProjectRepository;
+    private final VisualizationJobScheduler visualizationJobScheduler;
+    private final VisualizationTeamTreeCache visualizationTeamTreeCache;
+    private final RRDTieringService rrdTieringService;
+    private final MqttPublisher mqttPublisher;
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final BlockingQueue<IngestMessage> queue;
+
+    // key : project id, value : 소유자 user id
+    private final Map<String, String> projectOwners = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicLong backpressureEvents = new AtomicLong();
+    private final AtomicLong blockedMillis = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    // 최근 처리량 (처리 스레드만 갱신)
+    private volatile long windowStartMillis = System.currentTimeMillis();
+    private volatile long windowProcessed;
+    private volatile double lastThroughput;
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public VisualizationMqttIngestor(JdbcTemplate jdbcTemplate,
+                                     VisualizationProjectRepository visualizationProjectRepository,
+                                     VisualizationJobScheduler visualizationJobScheduler,
+                                     VisualizationTeamTreeCache visualizationTeamTreeCache,
+                                     RRDTieringService rrdTieringService,
+                                     MqttPublisher mqttPublisher,
+                                     @Value("${visualization.ingest.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${visualization.ingest.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.visualizationProjectRepository = visualizationProjectRepository;
+        this.visualizationJobScheduler = visualizationJobScheduler;
+        this.visualizationTeamTreeCache = visualizationTeamTreeCache;
+        this.rrdTieringService = rrdTieringService;
+        this.mqttPublisher = mqttPublisher;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::runLoop, "visualization-mqtt-ingest");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * MQTT 콜백 스레드에서 호출 (대기열이 가득 차면 자리가 날 때까지 대기)
+     */
+    public void submit(String topicType, String userId, String projectId, JsonNode json) throws InterruptedException {
+        IngestMessage message = new IngestMessage(topicType, userId, projectId, json, System.currentTimeMillis());
+        received.incrementAndGet();
+        if (queue.offer(message)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (backpressureEvents.incrementAndGet() % 100 == 1) {
+            log.warn("⚠️ MQTT 처리 대기열 가득 참 | capacity: {} | 콜백 스레드 대기", queueCapacity);
+        }
+        queue.put(message);
+        blockedMillis.addAndGet(System.currentTimeMillis() - start);
+    }
+
+    private void runLoop() {
+        List<IngestMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                IngestMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 처리하는 동안 쌓인 메시지를 한 번에 꺼낸다. (부하가 없으면 한 건씩 바로 처리)
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                log.error("❌ MQTT 메시지 배치 처리 실패 | size: {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<IngestMessage> batch) {
+        // 프로젝트별로 묶기 (프로젝트 안에서는 받은 순서 유지)
+        Map<String, List<IngestMessage>> byProject = new LinkedHashMap<>();
+        for (IngestMessage message : batch) {
+            byProject.computeIfAbsent(message.projectId(), id -> new ArrayList<>()).add(message);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        // key : project id, value : 세그먼트가 사용하는 엔티티 RRD URL (팀 공유 RRD 참조 기록용)
+        Map<String, Set<String>> entityUrls = new HashMap<>();
+        List<ProjectMessages> accepted = new ArrayList<>();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Map.Entry<String, List<IngestMessage>> entry : byProject.entrySet()) {
+            String projectId = entry.getKey();
+            String ownerId = resolveOwner(projectId);
+            List<IngestMessage> messages = new ArrayList<>();
+            for (IngestMessage message : entry.getValue()) {
+                if (ownerId == null || !ownerId.equals(message.userId())) {
+                    rejected.incrementAndGet();
+                    log.warn("⚠️ MQTT 메시지 무시 (프로젝트 없음 / 소유자 불일치) | project: {} | user: {}", projectId, message.userId());
+                    continue;
+                }
+                if ("progress".equals(message.topicType())) {
+                    JsonNode json = message.json();
+                    List<String> entityRrdUrls = entityRrdUrls(json);
+                    entityUrls.computeIfAbsent(projectId, id -> new HashSet<>()).addAll(entityRrdUrls);
+                    rows.add(new Object[]{
+                            UUID.randomUUID().toString(),
+                            json.get("segment_name").asText(),
+                            json.get("file_path").asText(),
+                            entityRrdUrls.isEmpty() ? null : String.join("\n", entityRrdUrls),
+                            now,
+                            projectId,
+                            json.path("segment_index").asInt(),
+                            longOrNull(json, "start_us"),
+                            longOrNull(json, "end_us"),
+                            longOrNull(json, "byte_size"),
+                            joinOrNull(json.path("entities"))
+                    });
+                }
+                messages.add(message);
+            }
+            if (!messages.isEmpty()) {
+                accepted.add(new ProjectMessages(projectId, ownerId, messages));
+            }
+        }
+
+        insertRows(rows);
+        recordArtifactRefs(entityUrls);
+
+        // 세그먼트 행을 저장한 뒤에 체크포인트 / 발행 / 완료 처리
+        for (ProjectMessages project : accepted) {
+            try {
+                applyProject(project);
+            } catch (Exception e) {
+                failed.addAndGet(project.messages().size());
+                log.error("❌ MQTT 메시지 처리 실패 | project: {}", project.projectId(), e);
+            }
+        }
+
+        recordBatch(batch);
+    }
+
+    private void insertRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_RRD_FILE_SQL, rows);
+            insertedRows.addAndGet(rows.size());
+        } catch (DataAccessException e) {
+            // 처리 중 삭제된 프로젝트 등 일부 행 때문에 전체가 실패하면 한 행씩 다시 저장
+            log.warn("⚠️ RRD 파일 batch 저장 실패, 행 단위로 재시도 | rows: {} | {}", rows.size(), e.getMessage());
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(UPSERT_RRD_FILE_SQL, row);
+                    insertedRows.incrementAndGet();
+                } catch (DataAccessException rowError) {
+                    failed.incrementAndGet();
+                    log.error("❌ RRD 파일 저장 실패 | project: {} | url: {} | {}", row[5], row[2], rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void recordArtifactRefs(Map<String, Set<String>> entityUrls) {
+        for (Map.Entry<String, Set<String>> entry : entityUrls.entrySet()) {
+            try {
+                rrdTieringService.recordArtifactRefs(entry.getKey(), entry.getValue());
+            } catch (DataAccessException e) {
+                // 기록하지 못한 참조는 같은 프로젝트의 다음 세그먼트에서 다시 기록된다.
+                log.warn("⚠️ 팀 공유 RRD 참조 기록 실패 | project: {} | {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void applyProject(ProjectMessages project) {
+        // 체크포인트는 마지막 세그먼트 것만 기록하면 된다.
+        JsonNode lastCheckpoint = null;
+        int lastSegmentIndex = 0;
+        for (IngestMessage message : project.messages()) {
+            JsonNode checkpoint = message.json().get("checkpoint");
+            if ("progress".equals(message.topicType()) && checkpoint != null && !checkpoint.isNull()) {
+                lastCheckpoint = checkpoint;
+                lastSegmentIndex = message.json().path("segment_index").asInt();
+            }
+        }
+        if (lastCheckpoint != null) {
+            visualizationJobScheduler.recordCheckpoint(project.projectId(),
+                    lastCheckpoint.path("segment_index").asInt(lastSegmentIndex + 1), lastCheckpoint.toString());
+        }
+
+        for (IngestMessage message : project.messages()) {
+            switch (message.topicType()) {
+                case "progress" -> publishProgress(message.json(), project.projectId(), project.ownerId());
+                case "complete" -> complete(project.projectId(), project.ownerId());
+                default -> log.warn("⚠️ 알 수 없는 topicType: {}", message.topicType());
+            }
+        }
+    }
+
+    private void publishProgress(JsonNode json, String projectId, String userId) {
+        String frontendTopic = String.format("visualization/frontend/progress/%s/%s", userId, projectId);
+        Map<String, Object> segment = Map.of(
+                "rrd_url", json.get("file_path").asText(),
+                "entity_rrd_urls", entityRrdUrls(json),
+                "segment_index", json.get("segment_index").asInt(),
+                "segment_name", json.get("segment_name").asText()
+        );
+        Map<String, Object> payload = new HashMap<>(segment);
+        payload.put("status", "PROGRESSING");
+        payload.put("segments", List.of(segment));
+
+        log.debug("📤 MQTT 발행 (progress) | Topic: {} | Payload: {}", frontendTopic, payload);
+        mqttPublisher.publishLatest(frontendTopic, payload, VisualizationMqttIngestor::mergeProgress);
+    }
+
+    /**
+     * 아직 발행되지 않은 progress 에 새 progress 를 합친다. (마지막 세그먼트 정보 + 그동안의 세그먼트 목록)
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mergeProgress(Map<String, Object> pending, Map<String, Object> latest) {
+        List<Object> segments = new ArrayList<>((List<Object>) pending.get("segments"));
+        segments.addAll((List<Object>) latest.get("segments"));
+        Map<String, Object> merged = new HashMap<>(latest);
+        merged.put("segments", segments);
+        return merged;
+    }
+
+    private void complete(String projectId, String userId) {
+        visualizationProjectRepository.findById(projectId).ifPresent(project -> {
+            project.setStatus(EVisualizationProcessStatus.COMPLETE);
+            visualizationProjectRepository.save(project);
+        });
+        visualizationTeamTreeCache.evictUser(userId);
+        // 완료된 프로젝트는 더 이상 메시지가 오지 않는다.
+        projectOwners.remove(projectId);
+
+        String frontendTopic = String.format("visualization/frontend/progress/%s/%s", userId, projectId);
+        String globalTopic = String.format("global/user/%s/visualization/complete", userId);
+
+        log.info("📤 MQTT 발행 (complete) | project: {}", projectId);
+        mqttPublisher.publish(frontendTopic, Map.of("status", "COMPLETE"));
+        mqttPublisher.publish(globalTopic, Map.of("projectId", projectId));
+    }
+
+    private String resolveOwner(String projectId) {
+        String cached = projectOwners.get(projectId);
+        if (cached != null) {
+            return cached;
+        }
+        String ownerId = visualizationProjectRepository.findUserIdById(projectId).orElse(null);
+        if (ownerId != null) {
+            if (projectOwners.size() >= MAX_CACHED_PROJECTS) {
+                projectOwners.clear();
+            }
+            projectOwners.put(projectId, ownerId);
+        }
+        return ownerId;
+    }
+
+    private static List<String> entityRrdUrls(JsonNode json) {
+        // 엔티티별 RRD (새로 만든 엔티티 + 팀에서 재사용한 엔티티)
+        List<String> urls = new ArrayList<>();
+        json.path("entity_file_paths").forEach(path -> urls.add(path.asText()));
+        return urls;
+    }
+
+    // 시간 정보를 보내지 않는 이전 버전 컨테이너의 메시지는 null
+    private static Long longOrNull(JsonNode json, String field) {
+        JsonNode value = json.get(field);
+        return value == null || value.isNull() ? null : value.asLong();
+    }
+
+    private static String joinOrNull(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values.isEmpty() ? null : String.join("\n", values);
+    }
+
+    private void recordBatch(List<IngestMessage> batch) {
+        long now = System.currentTimeMillis();
+        long lag = now - batch.get(0).receivedAtMillis();
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+        processed.addAndGet(batch.size());
+        batches.incrementAndGet();
+
+        windowProcessed += batch.size();
+        long elapsed = now - windowStartMillis;
+        if (elapsed >= THROUGHPUT_WINDOW_MILLIS) {
+            lastThroughput = windowProcessed * 1000.0 / elapsed;
+            windowStartMillis = now;
+            windowProcessed = 0;
+        }
+    }
+
+    public VisualizationIngestionStatsDto getStats() {
+        long batchCount = batches.get();
+        long processedCount = processed.get();
+        return new VisualizationIngestionStatsDto(
+                queue.size(),
+                queueCapacity,
+                received.get(),
+                processedCount,
+                rejected.get(),
+                failed.get(),
+                batchCount,
+                insertedRows.get(),
+                batchCount == 0 ? 0.0 : (double) processedCount / batchCount,
+                backpressureEvents.get(),
+                blockedMillis.get(),
+                lastLagMillis.get(),
+                maxLagMillis.get(),
+                lastThroughput,
+                projectOwners.size()
+        );
+    }
+
+    private record IngestMessage(String topicType, String userId, String projectId, JsonNode json, long receivedAtMillis) {
+    }
+
+    private record ProjectMessages(String projectId, String ownerId, List<IngestMessage> messages) {
+    }
+}
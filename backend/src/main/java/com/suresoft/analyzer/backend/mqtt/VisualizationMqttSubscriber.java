@@ -2,13 +2,7 @@ package com.suresoft.analyzer.backend.mqtt;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.suresoft.analyzer.backend.dto.visualization.EVisualizationProcessStatus;
-import com.suresoft.analyzer.backend.entity.visualization.RRDFileEntity;
-import com.suresoft.analyzer.backend.entity.visualization.VisualizationProjectEntity;
-import com.suresoft.analyzer.backend.exception.ApiException;
-import com.suresoft.analyzer.backend.exception.ErrorCode;
-import com.suresoft.analyzer.backend.repository.visualization.RRDFileRepository;
-import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import com.suresoft.analyzer.backend.service.visualization.VisualizationWorkerPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.paho.client.mqttv3.*;
@@ -16,17 +10,15 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class VisualizationMqttSubscriber implements MqttCallback {
 
     private final ObjectMapper objectMapper;
-    private final VisualizationProjectRepository visualizationProjectRepository;
-    private final RRDFileRepository rrdFileRepository;
-    private final MqttPublisher mqttPublisher; // 프론트로 재전송용
     private final MqttClient mqttClient;
+    private final VisualizationWorkerPool visualizationWorkerPool;
+    private final VisualizationMqttIngestor visualizationMqttIngestor;
 
     @EventListener(ApplicationReadyEvent.class)
     public void subscribe() {
@@ -59,10 +51,15 @@ public class VisualizationMqttSubscriber implements MqttCallback {
         log.warn("⚠️ MQTT 연결 끊김", cause);
     }
 
+    /**
+     * Paho 콜백 스레드 하나에서 모든 메시지를 처리하므로 여기서는 DB 를 건드리지 않는다.
+     * - 워커 상태 메시지는 메모리만 갱신하므로 바로 처리
+     * - progress / complete 는 VisualizationMqttIngestor 대기열로 넘긴다. (가득 차면 대기)
+     */
     @Override
     public void messageArrived(String topic, MqttMessage message) throws Exception {
         try {
-            log.info("📨 MQTT 메시지 수신 | Topic: {} | Payload: {}", topic, new String(message.getPayload()));
+            log.debug("📨 MQTT 메시지 수신 | Topic: {} | Payload: {}", topic, new String(message.getPayload()));
 
             String[] parts = topic.split("/");
             if (parts.length < 5) {
@@ -76,69 +73,25 @@ public class VisualizationMqttSubscriber implements MqttCallback {
 
             JsonNode json = objectMapper.readTree(message.getPayload());
 
-            VisualizationProjectEntity project = visualizationProjectRepository.findById(projectId)
-                    .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND));
-
-            if (!project.getUser().getId().equals(userId)) {
-                throw new ApiException(ErrorCode.FORBIDDEN);
+            // 워커 풀 상태 메시지 : visualization/backend/worker/{workerId}/{heartbeat|done}
+            if (topicType.equals("worker")) {
+                visualizationWorkerPool.onWorkerMessage(parts[3], parts[4], json);
+                return;
             }
 
-            switch (topicType) {
-                case "progress":
-                    handleProgressMessage(json, project, userId);
-                    break;
-                case "complete":
-                    handleCompleteMessage(project, userId);
-                    break;
-                default:
-                    log.warn("⚠️ 알 수 없는 topicType: {}", topicType);
+            if (!topicType.equals("progress") && !topicType.equals("complete")) {
+                log.warn("⚠️ 알 수 없는 topicType: {}", topicType);
+                return;
             }
+            visualizationMqttIngestor.submit(topicType, userId, projectId, json);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("❌ MQTT 메시지 처리 실패: " + topic, e);
         }
     }
 
-    private void handleProgressMessage(JsonNode json, VisualizationProjectEntity project, String userId) {
-        String filePath = json.get("file_path").asText();
-        String segmentName = json.get("segment_name").asText();
-        int segmentIndex = json.get("segment_index").asInt();
-
-        RRDFileEntity file = new RRDFileEntity();
-        file.setRrdUrl(filePath);
-        file.setName(segmentName);
-        file.setVisualizationProject(project);
-        rrdFileRepository.save(file);
-
-        String frontendTopic = String.format("visualization/frontend/progress/%s/%s", userId, project.getId());
-        Map<String, Object> payload = Map.of(
-                "status", "PROGRESSING",
-                "rrd_url", filePath,
-                "segment_index", segmentIndex,
-                "segment_name", segmentName
-        );
-
-        log.info("📤 MQTT 발행 (progress) | Topic: {} | Payload: {}", frontendTopic, payload);
-        mqttPublisher.publish(frontendTopic, payload);
-    }
-
-    private void handleCompleteMessage(VisualizationProjectEntity project, String userId) {
-        project.setStatus(EVisualizationProcessStatus.COMPLETE);
-        visualizationProjectRepository.save(project);
-
-        String frontendTopic = String.format("visualization/frontend/progress/%s/%s", userId, project.getId());
-        String globalTopic = String.format("global/user/%s/visualization/complete",userId);
-        Map<String, Object> payload = Map.of("status", "COMPLETE");
-
-        log.info("📤 MQTT 발행 (complete) | Topic: {} | Payload: {}", frontendTopic, payload);
-        mqttPublisher.publish(frontendTopic, payload);
-        payload = Map.of(
-                "projectId", project.getId()
-        );
-        log.info("📤 MQTT 발행 (complete) | Topic: {} | Payload: {}", globalTopic, payload);
-        mqttPublisher.publish(globalTopic,payload);
-    }
-
     @Override
     public void deliveryComplete(IMqttDeliveryToken token) {
         // 구독자는 발행 안 하므로 무시
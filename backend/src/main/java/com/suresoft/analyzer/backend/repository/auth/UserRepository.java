@@ -13,6 +13,10 @@ public interface UserRepository extends JpaRepository<UserEntity, String> { // <
     @Query("SELECT u FROM UserEntity u JOIN FETCH u.team WHERE u.id = :userId")
     Optional<UserEntity> findWithTeamById(String userId);
 
+    // 팀 id 만 조회 (팀이 없으면 empty)
+    @Query("SELECT u.team.id FROM UserEntity u WHERE u.id = :userId")
+    Optional<String> findTeamIdById(String userId);
+
     Optional<UserEntity> findByEmail(String email);
     boolean existsByEmail(String email);
 }
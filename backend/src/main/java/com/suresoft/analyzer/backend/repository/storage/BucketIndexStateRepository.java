@@ -0,0 +1,19 @@
+package com.suresoft.analyzer.backend.repository.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.BucketIndexStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BucketIndexStateRepository extends JpaRepository<BucketIndexStateEntity, String> {
+    Optional<BucketIndexStateEntity> findByBucketId(String bucketId);
+
+    @Modifying
+    @Query("DELETE FROM BucketIndexStateEntity s WHERE s.bucket.id = :bucketId")
+    void deleteByBucketId(@Param("bucketId") String bucketId);
+}
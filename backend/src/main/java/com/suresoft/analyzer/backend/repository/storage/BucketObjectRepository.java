@@ -0,0 +1,69 @@
+package com.suresoft.analyzer.backend.repository.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.BucketObjectEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BucketObjectRepository extends JpaRepository<BucketObjectEntity, String> {
+
+    /**
+     * prefix 하위 전체 (lower <= key < upper), 키 순 정렬
+     */
+    @Query("SELECT o FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId AND o.folder = :folder " +
+            "AND o.objectKey >= :lower AND o.objectKey < :upper ORDER BY o.objectKey")
+    List<BucketObjectEntity> findInRange(@Param("bucketId") String bucketId,
+                                         @Param("folder") boolean folder,
+                                         @Param("lower") String lower,
+                                         @Param("upper") String upper,
+                                         Pageable pageable);
+
+    /**
+     * findInRange 의 다음 페이지 (after < key < upper)
+     */
+    @Query("SELECT o FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId AND o.folder = :folder " +
+            "AND o.objectKey > :after AND o.objectKey < :upper ORDER BY o.objectKey")
+    List<BucketObjectEntity> findInRangeAfter(@Param("bucketId") String bucketId,
+                                              @Param("folder") boolean folder,
+                                              @Param("after") String after,
+                                              @Param("upper") String upper,
+                                              Pageable pageable);
+
+    /**
+     * 한 단계 하위 폴더 또는 파일만 조회 (parent_prefix 인덱스), 키 순 정렬
+     */
+    @Query("SELECT o FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId AND o.folder = :folder " +
+            "AND o.parentPrefix = :parentPrefix ORDER BY o.objectKey")
+    List<BucketObjectEntity> findChildrenOf(@Param("bucketId") String bucketId,
+                                            @Param("folder") boolean folder,
+                                            @Param("parentPrefix") String parentPrefix,
+                                            Pageable pageable);
+
+    /**
+     * findChildrenOf 의 다음 페이지 (after < key)
+     */
+    @Query("SELECT o FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId AND o.folder = :folder " +
+            "AND o.parentPrefix = :parentPrefix AND o.objectKey > :after ORDER BY o.objectKey")
+    List<BucketObjectEntity> findChildrenOfAfter(@Param("bucketId") String bucketId,
+                                                 @Param("folder") boolean folder,
+                                                 @Param("parentPrefix") String parentPrefix,
+                                                 @Param("after") String after,
+                                                 Pageable pageable);
+
+    /**
+     * 한 단계 하위 항목 조회 (parent_prefix 인덱스)
+     */
+    @Query("SELECT o FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId AND o.parentPrefix = :parentPrefix " +
+            "ORDER BY o.folder DESC, o.objectKey")
+    List<BucketObjectEntity> findChildren(@Param("bucketId") String bucketId, @Param("parentPrefix") String parentPrefix);
+
+    @Modifying
+    @Query("DELETE FROM BucketObjectEntity o WHERE o.bucket.id = :bucketId")
+    void deleteByBucketId(@Param("bucketId") String bucketId);
+}
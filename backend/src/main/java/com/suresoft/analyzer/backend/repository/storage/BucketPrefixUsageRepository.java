@@ -0,0 +1,27 @@
+package com.suresoft.analyzer.backend.repository.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.BucketPrefixUsageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BucketPrefixUsageRepository extends JpaRepository<BucketPrefixUsageEntity, String> {
+    @Query("SELECT u FROM BucketPrefixUsageEntity u WHERE u.bucket.id = :bucketId ORDER BY u.prefix")
+    List<BucketPrefixUsageEntity> findByBucketId(@Param("bucketId") String bucketId);
+
+    @Query("SELECT u FROM BucketPrefixUsageEntity u JOIN FETCH u.bucket WHERE u.stale = true")
+    List<BucketPrefixUsageEntity> findAllStale();
+
+    boolean existsByBucketId(String bucketId);
+
+    boolean existsByBucketIdAndStaleTrue(String bucketId);
+
+    @Modifying
+    @Query("DELETE FROM BucketPrefixUsageEntity u WHERE u.bucket.id = :bucketId")
+    void deleteByBucketId(@Param("bucketId") String bucketId);
+}
@@ -0,0 +1,22 @@
+package com.suresoft.analyzer.backend.repository.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.MultipartUploadPartEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MultipartUploadPartRepository extends JpaRepository<MultipartUploadPartEntity, String> {
+    List<MultipartUploadPartEntity> findAllByUploadIdOrderByPartNumber(String uploadId);
+
+    Optional<MultipartUploadPartEntity> findByUploadIdAndPartNumber(String uploadId, int partNumber);
+
+    @Modifying
+    @Query("DELETE FROM MultipartUploadPartEntity p WHERE p.upload.id = :uploadId")
+    void deleteByUploadId(@Param("uploadId") String uploadId);
+}
@@ -0,0 +1,19 @@
+package com.suresoft.analyzer.backend.repository.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EMultipartUploadStatus;
+import com.suresoft.analyzer.backend.entity.storage.MultipartUploadEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MultipartUploadRepository extends JpaRepository<MultipartUploadEntity, String> {
+    List<MultipartUploadEntity> findAllByUserIdAndStatusOrderByCreatedAtDesc(String userId, EMultipartUploadStatus status);
+
+    @Query("SELECT u FROM MultipartUploadEntity u JOIN FETCH u.bucket WHERE u.status = :status AND u.updatedAt < :before")
+    List<MultipartUploadEntity> findStale(@Param("status") EMultipartUploadStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,18 @@
+package com.suresoft.analyzer.backend.repository.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.ERrdStorageTier;
+import com.suresoft.analyzer.backend.entity.visualization.RRDArtifactEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RRDArtifactRepository extends JpaRepository<RRDArtifactEntity, String> {
+
+    @Query("SELECT a.artifactDir FROM RRDArtifactEntity a WHERE a.tier = :tier")
+    List<String> findArtifactDirsByTier(ERrdStorageTier tier);
+
+    List<RRDArtifactEntity> findByTier(ERrdStorageTier tier);
+}
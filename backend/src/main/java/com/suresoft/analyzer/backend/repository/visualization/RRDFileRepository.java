@@ -2,6 +2,8 @@ package com.suresoft.analyzer.backend.repository.visualization;
 
 import com.suresoft.analyzer.backend.entity.visualization.RRDFileEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +19,18 @@ public interface RRDFileRepository extends JpaRepository<RRDFileEntity, String>
     Optional<RRDFileEntity> findByRrdUrl(String rrdUrl);
 
     void deleteByVisualizationProjectId(String visualizationProjectId);
+
+    /**
+     * [fromUs, toUs) 와 겹치는 세그먼트 (시간 순)
+     */
+    @Query("SELECT r FROM RRDFileEntity r WHERE r.visualizationProject.id = :projectId " +
+            "AND r.startUs < :toUs AND r.endUs > :fromUs ORDER BY r.startUs")
+    List<RRDFileEntity> findOverlapping(@Param("projectId") String projectId,
+                                        @Param("fromUs") long fromUs,
+                                        @Param("toUs") long toUs);
+
+    // 프로젝트 전체 요약 {세그먼트 수, 마지막 세그먼트 끝, 전체 크기} (한 행)
+    @Query("SELECT COUNT(r), COALESCE(MAX(r.endUs), 0), COALESCE(SUM(r.byteSize), 0) " +
+            "FROM RRDFileEntity r WHERE r.visualizationProject.id = :projectId")
+    List<Object[]> summarizeByProjectId(@Param("projectId") String projectId);
 }
\ No newline at end of file
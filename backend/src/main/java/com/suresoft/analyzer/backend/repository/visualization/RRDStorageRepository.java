@@ -0,0 +1,21 @@
+package com.suresoft.analyzer.backend.repository.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.ERrdStorageTier;
+import com.suresoft.analyzer.backend.entity.visualization.RRDStorageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RRDStorageRepository extends JpaRepository<RRDStorageEntity, String> {
+
+    @Query("SELECT s.projectId FROM RRDStorageEntity s WHERE s.tier = :tier")
+    List<String> findProjectIdsByTier(ERrdStorageTier tier);
+
+    // 프로젝트가 삭제되어 파일만 남은 항목
+    @Query("SELECT s FROM RRDStorageEntity s WHERE NOT EXISTS " +
+            "(SELECT p.id FROM VisualizationProjectEntity p WHERE p.id = s.projectId)")
+    List<RRDStorageEntity> findOrphans();
+}
@@ -0,0 +1,28 @@
+package com.suresoft.analyzer.backend.repository.visualization;
+
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationJobStatus;
+import com.suresoft.analyzer.backend.entity.visualization.VisualizationJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VisualizationJobRepository extends JpaRepository<VisualizationJobEntity, String> {
+
+    /**
+     * 실행 순서 (우선순위 높은 순 → 먼저 요청된 순)
+     */
+    List<VisualizationJobEntity> findAllByStatusOrderByPriorityDescCreatedAtAsc(EVisualizationJobStatus status);
+
+    List<VisualizationJobEntity> findAllByStatus(EVisualizationJobStatus status);
+
+    List<VisualizationJobEntity> findTop50ByUserIdOrderByCreatedAtDesc(String userId);
+
+    // 프로젝트의 마지막 작업 (RRD 압축본을 올릴 버킷 결정)
+    Optional<VisualizationJobEntity> findFirstByProjectIdOrderByCreatedAtDesc(String projectId);
+
+    Optional<VisualizationJobEntity> findFirstByProjectIdAndStatusIn(String projectId, Collection<EVisualizationJobStatus> statuses);
+}
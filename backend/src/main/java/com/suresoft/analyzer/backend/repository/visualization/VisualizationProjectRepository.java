@@ -16,9 +16,32 @@ public interface VisualizationProjectRepository extends JpaRepository<Visualizat
     List<VisualizationProjectEntity> findVisualizationProjectsByUserId(@Param("userId") String userId);
 
     @Query("SELECT p FROM VisualizationProjectEntity p " +
-            "WHERE p.user.id = :userId AND p.blueprintSignature = :signature")
-    Optional<VisualizationProjectEntity> findByUserIdAndBlueprintSignature(
+            "WHERE p.user.id = :userId AND p.blueprintSignature IN :signatures ORDER BY p.createdAt DESC")
+    List<VisualizationProjectEntity> findByUserIdAndBlueprintSignatures(
             @Param("userId") String userId,
-            @Param("signature") String signature);
+            @Param("signatures") List<String> signatures);
+
+    // 같은 팀 구성원의 프로젝트 중 signature 가 같은 프로젝트 (본인 프로젝트 → 최신 순)
+    @Query("SELECT p FROM VisualizationProjectEntity p " +
+            "WHERE p.user.team.id = :teamId AND p.blueprintSignature IN :signatures " +
+            "ORDER BY CASE WHEN p.user.id = :userId THEN 0 ELSE 1 END, p.createdAt DESC")
+    List<VisualizationProjectEntity> findByTeamIdAndBlueprintSignatures(
+            @Param("teamId") String teamId,
+            @Param("userId") String userId,
+            @Param("signatures") List<String> signatures);
+
+    // 프로젝트 소유자 (MQTT 메시지 검증용, 프로젝트 / 사용자 엔티티를 읽지 않음)
+    @Query("SELECT p.user.id FROM VisualizationProjectEntity p WHERE p.id = :projectId")
+    Optional<String> findUserIdById(@Param("projectId") String projectId);
+
+    // 팀 프로젝트 트리용 한 번의 조회 : {소유자 id, 소유자 이름, 프로젝트 id, 이름, 상태, 생성 시각} (소유자 → 최신 순)
+    @Query("SELECT u.id, u.name, p.id, p.name, p.status, p.createdAt FROM VisualizationProjectEntity p JOIN p.user u " +
+            "WHERE u.team.id = :teamId ORDER BY u.name, u.id, p.createdAt DESC")
+    List<Object[]> findTeamProjectRows(@Param("teamId") String teamId);
+
+    // 소유자이거나 소유자와 같은 팀 구성원이면 볼 수 있는 프로젝트
+    @Query("SELECT COUNT(p) > 0 FROM VisualizationProjectEntity p JOIN p.user o LEFT JOIN o.team t " +
+            "WHERE p.id = :projectId AND (o.id = :userId OR t.id = (SELECT u.team.id FROM UserEntity u WHERE u.id = :userId))")
+    boolean existsVisibleToUser(@Param("projectId") String projectId, @Param("userId") String userId);
 
 }
\ No newline at end of file
@@ -0,0 +1,616 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
+import com.suresoft.analyzer.backend.dto.storage.BucketIndexStatusDto;
+import com.suresoft.analyzer.backend.dto.storage.BucketUsageDto;
+import com.suresoft.analyzer.backend.dto.storage.EBucketIndexStatus;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketIndexStateEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketObjectEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketPrefixUsageEntity;
+import com.suresoft.analyzer.backend.entity.storage.UploadFileEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.storage.BucketIndexStateRepository;
+import com.suresoft.analyzer.backend.repository.storage.BucketObjectRepository;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.storage.UploadFileRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetBucketAclRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 버킷 객체 인덱스 서비스
+ * - 백그라운드 작업이 S3ParallelLister 로 버킷 전체를 조회하여 BUCKET_OBJECT 테이블과 동기화한다.
+ * - 페이지는 키(바이트) 순서대로 전달되므로 각 페이지는 연속된 키 구간을 덮는다.
+ *   페이지마다 같은 구간의 인덱스 행과 비교해 변경/추가/삭제된 객체만 반영한다. (변경 없는 객체는 쓰기 없음)
+ * - 폴더 트리, 객체 목록, 폴더 하위 파일 조회는 S3 대신 인덱스에서 prefix 범위 조회로 처리한다.
+ *   prefix 가 없으면 버킷 최상위 항목만 조회하고, 범위는 maxRangeRows 행씩 키 순서로 이어서 읽는다. (잘리지 않음)
+ * - 한 번도 동기화되지 않은 버킷은 조회 시 백그라운드 동기화를 시작하고 BUCKET_INDEXING 으로 응답한다.
+ * - 페이지마다 찾아낸 변경분은 BucketUsageService 의 prefix 별 사용량 집계에도 반영하고,
+ *   stale 로 표시된 prefix 는 주기적으로 그 prefix 만 다시 조회한다.
+ */
+@Slf4j
+@Service
+public class BucketObjectIndexService {
+    private static final int UPLOAD_FILE_LOOKUP_CHUNK = 1000;
+
+    private static final String SELECT_RANGE_SQL =
+            "SELECT object_key, etag, object_size FROM bucket_object WHERE bucket_id = ? AND folder = false";
+
+    private static final String UPSERT_OBJECT_SQL =
+            "INSERT INTO bucket_object (id, bucket_id, object_key, parent_prefix, name, depth, folder, object_size, etag, owner_name, last_modified, indexed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (bucket_id, object_key, folder) DO UPDATE SET " +
+            "object_size = EXCLUDED.object_size, etag = EXCLUDED.etag, owner_name = EXCLUDED.owner_name, " +
+            "last_modified = EXCLUDED.last_modified, indexed_at = EXCLUDED.indexed_at";
+
+    private static final String INSERT_FOLDER_SQL =
+            "INSERT INTO bucket_object (id, bucket_id, object_key, parent_prefix, name, depth, folder, object_size, indexed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, true, 0, ?) " +
+            "ON CONFLICT (bucket_id, object_key, folder) DO NOTHING";
+
+    private static final String DELETE_OBJECT_SQL =
+            "DELETE FROM bucket_object WHERE bucket_id = ? AND folder = false AND object_key = ?";
+
+    // 하위 객체가 하나도 남지 않은 폴더 정리 (폴더 키는 항상 '/' 로 끝나므로 마지막 문자를 '0' 으로 바꾼 값이 상한)
+    private static final String DELETE_ORPHAN_FOLDERS_SQL =
+            "DELETE FROM bucket_object f WHERE f.bucket_id = ? AND f.folder = true AND NOT EXISTS (" +
+            "SELECT 1 FROM bucket_object c WHERE c.bucket_id = f.bucket_id AND c.folder = false " +
+            "AND c.object_key >= f.object_key AND c.object_key < (left(f.object_key, -1) || '0'))";
+
+    private final BucketRepository bucketRepository;
+    private final BucketObjectRepository bucketObjectRepository;
+    private final BucketIndexStateRepository bucketIndexStateRepository;
+    private final UploadFileRepository uploadFileRepository;
+    private final S3ClientRegistry s3ClientRegistry;
+    private final BucketUsageService bucketUsageService;
+    private final S3ParallelLister s3ParallelLister;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxRangeRows;
+
+    // 동기화 중인 버킷 id (중복 실행 방지)
+    private final Set<String> syncingBuckets = ConcurrentHashMap.newKeySet();
+    // 백그라운드 동기화 대기 중인 버킷 id (같은 버킷을 여러 번 넣지 않음)
+    private final Set<String> queuedSyncs = ConcurrentHashMap.newKeySet();
+    // 주기/수동 동기화 처리용
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bucket-index-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BucketObjectIndexService(BucketRepository bucketRepository,
+                                    BucketObjectRepository bucketObjectRepository,
+                                    BucketIndexStateRepository bucketIndexStateRepository,
+                                    UploadFileRepository uploadFileRepository,
+                                    S3ClientRegistry s3ClientRegistry,
+                                    BucketUsageService bucketUsageService,
+                                    S3ParallelLister s3ParallelLister,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${s3.index.max-range-rows:10000}") int maxRangeRows) {
+        this.bucketRepository = bucketRepository;
+        this.bucketObjectRepository = bucketObjectRepository;
+        this.bucketIndexStateRepository = bucketIndexStateRepository;
+        this.uploadFileRepository = uploadFileRepository;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.bucketUsageService = bucketUsageService;
+        this.s3ParallelLister = s3ParallelLister;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.maxRangeRows = maxRangeRows;
+    }
+
+    /* ========================= 동기화 ========================= */
+
+    /**
+     * 전체 버킷 주기 동기화
+     * - 스케줄러 스레드는 작업만 넣고, 실제 조회는 syncExecutor 에서 실행한다. (다른 @Scheduled 작업을 막지 않음)
+     */
+    @Scheduled(initialDelayString = "${s3.index.initial-delay-ms:30000}", fixedDelayString = "${s3.index.sync-interval-ms:600000}")
+    public void syncAllBuckets() {
+        for (BucketEntity bucket : bucketRepository.findAll()) {
+            submitSync(bucket);
+        }
+    }
+
+    /**
+     * 수동 동기화 요청 (백그라운드 실행)
+     */
+    public BucketIndexStatusDto requestSync(String bucketName) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        submitSync(bucket);
+        return getStatus(bucketName);
+    }
+
+    private void submitSync(BucketEntity bucket) {
+        if (!queuedSyncs.add(bucket.getId())) {
+            return;
+        }
+        syncExecutor.submit(() -> {
+            try {
+                syncBucket(bucket);
+            } finally {
+                queuedSyncs.remove(bucket.getId());
+            }
+        });
+    }
+
+    /**
+     * 버킷 전체를 페이지 단위로 조회하여 인덱스와 동기화
+     * @return 동기화를 실제로 수행했으면 true (이미 다른 스레드가 동기화 중이면 false)
+     */
+    public boolean syncBucket(BucketEntity bucket) {
+        if (!syncingBuckets.add(bucket.getId())) {
+            return false;
+        }
+
+        BucketIndexStateEntity state = bucketIndexStateRepository.findByBucketId(bucket.getId())
+                .orElseGet(() -> new BucketIndexStateEntity(bucket));
+        state.setStatus(EBucketIndexStatus.SYNCING);
+        state.setLastSyncStartedAt(LocalDateTime.now());
+        state = bucketIndexStateRepository.save(state);
+
+        long started = System.currentTimeMillis();
+        try {
+            S3Client s3Client = s3ClientRegistry.getClient(bucket);
+            state.setBucketOwner(fetchBucketOwner(s3Client, bucket.getName()));
+
+            if (state.getLastSyncedAt() != null) {
+                bucketUsageService.ensureRollups(bucket.getId());
+            }
+            bucketUsageService.clearStale(bucket.getId(), null);
+
+            int pages = scan(bucket, null);
+
+            bucketUsageService.completeRefresh(state, null);
+            state.setStatus(EBucketIndexStatus.READY);
+            state.setLastSyncedAt(LocalDateTime.now());
+            state.setLastError(null);
+
+            log.info("📚 버킷 인덱스 동기화 완료 | bucket: {} | pages: {} | objects: {} | {}ms",
+                    bucket.getName(), pages, state.getObjectCount(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("❌ 버킷 인덱스 동기화 실패 | bucket: {}", bucket.getName(), e);
+            state.setStatus(EBucketIndexStatus.FAILED);
+            String message = String.valueOf(e.getMessage());
+            state.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        } finally {
+            bucketIndexStateRepository.save(state);
+            syncingBuckets.remove(bucket.getId());
+        }
+        return true;
+    }
+
+    /**
+     * stale 로 표시된 prefix 만 다시 조회하여 인덱스와 사용량 집계를 갱신
+     */
+    @Scheduled(initialDelayString = "${s3.index.initial-delay-ms:30000}", fixedDelayString = "${s3.usage.refresh-interval-ms:30000}")
+    public void refreshStalePrefixes() {
+        Set<String> fullySynced = new HashSet<>();
+        for (BucketPrefixUsageEntity usage : bucketUsageService.findStalePrefixes()) {
+            BucketEntity bucket = usage.getBucket();
+            if (fullySynced.contains(bucket.getId())) {
+                continue;
+            }
+            Optional<BucketIndexStateEntity> state = bucketIndexStateRepository.findByBucketId(bucket.getId());
+            if (state.isEmpty() || state.get().getLastSyncedAt() == null || usage.getPrefix().isEmpty()) {
+                // 인덱스가 아직 없거나 루트 객체가 바뀐 경우는 전체 동기화로 처리
+                syncBucket(bucket);
+                fullySynced.add(bucket.getId());
+            } else {
+                refreshPrefix(bucket, state.get(), usage.getPrefix());
+            }
+        }
+    }
+
+    private void refreshPrefix(BucketEntity bucket, BucketIndexStateEntity state, String prefix) {
+        if (!syncingBuckets.add(bucket.getId())) {
+            return; // 다른 동기화가 진행 중이면 다음 주기에 다시 시도
+        }
+        try {
+            bucketUsageService.clearStale(bucket.getId(), prefix);
+            int pages = scan(bucket, prefix);
+            bucketUsageService.completeRefresh(state, prefix);
+            bucketIndexStateRepository.save(state);
+            log.debug("📊 prefix 사용량 갱신 | bucket: {} | prefix: {} | pages: {}", bucket.getName(), prefix, pages);
+        } catch (Exception e) {
+            log.warn("⚠️ prefix 사용량 갱신 실패 | bucket: {} | prefix: {}", bucket.getName(), prefix, e);
+            bucketUsageService.markStale(bucket.getId(), prefix);
+        } finally {
+            syncingBuckets.remove(bucket.getId());
+        }
+    }
+
+    /**
+     * prefix(null 이면 버킷 전체) 하위를 페이지 단위로 조회하며 인덱스에 반영
+     * (하위 prefix 들을 병렬로 조회하되 페이지는 키 순서대로 도착한다)
+     * @return 처리한 페이지 수
+     */
+    private int scan(BucketEntity bucket, String prefix) {
+        // 각 페이지는 (직전 페이지 마지막 키, 이번 페이지 마지막 키] 구간을 덮는다. 첫 페이지는 prefix 이상부터.
+        KeyBound[] lower = {prefix != null ? new KeyBound(prefix, true) : null};
+        boolean[] anyDeleted = {false};
+
+        int pages = s3ParallelLister.list(bucket, prefix, true, contents -> {
+            KeyBound upper = new KeyBound(contents.get(contents.size() - 1).key(), true);
+            KeyBound pageLower = lower[0];
+            Boolean deleted = transactionTemplate.execute(status ->
+                    applyPage(bucket.getId(), pageLower, upper, contents));
+            anyDeleted[0] |= Boolean.TRUE.equals(deleted);
+            lower[0] = new KeyBound(upper.key, false);
+        });
+
+        // 마지막 페이지 이후 구간 (prefix 상한 미만) 에 남아 있는 인덱스 행은 삭제된 객체
+        KeyBound upper = prefix != null ? new KeyBound(prefixUpperBound(prefix), false) : null;
+        Boolean deleted = transactionTemplate.execute(status ->
+                applyPage(bucket.getId(), lower[0], upper, List.of()));
+        anyDeleted[0] |= Boolean.TRUE.equals(deleted);
+
+        if (anyDeleted[0]) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update(DELETE_ORPHAN_FOLDERS_SQL, bucket.getId()));
+        }
+        return pages;
+    }
+
+    /**
+     * 한 페이지 분량의 S3 객체를 같은 키 구간의 인덱스 행과 비교하여 반영
+     * @return 삭제된 객체가 있으면 true
+     */
+    private boolean applyPage(String bucketId, KeyBound lower, KeyBound upper, List<S3Object> contents) {
+        StringBuilder sql = new StringBuilder(SELECT_RANGE_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(bucketId);
+        if (lower != null) {
+            sql.append(lower.inclusive ? " AND object_key >= ?" : " AND object_key > ?");
+            args.add(lower.key);
+        }
+        if (upper != null) {
+            sql.append(upper.inclusive ? " AND object_key <= ?" : " AND object_key < ?");
+            args.add(upper.key);
+        }
+
+        Map<String, IndexedObject> existing = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            existing.put(rs.getString("object_key"), new IndexedObject(rs.getString("etag"), rs.getLong("object_size")));
+        }, args.toArray());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> upserts = new ArrayList<>();
+        Map<String, Object[]> folders = new LinkedHashMap<>();
+        Map<String, BucketUsageService.UsageDelta> usageDeltas = new HashMap<>();
+
+        for (S3Object object : contents) {
+            IndexedObject indexed = existing.remove(object.key());
+            if (indexed != null && Objects.equals(indexed.etag, object.eTag()) && indexed.size == object.size()) {
+                continue; // 변경 없음
+            }
+
+            String key = object.key();
+            String parentPrefix = parentPrefixOf(key);
+            upserts.add(new Object[]{
+                    UUID.randomUUID().toString(), bucketId, key, parentPrefix, nameOf(key), depthOf(parentPrefix),
+                    object.size(), object.eTag(),
+                    object.owner() != null ? object.owner().displayName() : null,
+                    object.lastModified() != null ? Timestamp.from(object.lastModified()) : null,
+                    now
+            });
+            usageDeltas.computeIfAbsent(BucketUsageService.topLevelPrefixOf(key), p -> new BucketUsageService.UsageDelta())
+                    .add(indexed == null ? 1 : 0, object.size() - (indexed == null ? 0 : indexed.size));
+
+            // 새 객체의 상위 폴더들도 인덱스에 등록
+            for (String folder : foldersOf(key)) {
+                folders.computeIfAbsent(folder, f -> {
+                    String folderParent = parentPrefixOf(f);
+                    return new Object[]{UUID.randomUUID().toString(), bucketId, f, folderParent, nameOf(f), depthOf(folderParent), now};
+                });
+            }
+        }
+
+        // 이번 페이지 구간에 있었지만 S3 에서 사라진 객체
+        List<Object[]> deletes = new ArrayList<>();
+        existing.forEach((key, indexed) -> {
+            deletes.add(new Object[]{bucketId, key});
+            usageDeltas.computeIfAbsent(BucketUsageService.topLevelPrefixOf(key), p -> new BucketUsageService.UsageDelta())
+                    .add(-1, -indexed.size);
+        });
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_OBJECT_SQL, upserts);
+        }
+        if (!folders.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FOLDER_SQL, new ArrayList<>(folders.values()));
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_OBJECT_SQL, deletes);
+        }
+        bucketUsageService.applyDeltas(bucketId, usageDeltas);
+        return !deletes.isEmpty();
+    }
+
+    private String fetchBucketOwner(S3Client s3Client, String bucketName) {
+        try {
+            return s3Client.getBucketAcl(GetBucketAclRequest.builder().bucket(bucketName).build())
+                    .owner().displayName();
+        } catch (Exception e) {
+            log.warn("⚠️ 버킷 소유자 조회 실패 | bucket: {}", bucketName);
+            return null;
+        }
+    }
+
+    /**
+     * 버킷 삭제 시 인덱스 제거
+     */
+    public void deleteIndex(String bucketId) {
+        bucketUsageService.deleteUsage(bucketId);
+        bucketObjectRepository.deleteByBucketId(bucketId);
+        bucketIndexStateRepository.deleteByBucketId(bucketId);
+    }
+
+    public BucketIndexStatusDto getStatus(String bucketName) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        return bucketIndexStateRepository.findByBucketId(bucket.getId())
+                .map(state -> new BucketIndexStatusDto(bucketName, state.getStatus(), state.getObjectCount(),
+                        state.getTotalSize(), state.getLastSyncedAt(), state.getLastError()))
+                .orElseGet(() -> new BucketIndexStatusDto(bucketName, EBucketIndexStatus.NOT_INDEXED, 0, 0, null, null));
+    }
+
+    /* ========================= 조회 ========================= */
+
+    /**
+     * 버킷 전체 사용량 (집계값 조회, S3 호출 없음)
+     */
+    public BucketUsageDto getBucketUsage(String bucketName) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        return bucketUsageService.getBucketUsage(ensureIndexed(bucket));
+    }
+
+    /**
+     * 인덱스에 집계된 버킷 사용량 (동기화를 시작하지 않음, 한 번도 동기화되지 않았으면 null)
+     */
+    public Long findIndexedBucketSize(String bucketId) {
+        return bucketIndexStateRepository.findByBucketId(bucketId)
+                .filter(state -> state.getLastSyncedAt() != null)
+                .map(BucketIndexStateEntity::getTotalSize)
+                .orElse(null);
+    }
+
+    /**
+     * 최상위 prefix 별 사용량
+     */
+    public List<BucketUsageDto> getPrefixUsage(String bucketName) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        ensureIndexed(bucket);
+        return bucketUsageService.getPrefixUsage(bucket.getId());
+    }
+
+    /**
+     * prefix 하위 폴더 트리 (폴더 행만 범위 조회)
+     */
+    public List<TreeFolderNodeDto> getFolderTree(String bucketName, String prefix) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        ensureIndexed(bucket);
+
+        List<TreeFolderNodeDto> roots = new ArrayList<>();
+        Map<String, TreeFolderNodeDto> nodes = new HashMap<>();
+
+        forEachInRange(bucket.getId(), true, prefix, folder -> {
+            String path = folder.getObjectKey().substring(0, folder.getObjectKey().length() - 1);
+            ensureFolderNode(path, nodes, roots);
+        });
+        return roots;
+    }
+
+    /**
+     * 버킷 정보 + prefix 하위 폴더/파일 트리
+     * - prefix 가 없으면 최상위 파일과 최상위 폴더를 함께 담는다.
+     */
+    public ObjectNode getBucketObjects(String bucketName, String prefix) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        BucketIndexStateEntity state = ensureIndexed(bucket);
+
+        S3ObjectTreeBuilder treeBuilder = new S3ObjectTreeBuilder(objectMapper);
+        if (prefix == null || prefix.isEmpty()) {
+            forEachInRange(bucket.getId(), true, prefix, folder ->
+                    treeBuilder.add(folder.getObjectKey(), 0, folder.getOwnerName(), folder.getLastModified()));
+        }
+        forEachInRange(bucket.getId(), false, prefix, object ->
+                treeBuilder.add(object.getObjectKey(), object.getSize(), object.getOwnerName(), object.getLastModified()));
+
+        ObjectNode rootNode = objectMapper.createObjectNode();
+        rootNode.put("bucketName", bucketName);
+        rootNode.put("bucketOwner", state.getBucketOwner());
+        rootNode.put("bucketSize", bucketUsageService.getBucketUsage(state).getUsedSize());
+        rootNode.set("files", treeBuilder.getFilesNode());
+        return rootNode;
+    }
+
+    /**
+     * prefix 하위 전체 파일 + 업로드 파일 메타 정보
+     */
+    public List<Map<String, Object>> getFilesUnderFolder(String bucketName, String prefix) {
+        BucketEntity bucket = findBucketOrThrow(bucketName);
+        ensureIndexed(bucket);
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        List<String> filePaths = new ArrayList<>();
+
+        forEachInRange(bucket.getId(), false, prefix, object -> {
+            if (object.getSize() == 0) return;
+
+            filePaths.add(object.getObjectKey());
+
+            Map<String, Object> fileInfo = new HashMap<>();
+            fileInfo.put("filePath", object.getObjectKey());
+            fileInfo.put("title", object.getName());
+            fileInfo.put("fileSize", object.getSize());
+            fileInfo.put("owner", object.getOwnerName() != null ? object.getOwnerName() : "Unknown");
+            fileInfo.put("lastModified", String.valueOf(object.getLastModified()));
+            fileInfo.put("type", "File");
+            result.add(fileInfo);
+        });
+
+        // 🔹 업로드된 파일 메타 정보 조회 (IN 절 파라미터 수 제한 때문에 나눠서 조회)
+        Map<String, UploadFileEntity> pathToUploadFileMap = new HashMap<>();
+        for (int i = 0; i < filePaths.size(); i += UPLOAD_FILE_LOOKUP_CHUNK) {
+            List<String> chunk = filePaths.subList(i, Math.min(i + UPLOAD_FILE_LOOKUP_CHUNK, filePaths.size()));
+            for (UploadFileEntity uploaded : uploadFileRepository.findByS3UrlIn(chunk)) {
+                pathToUploadFileMap.putIfAbsent(uploaded.getS3Url(), uploaded);
+            }
+        }
+
+        for (Map<String, Object> file : result) {
+            UploadFileEntity uploaded = pathToUploadFileMap.get((String) file.get("filePath"));
+            if (uploaded != null) {
+                file.put("parserName", uploaded.getParser() != null ? uploaded.getParser().getName() : "");
+                file.put("parserId", uploaded.getParser() != null ? uploaded.getParser().getId() : "");
+                file.put("dbcFileId", uploaded.getDbc() != null ? uploaded.getDbc().getId() : null);
+                file.put("id", uploaded.getId());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 한 번도 동기화되지 않은 버킷은 백그라운드 동기화를 시작하고 BUCKET_INDEXING 으로 응답
+     * (요청 스레드에서 버킷 전체를 조회하지 않는다)
+     */
+    private BucketIndexStateEntity ensureIndexed(BucketEntity bucket) {
+        Optional<BucketIndexStateEntity> state = bucketIndexStateRepository.findByBucketId(bucket.getId());
+        if (state.isPresent() && state.get().getLastSyncedAt() != null) {
+            return state.get();
+        }
+        if (!syncingBuckets.contains(bucket.getId())) {
+            submitSync(bucket);
+        }
+        throw new ApiException(ErrorCode.BUCKET_INDEXING);
+    }
+
+    /**
+     * prefix 하위 항목 (prefix 가 없으면 버킷 최상위 항목만) 을 키 순서로 전달
+     * - maxRangeRows 행씩 읽고, 마지막 키 다음부터 이어서 조회한다. (keyset 페이징, 결과를 자르지 않음)
+     */
+    private void forEachInRange(String bucketId, boolean folder, String prefix, Consumer<BucketObjectEntity> consumer) {
+        boolean topLevel = prefix == null || prefix.isEmpty();
+        String upper = topLevel ? null : prefixUpperBound(prefix);
+        PageRequest limit = PageRequest.of(0, maxRangeRows);
+
+        List<BucketObjectEntity> rows = topLevel
+                ? bucketObjectRepository.findChildrenOf(bucketId, folder, "", limit)
+                : bucketObjectRepository.findInRange(bucketId, folder, prefix, upper, limit);
+        while (true) {
+            rows.forEach(consumer);
+            if (rows.size() < maxRangeRows) {
+                return;
+            }
+            String after = rows.get(rows.size() - 1).getObjectKey();
+            rows = topLevel
+                    ? bucketObjectRepository.findChildrenOfAfter(bucketId, folder, "", after, limit)
+                    : bucketObjectRepository.findInRangeAfter(bucketId, folder, after, upper, limit);
+        }
+    }
+
+    private void ensureFolderNode(String path, Map<String, TreeFolderNodeDto> nodes, List<TreeFolderNodeDto> roots) {
+        if (nodes.containsKey(path)) {
+            return;
+        }
+        int slash = path.lastIndexOf('/');
+        TreeFolderNodeDto node = new TreeFolderNodeDto();
+        node.setTitle(slash < 0 ? path : path.substring(slash + 1));
+        node.setKey(path);
+        node.setChildren(new ArrayList<>());
+        nodes.put(path, node);
+
+        if (slash < 0) {
+            roots.add(node);
+        } else {
+            String parentPath = path.substring(0, slash);
+            ensureFolderNode(parentPath, nodes, roots);
+            nodes.get(parentPath).getChildren().add(node);
+        }
+    }
+
+    private BucketEntity findBucketOrThrow(String bucketName) {
+        return bucketRepository.findByName(bucketName)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "버킷을 찾을 수 없습니다."));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    /* ========================= 키 유틸 ========================= */
+
+    /**
+     * prefix 로 시작하는 모든 키보다 큰 최소 문자열 (마지막 코드포인트 + 1)
+     */
+    static String prefixUpperBound(String prefix) {
+        int lastCodePoint = prefix.codePointBefore(prefix.length());
+        String head = prefix.substring(0, prefix.length() - Character.charCount(lastCodePoint));
+        return head + new String(Character.toChars(lastCodePoint + 1));
+    }
+
+    // "a/b/c.txt" → "a/b/", 폴더 마커 "a/b/" → "a/"
+    static String parentPrefixOf(String key) {
+        String trimmed = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        int slash = trimmed.lastIndexOf('/');
+        return slash < 0 ? "" : trimmed.substring(0, slash + 1);
+    }
+
+    static String nameOf(String key) {
+        String trimmed = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    static int depthOf(String parentPrefix) {
+        int depth = 0;
+        for (int i = 0; i < parentPrefix.length(); i++) {
+            if (parentPrefix.charAt(i) == '/') depth++;
+        }
+        return depth;
+    }
+
+    // "a/b/c.txt" → ["a/", "a/b/"]
+    static List<String> foldersOf(String key) {
+        List<String> folders = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '/') {
+                folders.add(key.substring(0, i + 1));
+            }
+        }
+        return folders;
+    }
+
+    private record IndexedObject(String etag, long size) {
+    }
+
+    private record KeyBound(String key, boolean inclusive) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.BucketUsageDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketIndexStateEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketPrefixUsageEntity;
+import com.suresoft.analyzer.backend.repository.storage.BucketPrefixUsageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 버킷 사용량 집계 서비스
+ * - 버킷의 최상위 prefix 별 객체 수/용량을 BUCKET_PREFIX_USAGE 에 누적 관리한다.
+ * - 최초 전체 동기화에서 집계가 만들어지고, 이후에는 인덱스 동기화가 찾아낸 변경분(추가/변경/삭제)만 더하고 뺀다.
+ * - 업로드 파일이 등록되면 해당 prefix 를 stale 로 표시하고, 인덱스 서비스가 백그라운드에서 그 prefix 만 다시 조회한다.
+ * - 버킷 전체 사용량은 prefix 행의 합계를 BUCKET_INDEX_STATE 에 저장해 두고 그대로 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BucketUsageService {
+
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO bucket_prefix_usage (id, bucket_id, prefix, object_count, total_bytes, stale, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?) " +
+            "ON CONFLICT (bucket_id, prefix) DO UPDATE SET " +
+            "object_count = bucket_prefix_usage.object_count + EXCLUDED.object_count, " +
+            "total_bytes = bucket_prefix_usage.total_bytes + EXCLUDED.total_bytes, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String MARK_STALE_SQL =
+            "INSERT INTO bucket_prefix_usage (id, bucket_id, prefix, object_count, total_bytes, stale, updated_at) " +
+            "VALUES (?, ?, ?, 0, 0, true, ?) " +
+            "ON CONFLICT (bucket_id, prefix) DO UPDATE SET stale = true";
+
+    // 집계 테이블이 생기기 전에 이미 인덱스가 만들어진 버킷은 인덱스에서 한 번 집계해 둔다.
+    private static final String REBUILD_FROM_INDEX_SQL =
+            "INSERT INTO bucket_prefix_usage (id, bucket_id, prefix, object_count, total_bytes, stale, updated_at) " +
+            "SELECT gen_random_uuid()::text, bucket_id, p.prefix, COUNT(*), COALESCE(SUM(object_size), 0), false, ? " +
+            "FROM bucket_object, LATERAL (SELECT CASE WHEN strpos(object_key, '/') = 0 THEN '' " +
+            "ELSE left(object_key, strpos(object_key, '/')) END AS prefix) p " +
+            "WHERE bucket_id = ? AND folder = false GROUP BY bucket_id, p.prefix " +
+            "ON CONFLICT (bucket_id, prefix) DO NOTHING";
+
+    private static final String CLEAR_STALE_SQL =
+            "UPDATE bucket_prefix_usage SET stale = false WHERE bucket_id = ?";
+
+    private static final String TOUCH_SQL =
+            "UPDATE bucket_prefix_usage SET updated_at = ? WHERE bucket_id = ?";
+
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM bucket_prefix_usage WHERE bucket_id = ? AND object_count <= 0 AND stale = false";
+
+    private static final String TOTAL_SQL =
+            "SELECT COALESCE(SUM(object_count), 0) AS cnt, COALESCE(SUM(total_bytes), 0) AS total " +
+            "FROM bucket_prefix_usage WHERE bucket_id = ?";
+
+    private final BucketPrefixUsageRepository bucketPrefixUsageRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /* ========================= 집계 갱신 (인덱스 동기화에서 호출) ========================= */
+
+    /**
+     * 인덱스는 있는데 집계 행이 하나도 없으면 인덱스로부터 집계를 만든다.
+     */
+    public void ensureRollups(String bucketId) {
+        if (bucketPrefixUsageRepository.existsByBucketId(bucketId)) {
+            return;
+        }
+        int rows = jdbcTemplate.update(REBUILD_FROM_INDEX_SQL, Timestamp.valueOf(LocalDateTime.now()), bucketId);
+        if (rows > 0) {
+            log.info("📊 버킷 사용량 집계 생성 | bucketId: {} | prefixes: {}", bucketId, rows);
+        }
+    }
+
+    /**
+     * 재조회 시작 시점에 stale 표시 해제 (조회 도중 새로 등록된 파일은 다시 stale 로 표시된다)
+     * @param prefix null 이면 버킷 전체
+     */
+    public void clearStale(String bucketId, String prefix) {
+        jdbcTemplate.update(withPrefix(CLEAR_STALE_SQL, prefix), withPrefixArgs(prefix, bucketId));
+    }
+
+    /**
+     * 인덱스 동기화 한 페이지의 변경분 반영 (페이지 반영과 같은 트랜잭션에서 호출)
+     */
+    public void applyDeltas(String bucketId, Map<String, UsageDelta> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>();
+        deltas.forEach((prefix, delta) -> {
+            if (delta.count != 0 || delta.bytes != 0) {
+                args.add(new Object[]{UUID.randomUUID().toString(), bucketId, prefix, delta.count, delta.bytes, now});
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+        }
+    }
+
+    /**
+     * 재조회 완료 후 갱신 시각 기록 및 버킷 합계를 상태에 반영
+     * @param prefix null 이면 버킷 전체
+     */
+    public void completeRefresh(BucketIndexStateEntity state, String prefix) {
+        String bucketId = state.getBucket().getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.update(withPrefix(TOUCH_SQL, prefix), withPrefixArgs(prefix, Timestamp.valueOf(now), bucketId));
+        jdbcTemplate.update(DELETE_EMPTY_SQL, bucketId);
+
+        Map<String, Object> total = jdbcTemplate.queryForMap(TOTAL_SQL, bucketId);
+        state.setObjectCount(((Number) total.get("cnt")).longValue());
+        state.setTotalSize(((Number) total.get("total")).longValue());
+        state.setUsageUpdatedAt(now);
+    }
+
+    /**
+     * 업로드 파일 등록 시 해당 객체가 속한 prefix 를 재계산 대상으로 표시
+     */
+    public void markStale(String bucketId, String objectKey) {
+        jdbcTemplate.update(MARK_STALE_SQL, UUID.randomUUID().toString(), bucketId,
+                topLevelPrefixOf(objectKey), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * 여러 객체 키를 한 번에 stale 표시 (같은 최상위 prefix 는 한 번만 기록)
+     */
+    public void markStale(String bucketId, Collection<String> objectKeys) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = objectKeys.stream()
+                .map(BucketUsageService::topLevelPrefixOf)
+                .distinct()
+                .map(prefix -> new Object[]{UUID.randomUUID().toString(), bucketId, prefix, now})
+                .toList();
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_STALE_SQL, args);
+        }
+    }
+
+    public List<BucketPrefixUsageEntity> findStalePrefixes() {
+        return bucketPrefixUsageRepository.findAllStale();
+    }
+
+    public void deleteUsage(String bucketId) {
+        bucketPrefixUsageRepository.deleteByBucketId(bucketId);
+    }
+
+    /* ========================= 조회 ========================= */
+
+    public BucketUsageDto getBucketUsage(BucketIndexStateEntity state) {
+        if (state == null) {
+            return new BucketUsageDto(null, 0, 0, null, true);
+        }
+        boolean stale = bucketPrefixUsageRepository.existsByBucketIdAndStaleTrue(state.getBucket().getId());
+        return new BucketUsageDto(null, state.getTotalSize(), state.getObjectCount(), state.getUsageUpdatedAt(), stale);
+    }
+
+    public List<BucketUsageDto> getPrefixUsage(String bucketId) {
+        return bucketPrefixUsageRepository.findByBucketId(bucketId).stream()
+                .map(usage -> new BucketUsageDto(usage.getPrefix(), usage.getTotalBytes(), usage.getObjectCount(),
+                        usage.getUpdatedAt(), usage.isStale()))
+                .toList();
+    }
+
+    /* ========================= 유틸 ========================= */
+
+    // "session/a/b.mp4" → "session/", 루트 객체 "b.mp4" → ""
+    static String topLevelPrefixOf(String key) {
+        int slash = key.indexOf('/');
+        return slash < 0 ? "" : key.substring(0, slash + 1);
+    }
+
+    private static String withPrefix(String sql, String prefix) {
+        return prefix == null ? sql : sql + " AND prefix = ?";
+    }
+
+    private static Object[] withPrefixArgs(String prefix, Object... args) {
+        if (prefix == null) {
+            return args;
+        }
+        Object[] withPrefix = new Object[args.length + 1];
+        System.arraycopy(args, 0, withPrefix, 0, args.length);
+        withPrefix[args.length] = prefix;
+        return withPrefix;
+    }
+
+    /**
+     * prefix 하나에 대한 객체 수/용량 변화량
+     */
+    public static final class UsageDelta {
+        private long count;
+        private long bytes;
+
+        public void add(long countDelta, long bytesDelta) {
+            this.count += countDelta;
+            this.bytes += bytesDelta;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EMultipartUploadStatus;
+import com.suresoft.analyzer.backend.dto.storage.MultipartPartDto;
+import com.suresoft.analyzer.backend.dto.storage.MultipartUploadDto;
+import com.suresoft.analyzer.backend.dto.storage.PresignedPartUrlDto;
+import com.suresoft.analyzer.backend.dto.storage.request.MultipartPartCompleteRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.MultipartUploadStartRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.UploadFileCreateRequest;
+import com.suresoft.analyzer.backend.entity.auth.UserEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.storage.MultipartUploadEntity;
+import com.suresoft.analyzer.backend.entity.storage.MultipartUploadPartEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.auth.UserRepository;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.storage.MultipartUploadPartRepository;
+import com.suresoft.analyzer.backend.repository.storage.MultipartUploadRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * presigned URL 기반 멀티파트 업로드
+ * - 서버는 업로드 시작/완료와 파트별 presigned URL 발급만 담당하고, 파트 바이트는 클라이언트가 S3 로 직접 병렬 전송한다.
+ * - 파트 ETag 는 클라이언트 보고값을 기록하되, 재개/완료 시에는 S3 ListParts 결과를 기준으로 맞춘다.
+ * - 완료 시 S3 병합 후 같은 트랜잭션에서 StorageService 로 업로드 파일을 등록한다.
+ * - 완료 요청은 재시도해도 안전하다. 이미 완료된 업로드는 같은 결과를 돌려주고,
+ *   S3 병합은 됐지만 기록이 남지 않은 경우 (NoSuchUpload) 병합된 객체를 확인해 등록을 마저 진행한다.
+ */
+@Slf4j
+@Service
+public class MultipartUploadService {
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;        // S3 최소 파트 크기 (마지막 파트 제외)
+    private static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024; // S3 최대 파트 크기
+    private static final int MAX_PART_COUNT = 10_000;
+    private static final int MAX_URLS_PER_REQUEST = 1_000;
+
+    private final MultipartUploadRepository multipartUploadRepository;
+    private final MultipartUploadPartRepository multipartUploadPartRepository;
+    private final BucketRepository bucketRepository;
+    private final UserRepository userRepository;
+    private final S3ClientRegistry s3ClientRegistry;
+    private final StorageService storageService;
+    private final long defaultPartSize;
+    private final Duration presignExpiry;
+    private final Duration staleAfter;
+
+    public MultipartUploadService(MultipartUploadRepository multipartUploadRepository,
+                                  MultipartUploadPartRepository multipartUploadPartRepository,
+                                  BucketRepository bucketRepository,
+                                  UserRepository userRepository,
+                                  S3ClientRegistry s3ClientRegistry,
+                                  StorageService storageService,
+                                  @Value("${s3.multipart.default-part-size-mb:64}") long defaultPartSizeMb,
+                                  @Value("${s3.multipart.presign-expiry-minutes:60}") long presignExpiryMinutes,
+                                  @Value("${s3.multipart.expire-hours:72}") long expireHours) {
+        this.multipartUploadRepository = multipartUploadRepository;
+        this.multipartUploadPartRepository = multipartUploadPartRepository;
+        this.bucketRepository = bucketRepository;
+        this.userRepository = userRepository;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.storageService = storageService;
+        this.defaultPartSize = defaultPartSizeMb * 1024 * 1024;
+        this.presignExpiry = Duration.ofMinutes(presignExpiryMinutes);
+        this.staleAfter = Duration.ofHours(expireHours);
+    }
+
+    /**
+     * 멀티파트 업로드 시작
+     */
+    @Transactional
+    public MultipartUploadDto start(MultipartUploadStartRequest request, String userId) {
+        if (request.getPath() == null || request.getPath().isBlank() || request.getFileSize() <= 0) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "업로드 경로와 파일 크기를 확인해주세요.");
+        }
+        // 본인이 등록한 버킷에만 업로드할 수 있다.
+        BucketEntity bucket = bucketRepository.findByUserIdAndId(userId, request.getBucketId())
+                .orElseThrow(() -> new ApiException(ErrorCode.FORBIDDEN, "해당 버킷에 업로드할 권한이 없습니다."));
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "사용자를 찾을 수 없습니다."));
+
+        long partSize = resolvePartSize(request.getFileSize(), request.getPartSize());
+        int partCount = (int) ((request.getFileSize() + partSize - 1) / partSize);
+
+        CreateMultipartUploadResponse response = s3ClientRegistry.getClient(bucket).createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket.getName())
+                        .key(request.getPath())
+                        .contentType(request.getContentType())
+                        .build());
+
+        MultipartUploadEntity upload = new MultipartUploadEntity();
+        upload.setBucket(bucket);
+        upload.setUser(user);
+        upload.setObjectKey(request.getPath());
+        upload.setS3UploadId(response.uploadId());
+        upload.setName(request.getName() != null ? request.getName() : BucketObjectIndexService.nameOf(request.getPath()));
+        upload.setParserId(request.getParserId());
+        upload.setDbcFileId(request.getDbcFileId());
+        upload.setFileSize(request.getFileSize());
+        upload.setPartSize(partSize);
+        upload.setPartCount(partCount);
+        multipartUploadRepository.save(upload);
+
+        log.info("⬆️ 멀티파트 업로드 시작 | key: {} | size: {} | parts: {} x {}",
+                upload.getObjectKey(), upload.getFileSize(), partCount, partSize);
+        return toDto(upload, List.of());
+    }
+
+    /**
+     * 파트별 presigned PUT URL 발급
+     */
+    @Transactional
+    public List<PresignedPartUrlDto> presignParts(String uploadId, List<Integer> partNumbers, String userId) {
+        MultipartUploadEntity upload = findInProgressOrThrow(uploadId, userId);
+        if (partNumbers == null || partNumbers.isEmpty() || partNumbers.size() > MAX_URLS_PER_REQUEST) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "파트 번호는 1개 이상 " + MAX_URLS_PER_REQUEST + "개 이하로 요청해주세요.");
+        }
+
+        List<PresignedPartUrlDto> result = new ArrayList<>();
+        try (S3Presigner presigner = s3ClientRegistry.createPresigner(upload.getBucket())) {
+            for (Integer partNumber : partNumbers) {
+                if (partNumber == null || partNumber < 1 || partNumber > upload.getPartCount()) {
+                    throw new ApiException(ErrorCode.BAD_REQUEST, "유효하지 않은 파트 번호입니다: " + partNumber);
+                }
+                PresignedUploadPartRequest presigned = presigner.presignUploadPart(p -> p
+                        .signatureDuration(presignExpiry)
+                        .uploadPartRequest(UploadPartRequest.builder()
+                                .bucket(upload.getBucket().getName())
+                                .key(upload.getObjectKey())
+                                .uploadId(upload.getS3UploadId())
+                                .partNumber(partNumber)
+                                .build()));
+                result.add(new PresignedPartUrlDto(partNumber, presigned.url().toString(), presigned.expiration()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 클라이언트가 파트 업로드 후 ETag 보고
+     */
+    @Transactional
+    public void recordPart(String uploadId, int partNumber, MultipartPartCompleteRequest request, String userId) {
+        MultipartUploadEntity upload = findInProgressOrThrow(uploadId, userId);
+        if (partNumber < 1 || partNumber > upload.getPartCount() || request.getEtag() == null || request.getEtag().isBlank()) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "파트 번호 또는 ETag 가 올바르지 않습니다.");
+        }
+
+        MultipartUploadPartEntity part = multipartUploadPartRepository.findByUploadIdAndPartNumber(uploadId, partNumber)
+                .orElseGet(() -> new MultipartUploadPartEntity(upload, partNumber, request.getEtag(), request.getSize()));
+        part.setEtag(request.getEtag());
+        part.setSize(request.getSize());
+        part.setUploadedAt(LocalDateTime.now());
+        multipartUploadPartRepository.save(part);
+
+        upload.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * 업로드 상태 조회 (재개용, S3 에 실제로 올라간 파트 기준)
+     */
+    @Transactional
+    public MultipartUploadDto getUpload(String uploadId, String userId) {
+        MultipartUploadEntity upload = findOwnedOrThrow(uploadId, userId);
+        if (upload.getStatus() != EMultipartUploadStatus.IN_PROGRESS) {
+            return toDto(upload, multipartUploadPartRepository.findAllByUploadIdOrderByPartNumber(uploadId));
+        }
+        try {
+            return toDto(upload, reconcileParts(upload));
+        } catch (NoSuchUploadException e) {
+            throw uploadNotFound();
+        }
+    }
+
+    public List<MultipartUploadDto> getInProgressUploads(String userId) {
+        return multipartUploadRepository.findAllByUserIdAndStatusOrderByCreatedAtDesc(userId, EMultipartUploadStatus.IN_PROGRESS)
+                .stream()
+                .map(upload -> toDto(upload, multipartUploadPartRepository.findAllByUploadIdOrderByPartNumber(upload.getId())))
+                .toList();
+    }
+
+    /**
+     * 업로드 완료 : S3 병합 후 업로드 파일 등록 (결과의 uploadFileId 가 등록된 업로드 파일)
+     */
+    @Transactional
+    public MultipartUploadDto complete(String uploadId, String userId) {
+        MultipartUploadEntity upload = findOwnedOrThrow(uploadId, userId);
+        if (upload.getStatus() == EMultipartUploadStatus.COMPLETED) {
+            // 응답을 받지 못한 클라이언트의 재시도 : 같은 결과를 돌려준다.
+            return toDto(upload, multipartUploadPartRepository.findAllByUploadIdOrderByPartNumber(uploadId));
+        }
+        if (upload.getStatus() != EMultipartUploadStatus.IN_PROGRESS) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "진행 중인 업로드가 아닙니다.");
+        }
+
+        List<MultipartUploadPartEntity> parts;
+        try {
+            parts = reconcileParts(upload);
+
+            if (parts.size() != upload.getPartCount()) {
+                throw new ApiException(ErrorCode.BAD_REQUEST,
+                        "업로드되지 않은 파트가 있습니다. (" + parts.size() + "/" + upload.getPartCount() + ")");
+            }
+
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(part -> CompletedPart.builder().partNumber(part.getPartNumber()).eTag(part.getEtag()).build())
+                    .toList();
+
+            s3ClientRegistry.getClient(upload.getBucket()).completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(upload.getBucket().getName())
+                    .key(upload.getObjectKey())
+                    .uploadId(upload.getS3UploadId())
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (NoSuchUploadException e) {
+            // 이전 완료 요청에서 S3 병합은 끝났지만 등록 전에 실패한 경우
+            if (!isMergedOnS3(upload)) {
+                throw uploadNotFound();
+            }
+            log.info("♻️ 이미 병합된 멀티파트 업로드 등록 | key: {}", upload.getObjectKey());
+            parts = multipartUploadPartRepository.findAllByUploadIdOrderByPartNumber(uploadId);
+        }
+
+        // 🔹 업로드 파일 등록 (기존 등록 파일이 있으면 갱신)
+        UploadFileCreateRequest fileRequest = new UploadFileCreateRequest();
+        fileRequest.setName(upload.getName());
+        fileRequest.setPath(upload.getObjectKey());
+        fileRequest.setBucketId(upload.getBucket().getId());
+        fileRequest.setParserId(upload.getParserId());
+        fileRequest.setDbcFileId(upload.getDbcFileId());
+        String uploadFileId = storageService.createOrUpdateUploadFile(fileRequest, userId);
+
+        upload.setStatus(EMultipartUploadStatus.COMPLETED);
+        upload.setUploadFileId(uploadFileId);
+        multipartUploadRepository.save(upload);
+
+        log.info("✅ 멀티파트 업로드 완료 | key: {} | uploadFileId: {}", upload.getObjectKey(), uploadFileId);
+        return toDto(upload, parts);
+    }
+
+    /**
+     * 업로드 취소 (S3 에 올라간 파트도 삭제)
+     */
+    @Transactional
+    public void abort(String uploadId, String userId) {
+        abortUpload(findInProgressOrThrow(uploadId, userId));
+    }
+
+    /**
+     * 오랫동안 진행되지 않은 업로드 정리 (완료되지 않은 파트도 저장 용량을 차지하므로)
+     */
+    @Scheduled(fixedDelayString = "${s3.multipart.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void abortStaleUploads() {
+        LocalDateTime before = LocalDateTime.now().minus(staleAfter);
+        for (MultipartUploadEntity upload : multipartUploadRepository.findStale(EMultipartUploadStatus.IN_PROGRESS, before)) {
+            try {
+                abortUpload(upload);
+            } catch (Exception e) {
+                log.warn("⚠️ 만료된 멀티파트 업로드 정리 실패 | key: {}", upload.getObjectKey(), e);
+            }
+        }
+    }
+
+    private void abortUpload(MultipartUploadEntity upload) {
+        try {
+            s3ClientRegistry.getClient(upload.getBucket()).abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(upload.getBucket().getName())
+                    .key(upload.getObjectKey())
+                    .uploadId(upload.getS3UploadId())
+                    .build());
+        } catch (NoSuchUploadException e) {
+            // 이미 S3 에서 정리된 업로드
+        }
+        multipartUploadPartRepository.deleteByUploadId(upload.getId());
+        upload.setStatus(EMultipartUploadStatus.ABORTED);
+        multipartUploadRepository.save(upload);
+        log.info("🗑️ 멀티파트 업로드 취소 | key: {}", upload.getObjectKey());
+    }
+
+    /**
+     * 업로드 키에 이 업로드로 병합된 객체가 있는지 확인 (크기와 멀티파트 ETag 의 파트 수 비교)
+     */
+    private boolean isMergedOnS3(MultipartUploadEntity upload) {
+        try {
+            HeadObjectResponse head = s3ClientRegistry.getClient(upload.getBucket()).headObject(HeadObjectRequest.builder()
+                    .bucket(upload.getBucket().getName())
+                    .key(upload.getObjectKey())
+                    .build());
+            String eTag = head.eTag() != null ? head.eTag().replace("\"", "") : "";
+            return head.contentLength() == upload.getFileSize() && eTag.endsWith("-" + upload.getPartCount());
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    private static ApiException uploadNotFound() {
+        return new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "S3 에서 업로드를 찾을 수 없습니다. 다시 업로드해주세요.");
+    }
+
+    /**
+     * S3 ListParts 결과로 파트 기록을 맞춘다. (보고 누락/중복 업로드 보정)
+     * @throws NoSuchUploadException S3 에 업로드가 없을 때 (취소 / 만료 / 이미 병합됨)
+     */
+    private List<MultipartUploadPartEntity> reconcileParts(MultipartUploadEntity upload) {
+        S3Client s3Client = s3ClientRegistry.getClient(upload.getBucket());
+        Map<Integer, MultipartUploadPartEntity> recorded = new HashMap<>();
+        for (MultipartUploadPartEntity part : multipartUploadPartRepository.findAllByUploadIdOrderByPartNumber(upload.getId())) {
+            recorded.put(part.getPartNumber(), part);
+        }
+
+        List<MultipartUploadPartEntity> result = new ArrayList<>();
+        ListPartsRequest request = ListPartsRequest.builder()
+                .bucket(upload.getBucket().getName())
+                .key(upload.getObjectKey())
+                .uploadId(upload.getS3UploadId())
+                .build();
+        for (Part s3Part : s3Client.listPartsPaginator(request).parts()) {
+            MultipartUploadPartEntity part = recorded.remove(s3Part.partNumber());
+            if (part == null) {
+                part = new MultipartUploadPartEntity(upload, s3Part.partNumber(), s3Part.eTag(), s3Part.size());
+            } else {
+                part.setEtag(s3Part.eTag());
+                part.setSize(s3Part.size());
+            }
+            result.add(multipartUploadPartRepository.save(part));
+        }
+
+        // S3 에 없는 파트 기록은 다시 올려야 한다.
+        multipartUploadPartRepository.deleteAll(recorded.values());
+        result.sort(Comparator.comparingInt(MultipartUploadPartEntity::getPartNumber));
+        return result;
+    }
+
+    private long resolvePartSize(long fileSize, Long requested) {
+        long partSize = requested != null && requested > 0 ? requested : defaultPartSize;
+        // 파트 수 제한(10,000개)을 넘지 않도록 키운다.
+        long minimumForCount = (fileSize + MAX_PART_COUNT - 1) / MAX_PART_COUNT;
+        partSize = Math.max(Math.max(partSize, minimumForCount), MIN_PART_SIZE);
+        if (partSize > MAX_PART_SIZE) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "파일이 너무 커서 멀티파트 업로드를 할 수 없습니다.");
+        }
+        return partSize;
+    }
+
+    private MultipartUploadEntity findOwnedOrThrow(String uploadId, String userId) {
+        MultipartUploadEntity upload = multipartUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "업로드를 찾을 수 없습니다."));
+        if (!upload.getUser().getId().equals(userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN);
+        }
+        return upload;
+    }
+
+    private MultipartUploadEntity findInProgressOrThrow(String uploadId, String userId) {
+        MultipartUploadEntity upload = findOwnedOrThrow(uploadId, userId);
+        if (upload.getStatus() != EMultipartUploadStatus.IN_PROGRESS) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "진행 중인 업로드가 아닙니다.");
+        }
+        return upload;
+    }
+
+    private MultipartUploadDto toDto(MultipartUploadEntity upload, List<MultipartUploadPartEntity> parts) {
+        Set<Integer> uploaded = new HashSet<>();
+        List<MultipartPartDto> partDtos = new ArrayList<>();
+        for (MultipartUploadPartEntity part : parts) {
+            uploaded.add(part.getPartNumber());
+            partDtos.add(new MultipartPartDto(part.getPartNumber(), part.getEtag(), part.getSize()));
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        if (upload.getStatus() == EMultipartUploadStatus.IN_PROGRESS) {
+            for (int partNumber = 1; partNumber <= upload.getPartCount(); partNumber++) {
+                if (!uploaded.contains(partNumber)) missing.add(partNumber);
+            }
+        }
+
+        return new MultipartUploadDto(
+                upload.getId(),
+                upload.getBucket().getId(),
+                upload.getObjectKey(),
+                upload.getName(),
+                upload.getFileSize(),
+                upload.getPartSize(),
+                upload.getPartCount(),
+                upload.getStatus(),
+                partDtos,
+                missing,
+                upload.getUploadFileId()
+        );
+    }
+}
@@ -0,0 +1,311 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.S3ClientRegistryStatsDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.MetricRecord;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 버킷별 S3Client 레지스트리
+ * - 버킷(BucketEntity) 당 하나의 S3Client 를 재사용하고, 모든 클라이언트는 하나의 HTTP 커넥션 풀을 공유한다.
+ * - 자격 증명/리전이 바뀌면 다음 조회 시 클라이언트를 다시 만들고, 오래 사용되지 않은 클라이언트는 주기적으로 정리한다.
+ * - prefix 병렬 조회용 S3AsyncClient 도 같은 방식으로 버킷당 하나씩 관리하며, 하나의 비동기 커넥션 풀을 공유한다.
+ */
+@Slf4j
+@Component
+public class S3ClientRegistry {
+
+    private final BucketRepository bucketRepository;
+    private final SecureStorageService secureStorageService;
+    private final SdkHttpClient sharedHttpClient;
+    private final SdkAsyncHttpClient sharedAsyncHttpClient;
+    private final PoolMetricPublisher poolMetricPublisher = new PoolMetricPublisher();
+    private final Duration idleTimeout;
+    private final int maxConnections;
+
+    // key : 버킷 id, value : 캐시된 클라이언트
+    private final Map<String, CachedClient<S3Client>> clients = new ConcurrentHashMap<>();
+    private final Map<String, CachedClient<S3AsyncClient>> asyncClients = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public S3ClientRegistry(BucketRepository bucketRepository,
+                            SecureStorageService secureStorageService,
+                            @Value("${s3.client.max-connections:100}") int maxConnections,
+                            @Value("${s3.client.idle-timeout-minutes:30}") long idleTimeoutMinutes,
+                            @Value("${s3.client.max-async-concurrency:100}") int maxAsyncConcurrency) {
+        this.bucketRepository = bucketRepository;
+        this.secureStorageService = secureStorageService;
+        this.maxConnections = maxConnections;
+        this.idleTimeout = Duration.ofMinutes(idleTimeoutMinutes);
+        this.sharedHttpClient = ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionMaxIdleTime(Duration.ofSeconds(60))
+                .tcpKeepAlive(true)
+                .build();
+        this.sharedAsyncHttpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxAsyncConcurrency)
+                .connectionMaxIdleTime(Duration.ofSeconds(60))
+                .tcpKeepAlive(true)
+                .build();
+    }
+
+    /**
+     * 버킷 이름으로 클라이언트 조회 (없으면 생성)
+     */
+    public S3Client getClient(String bucketName) {
+        BucketEntity bucket = bucketRepository.findByName(bucketName)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "버킷을 찾을 수 없습니다."));
+        return getClient(bucket);
+    }
+
+    /**
+     * 버킷 엔티티로 클라이언트 조회 (없거나 자격 증명이 바뀌었으면 새로 생성)
+     */
+    public S3Client getClient(BucketEntity bucket) {
+        return getOrCreate(clients, bucket, this::buildClient);
+    }
+
+    /**
+     * 버킷 엔티티로 비동기 클라이언트 조회 (없거나 자격 증명이 바뀌었으면 새로 생성)
+     */
+    public S3AsyncClient getAsyncClient(BucketEntity bucket) {
+        return getOrCreate(asyncClients, bucket, this::buildAsyncClient);
+    }
+
+    private <T extends SdkAutoCloseable> T getOrCreate(Map<String, CachedClient<T>> cache, BucketEntity bucket,
+                                                       Function<BucketEntity, T> factory) {
+        String fingerprint = fingerprintOf(bucket);
+
+        CachedClient<T> cached = cache.get(bucket.getId());
+        if (cached != null && cached.fingerprint.equals(fingerprint)) {
+            hits.incrementAndGet();
+            cached.touch();
+            return cached.client;
+        }
+
+        return cache.compute(bucket.getId(), (id, existing) -> {
+            if (existing != null && existing.fingerprint.equals(fingerprint)) {
+                hits.incrementAndGet();
+                existing.touch();
+                return existing;
+            }
+            if (existing != null) {
+                // 자격 증명 또는 리전이 변경됨 → 기존 클라이언트 폐기
+                log.info("🔄 S3Client 자격 증명 변경 감지, 재생성 | bucket: {}", bucket.getName());
+                closeQuietly(existing);
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return new CachedClient<>(factory.apply(bucket), fingerprint);
+        }).client;
+    }
+
+    /**
+     * 버킷 삭제 또는 자격 증명 변경 시 캐시 무효화
+     */
+    public void invalidate(String bucketId) {
+        for (CachedClient<?> removed : new CachedClient<?>[]{clients.remove(bucketId), asyncClients.remove(bucketId)}) {
+            if (removed != null) {
+                closeQuietly(removed);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * idle-timeout 동안 사용되지 않은 클라이언트 정리
+     */
+    @Scheduled(fixedDelayString = "${s3.client.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        long threshold = System.nanoTime() - idleTimeout.toNanos();
+        evictIdle(clients, threshold);
+        evictIdle(asyncClients, threshold);
+    }
+
+    private <T extends SdkAutoCloseable> void evictIdle(Map<String, CachedClient<T>> cache, long threshold) {
+        cache.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastAccessNanos < threshold) {
+                closeQuietly(entry.getValue());
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public S3ClientRegistryStatsDto getStats() {
+        return new S3ClientRegistryStatsDto(
+                clients.size() + asyncClients.size(),
+                hits.get(),
+                misses.get(),
+                evictions.get(),
+                maxConnections,
+                poolMetricPublisher.leased.get(),
+                poolMetricPublisher.pending.get(),
+                poolMetricPublisher.available.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(this::closeQuietly);
+        clients.clear();
+        asyncClients.values().forEach(this::closeQuietly);
+        asyncClients.clear();
+        sharedHttpClient.close();
+        sharedAsyncHttpClient.close();
+    }
+
+    private S3Client buildClient(BucketEntity bucket) {
+        return S3Client.builder()
+                .httpClient(sharedHttpClient) // 공유 커넥션 풀 (클라이언트 close 시 함께 닫히지 않음)
+                .credentialsProvider(credentialsOf(bucket))
+                .region(regionOf(bucket))
+                .endpointOverride(URI.create("https://s3." + bucket.getRegion() + ".wasabisys.com"))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addMetricPublisher(poolMetricPublisher)
+                        .build())
+                .build();
+    }
+
+    /**
+     * 저장 전 자격 증명 검증/리전 탐색용 임시 비동기 클라이언트 (공유 커넥션 풀 사용, 호출자가 close)
+     */
+    public S3AsyncClient createProbeClient(String accessKey, String secretKey, String regionStr, Duration apiCallTimeout) {
+        return S3AsyncClient.builder()
+                .httpClient(sharedAsyncHttpClient)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .region(Region.of(regionStr))
+                .endpointOverride(URI.create("https://s3." + regionStr + ".wasabisys.com"))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(apiCallTimeout)
+                        .build())
+                .build();
+    }
+
+    /**
+     * presigned URL 발급용 presigner (요청마다 생성, 호출자가 close)
+     */
+    public S3Presigner createPresigner(BucketEntity bucket) {
+        return S3Presigner.builder()
+                .credentialsProvider(credentialsOf(bucket))
+                .region(regionOf(bucket))
+                .endpointOverride(URI.create("https://s3." + bucket.getRegion() + ".wasabisys.com"))
+                .build();
+    }
+
+    private S3AsyncClient buildAsyncClient(BucketEntity bucket) {
+        return S3AsyncClient.builder()
+                .httpClient(sharedAsyncHttpClient) // 공유 비동기 커넥션 풀
+                .credentialsProvider(credentialsOf(bucket))
+                .region(regionOf(bucket))
+                .endpointOverride(URI.create("https://s3." + bucket.getRegion() + ".wasabisys.com"))
+                .build();
+    }
+
+    private Region regionOf(BucketEntity bucket) {
+        try {
+            return Region.of(bucket.getRegion());
+        } catch (Exception e) {
+            throw new ApiException(ErrorCode.INVAILD_STORAGE, "유효하지 않은 리전입니다: " + bucket.getRegion());
+        }
+    }
+
+    private StaticCredentialsProvider credentialsOf(BucketEntity bucket) {
+        String accessKey = secureStorageService.getDecryptedValue("accessKey", bucket.getAccessKey());
+        String secretKey = secureStorageService.getDecryptedValue("secretKey", bucket.getSecretKey());
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+
+    // 암호문 자체를 비교하므로 복호화 없이 자격 증명 변경 여부를 판단할 수 있다.
+    private static String fingerprintOf(BucketEntity bucket) {
+        return bucket.getRegion() + "|" + bucket.getAccessKey() + "|" + bucket.getSecretKey();
+    }
+
+    private void closeQuietly(CachedClient<?> cached) {
+        try {
+            cached.client.close();
+        } catch (Exception e) {
+            log.warn("⚠️ S3Client 종료 실패", e);
+        }
+    }
+
+    private static final class CachedClient<T extends SdkAutoCloseable> {
+        private final T client;
+        private final String fingerprint;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        private CachedClient(T client, String fingerprint) {
+            this.client = client;
+            this.fingerprint = fingerprint;
+        }
+
+        private void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * SDK 가 요청마다 보고하는 HTTP 풀 지표 중 가장 최근 값을 보관
+     */
+    private static final class PoolMetricPublisher implements MetricPublisher {
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger available = new AtomicInteger();
+
+        @Override
+        public void publish(MetricCollection metricCollection) {
+            record(metricCollection);
+        }
+
+        private void record(MetricCollection collection) {
+            for (MetricRecord<?> metric : collection) {
+                if (metric.metric() == HttpMetric.LEASED_CONCURRENCY) {
+                    leased.set((Integer) metric.value());
+                } else if (metric.metric() == HttpMetric.PENDING_CONCURRENCY_ACQUIRES) {
+                    pending.set((Integer) metric.value());
+                } else if (metric.metric() == HttpMetric.AVAILABLE_CONCURRENCY) {
+                    available.set((Integer) metric.value());
+                }
+            }
+            collection.children().forEach(this::record);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
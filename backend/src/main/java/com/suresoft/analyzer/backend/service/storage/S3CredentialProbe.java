@@ -0,0 +1,253 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 자격 증명 등록 시 리전 탐색 / 버킷 접근 가능 여부 확인
+ * - 알려진 Wasabi 리전에 listBuckets 를 동시에 보내고 가장 먼저 성공한 리전으로 인증을 확인한다. (요청마다 타임아웃 적용)
+ *   나머지 SDK 요청은 바로 취소한다. 버킷이 있으면 첫 버킷의 GetBucketLocation 결과를 리전으로 사용한다.
+ *   (가장 빠른 리전이 아니라 버킷이 실제로 있는 리전)
+ * - 버킷별 리전은 GetBucketLocation 을 동시에 보내 확인하고, 실패하면 headBucket 응답의 x-amz-bucket-region 헤더를 사용한다.
+ * - 결과는 자격 증명 fingerprint(SHA-256) 기준으로 일정 시간 캐시하여 반복 호출은 바로 반환한다.
+ */
+@Slf4j
+@Component
+public class S3CredentialProbe {
+    private static final List<String> KNOWN_WASABI_REGIONS = List.of(
+            "us-east-1", "us-east-2", "us-central-1", "us-west-1",
+            "eu-central-1", "eu-west-1", "ap-northeast-1"
+    );
+    private static final String BUCKET_REGION_HEADER = "x-amz-bucket-region";
+    // GetBucketLocation 이 빈 값을 주면 us-east-1 버킷이다.
+    private static final String DEFAULT_BUCKET_LOCATION = "us-east-1";
+
+    private final S3ClientRegistry s3ClientRegistry;
+    private final Duration probeTimeout;
+    private final Duration cacheTtl;
+
+    // key : 자격 증명 fingerprint, value : 인증에 성공한 리전
+    private final Map<String, CachedValue<String>> regionCache = new ConcurrentHashMap<>();
+    // key : fingerprint|리전, value : 해당 리전에서 접근 가능한 버킷 목록
+    private final Map<String, CachedValue<List<String>>> bucketListCache = new ConcurrentHashMap<>();
+    // key : fingerprint|버킷 이름, value : 버킷 리전
+    private final Map<String, CachedValue<String>> bucketRegionCache = new ConcurrentHashMap<>();
+
+    public S3CredentialProbe(S3ClientRegistry s3ClientRegistry,
+                             @Value("${s3.probe.timeout-ms:5000}") long probeTimeoutMs,
+                             @Value("${s3.probe.cache-ttl-minutes:30}") long cacheTtlMinutes) {
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.probeTimeout = Duration.ofMillis(probeTimeoutMs);
+        this.cacheTtl = Duration.ofMinutes(cacheTtlMinutes);
+    }
+
+    /**
+     * 자격 증명으로 인증 가능한 리전 탐색
+     */
+    public String detectRegion(String accessKey, String secretKey) {
+        String fingerprint = fingerprintOf(accessKey, secretKey);
+        String cached = getIfFresh(regionCache, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<ProbeResult> firstSuccess = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(KNOWN_WASABI_REGIONS.size());
+        Map<String, S3AsyncClient> clients = new LinkedHashMap<>();
+        // SDK 가 돌려준 future 를 직접 취소해야 요청이 중단된다. (whenComplete 로 만든 future 는 취소가 전파되지 않음)
+        List<CompletableFuture<ListBucketsResponse>> requests = new ArrayList<>();
+
+        for (String region : KNOWN_WASABI_REGIONS) {
+            S3AsyncClient client = s3ClientRegistry.createProbeClient(accessKey, secretKey, region, probeTimeout);
+            clients.put(region, client);
+            CompletableFuture<ListBucketsResponse> request = client.listBuckets();
+            requests.add(request);
+            request.whenComplete((response, error) -> {
+                if (error == null) {
+                    firstSuccess.complete(new ProbeResult(region, response.buckets()));
+                    return;
+                }
+                log.debug("리전 탐색 실패 | region: {} | {}", region, error.getMessage());
+                if (remaining.decrementAndGet() == 0) {
+                    firstSuccess.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            ProbeResult result = firstSuccess.join();
+            requests.forEach(request -> request.cancel(true));
+
+            // 인증은 어느 리전에서나 되므로 버킷이 실제로 있는 리전을 우선한다.
+            String region = result.region();
+            if (!result.buckets().isEmpty()) {
+                String bucketRegion = resolveBucketRegion(clients.get(result.region()), fingerprint,
+                        result.buckets().get(0).name(), result.region()).join();
+                if (bucketRegion != null) {
+                    region = bucketRegion;
+                }
+            }
+            regionCache.put(fingerprint, new CachedValue<>(region, expiresAt()));
+            return region;
+        } catch (CompletionException e) {
+            throw new ApiException(ErrorCode.INVAILD_STORAGE, "입력한 키로 인증 가능한 리전을 찾을 수 없습니다.");
+        } finally {
+            // 나머지 요청은 취소하고, 모두 끝난 뒤 임시 클라이언트 정리
+            requests.forEach(request -> request.cancel(true));
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, error) -> clients.values().forEach(S3AsyncClient::close));
+        }
+    }
+
+    /**
+     * 리전에서 접근 가능한 버킷 이름 목록 (버킷별 headBucket 을 동시에 확인)
+     */
+    public List<String> listAccessibleBuckets(String accessKey, String secretKey, String region) {
+        String fingerprint = fingerprintOf(accessKey, secretKey);
+        String cacheKey = fingerprint + "|" + region;
+        List<String> cached = getIfFresh(bucketListCache, cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (S3AsyncClient client = s3ClientRegistry.createProbeClient(accessKey, secretKey, region, probeTimeout)) {
+            List<Bucket> buckets = client.listBuckets().join().buckets();
+
+            List<CompletableFuture<String>> probes = new ArrayList<>();
+            for (Bucket bucket : buckets) {
+                probes.add(probeBucket(client, fingerprint, bucket.name(), region));
+            }
+            CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).join();
+
+            List<String> regionBuckets = probes.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+            bucketListCache.put(cacheKey, new CachedValue<>(regionBuckets, expiresAt()));
+            return regionBuckets;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof S3Exception) {
+                throw new ApiException(ErrorCode.INVAILD_STORAGE);
+            }
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR);
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * @return 현재 리전에 있는 버킷이면 버킷 이름, 아니면 null
+     */
+    private CompletableFuture<String> probeBucket(S3AsyncClient client, String fingerprint, String bucketName, String region) {
+        return resolveBucketRegion(client, fingerprint, bucketName, region)
+                .thenApply(bucketRegion -> region.equals(bucketRegion) ? bucketName : null);
+    }
+
+    /**
+     * 버킷 리전 확인 : GetBucketLocation (비어 있으면 us-east-1) → 실패하면 headBucket 성공 여부 / x-amz-bucket-region 헤더
+     * @return 버킷 리전, 알 수 없으면 null
+     */
+    private CompletableFuture<String> resolveBucketRegion(S3AsyncClient client, String fingerprint, String bucketName, String region) {
+        String cacheKey = fingerprint + "|" + bucketName;
+        String knownRegion = getIfFresh(bucketRegionCache, cacheKey);
+        if (knownRegion != null) {
+            return CompletableFuture.completedFuture(knownRegion);
+        }
+
+        return client.getBucketLocation(b -> b.bucket(bucketName))
+                .thenApply(response -> {
+                    String location = response.locationConstraintAsString();
+                    return location == null || location.isEmpty() ? DEFAULT_BUCKET_LOCATION : location;
+                })
+                .exceptionallyCompose(error -> {
+                    log.debug("GetBucketLocation 실패, headBucket 으로 확인 | bucket: {} | {}", bucketName, error.getMessage());
+                    return client.headBucket(b -> b.bucket(bucketName)).handle((response, headError) -> {
+                        if (headError == null) {
+                            return region;
+                        }
+                        // 다른 리전 버킷이면 응답 헤더로 실제 리전을 알 수 있다.
+                        Throwable cause = headError instanceof CompletionException && headError.getCause() != null
+                                ? headError.getCause() : headError;
+                        if (cause instanceof S3Exception s3Exception && s3Exception.awsErrorDetails() != null
+                                && s3Exception.awsErrorDetails().sdkHttpResponse() != null) {
+                            return s3Exception.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(BUCKET_REGION_HEADER).orElse(null);
+                        }
+                        return null;
+                    });
+                })
+                .whenComplete((bucketRegion, error) -> {
+                    if (bucketRegion != null) {
+                        bucketRegionCache.put(cacheKey, new CachedValue<>(bucketRegion, expiresAt()));
+                    }
+                });
+    }
+
+    /**
+     * 만료된 캐시 항목 정리
+     */
+    @Scheduled(fixedDelayString = "${s3.probe.cache-cleanup-interval-ms:600000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        regionCache.values().removeIf(value -> value.expiresAtMillis < now);
+        bucketListCache.values().removeIf(value -> value.expiresAtMillis < now);
+        bucketRegionCache.values().removeIf(value -> value.expiresAtMillis < now);
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + cacheTtl.toMillis();
+    }
+
+    private static <T> T getIfFresh(Map<String, CachedValue<T>> cache, String key) {
+        CachedValue<T> cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAtMillis < System.currentTimeMillis()) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached.value;
+    }
+
+    // 평문 키를 캐시 키로 두지 않도록 해시값 사용
+    private static String fingerprintOf(String accessKey, String secretKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((accessKey + ":" + secretKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 찾을 수 없습니다.", e);
+        }
+    }
+
+    private record CachedValue<T>(T value, long expiresAtMillis) {
+    }
+
+    private record ProbeResult(String region, List<Bucket> buckets) {
+    }
+}
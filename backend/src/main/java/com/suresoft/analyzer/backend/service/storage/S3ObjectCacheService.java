@@ -0,0 +1,381 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.config.EnvProperties;
+import com.suresoft.analyzer.backend.dto.storage.S3ObjectCacheStatsDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 시각화 / 파서 컨테이너가 함께 쓰는 S3 객체 로컬 디스크 캐시 (read-through, LRU)
+ * - env.path/object-cache 아래에 {sha256(내용 식별자) 앞 2자리}/{sha256(내용 식별자)} 형태로 저장한다.
+ * - 내용 식별자(ETag + 크기)로 저장하므로 다른 버킷 / 경로에 복사된 같은 파일은 한 번만 받고,
+ *   같은 키의 객체가 바뀌면 새 항목으로 받는다. (이전 내용은 LRU 로 정리)
+ * - 첫 조회 시 임시 파일로 받은 뒤 원자적으로 이동하므로 컨테이너는 완성된 파일만 보게 된다.
+ * - 전체 용량이 max-size 를 넘으면 마지막 사용 시각이 오래된 항목부터 지운다.
+ *   이미 열어둔 파일은 삭제되어도 끝까지 읽을 수 있고, 열기 전에 지워졌다면 컨테이너가 S3 에서 직접 읽는다.
+ * - 컨테이너 실행 전에는 prefetchContainerPath 로 경로만 정하고 백그라운드로 채운다.
+ *   컨테이너가 파일을 열 때 아직 받는 중이면 S3 에서 직접 읽는다.
+ */
+@Slf4j
+@Component
+public class S3ObjectCacheService {
+    // 컨테이너 안에서 캐시 디렉터리가 마운트되는 경로
+    public static final String CONTAINER_MOUNT_PATH = "/data/cache";
+    private static final String CACHE_DIR = "object-cache";
+    private static final String TEMP_SUFFIX = ".part";
+
+    private final EnvProperties env;
+    private final S3ClientRegistry s3ClientRegistry;
+    private final long maxBytes;
+    // 컨테이너 실행과 함께 진행하는 백그라운드 채우기
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    // key : 캐시 루트 기준 상대 경로
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    // 같은 객체를 동시에 여러 번 받지 않도록 진행 중인 다운로드 공유
+    private final Map<String, CompletableFuture<Path>> inflight = new ConcurrentHashMap<>();
+
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
+    public S3ObjectCacheService(EnvProperties env,
+                                S3ClientRegistry s3ClientRegistry,
+                                @Value("${s3.cache.max-size-gb:50}") long maxSizeGb,
+                                @Value("${s3.cache.prefetch-threads:4}") int prefetchThreads) {
+        this.env = env;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.maxBytes = maxSizeGb * 1024L * 1024L * 1024L;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.prefetchExecutor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "s3-object-prefetch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * 재시작 시 디스크에 남아 있는 캐시 항목을 다시 등록 (마지막 수정 시각을 마지막 사용 시각으로 사용)
+     */
+    @PostConstruct
+    public void loadExisting() {
+        Path root = getCacheRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        Files.deleteIfExists(file); // 중단된 다운로드
+                        return;
+                    }
+                    long size = Files.size(file);
+                    long lastAccess = Files.getLastModifiedTime(file).toMillis();
+                    entries.put(relativize(root, file), new CacheEntry(size, lastAccess));
+                    usedBytes.addAndGet(size);
+                } catch (IOException e) {
+                    log.warn("⚠️ 캐시 파일 확인 실패 | {} | {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("⚠️ 객체 캐시 디렉터리 탐색 실패 | {}", e.getMessage());
+        }
+        log.info("🗄️ 객체 캐시 로드 | entries: {} | used: {} bytes", entries.size(), usedBytes.get());
+        evictIfNeeded(null);
+    }
+
+    /**
+     * 객체를 캐시에 채운 뒤 컨테이너 기준 경로 반환
+     * @return 캐시할 수 없으면 null (컨테이너가 S3 에서 직접 읽음)
+     */
+    public String getContainerPath(BucketEntity bucket, String key) {
+        try {
+            Path cached = resolve(bucket, key);
+            if (cached == null) {
+                return null;
+            }
+            return CONTAINER_MOUNT_PATH + "/" + relativize(getCacheRoot(), cached);
+        } catch (Exception e) {
+            log.warn("⚠️ 객체 캐시 실패, S3 직접 조회로 대체 | bucket: {} | key: {} | {}", bucket.getName(), key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 컨테이너 기준 경로를 바로 반환하고, 캐시에 없으면 백그라운드로 채운다. (컨테이너 실행을 기다리게 하지 않음)
+     * 받는 중인 파일은 임시 이름으로 있으므로 컨테이너는 완성된 파일만 보고, 없으면 S3 에서 직접 읽는다.
+     * @return 캐시할 수 없으면 null (컨테이너가 S3 에서 직접 읽음)
+     */
+    public String prefetchContainerPath(BucketEntity bucket, String key) {
+        try {
+            S3Client client = s3ClientRegistry.getClient(bucket);
+            HeadObjectResponse head = client.headObject(b -> b.bucket(bucket.getName()).key(key));
+            if (head.contentLength() > maxBytes) {
+                return null;
+            }
+            String relative = relativeOf(head);
+            Path target = getCacheRoot().resolve(relative);
+
+            CacheEntry entry = entries.get(relative);
+            if (entry != null && Files.isRegularFile(target)) {
+                hits.incrementAndGet();
+                touch(entry, target);
+            } else {
+                fillAsync(client, bucket.getName(), key, head.eTag(), relative, target);
+            }
+            return CONTAINER_MOUNT_PATH + "/" + relative;
+        } catch (Exception e) {
+            log.warn("⚠️ 객체 캐시 미리 받기 실패, S3 직접 조회로 대체 | bucket: {} | key: {} | {}", bucket.getName(), key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void fillAsync(S3Client client, String bucketName, String key, String eTag, String relative, Path target) {
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        if (inflight.putIfAbsent(relative, download) != null) {
+            return; // 이미 받는 중
+        }
+        misses.incrementAndGet();
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    download.complete(fill(client, bucketName, key, eTag, relative, target));
+                } catch (RuntimeException e) {
+                    download.completeExceptionally(e);
+                    log.warn("⚠️ 객체 캐시 미리 받기 실패 | bucket: {} | key: {} | {}", bucketName, key, e.getMessage());
+                } finally {
+                    inflight.remove(relative, download);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(relative, download);
+            download.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 캐시된 로컬 파일 경로 (없으면 S3 에서 받아서 채움)
+     * @return 객체가 캐시 최대 용량보다 커서 캐시할 수 없으면 null
+     */
+    public Path resolve(BucketEntity bucket, String key) {
+        S3Client client = s3ClientRegistry.getClient(bucket);
+        HeadObjectResponse head = client.headObject(b -> b.bucket(bucket.getName()).key(key));
+        if (head.contentLength() > maxBytes) {
+            return null;
+        }
+
+        String relative = relativeOf(head);
+        Path target = getCacheRoot().resolve(relative);
+
+        CacheEntry entry = entries.get(relative);
+        if (entry != null && Files.isRegularFile(target)) {
+            hits.incrementAndGet();
+            touch(entry, target);
+            return target;
+        }
+
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inflight.putIfAbsent(relative, download);
+        if (existing != null) {
+            return joinDownload(existing);
+        }
+        try {
+            misses.incrementAndGet();
+            Path path = fill(client, bucket.getName(), key, head.eTag(), relative, target);
+            download.complete(path);
+            return path;
+        } catch (RuntimeException e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(relative, download);
+        }
+    }
+
+    private Path fill(S3Client client, String bucketName, String key, String eTag, String relative, Path target) {
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(target.getParent());
+            // 조회 도중 객체가 바뀌면 실패하도록 ETag 조건을 건다.
+            client.getObject(b -> b.bucket(bucketName).key(key).ifMatch(eTag), ResponseTransformer.toFile(temp));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            long size = Files.size(target);
+            CacheEntry previous = entries.put(relative, new CacheEntry(size, System.currentTimeMillis()));
+            usedBytes.addAndGet(previous != null ? size - previous.size : size);
+            downloadedBytes.addAndGet(size);
+            log.info("📥 객체 캐시 저장 | bucket: {} | key: {} | {} bytes", bucketName, key, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+
+        evictIfNeeded(relative);
+        return target;
+    }
+
+    /**
+     * 최대 용량을 넘으면 오래 사용하지 않은 항목부터 삭제
+     * @param keep 방금 채운 항목 (삭제 대상에서 제외)
+     */
+    private synchronized void evictIfNeeded(String keep) {
+        if (usedBytes.get() <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, CacheEntry>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccessMillis));
+        for (Map.Entry<String, CacheEntry> candidate : candidates) {
+            if (usedBytes.get() <= maxBytes) {
+                break;
+            }
+            if (candidate.getKey().equals(keep) || inflight.containsKey(candidate.getKey())) {
+                continue;
+            }
+            long size = remove(candidate.getKey());
+            if (size >= 0) {
+                evictions.incrementAndGet();
+                evictedBytes.addAndGet(size);
+            }
+        }
+    }
+
+    /**
+     * @return 삭제한 항목 크기, 이미 없으면 -1
+     */
+    private long remove(String relative) {
+        CacheEntry removed = entries.remove(relative);
+        if (removed == null) {
+            return -1;
+        }
+        usedBytes.addAndGet(-removed.size);
+        try {
+            Files.deleteIfExists(getCacheRoot().resolve(relative));
+        } catch (IOException e) {
+            log.warn("⚠️ 캐시 파일 삭제 실패 | {} | {}", relative, e.getMessage());
+        }
+        return removed.size;
+    }
+
+    private void touch(CacheEntry entry, Path target) {
+        long now = System.currentTimeMillis();
+        entry.lastAccessMillis = now;
+        // 재시작 후에도 사용 순서를 유지하도록 파일 시각도 갱신
+        try {
+            Files.setLastModifiedTime(target, FileTime.fromMillis(now));
+        } catch (IOException ignored) {
+        }
+    }
+
+    public S3ObjectCacheStatsDto getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return new S3ObjectCacheStatsDto(
+                entries.size(),
+                usedBytes.get(),
+                maxBytes,
+                hitCount,
+                missCount,
+                total == 0 ? 0.0 : (double) hitCount / total,
+                evictions.get(),
+                evictedBytes.get(),
+                downloadedBytes.get()
+        );
+    }
+
+    /**
+     * 호스트 기준 캐시 루트 (컨테이너에는 CONTAINER_MOUNT_PATH 로 읽기 전용 마운트)
+     */
+    public Path getCacheRoot() {
+        return Paths.get(env.getPath(), CACHE_DIR);
+    }
+
+    private static Path joinDownload(CompletableFuture<Path> download) {
+        try {
+            return download.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    // 내용 식별자 기준 캐시 상대 경로
+    private static String relativeOf(HeadObjectResponse head) {
+        String contentHash = sha256(UploadFileContentId.of(head.eTag(), head.contentLength()));
+        return contentHash.substring(0, 2) + "/" + contentHash;
+    }
+
+    private static String relativize(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 찾을 수 없습니다.", e);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final long size;
+        private volatile long lastAccessMillis;
+
+        private CacheEntry(long size, long lastAccessMillis) {
+            this.size = size;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * S3 객체 키 목록을 폴더/파일 JSON 트리로 변환
+ * (S3 실시간 조회와 버킷 인덱스 조회가 같은 응답 형식을 쓰도록 공통화)
+ */
+public class S3ObjectTreeBuilder {
+    private final ObjectMapper objectMapper;
+    private final ObjectNode filesNode;
+    private final Map<String, ObjectNode> folderMap = new HashMap<>();
+
+    public S3ObjectTreeBuilder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.filesNode = objectMapper.createObjectNode();
+        folderMap.put("", filesNode); // 루트 폴더
+    }
+
+    public void add(String filePath, long size, String owner, Instant lastModified) {
+        String[] pathParts = filePath.split("/");
+        ObjectNode parent = filesNode;
+        StringBuilder currentPath = new StringBuilder();
+
+        // 🔹 폴더 구조를 생성 (재귀 없이)
+        for (int i = 0; i < pathParts.length - 1; i++) {
+            currentPath.append(pathParts[i]).append("/");
+
+            // Key가 없을 때만 값 추가 (폴더 구조 유지)
+            folderMap.putIfAbsent(currentPath.toString(), objectMapper.createObjectNode());
+            parent.set(pathParts[i], folderMap.get(currentPath.toString()));
+            parent = folderMap.get(currentPath.toString());
+        }
+
+        // 🔹 파일인지 폴더인지 확인
+        if (size > 0) {
+            //  파일이면 파일 정보 추가
+            ObjectNode fileNode = objectMapper.createObjectNode();
+            fileNode.put("filePath", filePath);
+            fileNode.put("owner", owner != null ? owner : "Unknown");
+            fileNode.put("lastModified", String.valueOf(lastModified));
+            fileNode.put("fileSize", size);
+            fileNode.put("type", "File");  //  파일 타입 추가
+            parent.set(pathParts[pathParts.length - 1], fileNode);
+        } else {
+            //  폴더면 파일 정보 없이 유지 + "Folder" 타입 추가
+            if (!folderMap.containsKey(filePath)) { // 폴더가 이미 있지 않다면
+                ObjectNode folderNode = objectMapper.createObjectNode();
+                folderNode.put("filePath", filePath);
+                folderNode.put("owner", owner != null ? owner : "Unknown");
+                folderNode.put("lastModified", String.valueOf(lastModified));
+                folderNode.put("type", "Folder");  //  파일 타입 추가
+                parent.set(pathParts[pathParts.length - 1], folderNode);
+            }
+        }
+    }
+
+    public ObjectNode getFilesNode() {
+        return filesNode;
+    }
+}
@@ -0,0 +1,137 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * S3ObjectTreeBuilder 와 같은 폴더/파일 JSON 트리를 JsonGenerator 로 바로 기록
+ * - 키가 오름차순으로 들어온다는 전제에서, 같은 폴더의 키는 연속되므로 열린 폴더 스택만 유지하면 된다.
+ * - 트리 전체를 메모리에 만들지 않으므로 객체 수와 무관하게 메모리 사용량이 일정하다.
+ * - 호출 전에 "files" 객체가 열려 있어야 하며, 마지막에 finish() 로 열린 폴더를 닫는다.
+ * - 같은 이름의 파일과 폴더 (a/b, a/b/c) 는 폴더 쪽 필드 이름에 '/' 를 붙여 구분한다. (JSON 필드 이름 중복 방지)
+ *   빈 경로 조각 (a//b, /a) 은 '/' 라는 이름으로 기록한다. 실제 경로 조각에는 '/' 가 들어갈 수 없으므로 겹치지 않는다.
+ */
+public class S3ObjectTreeStreamWriter {
+    private final JsonGenerator generator;
+    private final List<String> openFolders = new ArrayList<>();
+    // 깊이별로 이미 기록한 항목 이름 중 뒤에 같은 이름의 폴더가 올 수 있는 것 (가장 최근 이름의 prefix 들)
+    private final List<List<String>> writtenNames = new ArrayList<>(List.of(new ArrayList<>()));
+
+    // 크기 0 인 객체(폴더 마커 등)는 바로 뒤에 하위 키가 오면 폴더로 열리므로 한 키만큼 보류한다.
+    private PendingEntry pending;
+
+    public S3ObjectTreeStreamWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    public void add(String filePath, long size, String owner, Instant lastModified) throws IOException {
+        String[] pathParts = splitPath(filePath);
+        List<String> folders = Arrays.asList(pathParts).subList(0, pathParts.length - 1);
+        String name = pathParts[pathParts.length - 1];
+
+        if (pending != null) {
+            if (!opensPendingFolder(folders)) {
+                writeEntry(pending.filePath, pending.name, pending.owner, pending.lastModified, null);
+            }
+            pending = null;
+        }
+
+        // 공통 상위 폴더까지 남기고 닫은 뒤 새 폴더를 연다.
+        int common = 0;
+        while (common < openFolders.size() && common < folders.size() && openFolders.get(common).equals(folders.get(common))) {
+            common++;
+        }
+        while (openFolders.size() > common) {
+            closeFolder();
+        }
+        for (int i = common; i < folders.size(); i++) {
+            String folder = folders.get(i);
+            generator.writeObjectFieldStart(fieldName(folder, written(folder)));
+            openFolders.add(folder);
+            writtenNames.add(new ArrayList<>());
+        }
+
+        if (size > 0) {
+            writeEntry(filePath, name, owner, lastModified, size);
+        } else {
+            pending = new PendingEntry(filePath, name, owner, lastModified);
+        }
+    }
+
+    public void finish() throws IOException {
+        if (pending != null) {
+            writeEntry(pending.filePath, pending.name, pending.owner, pending.lastModified, null);
+            pending = null;
+        }
+        while (!openFolders.isEmpty()) {
+            closeFolder();
+        }
+    }
+
+    /**
+     * 키를 경로 조각으로 나눈다. 끝의 '/' 는 폴더 표시이므로 조각으로 보지 않는다.
+     */
+    static String[] splitPath(String filePath) {
+        String path = filePath.endsWith("/") ? filePath.substring(0, filePath.length() - 1) : filePath;
+        return path.split("/", -1);
+    }
+
+    /**
+     * 경로 조각의 JSON 필드 이름
+     * @param duplicate 같은 폴더에 같은 이름의 항목을 이미 기록했으면 true (폴더 쪽에 '/' 를 붙인다)
+     */
+    static String fieldName(String name, boolean duplicate) {
+        String field = name.isEmpty() ? "/" : name;
+        return duplicate ? field + "/" : field;
+    }
+
+    private void closeFolder() throws IOException {
+        generator.writeEndObject();
+        openFolders.remove(openFolders.size() - 1);
+        writtenNames.remove(writtenNames.size() - 1);
+    }
+
+    /**
+     * 현재 폴더에 name 과 같은 이름의 항목을 이미 기록했는지 확인한다.
+     * 키는 오름차순이므로 name 의 prefix 가 아닌 이전 이름은 뒤에 다시 나올 수 없어 버린다.
+     */
+    private boolean written(String name) {
+        List<String> names = writtenNames.get(writtenNames.size() - 1);
+        names.removeIf(previous -> !name.startsWith(previous));
+        return names.contains(name);
+    }
+
+    // 보류 중인 항목 바로 아래의 키이면 해당 항목은 하위를 가진 폴더로 기록된다.
+    private boolean opensPendingFolder(List<String> folders) {
+        int depth = openFolders.size();
+        return folders.size() > depth
+                && folders.subList(0, depth).equals(openFolders)
+                && folders.get(depth).equals(pending.name);
+    }
+
+    /**
+     * @param size null 이면 폴더 항목
+     */
+    private void writeEntry(String filePath, String name, String owner, Instant lastModified, Long size) throws IOException {
+        generator.writeObjectFieldStart(fieldName(name, written(name)));
+        writtenNames.get(writtenNames.size() - 1).add(name);
+        generator.writeStringField("filePath", filePath);
+        generator.writeStringField("owner", owner != null ? owner : "Unknown");
+        generator.writeStringField("lastModified", String.valueOf(lastModified));
+        if (size != null) {
+            generator.writeNumberField("fileSize", size);
+            generator.writeStringField("type", "File");
+        } else {
+            generator.writeStringField("type", "Folder");
+        }
+        generator.writeEndObject();
+    }
+
+    private record PendingEntry(String filePath, String name, String owner, Instant lastModified) {
+    }
+}
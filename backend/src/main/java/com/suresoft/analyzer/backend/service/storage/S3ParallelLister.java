@@ -0,0 +1,338 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * S3AsyncClient 기반 prefix 병렬 조회
+ * - 먼저 delimiter("/") 조회로 하위 prefix(녹화 세션 폴더 등)를 찾고, prefix 마다 ListObjectsV2 를 동시에 진행한다.
+ * - 동시에 조회하는 prefix 수는 parallelism 으로 제한한다. (앞 prefix 를 다 내보내야 다음 prefix 조회를 시작)
+ * - 결과는 키 순서대로 합쳐서 내보낸다. 맨 앞 prefix 의 페이지는 도착하는 즉시 전달하고, 뒤 prefix 의 페이지는 차례가 올 때까지 보관한다.
+ * - 따라서 호출자는 순차 조회와 같이 키 오름차순의 연속된 페이지를 받는다.
+ * - prefix 마다 bufferedPages 개까지만 미리 요청하고, 호출자가 한 페이지를 처리해야 다음 페이지를 요청한다. (보관 메모리 제한)
+ * - delimiter 조회도 페이지 단위로 읽으면서 segment 를 만든다. 바로 아래 객체가 많아도 한 번에 메모리에 올리지 않는다.
+ * - 키 순서는 S3 와 같은 UTF-8 바이트 순서 (String.compareTo 의 UTF-16 순서와 보조 문자에서 다름)
+ */
+@Slf4j
+@Component
+public class S3ParallelLister {
+    // 하위 prefix 가 하나뿐이면 그 아래로 내려가서 나눌 prefix 를 찾는다. (최대 깊이)
+    private static final int MAX_DESCEND_DEPTH = 3;
+
+    // UTF-8 바이트 순서 = 코드포인트 순서
+    static final Comparator<String> UTF8_ORDER = S3ParallelLister::compareUtf8;
+
+    private final S3ClientRegistry s3ClientRegistry;
+    private final int parallelism;
+    private final long pageTimeoutSeconds;
+    private final int bufferedPages;
+
+    public S3ParallelLister(S3ClientRegistry s3ClientRegistry,
+                            @Value("${s3.listing.parallelism:8}") int parallelism,
+                            @Value("${s3.listing.page-timeout-seconds:120}") long pageTimeoutSeconds,
+                            @Value("${s3.listing.buffered-pages:2}") int bufferedPages) {
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.parallelism = Math.max(1, parallelism);
+        this.pageTimeoutSeconds = pageTimeoutSeconds;
+        this.bufferedPages = Math.max(1, bufferedPages);
+    }
+
+    /**
+     * prefix(null 이면 버킷 전체) 하위 모든 객체를 키 순서대로 페이지 단위로 전달
+     * @param pageConsumer 호출 스레드에서 호출됨, 빈 페이지는 전달하지 않음
+     * @return 전달한 페이지 수
+     */
+    public int list(BucketEntity bucket, String prefix, boolean fetchOwner, Consumer<List<S3Object>> pageConsumer) {
+        S3AsyncClient client = s3ClientRegistry.getAsyncClient(bucket);
+        SegmentListing listing = discoverSegments(client, bucket.getName(), prefix == null ? "" : prefix, fetchOwner);
+
+        int pages = 0;
+        int segments = 0;
+        // 조회를 시작했지만 아직 내보내지 않은 segment (현재 segment 부터 parallelism 개까지)
+        Deque<Segment> window = new ArrayDeque<>();
+        Segment current = null;
+        try {
+            while (true) {
+                while (window.size() < parallelism) {
+                    Segment next = listing.next();
+                    if (next == null) {
+                        break;
+                    }
+                    next.start(client, bucket.getName(), fetchOwner, bufferedPages);
+                    window.add(next);
+                }
+                current = window.poll();
+                if (current == null) {
+                    break;
+                }
+                segments++;
+                pages += current.drain(pageConsumer, pageTimeoutSeconds);
+            }
+        } finally {
+            if (current != null) {
+                current.cancel();
+            }
+            window.forEach(Segment::cancel);
+        }
+
+        log.debug("📂 병렬 조회 완료 | bucket: {} | prefix: {} | segments: {} | pages: {}",
+                bucket.getName(), prefix, segments, pages);
+        return pages;
+    }
+
+    /**
+     * delimiter 조회로 병렬 조회 단위(segment)를 만든다.
+     * 하위 prefix 가 하나뿐이고 바로 아래 객체가 없으면 그 prefix 아래에서 다시 찾는다.
+     */
+    private SegmentListing discoverSegments(S3AsyncClient client, String bucketName, String root, boolean fetchOwner) {
+        for (int depth = 0; ; depth++) {
+            SegmentListing listing = new SegmentListing(client, ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(root)
+                    .delimiter("/")
+                    .fetchOwner(fetchOwner)
+                    .build());
+            String singlePrefix = listing.singlePrefix();
+            if (singlePrefix == null || depth >= MAX_DESCEND_DEPTH) {
+                return listing;
+            }
+            root = singlePrefix;
+        }
+    }
+
+    /**
+     * 한 delimiter 페이지의 segment : 하위 prefix 는 각각 하나의 segment, 그 사이에 있는 바로 아래 객체들은 이미 조회된 segment 로 묶는다.
+     */
+    private static List<Segment> segmentsOf(ListObjectsV2Response page) {
+        List<Segment> segments = new ArrayList<>();
+        page.commonPrefixes().stream().map(CommonPrefix::prefix).forEach(p -> segments.add(Segment.ofPrefix(p)));
+        page.contents().forEach(o -> segments.add(Segment.ofObject(o)));
+        segments.sort(Comparator.comparing(segment -> segment.sortKey, UTF8_ORDER));
+        return mergeAdjacentObjects(segments);
+    }
+
+    static int compareUtf8(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    // 연속된 단일 객체 segment 는 하나의 페이지로 합친다.
+    private static List<Segment> mergeAdjacentObjects(List<Segment> segments) {
+        List<Segment> merged = new ArrayList<>();
+        for (Segment segment : segments) {
+            Segment last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (segment.prefix == null && last != null && last.prefix == null) {
+                last.loaded.addAll(segment.loaded);
+            } else {
+                merged.add(segment);
+            }
+        }
+        return merged;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "S3 목록 조회 실패: " + cause.getMessage());
+    }
+
+    /**
+     * delimiter 조회 결과를 한 페이지씩 읽어 segment 를 키 순서대로 내준다. (다 꺼내야 다음 페이지를 조회)
+     */
+    private static final class SegmentListing {
+        private final S3AsyncClient client;
+        private final ListObjectsV2Request request;
+        private final Deque<Segment> buffered = new ArrayDeque<>();
+        private String continuationToken;
+        private boolean done;
+
+        private SegmentListing(S3AsyncClient client, ListObjectsV2Request request) {
+            this.client = client;
+            this.request = request;
+        }
+
+        /**
+         * @return 다음 segment, 끝이면 null
+         */
+        Segment next() {
+            while (buffered.isEmpty() && !done) {
+                fetch();
+            }
+            return buffered.poll();
+        }
+
+        /**
+         * @return 결과 전체가 하위 prefix 하나뿐이면 그 prefix, 아니면 null (첫 페이지만 조회)
+         */
+        String singlePrefix() {
+            while (buffered.isEmpty() && !done) {
+                fetch();
+            }
+            Segment first = buffered.peek();
+            return done && buffered.size() == 1 && first.prefix != null ? first.prefix : null;
+        }
+
+        private void fetch() {
+            ListObjectsV2Response page = join(client.listObjectsV2(request.toBuilder()
+                    .continuationToken(continuationToken)
+                    .build()));
+            buffered.addAll(segmentsOf(page));
+            continuationToken = page.nextContinuationToken();
+            done = !Boolean.TRUE.equals(page.isTruncated()) || continuationToken == null;
+        }
+    }
+
+    /**
+     * 병렬 조회 단위 : 하위 prefix 하나, 또는 이미 조회된 객체 묶음
+     */
+    private static final class Segment {
+        private static final Object END = new Object();
+
+        private final String sortKey;
+        private final String prefix; // null 이면 이미 조회된 객체 묶음
+        private final List<S3Object> loaded = new ArrayList<>();
+        private BlockingQueue<Object> queue;
+        private volatile Subscription subscription;
+        private volatile boolean cancelled;
+
+        private Segment(String sortKey, String prefix) {
+            this.sortKey = sortKey;
+            this.prefix = prefix;
+        }
+
+        static Segment ofPrefix(String prefix) {
+            return new Segment(prefix, prefix);
+        }
+
+        static Segment ofObject(S3Object object) {
+            Segment segment = new Segment(object.key(), null);
+            segment.loaded.add(object);
+            return segment;
+        }
+
+        void start(S3AsyncClient client, String bucketName, boolean fetchOwner, int bufferedPages) {
+            if (prefix == null) {
+                return;
+            }
+            // 요청한 페이지 수 + 종료 신호 하나만큼이면 넘치지 않는다.
+            queue = new ArrayBlockingQueue<>(bufferedPages + 1);
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .fetchOwner(fetchOwner)
+                    .build();
+            // 이벤트 루프 스레드를 막지 않도록 큐에 넣기만 한다.
+            client.listObjectsV2Paginator(request).subscribe(new Subscriber<ListObjectsV2Response>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription = s;
+                    if (cancelled) {
+                        s.cancel();
+                        return;
+                    }
+                    s.request(bufferedPages);
+                }
+
+                @Override
+                public void onNext(ListObjectsV2Response page) {
+                    if (page.contents().isEmpty()) {
+                        subscription.request(1); // 전달하지 않는 빈 페이지는 바로 다음 페이지 요청
+                    } else {
+                        queue.offer(page.contents());
+                    }
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    queue.offer(error);
+                }
+
+                @Override
+                public void onComplete() {
+                    queue.offer(END);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        int drain(Consumer<List<S3Object>> pageConsumer, long timeoutSeconds) {
+            if (prefix == null) {
+                pageConsumer.accept(loaded);
+                return 1;
+            }
+            int pages = 0;
+            while (true) {
+                Object item;
+                try {
+                    item = queue.poll(timeoutSeconds, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "S3 목록 조회가 중단되었습니다.");
+                }
+                if (item == null) {
+                    throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "S3 목록 조회 시간 초과: " + prefix);
+                }
+                if (item == END) {
+                    return pages;
+                }
+                if (item instanceof Throwable error) {
+                    throw unwrap(error);
+                }
+                pageConsumer.accept((List<S3Object>) item);
+                pages++;
+                subscription.request(1); // 처리한 만큼 다음 페이지 요청
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
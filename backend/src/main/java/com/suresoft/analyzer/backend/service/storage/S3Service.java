@@ -1,13 +1,11 @@
 package com.suresoft.analyzer.backend.service.storage;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
 import com.suresoft.analyzer.backend.dto.storage.BucketDto;
+import com.suresoft.analyzer.backend.dto.storage.FolderChildrenResponseDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileDto;
 import com.suresoft.analyzer.backend.entity.auth.UserEntity;
 import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
-import com.suresoft.analyzer.backend.entity.storage.UploadFileEntity;
 import com.suresoft.analyzer.backend.exception.ApiException;
 import com.suresoft.analyzer.backend.exception.ErrorCode;
 import com.suresoft.analyzer.backend.repository.auth.UserRepository;
@@ -21,6 +19,8 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,14 +29,21 @@ import java.util.stream.Collectors;
 @Service
 public class S3Service {
     private final SecureStorageService secureStorageService;
-    private S3Client s3Client;
+    private final S3ClientRegistry s3ClientRegistry;
+    private final BucketObjectIndexService bucketObjectIndexService;
+    private final S3ParallelLister s3ParallelLister;
+    private final S3CredentialProbe s3CredentialProbe;
     //private String wasabiEndpoint = "https://s3.ap-northeast-1.wasabisys.com"; // 도쿄 리전
     private final BucketRepository bucketRepository;
     private UploadFileRepository uploadFileRepository;
     private UserRepository userRepository;
 
-    public S3Service(SecureStorageService secureStorageService, BucketRepository bucketRepository, UploadFileRepository uploadFileRepository,UserRepository userRepository) {
+    public S3Service(SecureStorageService secureStorageService, S3ClientRegistry s3ClientRegistry, BucketObjectIndexService bucketObjectIndexService, S3ParallelLister s3ParallelLister, S3CredentialProbe s3CredentialProbe, BucketRepository bucketRepository, UploadFileRepository uploadFileRepository,UserRepository userRepository) {
         this.secureStorageService = secureStorageService;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.bucketObjectIndexService = bucketObjectIndexService;
+        this.s3ParallelLister = s3ParallelLister;
+        this.s3CredentialProbe = s3CredentialProbe;
         this.bucketRepository = bucketRepository;
         this.uploadFileRepository = uploadFileRepository;
         this.userRepository = userRepository;
@@ -67,34 +74,11 @@ public class S3Service {
             throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
+    /**
+     * 자격 증명으로 인증 가능한 리전 탐색 (리전별 요청을 동시에 보내고 결과는 캐시)
+     */
     public String validateAndDetectRegion(String accessKey, String secretKey) {
-        List<String> knownWasabiRegions = List.of(
-                "us-east-1", "us-east-2", "us-central-1", "us-west-1",
-                "eu-central-1", "eu-west-1", "ap-northeast-1"
-        );
-
-        for (String regionStr : knownWasabiRegions) {
-            try {
-                Region region = Region.of(regionStr);
-                String endpoint = String.format("https://s3.%s.wasabisys.com", regionStr);
-
-                S3Client s3Client = S3Client.builder()
-                        .credentialsProvider(StaticCredentialsProvider.create(
-                                AwsBasicCredentials.create(accessKey, secretKey)))
-                        .endpointOverride(URI.create(endpoint))
-                        .region(region)
-                        .build();
-
-                s3Client.listBuckets(); // 성공하면 인증 완료
-
-                return regionStr; // ✅ 사용 가능한 리전 반환
-
-            } catch (S3Exception e) {
-                // 무시하고 다음 리전으로
-            }
-        }
-
-        throw new ApiException(ErrorCode.INVAILD_STORAGE, "입력한 키로 인증 가능한 리전을 찾을 수 없습니다.");
+        return s3CredentialProbe.detectRegion(accessKey, secretKey);
     }
 
 
@@ -123,39 +107,11 @@ public class S3Service {
 //        }
 //    }
 
+    /**
+     * 리전에서 접근 가능한 버킷 목록 (버킷별 headBucket 을 동시에 확인하고 결과는 캐시)
+     */
     public List<String> getBucketNameList(String accessKey, String secretKey, String regionStr) {
-        try {
-            AwsBasicCredentials awsCreds = AwsBasicCredentials.create(accessKey, secretKey);
-            Region region = Region.of(regionStr);
-            String endpoint = String.format("https://s3.%s.wasabisys.com", regionStr);
-
-            S3Client s3Client = S3Client.builder()
-                    .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
-                    .endpointOverride(URI.create(endpoint))
-                    .region(region)
-                    .build();
-
-            List<String> regionBuckets = new ArrayList<>();
-
-            ListBucketsResponse response = s3Client.listBuckets();
-
-            for (Bucket bucket : response.buckets()) {
-                try {
-                    s3Client.headBucket(b -> b.bucket(bucket.name()));
-                    // headBucket 성공하면 현재 region에서 접근 가능 → 포함
-                    regionBuckets.add(bucket.name());
-                } catch (S3Exception e) {
-                    // 해당 region에서 접근 안 되면 무시
-                }
-            }
-
-            return regionBuckets;
-
-        } catch (S3Exception e) {
-            throw new ApiException(ErrorCode.INVAILD_STORAGE);
-        } catch (Exception e) {
-            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR);
-        }
+        return s3CredentialProbe.listAccessibleBuckets(accessKey, secretKey, regionStr);
     }
 
 
@@ -222,192 +178,96 @@ public class S3Service {
     }
 
 
-    public void initializeS3Client(String bucketName) {
-        Optional<BucketEntity> bucketOptional = bucketRepository.findByName(bucketName);
-
-        if (bucketOptional.isEmpty()) {
-            throw new IllegalStateException("해당 이름의 버킷을 찾을 수 없음: " + bucketName);
-        }
-
-        BucketEntity bucket = bucketOptional.get();
-        String accessKey = secureStorageService.getDecryptedValue("accessKey", bucket.getAccessKey());
-        String secretKey = secureStorageService.getDecryptedValue("secretKey", bucket.getSecretKey());
-        String regionStr = bucket.getRegion();
-
-        Region region;
-        try {
-            region = Region.of(regionStr);
-        } catch (Exception e) {
-            throw new ApiException(ErrorCode.INVAILD_STORAGE, "유효하지 않은 리전입니다: " + regionStr);
-        }
+    /**
+     * 폴더 한 단계 하위 항목 조회 (delimiter="/" 사용, 하위 폴더는 CommonPrefixes 로만 받음)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    public FolderChildrenResponseDto listFolderChildren(String bucketName, String prefix, String cursor, int pageSize) {
+        S3Client s3Client = createS3ClientFromBucketName(bucketName);
 
-        //  사용자 region 기반으로 endpoint 구성
-        String endpoint = String.format("https://s3.%s.wasabisys.com", regionStr);
+        String folderPrefix = (prefix == null || prefix.isEmpty() || prefix.endsWith("/")) ? Objects.toString(prefix, "") : prefix + "/";
 
-        this.s3Client = S3Client.builder()
-                .endpointOverride(URI.create(endpoint)) //  사용자 리전 기반 endpoint
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)
-                ))
-                .region(region) //  리전도 동적으로 설정
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(folderPrefix)
+                .delimiter("/")
+                .maxKeys(Math.max(1, Math.min(pageSize, 1000)))
+                .continuationToken(cursor == null || cursor.isBlank() ? null : cursor)
                 .build();
+        ListObjectsV2Response response = s3Client.listObjectsV2(request);
 
-        System.out.println("Wasabi Storage 연결 완료 (" + bucketName + ", " + regionStr + ")");
-    }
-
-
-    public Map<String, Object> convertJsonToMap(JsonNode node) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
-
-        while (fields.hasNext()) {
-            Map.Entry<String, JsonNode> entry = fields.next();
-            String key = entry.getKey();
-            JsonNode value = entry.getValue();
-
-            if (value.isObject()) {
-                //  진짜 파일인지 확인: type == "File" 인 경우에만 무시
-                if (value.has("type") && "File".equals(value.get("type").asText())) {
-                    continue;
-                }
-
-                // 폴더면 재귀적으로 파싱
-                result.put(key, convertJsonToMap(value));
-            }
+        List<TreeFolderNodeDto<Void>> folders = new ArrayList<>();
+        for (CommonPrefix commonPrefix : response.commonPrefixes()) {
+            String path = commonPrefix.prefix().substring(0, commonPrefix.prefix().length() - 1);
+            folders.add(new TreeFolderNodeDto<>(extractFileName(path), path, false, null, null));
         }
 
-        return result;
-    }
-
-
-    public List<TreeFolderNodeDto> extractFoldersOnly(String bucketName, String prefix) throws Exception {
-        String json = getBucketAndObjectsInfoAsJson(bucketName, prefix);
-
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(json);
-        JsonNode filesNode = root.get("files");
-
-        Map<String, Object> folderMap = convertJsonToMap(filesNode);
-        return TreeNodeConverter.convertFolderMapToTree(folderMap, "");
-    }
-
-    public class TreeNodeConverter {
-        public static List<TreeFolderNodeDto> convertFolderMapToTree(Map<String, Object> folderMap, String parentPath) {
-            List<TreeFolderNodeDto> result = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : folderMap.entrySet()) {
-                String folderName = entry.getKey();
-                Object value = entry.getValue();
-
-                String currentPath = parentPath.isEmpty() ? folderName : parentPath + "/" + folderName;
-
-                TreeFolderNodeDto node = new TreeFolderNodeDto();
-                node.setTitle(folderName);
-                node.setKey(currentPath);
+        List<TreeFolderNodeDto<Map<String, Object>>> files = new ArrayList<>();
+        for (S3Object s3Object : response.contents()) {
+            // 폴더 마커(prefix 자기 자신)와 빈 객체는 제외
+            if (s3Object.key().equals(folderPrefix) || s3Object.size() == 0) continue;
 
-                if (value instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> childrenMap = (Map<String, Object>) value;
-                    node.setChildren(convertFolderMapToTree(childrenMap, currentPath));
-                }
-
-                result.add(node);
-            }
-
-            return result;
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("filePath", s3Object.key());
+            metadata.put("fileSize", s3Object.size());
+            metadata.put("lastModified", s3Object.lastModified().toString());
+            files.add(new TreeFolderNodeDto<>(extractFileName(s3Object.key()), s3Object.key(), true, metadata, null));
         }
-    }
 
-    public String getBucketAndObjectsInfoAsJson(String bucketName, String prefix) throws Exception {
-        S3Client s3Client = createS3ClientFromBucketName(bucketName);
+        boolean hasMore = Boolean.TRUE.equals(response.isTruncated());
+        return new FolderChildrenResponseDto(folderPrefix, folders, files, hasMore ? response.nextContinuationToken() : null, hasMore);
+    }
 
-        // JSON 변환을 위한 ObjectMapper 생성
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode rootNode = objectMapper.createObjectNode();
+    /**
+     * 버킷 정보 + prefix 하위 폴더/파일 트리를 S3 조회 페이지가 도착하는 대로 JSON 으로 기록
+     * (하위 prefix 는 병렬로 조회하고, 키 순서대로 합쳐진 페이지를 바로 응답에 쓴다)
+     */
+    public void writeBucketAndObjectsInfo(BucketEntity bucket, String prefix, JsonGenerator generator) throws IOException {
+        S3Client s3Client = s3ClientRegistry.getClient(bucket);
+        // 인덱스에 집계된 값만 사용 (응답 도중 인덱스 동기화를 시작하지 않음, 아직 없으면 null)
+        Long bucketSize = bucketObjectIndexService.findIndexedBucketSize(bucket.getId());
 
-        // 🔹 버킷 소유자 및 크기 가져오기
+        // 🔹 버킷 소유자
         GetBucketAclResponse bucketAclResponse = s3Client.getBucketAcl(
-                GetBucketAclRequest.builder().bucket(bucketName).build()
+                GetBucketAclRequest.builder().bucket(bucket.getName()).build()
         );
-        rootNode.put("bucketName", bucketName);
-        rootNode.put("bucketOwner", bucketAclResponse.owner().displayName());
-        rootNode.put("bucketSize", getBucketSize(bucketName));
-
-        // 🔹 파일 목록 JSON 트리 구조 생성
-        ObjectNode filesNode = objectMapper.createObjectNode();
-        Map<String, ObjectNode> folderMap = new HashMap<>();
-        folderMap.put("", filesNode); // 루트 폴더
-
-        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                .bucket(bucketName)
-                .prefix(prefix)
-                .fetchOwner(true)
-                .build();
-        ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
-
-        for (S3Object s3Object : listResponse.contents()) {
-            String filePath = s3Object.key(); // 파일의 전체 키(경로명)
-            String[] pathParts = filePath.split("/");
-            ObjectNode parent = filesNode;
-            StringBuilder currentPath = new StringBuilder();
-
-            // 🔹 폴더 구조를 생성 (재귀 없이)
-            for (int i = 0; i < pathParts.length - 1; i++) {
-                currentPath.append(pathParts[i]).append("/");
-
-                // Key가 없을 때만 값 추가 (폴더 구조 유지)
-                folderMap.putIfAbsent(currentPath.toString(), objectMapper.createObjectNode());
-                parent.set(pathParts[i], folderMap.get(currentPath.toString()));
-                parent = folderMap.get(currentPath.toString());
-            }
-
-            // 🔹 파일인지 폴더인지 확인
-            if (s3Object.size() > 0) {
-                //  파일이면 파일 정보 추가
-                ObjectNode fileNode = objectMapper.createObjectNode();
-                fileNode.put("filePath", filePath);
-                fileNode.put("owner", s3Object.owner() != null ? s3Object.owner().displayName() : "Unknown");
-                fileNode.put("lastModified", s3Object.lastModified().toString());
-                fileNode.put("fileSize", s3Object.size());
-                fileNode.put("type", "File");  //  파일 타입 추가
-                parent.set(pathParts[pathParts.length - 1], fileNode);
-            } else {
-                //  폴더면 파일 정보 없이 유지 + "Folder" 타입 추가
-                if (!folderMap.containsKey(filePath)) { // 폴더가 이미 있지 않다면
-                    ObjectNode folderNode = objectMapper.createObjectNode();
-                    folderNode.put("filePath", filePath);
-                    folderNode.put("owner", s3Object.owner() != null ? s3Object.owner().displayName() : "Unknown");
-                    folderNode.put("lastModified", s3Object.lastModified().toString());
-                    folderNode.put("type", "Folder");  //  파일 타입 추가
-                    parent.set(pathParts[pathParts.length - 1], folderNode);
+        generator.writeStartObject();
+        generator.writeStringField("bucketName", bucket.getName());
+        generator.writeStringField("bucketOwner", bucketAclResponse.owner().displayName());
+
+        // 🔹 파일 목록 JSON 트리 구조 (페이지 단위로 기록 후 flush)
+        generator.writeObjectFieldStart("files");
+        S3ObjectTreeStreamWriter treeWriter = new S3ObjectTreeStreamWriter(generator);
+        s3ParallelLister.list(bucket, prefix, true, page -> {
+            try {
+                for (S3Object s3Object : page) {
+                    treeWriter.add(
+                            s3Object.key(),
+                            s3Object.size(),
+                            s3Object.owner() != null ? s3Object.owner().displayName() : null,
+                            s3Object.lastModified()
+                    );
                 }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+        treeWriter.finish();
+        generator.writeEndObject();
+
+        // 🔹 버킷 크기 (집계값)
+        if (bucketSize != null) {
+            generator.writeNumberField("bucketSize", bucketSize);
+        } else {
+            generator.writeNullField("bucketSize");
         }
-
-        rootNode.set("files", filesNode);
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(rootNode);
+        generator.writeEndObject();
     }
 
-
-    public long getBucketSize(String bucketName) {
-        S3Client s3Client = createS3ClientFromBucketName(bucketName);
-        long totalSize = 0;
-        ListObjectsV2Request request = ListObjectsV2Request.builder()
-                .bucket(bucketName)
-                .build();
-
-        ListObjectsV2Response response;
-        do {
-            response = s3Client.listObjectsV2(request);
-            totalSize += response.contents().stream()
-                    .mapToLong(S3Object::size)
-                    .sum();
-            request = request.toBuilder()
-                    .continuationToken(response.nextContinuationToken())
-                    .build();
-        } while (response.isTruncated());
-
-        return totalSize;
+    public BucketEntity findBucketByNameOrThrow(String bucketName) {
+        return bucketRepository.findByName(bucketName)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "버킷을 찾을 수 없습니다."));
     }
 
 //    @Transactional
@@ -469,31 +329,6 @@ public class S3Service {
         return result;
     }
 
-    public long calculateTotalSize(String bucketName) {
-        S3Client s3Client = createS3ClientFromBucketName(bucketName);
-
-        long totalSize = 0L;
-        String continuationToken = null;
-
-        do {
-            ListObjectsV2Request request = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .continuationToken(continuationToken)
-                    .build();
-
-            ListObjectsV2Response response = s3Client.listObjectsV2(request);
-
-            totalSize += response.contents().stream()
-                    .mapToLong(S3Object::size)
-                    .sum();
-
-            continuationToken = response.nextContinuationToken();
-
-        } while (continuationToken != null);
-
-        return totalSize;
-    }
-
     public BucketEntity findBucketOrThrow(String bucketId) {
         return bucketRepository.findById(bucketId)
                 .orElseThrow(() -> new RuntimeException("버킷이 존재하지 않습니다."));
@@ -501,7 +336,9 @@ public class S3Service {
 
     @Transactional
     public void deleteBucketFromDb(String bucketId) {
+        bucketObjectIndexService.deleteIndex(bucketId);
         bucketRepository.deleteById(bucketId);
+        s3ClientRegistry.invalidate(bucketId);
     }
 
     @Transactional
@@ -515,74 +352,8 @@ public class S3Service {
 
 
     private S3Client createS3ClientFromBucketName(String bucketName) {
-        BucketEntity bucket = bucketRepository.findByName(bucketName)
-                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "버킷을 찾을 수 없습니다."));
-
-        String region = bucket.getRegion();
-        String endpoint = "https://s3." + region + ".wasabisys.com";
-
-        String accessKey = secureStorageService.getDecryptedValue("accessKey", bucket.getAccessKey());
-        String secretKey = secureStorageService.getDecryptedValue("secretKey", bucket.getSecretKey());
-
-        return S3Client.builder()
-                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
-                .region(Region.of(region))
-                .endpointOverride(URI.create(endpoint))
-                .build();
-    }
-    public List<Map<String, Object>> getAllFilesUnderFolder(String bucketName, String prefix) throws Exception {
-        S3Client s3Client = createS3ClientFromBucketName(bucketName);
-
-        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                .bucket(bucketName)
-                .prefix(prefix)
-                .fetchOwner(true)
-                .build();
-
-        ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
-
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<String> filePaths = new ArrayList<>();
-
-        for (S3Object s3Object : listResponse.contents()) {
-            if (s3Object.size() == 0) continue;
-
-            String filePath = s3Object.key();
-            filePaths.add(filePath); // 📌 업로드 정보 추적용
-
-            Map<String, Object> fileInfo = new HashMap<>();
-            fileInfo.put("filePath", filePath);
-            fileInfo.put("title", extractFileName(filePath));
-            fileInfo.put("fileSize", s3Object.size());
-            fileInfo.put("owner", s3Object.owner() != null ? s3Object.owner().displayName() : "Unknown");
-            fileInfo.put("lastModified", s3Object.lastModified().toString());
-            fileInfo.put("type", "File");
-
-            result.add(fileInfo);
-        }
-
-        // 🔹 업로드된 파일 메타 정보 조회
-        List<UploadFileEntity> uploadedFiles = uploadFileRepository.findByS3UrlIn(filePaths);
-        Map<String, UploadFileEntity> pathToUploadFileMap = uploadedFiles.stream()
-                .collect(Collectors.toMap(
-                        UploadFileEntity::getS3Url,
-                        file -> file
-                ));
-
-        // 🔹 메타정보를 각 결과에 추가
-        for (Map<String, Object> file : result) {
-            String filePath = (String) file.get("filePath");
-            UploadFileEntity uploaded = pathToUploadFileMap.get(filePath);
-
-            if (uploaded != null) {
-                file.put("parserName", uploaded.getParser() != null ? uploaded.getParser().getName() : "");
-                file.put("parserId", uploaded.getParser() != null ? uploaded.getParser().getId() : "");
-                file.put("dbcFileId", uploaded.getDbc() != null ? uploaded.getDbc().getId() : null);
-                file.put("id", uploaded.getId()); // UploadFile의 기본 ID
-            }
-        }
-
-        return result;
+        // 버킷별로 캐시된 클라이언트 재사용 (공유 커넥션 풀)
+        return s3ClientRegistry.getClient(bucketName);
     }
 
     private String extractFileName(String fullPath) {
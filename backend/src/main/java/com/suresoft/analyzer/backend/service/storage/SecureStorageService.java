@@ -40,9 +40,8 @@ public class SecureStorageService {
      */
     public String getDecryptedValue(String keyType, String key) {
         try{
-            String encryptedValue =decrypt(key);
             // SHA-256 기반 AES 복호화 적용 (MASTER_KEY 사용)
-            return encryptedValue != null ? decrypt(key) : null;
+            return key != null ? decrypt(key) : null;
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -2,9 +2,12 @@ package com.suresoft.analyzer.backend.service.storage;
 
 import com.suresoft.analyzer.backend.dto.analysis.ProjectFileDto;
 import com.suresoft.analyzer.backend.dto.storage.DeleteUploadFilesResultDto;
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileMetadataStatus;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileCatalogPageDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileUsageDto;
 import com.suresoft.analyzer.backend.dto.storage.request.UploadFileCreateRequest;
+import com.suresoft.analyzer.backend.dto.storage.request.UploadFileFilterRequestDto;
 import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
 import com.suresoft.analyzer.backend.entity.storage.DbcFileEntity;
 import com.suresoft.analyzer.backend.entity.storage.UploadFileEntity;
@@ -25,8 +28,14 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,39 +48,22 @@ public class StorageService {
     private final ProjectFileRepository projectFileRepository;
     private final BlueprintSettingRepository   blueprintSettingRepository;
     private final VisualizationProjectRepository visualizationProjectRepository;
+    private final BucketUsageService bucketUsageService;
+    private final UploadFileBulkWriter uploadFileBulkWriter;
+    private final UploadFileCatalogQuery uploadFileCatalogQuery;
+    private final UploadFileMetadataService uploadFileMetadataService;
 
 
     public List<UploadFileDto> getAllUploadFilesByUserId(String userId) {
-        List<BucketEntity> buckets = bucketRepository.findAllByUserId(userId);
-        List<UploadFileDto> results = new ArrayList<>();
-
-        for (BucketEntity bucket : buckets) {
-            results.addAll(uploadFileRepository.findByBucketId(bucket.getId()).stream().map(uploadFile -> {
-                UploadFileDto dto = new UploadFileDto();
-                dto.setId(uploadFile.getId());
-                dto.setName(uploadFile.getName());
-
-                if (uploadFile.getParser() != null) {
-                    dto.setParserName(uploadFile.getParser().getName());
-                    dto.setParserId(uploadFile.getParser().getId());
-                }
-
-                if (uploadFile.getDbc() != null) {
-                    dto.setDbcFileId(uploadFile.getDbc().getId());
-                    dto.setDbcFileName(uploadFile.getDbc().getName());
-                }
-
-                dto.setS3Url(uploadFile.getS3Url());
-                dto.setTimestamp(uploadFile.getTimestampMicro());
-
-                return dto;
-            }).toList());
-        }
-
-        return results;
+        return uploadFileCatalogQuery.findAll(userId);
     }
 
-
+    /**
+     * 업로드 파일 목록 페이지 조회 (필터 / 정렬 / 커서)
+     */
+    public UploadFileCatalogPageDto getUploadFileCatalog(String userId, UploadFileFilterRequestDto filter) {
+        return uploadFileCatalogQuery.findPage(userId, filter);
+    }
 
     public UploadFileDto getById(String id) {
         UploadFileEntity entity = uploadFileRepository.findById(id).orElseThrow(() ->  new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "User Not Found"));;
@@ -95,7 +87,7 @@ public class StorageService {
         file.setS3Url(request.getPath());
         file.setBucket(bucket);
         file.setParser(parser);
-        file.setTimestampMicro(null); // 초기값은 null
+        file.setTimestampMicro(null); // 초기값은 null, 등록 후 메타데이터 확인 작업이 채움
 
         //  DBC 파일 연결 (있으면)
         if (request.getDbcFileId() != null && !request.getDbcFileId().isEmpty()) {
@@ -104,6 +96,8 @@ public class StorageService {
         }
 
         UploadFileEntity saved = uploadFileRepository.save(file);
+        bucketUsageService.markStale(bucket.getId(), saved.getS3Url()); // 사용량 집계 재계산 대상
+        uploadFileMetadataService.enqueue(List.of(saved.getId()));
         return saved.getId();
     }
 
@@ -127,32 +121,90 @@ public class StorageService {
     }
 
 
+    /**
+     * 업로드 파일 일괄 삭제
+     * - 사용처 확인은 한 번의 조회로, 삭제는 한 문장으로 처리한다.
+     * - 프로젝트 / 블루프린트에서 사용 중인 파일은 삭제하지 않고 skipped 로 돌려준다.
+     */
+    @Transactional
     public DeleteUploadFilesResultDto deleteUploadFiles(List<String> fileIds, String userId) {
+        List<String> distinctIds = fileIds.stream().distinct().toList();
+        Map<String, UploadFileUsageDto> usages = uploadFileBulkWriter.findUsages(distinctIds);
+        if (usages.size() < distinctIds.size()) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "해당 파일이 존재하지 않습니다.");
+        }
+
+        List<String> candidates = distinctIds.stream()
+                .filter(id -> !usages.get(id).isUsed())
+                .toList();
+        Set<String> deletedIds = uploadFileBulkWriter.deleteUnused(candidates);
+
         List<String> deleted = new ArrayList<>();
         List<UploadFileUsageDto> skipped = new ArrayList<>();
-
-        for (String fileId : fileIds) {
-            UploadFileUsageDto usage = getUploadFileUsage(fileId);
-            if (usage.isUsed()) {
-                skipped.add(usage); // 그대로 재사용
-                continue;
+        for (String fileId : distinctIds) {
+            if (deletedIds.contains(fileId)) {
+                deleted.add(fileId);
+            } else {
+                skipped.add(usages.get(fileId));
             }
-
-            uploadFileRepository.deleteById(fileId);
-            deleted.add(fileId);
         }
 
         return new DeleteUploadFilesResultDto(deleted, skipped);
     }
 
 
+    /**
+     * 업로드 파일 일괄 등록 (s3_url 기준 upsert)
+     * - parser / bucket / dbc 는 종류별로 한 번씩만 조회하고, 행은 JDBC batch 로 반영한다.
+     * - 참조 처리 규칙은 createOrUpdateUploadFile 과 같다. (parser 는 없으면 null, bucket / dbc 는 없으면 예외)
+     * @return 입력 순서대로의 업로드 파일 id
+     */
+    @Transactional
     public List<String> createUploadFiles(List<UploadFileCreateRequest> dtoList, String userId) {
-        List<String> ids = new ArrayList<>();
+        if (dtoList.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> parserIds = parserRepository.findAllById(collectIds(dtoList, UploadFileCreateRequest::getParserId)).stream()
+                .map(ParserEntity::getId)
+                .collect(Collectors.toSet());
+        Set<String> bucketIds = bucketRepository.findAllById(collectIds(dtoList, UploadFileCreateRequest::getBucketId)).stream()
+                .map(BucketEntity::getId)
+                .collect(Collectors.toSet());
+        Set<String> dbcIds = dbcFileRepository.findAllById(collectIds(dtoList, UploadFileCreateRequest::getDbcFileId)).stream()
+                .map(DbcFileEntity::getId)
+                .collect(Collectors.toSet());
+
+        List<UploadFileBulkWriter.UploadFileRow> rows = new ArrayList<>(dtoList.size());
         for (UploadFileCreateRequest dto : dtoList) {
-            String id = createOrUpdateUploadFile(dto, userId); // <-- 수정된 메서드 사용
-            ids.add(id);
+            if (!bucketIds.contains(dto.getBucketId())) {
+                throw new IllegalArgumentException("Bucket not found: " + dto.getBucketId());
+            }
+            if (dto.getDbcFileId() != null && !dbcIds.contains(dto.getDbcFileId())) {
+                throw new IllegalArgumentException("DbcFile not found: " + dto.getDbcFileId());
+            }
+            String parserId = parserIds.contains(dto.getParserId()) ? dto.getParserId() : null;
+            rows.add(new UploadFileBulkWriter.UploadFileRow(dto.getName(), dto.getPath(), dto.getBucketId(), parserId, dto.getDbcFileId()));
         }
-        return ids;
+
+        UploadFileBulkWriter.UpsertResult result = uploadFileBulkWriter.upsert(rows);
+
+        // 새로 추가된 파일의 prefix 만 사용량 재계산 대상
+        result.inserted().stream()
+                .collect(Collectors.groupingBy(UploadFileBulkWriter.UploadFileRow::bucketId,
+                        Collectors.mapping(UploadFileBulkWriter.UploadFileRow::s3Url, Collectors.toList())))
+                .forEach(bucketUsageService::markStale);
+        // 덮어쓴 파일도 메타데이터를 다시 확인한다.
+        uploadFileMetadataService.enqueue(new LinkedHashSet<>(result.ids()));
+
+        return result.ids();
+    }
+
+    private static Set<String> collectIds(List<UploadFileCreateRequest> dtoList, Function<UploadFileCreateRequest, String> getter) {
+        return dtoList.stream()
+                .map(getter)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
     @Transactional
@@ -181,7 +233,14 @@ public class StorageService {
             file.setParser(parser);
             file.setBucket(bucket);
             file.setDbc(dbc);
-            return uploadFileRepository.save(file).getId();
+            // 같은 경로에 다른 파일을 덮어썼으므로 메타데이터를 다시 확인한다.
+            file.setContentId(null);
+            file.setMetadataStatus(EUploadFileMetadataStatus.PENDING);
+            file.setMetadataAttempts(null);
+            file.setMetadataRetryAt(null);
+            String id = uploadFileRepository.save(file).getId();
+            uploadFileMetadataService.enqueue(List.of(id));
+            return id;
 
         }  else {
             // === CREATE NEW ===
@@ -192,7 +251,10 @@ public class StorageService {
             newFile.setBucket(bucket);
             newFile.setDbc(dbc);
             newFile.setCreatedAt(LocalDateTime.now());
-            return uploadFileRepository.save(newFile).getId();
+            bucketUsageService.markStale(bucket.getId(), dto.getPath()); // 사용량 집계 재계산 대상
+            String id = uploadFileRepository.save(newFile).getId();
+            uploadFileMetadataService.enqueue(List.of(id));
+            return id;
         }
     }
 
@@ -0,0 +1,159 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.UploadFileUsageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * UPLOAD_FILE 대량 등록 / 삭제
+ * - 등록 : 기존 행은 s3_url 목록으로 한 번에 조회하고, 수정/추가는 각각 JDBC batch 로 보낸다.
+ *   기존 행은 같은 경로에 다른 파일을 덮어쓴 것이므로 메타데이터 (내용 식별자, 확인 상태, 재시도) 를 처음 상태로 되돌린다.
+ *   같은 s3_url 이 여러 번 들어오면 마지막 값으로 한 번만 반영하고 같은 id 를 돌려준다.
+ * - 삭제 : PROJECT_FILE / BLUEPRINT_SETTING 참조 여부를 한 번에 조회하고, 참조되지 않는 행만 한 문장으로 지운다.
+ * - 호출하는 쪽의 트랜잭션 안에서 실행된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadFileBulkWriter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT id, s3_url FROM upload_file WHERE s3_url = ANY (?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE upload_file SET name = ?, bucket_id = ?, parser_id = ?, dbc_file_id = ?, " +
+            "content_id = NULL, metadata_status = 'PENDING', metadata_attempts = NULL, metadata_retry_at = NULL WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO upload_file (id, name, s3_url, timestamp_micro, metadata_status, created_at, bucket_id, parser_id, dbc_file_id) " +
+            "VALUES (?, ?, ?, NULL, 'PENDING', ?, ?, ?, ?)";
+
+    private static final String SELECT_USAGE_SQL =
+            "SELECT f.id, f.name, " +
+            "EXISTS (SELECT 1 FROM project_file p WHERE p.upload_file_id = f.id) AS in_project_file, " +
+            "EXISTS (SELECT 1 FROM blueprint_setting b WHERE b.upload_file_id = f.id) AS in_blueprint_setting " +
+            "FROM upload_file f WHERE f.id = ANY (?)";
+
+    // 조회 이후 참조가 생긴 행은 남겨두도록 삭제 시점에도 참조 여부를 다시 확인한다.
+    private static final String DELETE_UNUSED_SQL =
+            "DELETE FROM upload_file f WHERE f.id = ANY (?) " +
+            "AND NOT EXISTS (SELECT 1 FROM project_file p WHERE p.upload_file_id = f.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM blueprint_setting b WHERE b.upload_file_id = f.id) " +
+            "RETURNING f.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return 입력 순서대로의 업로드 파일 id 와 새로 추가된 행 (수정/추가된 모든 행은 메타데이터 확인 대상)
+     */
+    public UpsertResult upsert(List<UploadFileRow> rows) {
+        // s3_url 별 마지막 값
+        Map<String, UploadFileRow> latest = new LinkedHashMap<>();
+        rows.forEach(row -> latest.put(row.s3Url(), row));
+
+        Map<String, String> idByUrl = findExistingIds(latest.keySet().toArray(new String[0]));
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<UploadFileRow> inserted = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (UploadFileRow row : latest.values()) {
+            String id = idByUrl.get(row.s3Url());
+            if (id != null) {
+                updates.add(new Object[]{row.name(), row.bucketId(), row.parserId(), row.dbcFileId(), id});
+            } else {
+                id = UUID.randomUUID().toString();
+                idByUrl.put(row.s3Url(), id);
+                inserts.add(new Object[]{id, row.name(), row.s3Url(), now, row.bucketId(), row.parserId(), row.dbcFileId()});
+                inserted.add(row);
+            }
+        }
+
+        batch(UPDATE_SQL, updates);
+        batch(INSERT_SQL, inserts);
+
+        List<String> ids = rows.stream().map(row -> idByUrl.get(row.s3Url())).toList();
+        return new UpsertResult(ids, inserted);
+    }
+
+    /**
+     * @return key : 업로드 파일 id, value : 사용처 정보 (존재하지 않는 id 는 포함되지 않음)
+     */
+    public Map<String, UploadFileUsageDto> findUsages(Collection<String> ids) {
+        Map<String, UploadFileUsageDto> usages = new HashMap<>();
+        if (ids.isEmpty()) {
+            return usages;
+        }
+        String[] idArray = ids.toArray(new String[0]);
+        jdbcTemplate.query(SELECT_USAGE_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", idArray)), rs -> {
+            List<String> usedIn = new ArrayList<>();
+            if (rs.getBoolean("in_project_file")) {
+                usedIn.add("PROJECT_FILE");
+            }
+            if (rs.getBoolean("in_blueprint_setting")) {
+                usedIn.add("BLUEPRINT_SETTING_FILE");
+            }
+            String id = rs.getString("id");
+            usages.put(id, new UploadFileUsageDto(id, rs.getString("name"), !usedIn.isEmpty(), usedIn));
+        });
+        return usages;
+    }
+
+    /**
+     * 참조되지 않는 업로드 파일 삭제
+     * @return 실제 삭제된 id
+     */
+    public Set<String> deleteUnused(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String[] idArray = ids.toArray(new String[0]);
+        List<String> deleted = jdbcTemplate.query(DELETE_UNUSED_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", idArray)),
+                (rs, rowNum) -> rs.getString("id"));
+        return new HashSet<>(deleted);
+    }
+
+    private Map<String, String> findExistingIds(String[] s3Urls) {
+        Map<String, String> idByUrl = new HashMap<>();
+        if (s3Urls.length == 0) {
+            return idByUrl;
+        }
+        jdbcTemplate.query(SELECT_EXISTING_SQL, ps -> {
+            Array array = ps.getConnection().createArrayOf("varchar", s3Urls);
+            ps.setArray(1, array);
+        }, rs -> {
+            // 중복 행이 이미 있다면 처음 조회된 행만 갱신 (단건 등록과 동일하게 하나만 사용)
+            idByUrl.putIfAbsent(rs.getString("s3_url"), rs.getString("id"));
+        });
+        return idByUrl;
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        for (int from = 0; from < args.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + BATCH_SIZE, args.size())));
+        }
+    }
+
+    public record UploadFileRow(String name, String s3Url, String bucketId, String parserId, String dbcFileId) {
+    }
+
+    public record UpsertResult(List<String> ids, List<UploadFileRow> inserted) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileMetadataStatus;
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileSort;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileCatalogPageDto;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileDto;
+import com.suresoft.analyzer.backend.dto.storage.request.UploadFileFilterRequestDto;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 사용자 업로드 파일 목록 조회 (parser / dbc 를 join 한 projection 한 번으로 조회)
+ * - 키워드 / 확장자 / 파서 필터를 SQL 에서 적용한다.
+ * - (정렬 컬럼, id) 기준 keyset 페이지네이션이라 뒤 페이지도 offset 없이 인덱스로 바로 찾아간다.
+ * - 커서는 마지막 행의 (정렬 값, id) 를 base64 로 담는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadFileCatalogQuery {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String SELECT_SQL =
+            "SELECT f.id, f.name, f.s3_url, f.timestamp_micro, f.duration_micro, f.file_size, f.metadata_status, f.created_at, " +
+            "p.id AS parser_id, p.name AS parser_name, d.id AS dbc_file_id, d.name AS dbc_file_name " +
+            "FROM upload_file f " +
+            "LEFT JOIN parser p ON p.id = f.parser_id " +
+            "LEFT JOIN dbc_file d ON d.id = f.dbc_file_id " +
+            "WHERE f.bucket_id IN (SELECT b.id FROM bucket b WHERE b.user_id = ?)";
+
+    // 확장자 이름은 점 포함 여부와 무관하게 비교
+    private static final String EXTENSION_FILTER =
+            " AND EXISTS (SELECT 1 FROM extension e WHERE e.id = ANY (?) " +
+            "AND lower(f.name) LIKE '%.' || ltrim(lower(e.name), '.'))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 필터 / 정렬 / 커서를 적용한 한 페이지
+     */
+    public UploadFileCatalogPageDto findPage(String userId, UploadFileFilterRequestDto filter) {
+        int pageSize = Math.max(1, Math.min(filter.getPageSize(), MAX_PAGE_SIZE));
+        List<Row> rows = query(userId, filter, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Row> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(sortOf(filter), page.get(page.size() - 1)) : null;
+        return new UploadFileCatalogPageDto(page.stream().map(Row::dto).toList(), nextCursor, hasMore);
+    }
+
+    /**
+     * 사용자의 전체 업로드 파일 (생성일 최신순)
+     */
+    public List<UploadFileDto> findAll(String userId) {
+        return query(userId, new UploadFileFilterRequestDto(), null).stream().map(Row::dto).toList();
+    }
+
+    private List<Row> query(String userId, UploadFileFilterRequestDto filter, Integer limit) {
+        EUploadFileSort sort = sortOf(filter);
+        boolean ascending = filter.getAscending() != null ? filter.getAscending() : sort == EUploadFileSort.NAME;
+        String column = sort == EUploadFileSort.NAME ? "f.name" : "f.created_at";
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+
+        if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            sql.append(" AND f.name ILIKE ?");
+            args.add("%" + escapeLike(filter.getKeyword().trim()) + "%");
+        }
+        if (filter.getParserIds() != null && !filter.getParserIds().isEmpty()) {
+            sql.append(" AND f.parser_id = ANY (?)");
+            args.add(filter.getParserIds().toArray(new String[0]));
+        }
+        if (filter.getExtensionIds() != null && !filter.getExtensionIds().isEmpty()) {
+            sql.append(EXTENSION_FILTER);
+            args.add(filter.getExtensionIds().toArray(new String[0]));
+        }
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            String[] cursor = decodeCursor(filter.getCursor());
+            sql.append(" AND (").append(column).append(", f.id) ").append(ascending ? ">" : "<").append(" (?, ?)");
+            args.add(sort == EUploadFileSort.NAME ? cursor[0] : parseCreatedAt(cursor[0]));
+            args.add(cursor[1]);
+        }
+
+        String direction = ascending ? "ASC" : "DESC";
+        sql.append(" ORDER BY ").append(column).append(" ").append(direction).append(", f.id ").append(direction);
+        if (limit != null) {
+            sql.append(" LIMIT ").append(limit);
+        }
+
+        return jdbcTemplate.query(sql.toString(), ps -> {
+            for (int i = 0; i < args.size(); i++) {
+                Object arg = args.get(i);
+                if (arg instanceof String[] array) {
+                    ps.setArray(i + 1, ps.getConnection().createArrayOf("varchar", array));
+                } else {
+                    ps.setObject(i + 1, arg);
+                }
+            }
+        }, (rs, rowNum) -> toRow(rs));
+    }
+
+    private static Row toRow(ResultSet rs) throws SQLException {
+        UploadFileDto dto = new UploadFileDto();
+        dto.setId(rs.getString("id"));
+        dto.setName(rs.getString("name"));
+        dto.setS3Url(rs.getString("s3_url"));
+        dto.setTimestamp(rs.getObject("timestamp_micro", Long.class));
+        dto.setDurationMicro(rs.getObject("duration_micro", Long.class));
+        dto.setFileSize(rs.getObject("file_size", Long.class));
+        String metadataStatus = rs.getString("metadata_status");
+        dto.setMetadataStatus(metadataStatus != null ? EUploadFileMetadataStatus.valueOf(metadataStatus) : EUploadFileMetadataStatus.PENDING);
+        dto.setParserId(rs.getString("parser_id"));
+        dto.setParserName(rs.getString("parser_name"));
+        dto.setDbcFileId(rs.getString("dbc_file_id"));
+        dto.setDbcFileName(rs.getString("dbc_file_name"));
+        return new Row(dto, rs.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private static EUploadFileSort sortOf(UploadFileFilterRequestDto filter) {
+        return filter.getSort() != null ? filter.getSort() : EUploadFileSort.CREATED_AT;
+    }
+
+    private static String encodeCursor(EUploadFileSort sort, Row last) {
+        return encodeCursor(sort == EUploadFileSort.NAME ? last.dto.getName() : last.createdAt.toString(), last.dto.getId());
+    }
+
+    /**
+     * 정렬 값에 '|' 가 있어도 id 에는 없으므로 마지막 '|' 로 나눈다.
+     */
+    static String encodeCursor(String sortValue, String id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return [정렬 값, id]
+     */
+    static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+        }
+    }
+
+    private static Timestamp parseCreatedAt(String value) {
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+        }
+    }
+
+    static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Row(UploadFileDto dto, LocalDateTime createdAt) {
+    }
+}
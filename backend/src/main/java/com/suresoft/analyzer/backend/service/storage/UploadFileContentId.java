@@ -0,0 +1,17 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+/**
+ * 업로드 파일 내용 식별자
+ * - 같은 내용의 객체는 버킷 / 경로가 달라도 같은 값이 되도록 S3 ETag 와 크기로 만든다.
+ * - 단일 PUT 객체의 ETag 는 내용 MD5 이고, multipart 객체는 파트 구성까지 같아야 같은 값이 된다.
+ *   (다르게 나오는 경우는 재처리될 뿐 잘못 공유되지는 않는다)
+ */
+public final class UploadFileContentId {
+
+    private UploadFileContentId() {
+    }
+
+    public static String of(String eTag, long size) {
+        return "etag:" + eTag.replace("\"", "") + ":" + size;
+    }
+}
@@ -0,0 +1,281 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 파일 전체를 받지 않고 앞/뒤 일부 바이트만으로 시작 시각과 길이를 계산
+ * - 형식은 확장자가 아니라 앞부분 magic 으로 판별한다.
+ * - MP4 : 최상위 box 헤더만 따라가서 moov 를 찾고, mvhd 의 creation_time / duration 을 읽는다.
+ * - pcap : 첫 패킷은 global header 바로 뒤, 마지막 패킷은 파일 끝 구간에서 레코드가 끝까지 이어지는 위치를 찾는다.
+ * - RIFF : 헤더의 timestamp offset 과 첫 / 마지막 신호 chunk 의 time delta 를 사용한다. (riff_reader.py 와 같은 구조)
+ */
+public class UploadFileHeaderProber {
+
+    /**
+     * 객체의 [offset, offset + length) 구간 조회 (파일 끝을 넘으면 있는 만큼만)
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+        byte[] read(long offset, int length);
+    }
+
+    /**
+     * @param format 판별된 형식 (null 이면 지원하지 않는 형식)
+     */
+    public record ProbeResult(String format, Long startMicro, Long durationMicro) {
+        static ProbeResult unsupported() {
+            return new ProbeResult(null, null, null);
+        }
+    }
+
+    static final int HEAD_SIZE = 64 * 1024;
+    private static final int MIN_TAIL_SIZE = 64 * 1024;
+    private static final int MAX_TAIL_SIZE = 1024 * 1024;
+    private static final int MAX_MOOV_SIZE = 64 * 1024 * 1024;
+    private static final int MAX_TOP_LEVEL_BOXES = 64;
+
+    // 1904-01-01 (MP4 기준 시각) 과 1970-01-01 사이 초
+    private static final long MP4_EPOCH_OFFSET_SECONDS = 2082844800L;
+
+    private static final int RIFF_DATA_OFFSET = 42; // RIFF(12) + chunk(8) + timestamp(8) + crc(2) + LIST(12)
+    private static final int RIFF_SIGNAL_CHUNK_ID = 0x69676973;
+    private static final int RIFF_SIGNAL_HEADER = 8 + 18 + 4; // chunk 헤더 + 신호 헤더 + payload 길이
+
+    private final RangeReader reader;
+    private final long fileSize;
+
+    public UploadFileHeaderProber(RangeReader reader, long fileSize) {
+        this.reader = reader;
+        this.fileSize = fileSize;
+    }
+
+    public ProbeResult probe() {
+        if (fileSize < 12) {
+            return ProbeResult.unsupported();
+        }
+        byte[] head = reader.read(0, (int) Math.min(HEAD_SIZE, fileSize));
+
+        if (startsWith(head, 0, "RIFF")) {
+            return probeRiff(head);
+        }
+        if (head.length >= 8 && startsWith(head, 4, "ftyp")) {
+            return probeMp4(head);
+        }
+        int magic = ByteBuffer.wrap(head, 0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (magic == 0xa1b2c3d4 || magic == 0xa1b23c4d || magic == 0xd4c3b2a1 || magic == 0x4d3cb2a1) {
+            return probePcap(head, magic);
+        }
+        return ProbeResult.unsupported();
+    }
+
+    /* ========================= MP4 ========================= */
+
+    private ProbeResult probeMp4(byte[] head) {
+        long offset = 0;
+        for (int i = 0; i < MAX_TOP_LEVEL_BOXES && offset + 8 <= fileSize; i++) {
+            byte[] header = offset + 16 <= head.length
+                    ? slice(head, (int) offset, 16)
+                    : reader.read(offset, (int) Math.min(16, fileSize - offset));
+            ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.BIG_ENDIAN);
+            long size = Integer.toUnsignedLong(buffer.getInt());
+            String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            int headerSize = 8;
+            if (size == 1 && header.length >= 16) {
+                size = buffer.getLong();
+                headerSize = 16;
+            } else if (size == 0) {
+                size = fileSize - offset;
+            }
+            if (size < headerSize) {
+                break;
+            }
+
+            if ("moov".equals(type)) {
+                long bodySize = size - headerSize;
+                if (bodySize > MAX_MOOV_SIZE) {
+                    break;
+                }
+                byte[] moov = reader.read(offset + headerSize, (int) bodySize);
+                return parseMvhd(moov);
+            }
+            offset += size;
+        }
+        return new ProbeResult("MP4", null, null);
+    }
+
+    private ProbeResult parseMvhd(byte[] moov) {
+        ByteBuffer buffer = ByteBuffer.wrap(moov).order(ByteOrder.BIG_ENDIAN);
+        int position = 0;
+        while (position + 8 <= moov.length) {
+            long size = Integer.toUnsignedLong(buffer.getInt(position));
+            String type = new String(moov, position + 4, 4, StandardCharsets.ISO_8859_1);
+            if ("mvhd".equals(type) && position + 8 + 32 <= moov.length) {
+                int body = position + 8;
+                int version = moov[body] & 0xff;
+                long creationTime;
+                long timescale;
+                long duration;
+                if (version == 1) {
+                    creationTime = buffer.getLong(body + 4);
+                    timescale = Integer.toUnsignedLong(buffer.getInt(body + 20));
+                    duration = buffer.getLong(body + 24);
+                } else {
+                    creationTime = Integer.toUnsignedLong(buffer.getInt(body + 4));
+                    timescale = Integer.toUnsignedLong(buffer.getInt(body + 12));
+                    duration = Integer.toUnsignedLong(buffer.getInt(body + 16));
+                }
+                Long startMicro = creationTime > MP4_EPOCH_OFFSET_SECONDS
+                        ? (creationTime - MP4_EPOCH_OFFSET_SECONDS) * 1_000_000L
+                        : null;
+                Long durationMicro = timescale > 0 ? duration * 1_000_000L / timescale : null;
+                return new ProbeResult("MP4", startMicro, durationMicro);
+            }
+            if (size < 8 || position + size > moov.length) {
+                break;
+            }
+            position += (int) size;
+        }
+        return new ProbeResult("MP4", null, null);
+    }
+
+    /* ========================= pcap ========================= */
+
+    private ProbeResult probePcap(byte[] head, int magic) {
+        ByteOrder order = (magic == 0xa1b2c3d4 || magic == 0xa1b23c4d) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        boolean nanos = magic == 0xa1b23c4d || magic == 0x4d3cb2a1;
+        if (head.length < 24 + 16) {
+            return new ProbeResult("PCAP", null, null);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(head).order(order);
+        long snapLen = Integer.toUnsignedLong(buffer.getInt(16));
+
+        long firstSeconds = Integer.toUnsignedLong(buffer.getInt(24));
+        long firstMicro = toMicro(firstSeconds, Integer.toUnsignedLong(buffer.getInt(28)), nanos);
+
+        // 마지막 패킷 : 파일 끝 구간에서 레코드 헤더가 정확히 파일 끝까지 이어지는 첫 위치를 찾는다.
+        long maxRecord = Math.min(Math.max(snapLen, 1), MAX_TAIL_SIZE) + 16;
+        int tailSize = (int) Math.min(fileSize - 24, Math.min(MAX_TAIL_SIZE, Math.max(MIN_TAIL_SIZE, maxRecord * 2)));
+        long tailStart = fileSize - tailSize;
+        byte[] tail = tailStart + tailSize <= head.length
+                ? slice(head, (int) tailStart, tailSize)
+                : reader.read(tailStart, tailSize);
+        ByteBuffer tailBuffer = ByteBuffer.wrap(tail).order(order);
+        boolean coversAll = tailStart == 24;
+
+        for (int candidate = 0; candidate + 16 <= tail.length; candidate++) {
+            int last = -1;
+            int records = 0;
+            int position = candidate;
+            while (position + 16 <= tail.length) {
+                long seconds = Integer.toUnsignedLong(tailBuffer.getInt(position));
+                long included = Integer.toUnsignedLong(tailBuffer.getInt(position + 8));
+                long original = Integer.toUnsignedLong(tailBuffer.getInt(position + 12));
+                if (seconds < firstSeconds || included > maxRecord || original < included) {
+                    break;
+                }
+                last = position;
+                records++;
+                position += 16 + (int) included;
+            }
+            // 잘못된 위치에서 우연히 이어질 수 있으므로 끝까지 세 개 이상 이어져야 인정 (앞부분 전체를 읽은 경우 제외)
+            if (position == tail.length && last >= 0 && (records >= 3 || (coversAll && candidate == 0))) {
+                long lastMicro = toMicro(Integer.toUnsignedLong(tailBuffer.getInt(last)),
+                        Integer.toUnsignedLong(tailBuffer.getInt(last + 4)), nanos);
+                return new ProbeResult("PCAP", firstMicro, Math.max(0, lastMicro - firstMicro));
+            }
+        }
+        return new ProbeResult("PCAP", firstMicro, null);
+    }
+
+    private static long toMicro(long seconds, long fraction, boolean nanos) {
+        return seconds * 1_000_000L + (nanos ? fraction / 1000 : fraction);
+    }
+
+    /* ========================= RIFF ========================= */
+
+    private ProbeResult probeRiff(byte[] head) {
+        if (head.length < RIFF_DATA_OFFSET) {
+            return new ProbeResult("RIFF", null, null);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(head).order(ByteOrder.LITTLE_ENDIAN);
+        long timestampOffset = buffer.getLong(20);
+
+        // 첫 신호 : 데이터 시작부터 chunk 를 따라가며 찾는다.
+        Long firstDelta = null;
+        int position = RIFF_DATA_OFFSET;
+        while (position + RIFF_SIGNAL_HEADER <= head.length) {
+            int chunkId = buffer.getInt(position);
+            if (chunkId == RIFF_SIGNAL_CHUNK_ID) {
+                firstDelta = buffer.getLong(position + 18);
+                break;
+            }
+            long next = position + 8 + Integer.toUnsignedLong(buffer.getInt(position + 4));
+            if (next > head.length) {
+                break;
+            }
+            position = (int) next;
+        }
+
+        Long lastDelta = findLastSignalDelta();
+        Long duration = (firstDelta != null && lastDelta != null) ? Math.max(0, lastDelta - firstDelta) : null;
+        return new ProbeResult("RIFF", timestampOffset + (firstDelta != null ? firstDelta : 0), duration);
+    }
+
+    // 파일 끝 구간에서 chunk 가 끝까지 이어지는 위치를 찾아 마지막 신호 chunk 의 time delta 를 읽는다.
+    private Long findLastSignalDelta() {
+        for (int tailSize = MIN_TAIL_SIZE; ; tailSize *= 4) {
+            int size = (int) Math.min(tailSize, fileSize - RIFF_DATA_OFFSET);
+            byte[] tail = reader.read(fileSize - size, size);
+            ByteBuffer buffer = ByteBuffer.wrap(tail).order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int candidate = 0; candidate + RIFF_SIGNAL_HEADER <= tail.length; candidate++) {
+                if (buffer.getInt(candidate) != RIFF_SIGNAL_CHUNK_ID) {
+                    continue;
+                }
+                Long lastDelta = null;
+                int position = candidate;
+                while (position + 8 <= tail.length) {
+                    int chunkId = buffer.getInt(position);
+                    if (chunkId == RIFF_SIGNAL_CHUNK_ID) {
+                        if (position + RIFF_SIGNAL_HEADER > tail.length) {
+                            break;
+                        }
+                        long length = Integer.toUnsignedLong(buffer.getInt(position + 26));
+                        lastDelta = buffer.getLong(position + 18);
+                        position += RIFF_SIGNAL_HEADER + (int) Math.min(length + (length % 2), tail.length);
+                    } else {
+                        position += 8 + (int) Math.min(Integer.toUnsignedLong(buffer.getInt(position + 4)), tail.length);
+                    }
+                }
+                if (position == tail.length && lastDelta != null) {
+                    return lastDelta;
+                }
+            }
+            if (size >= fileSize - RIFF_DATA_OFFSET || tailSize >= MAX_TAIL_SIZE) {
+                return null;
+            }
+        }
+    }
+
+    /* ========================= 공통 ========================= */
+
+    private static boolean startsWith(byte[] bytes, int offset, String ascii) {
+        if (bytes.length < offset + ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (bytes[offset + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] slice(byte[] bytes, int offset, int length) {
+        byte[] copy = new byte[Math.min(length, bytes.length - offset)];
+        System.arraycopy(bytes, offset, copy, 0, copy.length);
+        return copy;
+    }
+}
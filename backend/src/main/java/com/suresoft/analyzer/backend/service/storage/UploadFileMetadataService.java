@@ -0,0 +1,271 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileMetadataStatus;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileMetadataProgressDto;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 파일 등록 직후 메타데이터(시작 시각, 길이, 크기, 내용 식별자)를 백그라운드에서 채운다.
+ * - S3 ranged GET 으로 앞/뒤 필요한 바이트만 읽는다. (UploadFileHeaderProber)
+ * - 동시 실행 수와 대기열 크기를 제한한다. 대기열이 가득 차면 PENDING 으로 남겨두고 주기 작업이 다시 넣는다.
+ * - 실패(FAILED)한 파일은 지수 백오프로 maxAttempts 번까지 주기 작업이 다시 확인한다. (일시적인 S3 오류 대응)
+ * - 파일마다 결과를 global/user/{userId}/upload-file/metadata 로 발행한다.
+ */
+@Slf4j
+@Service
+public class UploadFileMetadataService {
+
+    private static final String SELECT_TARGET_SQL =
+            "SELECT f.id, f.s3_url, f.metadata_attempts, b.name AS bucket_name, b.user_id " +
+            "FROM upload_file f JOIN bucket b ON b.id = f.bucket_id WHERE f.id = ?";
+
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id FROM upload_file WHERE metadata_status IS NULL OR metadata_status = 'PENDING' " +
+            "OR (metadata_status = 'FAILED' AND metadata_retry_at <= ?) " +
+            "ORDER BY created_at LIMIT ?";
+
+    private static final String UPDATE_RESULT_SQL =
+            "UPDATE upload_file SET timestamp_micro = COALESCE(?, timestamp_micro), duration_micro = ?, file_size = ?, " +
+            "content_id = ?, metadata_status = ? WHERE id = ?";
+
+    private static final String UPDATE_CONTENT_ID_SQL =
+            "UPDATE upload_file SET content_id = ? WHERE id = ? AND content_id IS NULL";
+
+    private static final String UPDATE_FAILED_SQL =
+            "UPDATE upload_file SET metadata_status = ?, content_id = COALESCE(?, content_id), " +
+            "metadata_attempts = ?, metadata_retry_at = ? WHERE id = ?";
+
+    private final S3ClientRegistry s3ClientRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final MqttPublisher mqttPublisher;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+
+    // 대기 중이거나 실행 중인 업로드 파일 id (중복 등록 방지)
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong unsupported = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    public UploadFileMetadataService(S3ClientRegistry s3ClientRegistry,
+                                     JdbcTemplate jdbcTemplate,
+                                     MqttPublisher mqttPublisher,
+                                     @Value("${upload-file.metadata.concurrency:4}") int concurrency,
+                                     @Value("${upload-file.metadata.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${upload-file.metadata.max-attempts:5}") int maxAttempts,
+                                     @Value("${upload-file.metadata.retry-base-ms:60000}") long retryBaseMillis,
+                                     @Value("${upload-file.metadata.retry-max-ms:21600000}") long retryMaxMillis) {
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mqttPublisher = mqttPublisher;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "upload-file-metadata-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 메타데이터 확인 대상 등록 (트랜잭션 안이면 커밋 이후에 등록)
+     */
+    public void enqueue(Collection<String> uploadFileIds) {
+        if (uploadFileIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = List.copyOf(uploadFileIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitAll(ids);
+                }
+            });
+        } else {
+            submitAll(ids);
+        }
+    }
+
+    private void submitAll(List<String> ids) {
+        for (String id : ids) {
+            if (!queued.add(id)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    running.incrementAndGet();
+                    try {
+                        probe(id);
+                    } finally {
+                        running.decrementAndGet();
+                        queued.remove(id);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 대기열이 가득 참 : PENDING 으로 남겨두고 recoverPending 에서 다시 넣는다.
+                queued.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 재시작 등으로 처리되지 않은 PENDING 파일과 재시도 시각이 된 FAILED 파일을 대기열 여유만큼 다시 등록
+     */
+    @Scheduled(fixedDelayString = "${upload-file.metadata.recovery-interval-ms:60000}")
+    public void recoverPending() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity <= 0) {
+            return;
+        }
+        List<String> pending = jdbcTemplate.queryForList(SELECT_PENDING_SQL, String.class,
+                Timestamp.valueOf(LocalDateTime.now()), Math.min(capacity, queueCapacity));
+        if (!pending.isEmpty()) {
+            submitAll(pending);
+        }
+    }
+
+    /**
+     * 내용 식별자가 아직 없는 파일은 HEAD 한 번으로 바로 채운다. (블루프린트 서명이 확인 전/후에 달라지지 않도록)
+     * @return 내용 식별자 (S3 조회에 실패하면 null)
+     */
+    public String resolveContentId(String uploadFileId, String bucketName, String key) {
+        try {
+            HeadObjectResponse head = s3ClientRegistry.getClient(bucketName).headObject(b -> b.bucket(bucketName).key(key));
+            String contentId = UploadFileContentId.of(head.eTag(), head.contentLength());
+            jdbcTemplate.update(UPDATE_CONTENT_ID_SQL, contentId, uploadFileId);
+            return contentId;
+        } catch (Exception e) {
+            log.warn("⚠️ 내용 식별자 확인 실패 | {} | {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void probe(String uploadFileId) {
+        List<Map<String, Object>> targets = jdbcTemplate.queryForList(SELECT_TARGET_SQL, uploadFileId);
+        if (targets.isEmpty()) {
+            return; // 이미 삭제된 파일
+        }
+        Map<String, Object> target = targets.get(0);
+        String key = (String) target.get("s3_url");
+        String bucketName = (String) target.get("bucket_name");
+        String userId = (String) target.get("user_id");
+        Number previousAttempts = (Number) target.get("metadata_attempts");
+
+        String contentId = null;
+        try {
+            S3Client client = s3ClientRegistry.getClient(bucketName);
+            HeadObjectResponse head = client.headObject(b -> b.bucket(bucketName).key(key));
+            long fileSize = head.contentLength();
+            contentId = UploadFileContentId.of(head.eTag(), fileSize);
+
+            UploadFileHeaderProber prober = new UploadFileHeaderProber((offset, length) -> {
+                if (length <= 0) {
+                    return new byte[0];
+                }
+                byte[] bytes = client.getObjectAsBytes(b -> b.bucket(bucketName).key(key)
+                        .range("bytes=" + offset + "-" + (offset + length - 1))).asByteArray();
+                bytesRead.addAndGet(bytes.length);
+                return bytes;
+            }, fileSize);
+            UploadFileHeaderProber.ProbeResult result = prober.probe();
+
+            EUploadFileMetadataStatus status = result.format() != null
+                    ? EUploadFileMetadataStatus.COMPLETED
+                    : EUploadFileMetadataStatus.UNSUPPORTED;
+            jdbcTemplate.update(UPDATE_RESULT_SQL, result.startMicro(), result.durationMicro(), fileSize, contentId,
+                    status.name(), uploadFileId);
+            (status == EUploadFileMetadataStatus.COMPLETED ? completed : unsupported).incrementAndGet();
+
+            log.debug("🔎 메타데이터 확인 | {} | format: {} | start: {} | duration: {}",
+                    key, result.format(), result.startMicro(), result.durationMicro());
+            publish(userId, uploadFileId, status, result.startMicro(), result.durationMicro(), fileSize);
+        } catch (Exception e) {
+            int attempts = (previousAttempts != null ? previousAttempts.intValue() : 0) + 1;
+            LocalDateTime retryAt = nextRetryAt(attempts);
+            log.warn("⚠️ 메타데이터 확인 실패 | {} | attempt: {}/{} | retry at: {} | {}", key, attempts, maxAttempts, retryAt, e.getMessage());
+            jdbcTemplate.update(UPDATE_FAILED_SQL, EUploadFileMetadataStatus.FAILED.name(), contentId, attempts,
+                    retryAt != null ? Timestamp.valueOf(retryAt) : null, uploadFileId);
+            failed.incrementAndGet();
+            publish(userId, uploadFileId, EUploadFileMetadataStatus.FAILED, null, null, null);
+        }
+    }
+
+    /**
+     * 다음 재시도 시각 (retryBase x 2^(실패 횟수 - 1), 최대 retryMax), 마지막 시도였으면 null
+     */
+    private LocalDateTime nextRetryAt(int attempts) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+        long delay = Math.min(retryBaseMillis << Math.min(attempts - 1, 20), retryMaxMillis);
+        return LocalDateTime.now().plus(Duration.ofMillis(delay));
+    }
+
+    private void publish(String userId, String uploadFileId, EUploadFileMetadataStatus status,
+                         Long timestampMicro, Long durationMicro, Long fileSize) {
+        if (userId == null) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("uploadFileId", uploadFileId);
+        payload.put("status", status.name());
+        payload.put("timestampMicro", timestampMicro);
+        payload.put("durationMicro", durationMicro);
+        payload.put("fileSize", fileSize);
+        mqttPublisher.publish(String.format("global/user/%s/upload-file/metadata", userId), payload);
+    }
+
+    public UploadFileMetadataProgressDto getProgress() {
+        return new UploadFileMetadataProgressDto(
+                executor.getQueue().size(),
+                running.get(),
+                completed.get(),
+                unsupported.get(),
+                failed.get(),
+                bytesRead.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -21,10 +21,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,6 +47,11 @@ public class SystemService {
     private final BucketRepository bucketRepository;
     private final EnvProperties env;
 
+    private static final int DBC_PARSE_CACHE_MAX_ENTRIES = 256;
+
+    // key : DBC 파일 내용의 sha256 (같은 내용의 DBC 는 파일명 / 사용자와 무관하게 한 번만 파싱)
+    private final Map<String, List<DbcMessageDto>> dbcParseCache = new ConcurrentHashMap<>();
+
     public List<FileExtensionResponseDto> getFileExtensions() {
         List<ExtensionEntity> extensions = extensionRepository.findAll();
         return extensions.stream()
@@ -82,8 +96,36 @@ public class SystemService {
 //        String dbcFilePath = "C:/nginx/dbc-files/" + userId + "/" + uploadFile.getDbc().getName();
         String dbcFilePath = env.getPath() + "/dbc/" + userId + "/" + uploadFile.getDbc().getName();
 
-        return runDbcParserDockerContainer(dbcFilePath);
+        String contentHash = sha256Of(Paths.get(dbcFilePath));
+        List<DbcMessageDto> cached = dbcParseCache.get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<DbcMessageDto> messages = runDbcParserDockerContainer(dbcFilePath);
+        if (dbcParseCache.size() < DBC_PARSE_CACHE_MAX_ENTRIES) {
+            dbcParseCache.put(contentHash, messages);
+        }
+        return messages;
+
+    }
 
+    private String sha256Of(Path path) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchFileException e) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "DBC File");
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "DBC 파일 읽기 실패");
+        }
     }
 
     private List<DbcMessageDto> runDbcParserDockerContainer(String dbcFilePath){
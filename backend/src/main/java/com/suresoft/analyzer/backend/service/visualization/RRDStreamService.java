@@ -0,0 +1,498 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.suresoft.analyzer.backend.config.EnvProperties;
+import com.suresoft.analyzer.backend.dto.visualization.response.RRDBandwidthDto;
+import com.suresoft.analyzer.backend.dto.visualization.response.RRDStreamTokenResponseDto;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.auth.UserRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RRD 세그먼트 전송 (nginx /rrd/ 대신 사용)
+ * - 경로 : {userId}/{projectId}/... (프로젝트 RRD), teams/{teamId}/... (팀 공유 엔티티 RRD)
+ * - 프로젝트 RRD 는 소유자 / 같은 팀 구성원, 팀 공유 RRD 는 그 팀 구성원만 받을 수 있다.
+ * - 뷰어 iframe 은 Authorization 헤더를 보낼 수 없으므로 프로젝트 단위로 서명한 짧은 수명의 token 도 받는다.
+ *   token 서명 키는 JWT 키를 그대로 쓰지 않고 용도 라벨로 파생한 별도 키를 쓴다.
+ * - Range / If-Range / If-None-Match / If-Modified-Since 지원
+ * - gzip 은 설정으로 켠다. (rerun 이 RRD 를 이미 LZ4 로 압축해 기본은 끔)
+ * - 압축하지 않는 응답은 Tomcat sendfile 로 보낸다. (커널 복사 없이 전송되는 경우는 이것뿐이고,
+ *   sendfile 을 지원하지 않는 커넥터에서는 응답 스트림으로 일반 복사한다)
+ * - 프로젝트별 전송량을 집계한다.
+ */
+@Slf4j
+@Service
+public class RRDStreamService {
+
+    private static final String TEAM_DIRECTORY = "teams";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // JWT 서명 키에서 RRD token 서명 키를 파생할 때 쓰는 용도 라벨
+    private static final String TOKEN_KEY_PURPOSE = "rrd-stream-token/v1";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // 권한 확인 결과 재사용 시간 (팀에서 빠진 사용자는 이 시간 안에 차단된다)
+    private static final long ACCESS_CACHE_MILLIS = 60_000;
+    private static final int MAX_ACCESS_CACHE = 10_000;
+
+    private final EnvProperties env;
+    private final UserRepository userRepository;
+    private final VisualizationProjectRepository visualizationProjectRepository;
+    private final RRDTieringService rrdTieringService;
+
+    private final long tokenTtlMillis;
+    private final boolean gzipEnabled;
+    private final long gzipMaxBytes;
+    private final long maxAgeSeconds;
+    private final SecretKeySpec tokenKey;
+
+    // key : "{userId}:{scope}", value : 허용을 확인한 시각
+    private final Map<String, Long> accessCache = new ConcurrentHashMap<>();
+    // key : project id (팀 공유 RRD 를 프로젝트 token 없이 받은 경우 teams/{teamId})
+    private final Map<String, Bandwidth> bandwidth = new ConcurrentHashMap<>();
+
+    public RRDStreamService(EnvProperties env,
+                            UserRepository userRepository,
+                            VisualizationProjectRepository visualizationProjectRepository,
+                            RRDTieringService rrdTieringService,
+                            @Value("${visualization.rrd-stream.token-ttl-minutes:720}") long tokenTtlMinutes,
+                            @Value("${visualization.rrd-stream.gzip:false}") boolean gzipEnabled,
+                            @Value("${visualization.rrd-stream.gzip-max-bytes:67108864}") long gzipMaxBytes,
+                            @Value("${visualization.rrd-stream.max-age-seconds:3600}") long maxAgeSeconds) {
+        this.env = env;
+        this.userRepository = userRepository;
+        this.visualizationProjectRepository = visualizationProjectRepository;
+        this.rrdTieringService = rrdTieringService;
+        this.tokenTtlMillis = tokenTtlMinutes * 60_000;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMaxBytes = gzipMaxBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.tokenKey = deriveTokenKey(env.getJwtSecretKey());
+    }
+
+    /**
+     * JWT 키로 용도 라벨을 서명한 값을 RRD token 키로 사용 (token 이 JWT 와 같은 키로 서명되지 않도록)
+     */
+    private static SecretKeySpec deriveTokenKey(String jwtSecretKey) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(jwtSecretKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return new SecretKeySpec(mac.doFinal(TOKEN_KEY_PURPOSE.getBytes(StandardCharsets.UTF_8)), HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("RRD token 키 생성 실패", e);
+        }
+    }
+
+    /**
+     * 뷰어가 쓸 프로젝트 단위 token 발급 (프로젝트를 볼 수 있는 사용자만)
+     */
+    public RRDStreamTokenResponseDto issueToken(String userId, String projectId) {
+        if (!visualizationProjectRepository.existsVisibleToUser(projectId, userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "프로젝트 소유자 또는 같은 팀 구성원만 RRD 를 볼 수 있습니다.");
+        }
+        long expiresAt = System.currentTimeMillis() + tokenTtlMillis;
+        String payload = userId + "\n" + projectId + "\n" + expiresAt;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(sign(payload));
+        return new RRDStreamTokenResponseDto(token, expiresAt);
+    }
+
+    /**
+     * @param userId   JWT 로 인증된 사용자 (없으면 token 으로 인증)
+     * @param path     RRD 루트 기준 상대 경로
+     */
+    public void stream(String userId, String token, String path,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Caller caller = userId != null ? new Caller(userId, null) : verifyToken(token);
+        RRDPath rrdPath = parsePath(path);
+        authorize(caller, rrdPath);
+        // 버킷에 보관된 프로젝트면 복원될 때까지 대기하고, 보내는 동안 디렉터리를 내리지 않도록 잡아 둔다.
+        try (RRDTieringService.LocalLease lease = rrdPath.projectId() != null
+                ? rrdTieringService.openLocal(rrdPath.projectId())
+                : rrdTieringService.openArtifactLocal(path)) {
+            send(caller, rrdPath, path, request, response);
+        }
+    }
+
+    private void send(Caller caller, RRDPath rrdPath, String path,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolveFile(path);
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        // HTTP 날짜는 초 단위
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        Bandwidth usage = bandwidth.computeIfAbsent(rrdPath.accountKey(caller), key -> new Bandwidth());
+        usage.requests.incrementAndGet();
+        usage.lastAccessMillis = System.currentTimeMillis();
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Cache-Control", "private, max-age=" + maxAgeSeconds);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setDateHeader("Last-Modified", lastModified);
+
+        if (isNotModified(request, etag, lastModified)) {
+            usage.notModifiedResponses.incrementAndGet();
+            response.setHeader("ETag", etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader("Range");
+        boolean partial = range != null && matchesIfRange(request, etag, lastModified);
+        if (partial) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                partial = false; // 여러 구간 / 해석할 수 없는 Range 는 무시하고 전체 전송
+            } else if (bounds.length == 0) {
+                response.setHeader("Content-Range", "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            } else {
+                start = bounds[0];
+                end = bounds[1];
+            }
+        }
+        long length = end - start + 1;
+
+        response.setContentType("application/octet-stream");
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        // 일부 구간 요청은 압축하지 않는다. (Content-Range 가 원본 기준이어야 함)
+        if (!partial && acceptsGzip(request) && size <= gzipMaxBytes) {
+            usage.compressedResponses.incrementAndGet();
+            response.setHeader("ETag", etag.substring(0, etag.length() - 1) + "-gzip\"");
+            response.setHeader("Content-Encoding", "gzip");
+            if (head) {
+                return;
+            }
+            CountingOutputStream counter = new CountingOutputStream(response.getOutputStream());
+            try (GZIPOutputStream gzip = new GZIPOutputStream(counter, 64 * 1024)) {
+                Files.copy(file, gzip);
+            } finally {
+                usage.bytesSent.addAndGet(counter.count);
+            }
+            return;
+        }
+
+        response.setHeader("ETag", etag);
+        response.setContentLengthLong(length);
+        if (partial) {
+            usage.rangeResponses.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+        if (head || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 응답은 컨트롤러가 반환된 뒤 Tomcat 이 커널 sendfile 로 보낸다.
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            usage.bytesSent.addAndGet(length);
+            return;
+        }
+
+        // sendfile 을 쓸 수 없는 커넥터 : 응답 스트림을 거치므로 사용자 공간 복사가 생긴다.
+        long sent = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (sent < length) {
+                long transferred = channel.transferTo(start + sent, length - sent, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                sent += transferred;
+            }
+        } finally {
+            usage.bytesSent.addAndGet(sent);
+        }
+    }
+
+    public List<RRDBandwidthDto> getBandwidth() {
+        return bandwidth.entrySet().stream()
+                .map(entry -> new RRDBandwidthDto(
+                        entry.getKey(),
+                        entry.getValue().bytesSent.get(),
+                        entry.getValue().requests.get(),
+                        entry.getValue().rangeResponses.get(),
+                        entry.getValue().notModifiedResponses.get(),
+                        entry.getValue().compressedResponses.get(),
+                        entry.getValue().lastAccessMillis))
+                .sorted(Comparator.comparingLong(RRDBandwidthDto::getBytesSent).reversed())
+                .toList();
+    }
+
+    private Caller verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new ApiException(ErrorCode.UNAUTHORIZED, "RRD 요청에 인증 정보가 없습니다.");
+        }
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 2) {
+                throw new ApiException(ErrorCode.UNAUTHORIZED);
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String payload = new String(decoder.decode(parts[0]), StandardCharsets.UTF_8);
+            if (!MessageDigest.isEqual(sign(payload), decoder.decode(parts[1]))) {
+                throw new ApiException(ErrorCode.UNAUTHORIZED);
+            }
+            String[] fields = payload.split("\n");
+            if (fields.length != 3) {
+                throw new ApiException(ErrorCode.UNAUTHORIZED);
+            }
+            if (Long.parseLong(fields[2]) < System.currentTimeMillis()) {
+                throw new ApiException(ErrorCode.ACCESS_TOKEN_EXPIRED, "만료된 RRD token 입니다.");
+            }
+            return new Caller(fields[0], fields[1]);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ErrorCode.UNAUTHORIZED);
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(tokenKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "RRD token 서명 실패");
+        }
+    }
+
+    private RRDPath parsePath(String path) {
+        String[] parts = path.split("/");
+        if (parts.length < 3 || !path.endsWith(".rrd")) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "RRD 파일을 찾을 수 없습니다.");
+        }
+        // 권한은 앞의 두 경로로 확인하므로 ../ 등으로 다른 디렉터리를 가리키지 못하게 한다.
+        for (String part : parts) {
+            if (part.isEmpty() || part.equals(".") || part.equals("..") || part.contains("\\")) {
+                throw new ApiException(ErrorCode.BAD_REQUEST, "잘못된 RRD 경로입니다.");
+            }
+        }
+        if (TEAM_DIRECTORY.equals(parts[0])) {
+            return new RRDPath(null, null, parts[1]);
+        }
+        return new RRDPath(parts[0], parts[1], null);
+    }
+
+    private void authorize(Caller caller, RRDPath path) {
+        // 프로젝트 token 은 그 프로젝트의 RRD 와 호출자 팀의 공유 RRD 에만 쓸 수 있다.
+        if (caller.projectId() != null && path.projectId() != null && !caller.projectId().equals(path.projectId())) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "다른 프로젝트의 RRD 입니다.");
+        }
+        String scope = path.teamId() != null ? TEAM_DIRECTORY + "/" + path.teamId() : path.ownerId() + "/" + path.projectId();
+        String cacheKey = caller.userId() + ":" + scope;
+        Long checkedAt = accessCache.get(cacheKey);
+        if (checkedAt != null && System.currentTimeMillis() - checkedAt < ACCESS_CACHE_MILLIS) {
+            return;
+        }
+
+        boolean allowed;
+        if (path.teamId() != null) {
+            allowed = userRepository.findTeamIdById(caller.userId())
+                    .map(path.teamId()::equals)
+                    .orElse(false);
+        } else {
+            allowed = visualizationProjectRepository.findUserIdById(path.projectId())
+                    .map(path.ownerId()::equals)
+                    .orElse(false)
+                    && visualizationProjectRepository.existsVisibleToUser(path.projectId(), caller.userId());
+        }
+        if (!allowed) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "RRD 에 접근할 권한이 없습니다.");
+        }
+        if (accessCache.size() >= MAX_ACCESS_CACHE) {
+            accessCache.clear();
+        }
+        accessCache.put(cacheKey, System.currentTimeMillis());
+    }
+
+    private Path resolveFile(String path) {
+        Path root = Paths.get(env.getPath(), "rrd").toAbsolutePath().normalize();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "RRD 파일을 찾을 수 없습니다.");
+        }
+        return file;
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    private static boolean matchesIfRange(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag); // If-Range 는 strong 비교
+        }
+        return dateHeader(request, "If-Range") == lastModified;
+    }
+
+    // gzip 으로 보낸 응답의 ETag (-gzip) 와 약한 비교 (W/) 도 같은 파일로 본다.
+    private static boolean matchesEtag(String header, String etag) {
+        String base = etag.substring(1, etag.length() - 1);
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            value = value.replace("\"", "");
+            if (value.endsWith("-gzip")) {
+                value = value.substring(0, value.length() - "-gzip".length());
+            }
+            if (value.equals(base)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return {start, end} (end 포함), 만족할 수 없는 구간이면 빈 배열, 여러 구간 / 잘못된 형식이면 null
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // 마지막 N 바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        if (!gzipEnabled) {
+            return false;
+        }
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private record Caller(String userId, String projectId) {
+    }
+
+    private record RRDPath(String ownerId, String projectId, String teamId) {
+        private String accountKey(Caller caller) {
+            if (projectId != null) {
+                return projectId;
+            }
+            // 팀 공유 RRD 는 token 을 받은 프로젝트로 집계
+            return caller.projectId() != null ? caller.projectId() : TEAM_DIRECTORY + "/" + teamId;
+        }
+    }
+
+    private static final class Bandwidth {
+        private final AtomicLong bytesSent = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong rangeResponses = new AtomicLong();
+        private final AtomicLong notModifiedResponses = new AtomicLong();
+        private final AtomicLong compressedResponses = new AtomicLong();
+        private volatile long lastAccessMillis;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
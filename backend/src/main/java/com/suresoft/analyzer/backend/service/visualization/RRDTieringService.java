@@ -0,0 +1,1077 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.suresoft.analyzer.backend.config.EnvProperties;
+import com.suresoft.analyzer.backend.dto.visualization.ERrdStorageTier;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationProcessStatus;
+import com.suresoft.analyzer.backend.dto.visualization.response.RRDTieringStatsDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.visualization.RRDArtifactEntity;
+import com.suresoft.analyzer.backend.entity.visualization.RRDStorageEntity;
+import com.suresoft.analyzer.backend.entity.visualization.VisualizationProjectEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.visualization.RRDArtifactRepository;
+import com.suresoft.analyzer.backend.repository.visualization.RRDStorageRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import com.suresoft.analyzer.backend.service.storage.S3ClientRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 프로젝트 RRD 디렉터리 계층 저장 (env.path/rrd/{user}/{project} ↔ 버킷 압축본)
+ * - 조회 / RRD 요청 시 접근 시각을 메모리에 기록하고 주기적으로 RRD_STORAGE 에 반영한다.
+ * - 주기적으로 로컬 디렉터리를 검사해
+ *   1) 삭제된 프로젝트의 디렉터리 / 압축본을 회수하고
+ *   2) 오래 조회되지 않은 완료 프로젝트를 zip 으로 묶어 버킷에 올린 뒤 로컬에서 지우고
+ *   3) 그래도 할당량을 넘으면 가장 오래 조회되지 않은 프로젝트부터 더 내린다.
+ * - 버킷에만 있는 프로젝트는 다음 조회 / RRD 요청에서 내려받아 복원한다. (요청은 복원이 끝날 때까지 대기)
+ * - 압축본은 보관 전용 버킷 (visualization.tiering.bucket-name) 에만 올린다. 설정하지 않으면 내리지 않고 회수만 한다.
+ * - 팀 공유 엔티티 RRD (teams/{team}/entities/..) 는 참조하는 프로젝트를 RRD_ARTIFACT_REF 에 기록해 두고
+ *   참조하는 프로젝트가 모두 버킷에 보관되면 함께 내리고, 참조가 없어지면 (프로젝트 삭제) 회수한다.
+ *   보관된 엔티티 RRD 는 참조하는 프로젝트를 복원하거나 RRD 요청이 오면 복원한다.
+ * - 검사 (압축 / 업로드 / 회수) 는 전용 스레드에서 실행한다. (스케줄러 스레드를 쓰는 다른 @Scheduled 작업을 막지 않음)
+ * - RRD 를 보내는 동안에는 openLocal / openArtifactLocal 로 디렉터리를 잡아 두어 내리거나 회수하지 않는다.
+ */
+@Slf4j
+@Service
+public class RRDTieringService {
+
+    private static final String TEAM_DIRECTORY = "teams";
+    private static final String ENTITY_DIRECTORY = "entities";
+    // visualization-task entity_artifact.py 와 같은 이름 (잠금 = 생성 중, manifest = 완성본)
+    private static final String ARTIFACT_LOCK_FILE = ".lock";
+    private static final String ARTIFACT_MANIFEST_FILE = "manifest.json";
+    private static final String WORK_DIRECTORY = ".tiering";
+    private static final String ARCHIVE_PREFIX = "coda-archive/rrd/";
+    private static final long PART_SIZE = 64L * 1024 * 1024;
+    private static final int LOCK_STRIPES = 256;
+    // 작업이 막 시작된 프로젝트 디렉터리를 고아로 보지 않도록
+    private static final long ORPHAN_GRACE_MILLIS = 60 * 60 * 1000L;
+
+    private static final String UPDATE_ACCESS_SQL =
+            "UPDATE rrd_storage SET last_access_at = ? WHERE project_id = ? AND last_access_at < ?";
+    private static final String INVALIDATE_ARCHIVE_SQL =
+            "UPDATE rrd_storage SET archive_current = false WHERE project_id = ?";
+    private static final String INSERT_ARTIFACT_REF_SQL =
+            "INSERT INTO rrd_artifact_ref (id, project_id, artifact_dir) VALUES (?, ?, ?) " +
+            "ON CONFLICT (project_id, artifact_dir) DO NOTHING";
+    private static final String DELETE_PROJECT_ARTIFACT_REFS_SQL =
+            "DELETE FROM rrd_artifact_ref WHERE project_id = ?";
+    private static final String DELETE_ORPHAN_ARTIFACT_REFS_SQL =
+            "DELETE FROM rrd_artifact_ref r WHERE NOT EXISTS (SELECT 1 FROM visualization_project p WHERE p.id = r.project_id)";
+    // 엔티티 RRD 별 {참조하는 프로젝트 수, 그중 버킷에 보관된 프로젝트 수}
+    private static final String ARTIFACT_REF_COUNTS_SQL =
+            "SELECT r.artifact_dir, COUNT(*), COUNT(CASE WHEN s.tier = 'ARCHIVED' THEN 1 END) " +
+            "FROM rrd_artifact_ref r LEFT JOIN rrd_storage s ON s.project_id = r.project_id GROUP BY r.artifact_dir";
+    private static final String PROJECT_ARCHIVED_ARTIFACTS_SQL =
+            "SELECT r.artifact_dir FROM rrd_artifact_ref r JOIN rrd_artifact a ON a.artifact_dir = r.artifact_dir " +
+            "WHERE r.project_id = ? AND a.tier = 'ARCHIVED'";
+
+    private final EnvProperties env;
+    private final JdbcTemplate jdbcTemplate;
+    private final RRDStorageRepository rrdStorageRepository;
+    private final RRDArtifactRepository rrdArtifactRepository;
+    private final VisualizationProjectRepository visualizationProjectRepository;
+    private final BucketRepository bucketRepository;
+    private final S3ClientRegistry s3ClientRegistry;
+
+    private final boolean enabled;
+    private final long quotaBytes;
+    private final long coldAfterMillis;
+    private final long minIdleMillis;
+    private final String archiveBucketName;
+
+    // 버킷에만 있는 프로젝트 (RRD 요청마다 DB 를 보지 않도록 메모리에 유지)
+    private final Set<String> archived = ConcurrentHashMap.newKeySet();
+    // 버킷에만 있는 팀 공유 엔티티 RRD (artifact_dir)
+    private final Set<String> archivedArtifacts = ConcurrentHashMap.newKeySet();
+    // key : project id, value : 아직 DB 에 반영하지 않은 마지막 접근 시각
+    private final Map<String, Long> pendingAccess = new ConcurrentHashMap<>();
+    // 프로젝트별 내리기 / 복원 / 회수 잠금 (project id 해시로 나눈 고정 배열 - 대기 중인 잠금이 교체되지 않도록)
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // key : project id 또는 artifact_dir, value : 로컬 디렉터리를 읽고 있는 요청 수 (잠금 안에서 늘림)
+    private final Map<String, Integer> readers = new ConcurrentHashMap<>();
+    // 검사 실행용 (대기 중인 검사가 있으면 더 넣지 않음)
+    private final AtomicBoolean manageQueued = new AtomicBoolean();
+    private final ExecutorService manageExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "rrd-tiering");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong archives = new AtomicLong();
+    private final AtomicLong archiveUploadsSkipped = new AtomicLong();
+    private final AtomicLong restores = new AtomicLong();
+    private final AtomicLong restoreMillis = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong reclaimedArtifacts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long localBytes;
+    private volatile long teamBytes;
+    private volatile long lastScanMillis;
+
+    public RRDTieringService(EnvProperties env,
+                             JdbcTemplate jdbcTemplate,
+                             RRDStorageRepository rrdStorageRepository,
+                             RRDArtifactRepository rrdArtifactRepository,
+                             VisualizationProjectRepository visualizationProjectRepository,
+                             BucketRepository bucketRepository,
+                             S3ClientRegistry s3ClientRegistry,
+                             @Value("${visualization.tiering.enabled:true}") boolean enabled,
+                             @Value("${visualization.tiering.quota-gb:500}") long quotaGb,
+                             @Value("${visualization.tiering.cold-after-days:14}") long coldAfterDays,
+                             @Value("${visualization.tiering.min-idle-minutes:60}") long minIdleMinutes,
+                             @Value("${visualization.tiering.bucket-name:}") String archiveBucketName) {
+        this.env = env;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rrdStorageRepository = rrdStorageRepository;
+        this.rrdArtifactRepository = rrdArtifactRepository;
+        this.visualizationProjectRepository = visualizationProjectRepository;
+        this.bucketRepository = bucketRepository;
+        this.s3ClientRegistry = s3ClientRegistry;
+        this.enabled = enabled;
+        this.quotaBytes = quotaGb * 1024 * 1024 * 1024;
+        this.coldAfterMillis = coldAfterDays * 24 * 60 * 60 * 1000;
+        this.minIdleMillis = minIdleMinutes * 60 * 1000;
+        this.archiveBucketName = archiveBucketName;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        archived.addAll(rrdStorageRepository.findProjectIdsByTier(ERrdStorageTier.ARCHIVED));
+        archivedArtifacts.addAll(rrdArtifactRepository.findArtifactDirsByTier(ERrdStorageTier.ARCHIVED));
+        // 중단된 내리기 / 복원이 남긴 임시 파일 정리
+        deleteDirectory(rootDirectory().resolve(WORK_DIRECTORY));
+        if (enabled) {
+            log.info("🧊 RRD 계층 저장 | quota: {}GB | 버킷 보관 프로젝트: {} | 팀 공유 RRD: {}",
+                    quotaBytes / (1024 * 1024 * 1024), archived.size(), archivedArtifacts.size());
+            if (archiveBucketName.isBlank()) {
+                log.warn("⚠️ visualization.tiering.bucket-name 이 없어 RRD 를 버킷에 보관하지 않습니다. (삭제된 프로젝트 회수만 수행)");
+            }
+        }
+    }
+
+    /**
+     * 조회 기록 (DB 반영은 주기적으로)
+     */
+    public void touch(String projectId) {
+        pendingAccess.put(projectId, System.currentTimeMillis());
+    }
+
+    /**
+     * 조회 기록 후 버킷에만 있으면 프로젝트와 프로젝트가 참조하는 팀 공유 RRD 를 복원 (복원이 끝날 때까지 대기)
+     */
+    public void ensureLocal(String projectId) {
+        touch(projectId);
+        if (archived.contains(projectId)) {
+            restore(projectId);
+            // 서로 다른 잠금을 겹쳐 잡지 않도록 프로젝트 잠금을 놓은 뒤에 복원
+            for (String artifactDir : jdbcTemplate.queryForList(PROJECT_ARCHIVED_ARTIFACTS_SQL, String.class, projectId)) {
+                restoreArtifact(artifactDir);
+            }
+        }
+    }
+
+    /**
+     * ensureLocal 후 프로젝트 디렉터리를 잡아 둔다. 닫을 때까지 버킷으로 내리지 않는다. (RRD 전송용)
+     */
+    public LocalLease openLocal(String projectId) {
+        while (true) {
+            ensureLocal(projectId);
+            synchronized (lockOf(projectId)) {
+                // 복원과 잠금 사이에 다시 내려갔으면 한 번 더 복원
+                if (!archived.contains(projectId)) {
+                    return acquire(projectId);
+                }
+            }
+        }
+    }
+
+    /**
+     * ensureArtifactLocal 후 팀 공유 RRD 디렉터리를 잡아 둔다. 닫을 때까지 내리거나 회수하지 않는다. (RRD 전송용)
+     */
+    public LocalLease openArtifactLocal(String relativePath) {
+        String artifactDir = artifactDirectory(relativePath);
+        if (artifactDir == null) {
+            return () -> {
+            };
+        }
+        while (true) {
+            ensureArtifactLocal(relativePath);
+            synchronized (lockOf(artifactDir)) {
+                if (!archivedArtifacts.contains(artifactDir)) {
+                    return acquire(artifactDir);
+                }
+            }
+        }
+    }
+
+    private LocalLease acquire(String key) {
+        readers.merge(key, 1, Integer::sum);
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                readers.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            }
+        };
+    }
+
+    /**
+     * 팀 공유 RRD 요청 (RRD 루트 기준 teams/... 경로) 전에 호출 - 버킷에만 있으면 복원 (복원이 끝날 때까지 대기)
+     */
+    public void ensureArtifactLocal(String relativePath) {
+        if (archivedArtifacts.isEmpty()) {
+            return;
+        }
+        String artifactDir = artifactDirectory(relativePath);
+        if (artifactDir != null && archivedArtifacts.contains(artifactDir)) {
+            restoreArtifact(artifactDir);
+        }
+    }
+
+    /**
+     * 세그먼트 저장 시 프로젝트가 사용하는 팀 공유 엔티티 RRD 기록 (VisualizationMqttIngestor)
+     * @param rrdUrls 세그먼트의 엔티티 RRD URL (프로젝트 디렉터리 안의 RRD 는 무시)
+     */
+    public void recordArtifactRefs(String projectId, Collection<String> rrdUrls) {
+        Set<String> artifactDirs = new HashSet<>();
+        for (String url : rrdUrls) {
+            int index = url.indexOf("/rrd/" + TEAM_DIRECTORY + "/");
+            String artifactDir = index < 0 ? null : artifactDirectory(url.substring(index + "/rrd/".length()));
+            if (artifactDir != null) {
+                artifactDirs.add(artifactDir);
+            }
+        }
+        if (artifactDirs.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (String artifactDir : artifactDirs) {
+            rows.add(new Object[]{UUID.randomUUID().toString(), projectId, artifactDir});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ARTIFACT_REF_SQL, rows);
+    }
+
+    /**
+     * 프로젝트를 다시 처리하기 전에 호출 (로컬로 복원하고, 버킷 압축본은 더 이상 최신이 아님)
+     */
+    public void invalidateArchive(String projectId) {
+        ensureLocal(projectId);
+        jdbcTemplate.update(INVALIDATE_ARCHIVE_SQL, projectId);
+    }
+
+    /**
+     * 삭제된 프로젝트의 로컬 디렉터리 / 버킷 압축본 회수 (트랜잭션 안이면 커밋 이후)
+     * 실패해도 주기 검사에서 다시 회수한다.
+     */
+    public void reclaimAfterCommit(String userId, String projectId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reclaim(userId, projectId);
+                }
+            });
+        } else {
+            reclaim(userId, projectId);
+        }
+    }
+
+    private void reclaim(String userId, String projectId) {
+        synchronized (lockOf(projectId)) {
+            try {
+                Path directory = projectDirectory(userId, projectId);
+                long bytes = directorySize(directory);
+                if (deleteDirectory(directory)) {
+                    reclaimedBytes.addAndGet(bytes);
+                }
+                rrdStorageRepository.findById(projectId).ifPresent(this::deleteArchive);
+                // 참조가 없어진 팀 공유 RRD 는 다음 검사에서 회수된다.
+                jdbcTemplate.update(DELETE_PROJECT_ARTIFACT_REFS_SQL, projectId);
+                archived.remove(projectId);
+                pendingAccess.remove(projectId);
+                log.info("🗑️ 삭제된 프로젝트 RRD 회수 | project: {} | {}MB", projectId, bytes / (1024 * 1024));
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                log.warn("⚠️ 삭제된 프로젝트 RRD 회수 실패 (다음 검사에서 재시도) | project: {} | {}", projectId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${visualization.tiering.access-flush-interval-ms:60000}")
+    public void flushAccess() {
+        if (pendingAccess.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : pendingAccess.entrySet()) {
+            // 반영하는 동안 새로 기록된 접근은 남겨 둔다.
+            if (pendingAccess.remove(entry.getKey(), entry.getValue())) {
+                Timestamp accessedAt = new Timestamp(entry.getValue());
+                rows.add(new Object[]{accessedAt, entry.getKey(), accessedAt});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ACCESS_SQL, rows);
+    }
+
+    /**
+     * 주기 검사 - 스케줄러 스레드는 검사를 넣기만 하고 manageExecutor 에서 실행한다.
+     */
+    @Scheduled(initialDelayString = "${visualization.tiering.initial-delay-ms:120000}",
+            fixedDelayString = "${visualization.tiering.interval-ms:600000}")
+    public void scheduleManage() {
+        if (!enabled || !manageQueued.compareAndSet(false, true)) {
+            return;
+        }
+        manageExecutor.submit(() -> {
+            try {
+                manage();
+            } finally {
+                manageQueued.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        manageExecutor.shutdownNow();
+    }
+
+    public void manage() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flushAccess();
+            Map<String, ArtifactDirectory> artifacts = scanArtifacts();
+            Map<String, ProjectDirectory> directories = scanLocal(artifacts);
+            Map<String, VisualizationProjectEntity> projects = visualizationProjectRepository.findAllById(directories.keySet()).stream()
+                    .collect(Collectors.toMap(VisualizationProjectEntity::getId, Function.identity()));
+            reclaimOrphans(directories, projects);
+            List<RRDStorageEntity> candidates = syncStorage(directories, projects);
+            if (!archiveBucketName.isBlank()) {
+                enforce(candidates, directories);
+            }
+            // 프로젝트를 내린 뒤에 참조를 세어야 이번 검사에서 함께 내릴 수 있다.
+            manageArtifacts(artifacts);
+            if (localBytes > quotaBytes) {
+                log.warn("⚠️ RRD 로컬 용량이 할당량을 넘었습니다 (최근 조회 / 처리 중 프로젝트와 그 팀 공유 RRD 제외 후) | 사용: {}MB | 할당량: {}MB | 팀 공유: {}MB",
+                        localBytes / (1024 * 1024), quotaBytes / (1024 * 1024), teamBytes / (1024 * 1024));
+            }
+            lastScanMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.error("❌ RRD 계층 저장 검사 실패", e);
+        }
+    }
+
+    /**
+     * @return key : project id ({user}/{project} 디렉터리)
+     */
+    private Map<String, ProjectDirectory> scanLocal(Map<String, ArtifactDirectory> artifacts) throws IOException {
+        Map<String, ProjectDirectory> directories = new HashMap<>();
+        Path root = rootDirectory();
+        long team = artifacts.values().stream().mapToLong(ArtifactDirectory::bytes).sum();
+        if (!Files.isDirectory(root)) {
+            localBytes = team;
+            teamBytes = team;
+            return directories;
+        }
+        long total = team;
+        try (DirectoryStream<Path> users = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path user : users) {
+                String userId = user.getFileName().toString();
+                if (userId.equals(TEAM_DIRECTORY) || userId.startsWith(".")) {
+                    continue;
+                }
+                try (DirectoryStream<Path> projectDirectories = Files.newDirectoryStream(user, Files::isDirectory)) {
+                    for (Path directory : projectDirectories) {
+                        long[] usage = directoryUsage(directory);
+                        directories.put(directory.getFileName().toString(),
+                                new ProjectDirectory(userId, directory, usage[0], usage[1]));
+                        total += usage[0];
+                    }
+                }
+            }
+        }
+        localBytes = total;
+        teamBytes = team;
+        return directories;
+    }
+
+    /**
+     * @return key : artifact_dir (teams/{team}/entities/{xx}/{key})
+     */
+    private Map<String, ArtifactDirectory> scanArtifacts() throws IOException {
+        Map<String, ArtifactDirectory> artifacts = new HashMap<>();
+        Path teams = rootDirectory().resolve(TEAM_DIRECTORY);
+        if (!Files.isDirectory(teams)) {
+            return artifacts;
+        }
+        try (DirectoryStream<Path> teamDirectories = Files.newDirectoryStream(teams, Files::isDirectory)) {
+            for (Path team : teamDirectories) {
+                Path entities = team.resolve(ENTITY_DIRECTORY);
+                if (!Files.isDirectory(entities)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> shards = Files.newDirectoryStream(entities, Files::isDirectory)) {
+                    for (Path shard : shards) {
+                        try (DirectoryStream<Path> keys = Files.newDirectoryStream(shard, Files::isDirectory)) {
+                            for (Path directory : keys) {
+                                long[] usage = directoryUsage(directory);
+                                String artifactDir = rootDirectory().relativize(directory).toString().replace('\\', '/');
+                                artifacts.put(artifactDir, new ArtifactDirectory(directory, usage[0], usage[1],
+                                        Files.exists(directory.resolve(ARTIFACT_LOCK_FILE)),
+                                        Files.exists(directory.resolve(ARTIFACT_MANIFEST_FILE))));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return artifacts;
+    }
+
+    /**
+     * 팀 공유 엔티티 RRD 정리
+     * 1) 참조하는 프로젝트가 없으면 (모두 삭제됨) 로컬 디렉터리 / 압축본 회수
+     * 2) 참조하는 프로젝트가 모두 버킷에 보관되었으면 함께 내린다. (완성본만)
+     * 만드는 중이거나 (잠금) 최근에 만들어지거나 재사용된 (수정 시각) 엔티티 RRD 는 아직 참조가 기록되지 않았을 수 있으므로 건너뛴다.
+     */
+    private void manageArtifacts(Map<String, ArtifactDirectory> directories) {
+        jdbcTemplate.update(DELETE_ORPHAN_ARTIFACT_REFS_SQL);
+        Map<String, long[]> refCounts = new HashMap<>();
+        jdbcTemplate.query(ARTIFACT_REF_COUNTS_SQL, (ResultSet rs) -> {
+            refCounts.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3)});
+        });
+        Map<String, RRDArtifactEntity> artifacts = rrdArtifactRepository.findAllById(directories.keySet()).stream()
+                .collect(Collectors.toMap(RRDArtifactEntity::getArtifactDir, Function.identity()));
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, ArtifactDirectory> entry : directories.entrySet()) {
+            String artifactDir = entry.getKey();
+            ArtifactDirectory directory = entry.getValue();
+            RRDArtifactEntity artifact = artifacts.get(artifactDir);
+            if (artifact == null) {
+                artifact = new RRDArtifactEntity();
+                artifact.setArtifactDir(artifactDir);
+            }
+            if (artifact.getTier() == ERrdStorageTier.ARCHIVED) {
+                // 로컬 삭제 / 복원 중에 중단되었거나 다시 만들어진 경우 - 로컬에 남은 쪽을 사용
+                artifact.setTier(ERrdStorageTier.LOCAL);
+                archivedArtifacts.remove(artifactDir);
+            }
+            artifact.setLocalBytes(directory.bytes());
+
+            long[] refs = refCounts.get(artifactDir);
+            if (directory.locked() || now - directory.lastModifiedMillis() < ORPHAN_GRACE_MILLIS) {
+                rrdArtifactRepository.save(artifact);
+            } else if (refs == null) {
+                reclaimArtifact(artifact, directory);
+            } else if (!archiveBucketName.isBlank() && directory.complete() && refs[0] == refs[1]) {
+                if (archiveArtifact(artifact, directory.path())) {
+                    localBytes -= directory.bytes();
+                    teamBytes -= directory.bytes();
+                }
+            } else {
+                rrdArtifactRepository.save(artifact);
+            }
+        }
+
+        // 버킷에만 남은 엔티티 RRD 중 참조가 없어진 것
+        for (RRDArtifactEntity artifact : rrdArtifactRepository.findByTier(ERrdStorageTier.ARCHIVED)) {
+            if (!refCounts.containsKey(artifact.getArtifactDir()) && !directories.containsKey(artifact.getArtifactDir())) {
+                reclaimArtifact(artifact, null);
+            }
+        }
+    }
+
+    private void reclaimArtifact(RRDArtifactEntity artifact, ArtifactDirectory directory) {
+        String artifactDir = artifact.getArtifactDir();
+        synchronized (lockOf(artifactDir)) {
+            if (directory != null && readers.containsKey(artifactDir)) {
+                rrdArtifactRepository.save(artifact);
+                return;
+            }
+            try {
+                if (directory != null && deleteDirectory(directory.path())) {
+                    reclaimedBytes.addAndGet(directory.bytes());
+                    localBytes -= directory.bytes();
+                    teamBytes -= directory.bytes();
+                }
+                deleteArchiveObject(artifact.getArchiveBucketId(), artifact.getArchiveKey());
+                if (rrdArtifactRepository.existsById(artifactDir)) {
+                    rrdArtifactRepository.deleteById(artifactDir);
+                }
+                archivedArtifacts.remove(artifactDir);
+                reclaimedArtifacts.incrementAndGet();
+                log.info("🗑️ 참조가 없는 팀 공유 RRD 회수 | {} | {}MB", artifactDir,
+                        directory != null ? directory.bytes() / (1024 * 1024) : 0);
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                log.warn("⚠️ 팀 공유 RRD 회수 실패 (다음 검사에서 재시도) | {} | {}", artifactDir, e.getMessage());
+            }
+        }
+    }
+
+    private boolean archiveArtifact(RRDArtifactEntity artifact, Path directory) {
+        String artifactDir = artifact.getArtifactDir();
+        synchronized (lockOf(artifactDir)) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                // 완성된 엔티티 RRD 는 바뀌지 않으므로 압축본이 있으면 다시 올리지 않는다.
+                if (artifact.getArchiveKey() != null && archiveExists(artifact.getArchiveBucketId(), artifact.getArchiveKey())) {
+                    archiveUploadsSkipped.incrementAndGet();
+                } else {
+                    String key = ARCHIVE_PREFIX + artifactDir + ".zip";
+                    UploadedArchive uploaded = uploadArchive(directory, key, directory.getFileName().toString());
+                    if (uploaded == null) {
+                        rrdArtifactRepository.save(artifact);
+                        return false;
+                    }
+                    artifact.setArchiveBucketId(uploaded.bucketId());
+                    artifact.setArchiveKey(key);
+                    artifact.setArchiveBytes(uploaded.bytes());
+                }
+
+                // 보내는 중인 엔티티 RRD 는 로컬에 남긴다. (압축본은 다음에 그대로 사용)
+                if (readers.containsKey(artifactDir)) {
+                    rrdArtifactRepository.save(artifact);
+                    return false;
+                }
+                artifact.setTier(ERrdStorageTier.ARCHIVED);
+                artifact.setArchivedAt(LocalDateTime.now());
+                rrdArtifactRepository.save(artifact);
+                archivedArtifacts.add(artifactDir);
+                deleteDirectory(directory);
+                archives.incrementAndGet();
+                log.info("🧊 팀 공유 RRD 버킷 보관 | {} | 로컬 {}MB → 압축본 {}MB | {}ms", artifactDir,
+                        artifact.getLocalBytes() / (1024 * 1024), artifact.getArchiveBytes() / (1024 * 1024),
+                        System.currentTimeMillis() - startedAt);
+                return true;
+            } catch (IOException | SdkException | ApiException e) {
+                failures.incrementAndGet();
+                log.error("❌ 팀 공유 RRD 버킷 보관 실패 | {} | {}", artifactDir, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void restoreArtifact(String artifactDir) {
+        synchronized (lockOf(artifactDir)) {
+            if (!archivedArtifacts.contains(artifactDir)) {
+                return;
+            }
+            RRDArtifactEntity artifact = rrdArtifactRepository.findById(artifactDir).orElse(null);
+            if (artifact == null || artifact.getTier() != ERrdStorageTier.ARCHIVED) {
+                archivedArtifacts.remove(artifactDir);
+                return;
+            }
+
+            long startedAt = System.currentTimeMillis();
+            try {
+                Path target = resolveArtifact(artifactDir);
+                downloadArchive(artifact.getArchiveBucketId(), artifact.getArchiveKey(), target.getFileName().toString(), target);
+                artifact.setTier(ERrdStorageTier.LOCAL);
+                artifact.setRestoredAt(LocalDateTime.now());
+                rrdArtifactRepository.save(artifact);
+                archivedArtifacts.remove(artifactDir);
+
+                long elapsed = System.currentTimeMillis() - startedAt;
+                restores.incrementAndGet();
+                restoreMillis.addAndGet(elapsed);
+                log.info("♨️ 팀 공유 RRD 복원 | {} | {}MB | {}ms", artifactDir, artifact.getArchiveBytes() / (1024 * 1024), elapsed);
+            } catch (IOException | SdkException e) {
+                failures.incrementAndGet();
+                log.error("❌ 팀 공유 RRD 복원 실패 | {} | {}", artifactDir, e.getMessage());
+                throw new ApiException(ErrorCode.FILE_READ_ERROR, "보관된 RRD 를 복원하지 못했습니다.");
+            }
+        }
+    }
+
+    private void reclaimOrphans(Map<String, ProjectDirectory> directories, Map<String, VisualizationProjectEntity> projects) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, ProjectDirectory>> iterator = directories.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ProjectDirectory> entry = iterator.next();
+            ProjectDirectory directory = entry.getValue();
+            if (projects.containsKey(entry.getKey()) || now - directory.lastModifiedMillis() < ORPHAN_GRACE_MILLIS) {
+                continue;
+            }
+            if (deleteDirectory(directory.path())) {
+                reclaimedBytes.addAndGet(directory.bytes());
+                localBytes -= directory.bytes();
+                log.info("🗑️ 프로젝트가 없는 RRD 디렉터리 회수 | {} | {}MB", directory.path(), directory.bytes() / (1024 * 1024));
+            }
+            iterator.remove();
+        }
+
+        for (RRDStorageEntity storage : rrdStorageRepository.findOrphans()) {
+            reclaim(storage.getUserId(), storage.getProjectId());
+        }
+    }
+
+    /**
+     * 로컬 디렉터리와 RRD_STORAGE 를 맞추고, 내릴 수 있는 프로젝트(로컬에 있는 완료 프로젝트)를 반환
+     */
+    private List<RRDStorageEntity> syncStorage(Map<String, ProjectDirectory> directories,
+                                               Map<String, VisualizationProjectEntity> projects) {
+        Map<String, RRDStorageEntity> storages = rrdStorageRepository.findAllById(directories.keySet()).stream()
+                .collect(Collectors.toMap(RRDStorageEntity::getProjectId, Function.identity()));
+        List<RRDStorageEntity> candidates = new ArrayList<>();
+        for (Map.Entry<String, ProjectDirectory> entry : directories.entrySet()) {
+            ProjectDirectory directory = entry.getValue();
+            RRDStorageEntity storage = storages.get(entry.getKey());
+            if (storage == null) {
+                storage = new RRDStorageEntity();
+                storage.setProjectId(entry.getKey());
+                storage.setUserId(directory.userId());
+                storage.setLastAccessAt(toLocalDateTime(directory.lastModifiedMillis()));
+                storages.put(entry.getKey(), storage);
+            }
+            if (storage.getTier() == ERrdStorageTier.ARCHIVED) {
+                // 로컬 삭제 / 복원 중에 중단된 경우 - 로컬에 남은 쪽을 사용
+                storage.setTier(ERrdStorageTier.LOCAL);
+                archived.remove(entry.getKey());
+            }
+            storage.setLocalBytes(directory.bytes());
+
+            VisualizationProjectEntity project = projects.get(entry.getKey());
+            if (project != null && project.getStatus() == EVisualizationProcessStatus.COMPLETE) {
+                candidates.add(storage);
+            }
+        }
+        rrdStorageRepository.saveAll(storages.values());
+        candidates.sort(Comparator.comparing(RRDStorageEntity::getLastAccessAt));
+        return candidates;
+    }
+
+    private void enforce(List<RRDStorageEntity> candidates, Map<String, ProjectDirectory> directories) {
+        LocalDateTime coldBefore = toLocalDateTime(System.currentTimeMillis() - coldAfterMillis);
+        LocalDateTime idleBefore = toLocalDateTime(System.currentTimeMillis() - minIdleMillis);
+
+        // candidates 는 오래 조회되지 않은 순
+        for (RRDStorageEntity storage : candidates) {
+            boolean cold = storage.getLastAccessAt().isBefore(coldBefore);
+            boolean overQuota = localBytes > quotaBytes && storage.getLastAccessAt().isBefore(idleBefore);
+            if (!cold && !overQuota) {
+                continue;
+            }
+            ProjectDirectory directory = directories.get(storage.getProjectId());
+            if (archive(storage, directory.path())) {
+                localBytes -= directory.bytes();
+            }
+        }
+    }
+
+    private boolean archive(RRDStorageEntity storage, Path directory) {
+        String projectId = storage.getProjectId();
+        synchronized (lockOf(projectId)) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                if (storage.isArchiveCurrent() && archiveExists(storage.getArchiveBucketId(), storage.getArchiveKey())) {
+                    archiveUploadsSkipped.incrementAndGet();
+                } else {
+                    String key = ARCHIVE_PREFIX + storage.getUserId() + "/" + projectId + ".zip";
+                    UploadedArchive uploaded = uploadArchive(directory, key, projectId);
+                    if (uploaded == null) {
+                        return false;
+                    }
+                    storage.setArchiveBucketId(uploaded.bucketId());
+                    storage.setArchiveKey(key);
+                    storage.setArchiveBytes(uploaded.bytes());
+                    storage.setArchiveCurrent(true);
+                }
+
+                // 올리는 동안 다시 조회되었거나 보내는 중인 프로젝트는 로컬에 남긴다. (압축본은 다음에 그대로 사용)
+                Long accessedAt = pendingAccess.get(projectId);
+                if (accessedAt != null && accessedAt >= startedAt || readers.containsKey(projectId)) {
+                    rrdStorageRepository.save(storage);
+                    return false;
+                }
+
+                storage.setTier(ERrdStorageTier.ARCHIVED);
+                storage.setArchivedAt(LocalDateTime.now());
+                rrdStorageRepository.save(storage);
+                archived.add(projectId);
+                deleteDirectory(directory);
+                archives.incrementAndGet();
+                log.info("🧊 RRD 버킷 보관 | project: {} | 로컬 {}MB → 압축본 {}MB | {}ms", projectId,
+                        storage.getLocalBytes() / (1024 * 1024), storage.getArchiveBytes() / (1024 * 1024),
+                        System.currentTimeMillis() - startedAt);
+                return true;
+            } catch (IOException | SdkException | ApiException e) {
+                failures.incrementAndGet();
+                log.error("❌ RRD 버킷 보관 실패 | project: {} | {}", projectId, e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private void restore(String projectId) {
+        synchronized (lockOf(projectId)) {
+            // 같은 프로젝트를 먼저 요청한 쪽이 복원을 마쳤으면 바로 반환
+            if (!archived.contains(projectId)) {
+                return;
+            }
+            RRDStorageEntity storage = rrdStorageRepository.findById(projectId).orElse(null);
+            if (storage == null || storage.getTier() != ERrdStorageTier.ARCHIVED) {
+                archived.remove(projectId);
+                return;
+            }
+
+            long startedAt = System.currentTimeMillis();
+            try {
+                downloadArchive(storage.getArchiveBucketId(), storage.getArchiveKey(), projectId,
+                        projectDirectory(storage.getUserId(), projectId));
+
+                storage.setTier(ERrdStorageTier.LOCAL);
+                storage.setRestoredAt(LocalDateTime.now());
+                storage.setLastAccessAt(LocalDateTime.now());
+                rrdStorageRepository.save(storage);
+                archived.remove(projectId);
+
+                long elapsed = System.currentTimeMillis() - startedAt;
+                restores.incrementAndGet();
+                restoreMillis.addAndGet(elapsed);
+                log.info("♨️ RRD 복원 | project: {} | {}MB | {}ms", projectId, storage.getArchiveBytes() / (1024 * 1024), elapsed);
+            } catch (IOException | SdkException e) {
+                failures.incrementAndGet();
+                log.error("❌ RRD 복원 실패 | project: {} | {}", projectId, e.getMessage());
+                throw new ApiException(ErrorCode.FILE_READ_ERROR, "보관된 RRD 를 복원하지 못했습니다.");
+            }
+        }
+    }
+
+    /**
+     * 디렉터리를 zip 으로 묶어 보관 버킷에 올린다.
+     * @return 올린 압축본 (보관 버킷이 등록되어 있지 않으면 null)
+     */
+    private UploadedArchive uploadArchive(Path directory, String key, String name) throws IOException {
+        BucketEntity bucket = bucketRepository.findByName(archiveBucketName).orElse(null);
+        if (bucket == null) {
+            log.warn("⚠️ RRD 보관 버킷이 등록되어 있지 않아 로컬에 유지 | bucket: {} | {}", archiveBucketName, name);
+            return null;
+        }
+        Path archive = workFile(name, ".zip");
+        try {
+            zip(directory, archive);
+            upload(s3ClientRegistry.getClient(bucket), bucket.getName(), key, archive);
+            return new UploadedArchive(bucket.getId(), Files.size(archive));
+        } finally {
+            deleteFile(archive);
+        }
+    }
+
+    /**
+     * 압축본을 받아 임시 디렉터리에 풀고 target 으로 옮긴다. (중간에 실패해도 target 에 반쯤 풀린 파일이 남지 않음)
+     */
+    private void downloadArchive(String bucketId, String key, String name, Path target) throws IOException {
+        BucketEntity bucket = bucketRepository.findById(bucketId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "RRD 압축본이 있는 버킷을 찾을 수 없습니다."));
+        Path archive = workFile(name, ".zip");
+        Path staging = workFile(name, "");
+        try {
+            s3ClientRegistry.getClient(bucket).getObject(GetObjectRequest.builder()
+                    .bucket(bucket.getName())
+                    .key(key)
+                    .build(), ResponseTransformer.toFile(archive));
+            unzip(archive, staging);
+            deleteDirectory(target);
+            Files.createDirectories(target.getParent());
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteFile(archive);
+            deleteDirectory(staging);
+        }
+    }
+
+    private boolean archiveExists(String bucketId, String key) {
+        if (key == null || bucketId == null) {
+            return false;
+        }
+        BucketEntity bucket = bucketRepository.findById(bucketId).orElse(null);
+        if (bucket == null) {
+            return false;
+        }
+        try {
+            s3ClientRegistry.getClient(bucket).headObject(HeadObjectRequest.builder()
+                    .bucket(bucket.getName())
+                    .key(key)
+                    .build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    private void deleteArchive(RRDStorageEntity storage) {
+        deleteArchiveObject(storage.getArchiveBucketId(), storage.getArchiveKey());
+        rrdStorageRepository.delete(storage);
+    }
+
+    private void deleteArchiveObject(String bucketId, String key) {
+        if (key != null && bucketId != null) {
+            bucketRepository.findById(bucketId).ifPresent(bucket ->
+                    s3ClientRegistry.getClient(bucket).deleteObject(DeleteObjectRequest.builder()
+                            .bucket(bucket.getName())
+                            .key(key)
+                            .build()));
+        }
+    }
+
+    /**
+     * 파트 크기보다 크면 멀티파트 업로드 (단일 PUT 은 5GB 제한)
+     * 파트 버퍼는 하나를 재사용하고, 재시도 시에도 같은 범위를 다시 읽도록 실제 길이만큼만 스트림으로 넘긴다.
+     */
+    private void upload(S3Client s3Client, String bucketName, String key, Path file) throws IOException {
+        long size = Files.size(file);
+        if (size <= PART_SIZE) {
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucketName).key(key).build(), RequestBody.fromFile(file));
+            return;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build()).uploadId();
+        try (InputStream in = Files.newInputStream(file)) {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[(int) PART_SIZE];
+            int partNumber = 1;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                int length = read;
+                String etag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(), RequestBody.fromContentProvider(
+                                () -> new ByteArrayInputStream(buffer, 0, length), length, "application/octet-stream")).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                partNumber++;
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | SdkException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+
+    // RRD 는 이미 LZ4 로 압축되어 있어 빠른 압축 수준을 사용
+    private static void zip(Path directory, Path archive) throws IOException {
+        try (OutputStream out = Files.newOutputStream(archive);
+             ZipOutputStream zip = new ZipOutputStream(out);
+             Stream<Path> files = Files.walk(directory)) {
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                zip.putNextEntry(new ZipEntry(directory.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void unzip(Path archive, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                Path file = target.resolve(entry.getName()).normalize();
+                if (!file.startsWith(target)) {
+                    throw new IOException("잘못된 압축 항목: " + entry.getName());
+                }
+                Files.createDirectories(file.getParent());
+                Files.copy(zip, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    public RRDTieringStatsDto getStats() {
+        return new RRDTieringStatsDto(
+                quotaBytes,
+                localBytes,
+                teamBytes,
+                archived.size(),
+                archivedArtifacts.size(),
+                archives.get(),
+                archiveUploadsSkipped.get(),
+                restores.get(),
+                restoreMillis.get(),
+                reclaimedBytes.get(),
+                reclaimedArtifacts.get(),
+                failures.get(),
+                lastScanMillis
+        );
+    }
+
+    private Object lockOf(String projectId) {
+        return locks[Math.floorMod(projectId.hashCode(), locks.length)];
+    }
+
+    private Path rootDirectory() {
+        return Paths.get(env.getPath(), "rrd");
+    }
+
+    private Path projectDirectory(String userId, String projectId) {
+        return rootDirectory().resolve(userId).resolve(projectId);
+    }
+
+    /**
+     * RRD 루트 기준 팀 공유 엔티티 RRD 경로 (teams/{team}/entities/{xx}/{key}/...) 의 엔티티 디렉터리, 아니면 null
+     * 컨테이너가 보낸 URL 에서도 쓰므로 상위 / 현재 디렉터리 표기는 받지 않는다.
+     */
+    static String artifactDirectory(String relativePath) {
+        String[] parts = relativePath.split("/");
+        if (parts.length < 5 || !TEAM_DIRECTORY.equals(parts[0]) || !ENTITY_DIRECTORY.equals(parts[2])) {
+            return null;
+        }
+        for (int i = 0; i < 5; i++) {
+            if (parts[i].isEmpty() || parts[i].equals(".") || parts[i].equals("..")) {
+                return null;
+            }
+        }
+        return String.join("/", parts[0], parts[1], parts[2], parts[3], parts[4]);
+    }
+
+    private Path resolveArtifact(String artifactDir) throws IOException {
+        Path teams = rootDirectory().resolve(TEAM_DIRECTORY).normalize();
+        Path directory = rootDirectory().resolve(artifactDir).normalize();
+        if (!directory.startsWith(teams)) {
+            throw new IOException("잘못된 팀 공유 RRD 경로: " + artifactDir);
+        }
+        return directory;
+    }
+
+    private Path workFile(String name, String suffix) throws IOException {
+        Path directory = Files.createDirectories(rootDirectory().resolve(WORK_DIRECTORY));
+        return directory.resolve(name + "-" + UUID.randomUUID() + suffix);
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        return directoryUsage(directory)[0];
+    }
+
+    /**
+     * @return {전체 크기, 가장 최근 수정 시각}
+     */
+    private static long[] directoryUsage(Path directory) throws IOException {
+        long[] usage = new long[2];
+        if (!Files.isDirectory(directory)) {
+            return usage;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                usage[0] += attributes.size();
+                usage[1] = Math.max(usage[1], attributes.lastModifiedTime().toMillis());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return usage;
+    }
+
+    private static boolean deleteDirectory(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return false;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(RRDTieringService::deleteFile);
+            return true;
+        } catch (IOException e) {
+            log.warn("⚠️ 디렉터리 삭제 실패: {} | {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void deleteFile(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("⚠️ 파일 삭제 실패: {} | {}", path, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record ProjectDirectory(String userId, Path path, long bytes, long lastModifiedMillis) {
+    }
+
+    // locked : 만드는 중 (잠금 파일), complete : 완성본 (manifest)
+    private record ArtifactDirectory(Path path, long bytes, long lastModifiedMillis, boolean locked, boolean complete) {
+    }
+
+    private record UploadedArchive(String bucketId, long bytes) {
+    }
+
+    /**
+     * openLocal / openArtifactLocal 로 잡아 둔 로컬 디렉터리 (여러 번 닫아도 한 번만 놓음)
+     */
+    public interface LocalLease extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
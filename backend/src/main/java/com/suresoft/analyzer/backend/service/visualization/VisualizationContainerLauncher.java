@@ -0,0 +1,226 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.suresoft.analyzer.backend.config.EnvProperties;
+import com.suresoft.analyzer.backend.dto.visualization.CredentialDto;
+import com.suresoft.analyzer.backend.dto.visualization.FileMetadataDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.service.storage.S3ObjectCacheService;
+import com.suresoft.analyzer.backend.service.storage.SecureStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * visualization-task 컨테이너 실행
+ * - 프로젝트마다 새 컨테이너를 띄우는 방식 (launch) 과 계속 떠 있는 워커 (launchWorker) 를 지원한다.
+ * - 언제 / 어떤 자원으로 실행할지는 VisualizationJobScheduler / VisualizationWorkerPool 이 정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VisualizationContainerLauncher {
+
+    private final EnvProperties env;
+    private final SecureStorageService secureStorageService;
+    private final S3ObjectCacheService s3ObjectCacheService;
+
+    // 워커 컨테이너에서 접근할 백엔드 주소
+    @Value("${visualization.worker-pool.backend-url:http://host.docker.internal:8080}")
+    private String backendUrl;
+
+    /**
+     * 원본 파일을 공유 캐시에 채우고 컨테이너에 전달할 인자(Base64 JSON)를 만든다.
+     */
+    public LaunchPayload preparePayload(BucketEntity bucket, List<FileMetadataDto> metadataDtos, String teamId, String checkpoint) {
+        prefetchSourceFiles(bucket, metadataDtos);
+
+        CredentialDto credentialDto = new CredentialDto(
+                secureStorageService.decrypt(bucket.getAccessKey()),
+                secureStorageService.decrypt(bucket.getSecretKey()),
+                bucket.getRegion(),
+                bucket.getName());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        try {
+            String blueprintsJson = objectMapper.writeValueAsString(metadataDtos);
+            String credentialJson = objectMapper.writeValueAsString(credentialDto);
+
+            log.debug("🧩 시각화 청사진: {}", blueprintsJson);
+
+            return new LaunchPayload(
+                    Base64.getEncoder().encodeToString(blueprintsJson.getBytes(StandardCharsets.UTF_8)),
+                    Base64.getEncoder().encodeToString(credentialJson.getBytes(StandardCharsets.UTF_8)),
+                    teamId,
+                    checkpoint != null ? Base64.getEncoder().encodeToString(checkpoint.getBytes(StandardCharsets.UTF_8)) : null);
+        } catch (JsonProcessingException e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "JSON 직렬화 실패");
+        }
+    }
+
+    /**
+     * 원본 파일의 로컬 객체 캐시 경로를 지정하고 캐시 채우기는 컨테이너 실행과 함께 백그라운드로 진행
+     * (컨테이너가 열 때 아직 없거나 캐시할 수 없는 파일은 S3 에서 직접 읽음)
+     */
+    private void prefetchSourceFiles(BucketEntity bucket, List<FileMetadataDto> metadataDtos) {
+        for (FileMetadataDto metadata : metadataDtos) {
+            metadata.setLocalPath(s3ObjectCacheService.prefetchContainerPath(bucket, metadata.getUploadFilePath()));
+        }
+    }
+
+    /**
+     * 프로젝트 하나를 처리하고 종료되는 컨테이너 실행
+     * @return 실행된 docker 프로세스 (컨테이너가 끝나면 종료)
+     */
+    public Process launch(String userId, String projectId, LaunchPayload payload, double cpus, long memoryMb) throws IOException {
+        List<String> command = baseRunCommand(userId + "-" + projectId, cpus, memoryMb);
+        command.add("--server-url");
+        command.add(env.getServerUrl());
+        command.add("--user-id");
+        command.add(userId);
+        command.add("--project-id");
+        command.add(projectId);
+        command.add("--blueprints");
+        command.add(payload.blueprintsBase64());
+        command.add("--credential");
+        command.add(payload.credentialBase64());
+        if (payload.teamId() != null) {
+            command.add("--team-id");
+            command.add(payload.teamId());
+        }
+        if (payload.resumeBase64() != null) {
+            command.add("--resume");
+            command.add(payload.resumeBase64());
+        }
+        return start(command, projectId);
+    }
+
+    /**
+     * 작업을 MQTT 로 받아 계속 처리하는 워커 컨테이너 실행 (VisualizationWorkerPool)
+     * @return 실행된 docker 프로세스 (워커가 죽으면 종료)
+     */
+    public Process launchWorker(String workerId, double cpus, long memoryMb) throws IOException {
+        List<String> command = baseRunCommand(workerId, cpus, memoryMb);
+        command.add("--worker");
+        command.add("--worker-id");
+        command.add(workerId);
+        command.add("--server-url");
+        command.add(env.getServerUrl());
+        // 자격 증명은 작업 메시지가 아니라 백엔드 API 로 받는다.
+        command.add("--backend-url");
+        command.add(backendUrl);
+        return start(command, workerId);
+    }
+
+    /**
+     * 같은 이름으로 남아 있는 컨테이너 강제 종료 / 삭제
+     */
+    public void removeContainer(String containerName) {
+        try {
+            Process process = new ProcessBuilder("docker", "rm", "-f", containerName).redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            process.waitFor();
+        } catch (IOException e) {
+            log.warn("⚠️ 컨테이너 삭제 실패 | {} | {}", containerName, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 컨테이너 정상 종료 요청 (SIGTERM 후 graceSeconds 안에 끝나지 않으면 SIGKILL)
+     * 컨테이너는 --rm 으로 실행되므로 종료되면 함께 삭제된다.
+     */
+    public void stopContainer(String containerName, long graceSeconds) {
+        try {
+            Process process = new ProcessBuilder("docker", "stop", "-t", String.valueOf(graceSeconds), containerName)
+                    .redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            process.waitFor();
+        } catch (IOException e) {
+            log.warn("⚠️ 컨테이너 중지 실패 | {} | {}", containerName, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> baseRunCommand(String containerName, double cpus, long memoryMb) {
+        List<String> command = new ArrayList<>();
+        command.add("docker");
+        command.add("run");
+        command.add("--name");
+        command.add(containerName);
+        command.add("--network");
+        command.add("coda-network");
+        command.add("--rm");
+
+        // ✅ 스케줄러가 예약한 만큼만 CPU와 메모리 사용
+        command.add("--cpus");
+        command.add(String.format(Locale.ROOT, "%.2f", cpus));
+        command.add("--memory");
+        command.add(memoryMb + "m");
+
+        // ✅ MQTT 브로커 접근 가능하도록 host.docker.internal을 host-gateway로 설정
+        command.add("--add-host");
+        command.add("host.docker.internal:host-gateway");
+
+        // ✅ 볼륨 마운트는 전체 문자열로 추가
+        command.add("-v");
+        command.add(env.getPath() + "/dbc:/data/dbc");
+
+        command.add("-v");
+        command.add(env.getPath() + "/rrd:/data/rrd");
+
+        // ✅ 공유 객체 캐시는 읽기 전용으로 마운트 (채우기/정리는 백엔드만 담당)
+        command.add("-v");
+        command.add(s3ObjectCacheService.getCacheRoot() + ":" + S3ObjectCacheService.CONTAINER_MOUNT_PATH + ":ro");
+
+        command.add("visualization-task");
+        return command;
+    }
+
+    private Process start(List<String> command, String logName) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        Process process = pb.start(); // ✅ 종료는 호출한 쪽에서 기다림
+
+        Thread logThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.info("[{}] {}", logName, line);
+                }
+            } catch (IOException e) {
+                log.warn("⚠️ 컨테이너 로그 읽기 실패 | {} | {}", logName, e.getMessage());
+            }
+        }, "visualization-log-" + logName);
+        logThread.setDaemon(true);
+        logThread.start();
+
+        return process;
+    }
+
+    /**
+     * 컨테이너 인자 (--blueprints / --credential 과 같은 형식, teamId 는 엔티티 RRD 공유 범위,
+     * resumeBase64 는 재개할 체크포인트 - 처음 실행이면 null)
+     */
+    public record LaunchPayload(String blueprintsBase64, String credentialBase64, String teamId, String resumeBase64) {
+    }
+}
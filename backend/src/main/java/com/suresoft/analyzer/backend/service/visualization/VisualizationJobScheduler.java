@@ -0,0 +1,684 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationJobStatus;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationPreemptPolicy;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationProcessStatus;
+import com.suresoft.analyzer.backend.dto.visualization.FileMetadataDto;
+import com.suresoft.analyzer.backend.dto.visualization.response.VisualizationJobResponseDto;
+import com.suresoft.analyzer.backend.dto.visualization.response.VisualizationSchedulerStatsDto;
+import com.suresoft.analyzer.backend.entity.auth.UserEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.visualization.VisualizationJobEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationJobRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시각화 컨테이너 실행 스케줄러
+ * - 요청은 VISUALIZATION_JOB 에 QUEUED 로 저장되고, 자리가 나면 우선순위 → 요청 순으로 실행한다.
+ * - 동시 실행 수 (max-concurrent) 와 사용자별 동시 실행 수 (max-per-user) 를 제한한다.
+ *   같은 우선순위라면 현재 실행 중인 작업이 적은 사용자의 요청을 먼저 실행한다.
+ * - 작업마다 CPU / 메모리를 예약하고 (docker --cpus / --memory 로 적용) 호스트 용량을 넘으면 실행하지 않는다.
+ *   다음 차례 작업이 자원을 기다리는 동안 뒤의 작은 작업이 먼저 실행되지 않으므로 큰 작업도 밀리지 않는다.
+ * - 상태가 바뀔 때마다 global/user/{userId}/visualization/job 으로 발행한다.
+ * - 세그먼트가 끝날 때마다 컨테이너가 보낸 체크포인트를 기록하고, 컨테이너가 비정상 종료되거나 서버가 재시작되면
+ *   auto-resume-attempts 번까지 마지막으로 완료된 세그먼트 다음부터 다시 실행한다. (실패한 작업은 resume 으로 수동 재개)
+ * - 취소 (cancel / 프로젝트 삭제 / 선점) 된 작업은 컨테이너를 docker stop 으로 종료하고 CANCELLED 로 남긴다.
+ *   완료된 세그먼트는 그대로 두며, 종료되는 즉시 비는 자리에 다음 작업을 실행한다. (preempt-policy 참고)
+ */
+@Slf4j
+@Service
+public class VisualizationJobScheduler {
+
+    private static final String LIDAR_PARSER = "PcapLidarParser";
+    private static final int MIN_PRIORITY = -10;
+    private static final int MAX_PRIORITY = 10;
+    private static final int ERROR_MESSAGE_LENGTH = 1024;
+    private static final TypeReference<List<FileMetadataDto>> FILE_METADATA_TYPE = new TypeReference<>() {};
+    private static final List<EVisualizationJobStatus> ACTIVE_STATUSES =
+            List.of(EVisualizationJobStatus.QUEUED, EVisualizationJobStatus.RUNNING);
+
+    private final VisualizationJobRepository visualizationJobRepository;
+    private final VisualizationProjectRepository visualizationProjectRepository;
+    private final BucketRepository bucketRepository;
+    private final VisualizationContainerLauncher visualizationContainerLauncher;
+    private final VisualizationWorkerPool visualizationWorkerPool;
+    private final VisualizationTeamTreeCache visualizationTeamTreeCache;
+    private final MqttPublisher mqttPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final int maxConcurrent;
+    private final int maxPerUser;
+    private final double jobCpus;
+    private final long jobMemoryMb;
+    private final double lidarJobCpus;
+    private final long lidarJobMemoryMb;
+    private final double hostCpus;
+    private final long hostMemoryMb;
+    private final int autoResumeAttempts;
+    private final EVisualizationPreemptPolicy preemptPolicy;
+    private final long stopGraceSeconds;
+
+    // key : job id
+    private final Map<String, RunningJob> running = new ConcurrentHashMap<>();
+    // key : 컨테이너 종료를 기다리는 job id, value : 취소 사유
+    private final Map<String, String> cancelling = new ConcurrentHashMap<>();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong preempted = new AtomicLong();
+    // 최근 실행 시간 이동 평균 (예상 대기 시간 계산용)
+    private final AtomicLong averageRunMillis;
+
+    public VisualizationJobScheduler(VisualizationJobRepository visualizationJobRepository,
+                                     VisualizationProjectRepository visualizationProjectRepository,
+                                     BucketRepository bucketRepository,
+                                     VisualizationContainerLauncher visualizationContainerLauncher,
+                                     VisualizationWorkerPool visualizationWorkerPool,
+                                     VisualizationTeamTreeCache visualizationTeamTreeCache,
+                                     MqttPublisher mqttPublisher,
+                                     ObjectMapper objectMapper,
+                                     @Value("${visualization.scheduler.max-concurrent:4}") int maxConcurrent,
+                                     @Value("${visualization.scheduler.max-per-user:2}") int maxPerUser,
+                                     @Value("${visualization.scheduler.job-cpus:2}") double jobCpus,
+                                     @Value("${visualization.scheduler.job-memory-mb:4096}") long jobMemoryMb,
+                                     @Value("${visualization.scheduler.lidar-job-cpus:4}") double lidarJobCpus,
+                                     @Value("${visualization.scheduler.lidar-job-memory-mb:8192}") long lidarJobMemoryMb,
+                                     @Value("${visualization.scheduler.host-cpus:0}") double hostCpus,
+                                     @Value("${visualization.scheduler.host-memory-mb:0}") long hostMemoryMb,
+                                     @Value("${visualization.scheduler.reserved-memory-mb:2048}") long reservedMemoryMb,
+                                     @Value("${visualization.scheduler.default-run-minutes:10}") long defaultRunMinutes,
+                                     @Value("${visualization.scheduler.auto-resume-attempts:2}") int autoResumeAttempts,
+                                     @Value("${visualization.scheduler.preempt-policy:SAME_PROJECT}") EVisualizationPreemptPolicy preemptPolicy,
+                                     @Value("${visualization.scheduler.stop-grace-seconds:10}") long stopGraceSeconds) {
+        this.visualizationJobRepository = visualizationJobRepository;
+        this.visualizationProjectRepository = visualizationProjectRepository;
+        this.bucketRepository = bucketRepository;
+        this.visualizationContainerLauncher = visualizationContainerLauncher;
+        this.visualizationWorkerPool = visualizationWorkerPool;
+        this.visualizationTeamTreeCache = visualizationTeamTreeCache;
+        this.mqttPublisher = mqttPublisher;
+        this.objectMapper = objectMapper;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.jobCpus = jobCpus;
+        this.jobMemoryMb = jobMemoryMb;
+        this.lidarJobCpus = lidarJobCpus;
+        this.lidarJobMemoryMb = lidarJobMemoryMb;
+        // 0 이면 호스트 값을 사용 (메모리는 백엔드 / 브로커 등을 위한 예약분 제외)
+        this.hostCpus = hostCpus > 0 ? hostCpus : Runtime.getRuntime().availableProcessors();
+        this.hostMemoryMb = hostMemoryMb > 0 ? hostMemoryMb : Math.max(1024, physicalMemoryMb() - reservedMemoryMb);
+        this.averageRunMillis = new AtomicLong(Duration.ofMinutes(defaultRunMinutes).toMillis());
+        this.autoResumeAttempts = Math.max(0, autoResumeAttempts);
+        this.preemptPolicy = preemptPolicy;
+        this.stopGraceSeconds = Math.max(0, stopGraceSeconds);
+    }
+
+    /**
+     * 시각화 요청을 대기열에 등록
+     * 같은 프로젝트의 대기 / 실행 중인 요청이 있으면 같은 청사진이면 그 요청을 반환하고,
+     * 다른 청사진이면 preempt-policy 에 따라 이전 요청을 취소하고 새로 등록한다. (NONE 이면 이전 요청 반환)
+     */
+    public VisualizationJobEntity enqueue(UserEntity user, String projectId, String bucketId,
+                                          List<FileMetadataDto> metadataDtos, Integer priority) {
+        String fileMetadata = writeFileMetadata(metadataDtos);
+        List<String> victims = new ArrayList<>();
+        VisualizationJobEntity active = visualizationJobRepository.findFirstByProjectIdAndStatusIn(projectId, ACTIVE_STATUSES)
+                .orElse(null);
+        if (active != null) {
+            if (preemptPolicy == EVisualizationPreemptPolicy.NONE || active.getFileMetadata().equals(fileMetadata)) {
+                return active;
+            }
+            victims.add(active.getId());
+        }
+
+        boolean lidar = metadataDtos.stream().anyMatch(metadata -> LIDAR_PARSER.equals(metadata.getParserName()));
+
+        VisualizationJobEntity job = new VisualizationJobEntity();
+        job.setProjectId(projectId);
+        job.setUser(user);
+        job.setTeamId(user.getTeam() != null ? user.getTeam().getId() : null);
+        job.setBucketId(bucketId);
+        job.setFileMetadata(fileMetadata);
+        job.setPriority(Math.max(MIN_PRIORITY, Math.min(priority != null ? priority : 0, MAX_PRIORITY)));
+        // 호스트보다 큰 요청은 영원히 실행되지 않으므로 호스트 용량으로 제한
+        job.setCpus(Math.min(lidar ? lidarJobCpus : jobCpus, hostCpus));
+        job.setMemoryMb(Math.min(lidar ? lidarJobMemoryMb : jobMemoryMb, hostMemoryMb));
+        visualizationJobRepository.save(job);
+
+        log.info("📋 시각화 작업 등록 | job: {} | project: {} | priority: {} | cpus: {} | memory: {}MB",
+                job.getId(), projectId, job.getPriority(), job.getCpus(), job.getMemoryMb());
+        publish(job);
+
+        if (preemptPolicy == EVisualizationPreemptPolicy.SAME_USER) {
+            String victim = selectUserVictim(user.getId(), job);
+            if (victim != null) {
+                victims.add(victim);
+            }
+        }
+
+        // 트랜잭션 안이면 커밋 이후에 실행 (실행 스레드가 저장된 작업을 읽을 수 있도록)
+        afterCommit(() -> {
+            for (String victim : victims) {
+                if (requestCancel(victim, "새 시각화 작업에 선점되었습니다.")) {
+                    preempted.incrementAndGet();
+                }
+            }
+            dispatch();
+        });
+        return job;
+    }
+
+    /**
+     * 사용자별 동시 실행 수가 차 있으면 새 작업이 바로 실행되도록 그 사용자의 가장 오래 실행 중인 작업을 고른다.
+     * 새 작업보다 우선순위가 높은 작업과, 새 작업 앞에 같은 사용자의 대기 작업이 있으면 (비는 자리를 그 작업이 받으므로) 선점하지 않는다.
+     */
+    private String selectUserVictim(String userId, VisualizationJobEntity job) {
+        List<Map.Entry<String, RunningJob>> own = running.entrySet().stream()
+                .filter(entry -> entry.getValue().userId.equals(userId) && !cancelling.containsKey(entry.getKey()))
+                .toList();
+        if (own.size() < maxPerUser) {
+            return null;
+        }
+        boolean queuedAhead = visualizationJobRepository.findAllByStatusOrderByPriorityDescCreatedAtAsc(EVisualizationJobStatus.QUEUED)
+                .stream()
+                .anyMatch(queued -> queued.getUser().getId().equals(userId) && !queued.getId().equals(job.getId())
+                        && queued.getPriority() >= job.getPriority());
+        if (queuedAhead) {
+            return null;
+        }
+        return own.stream()
+                .filter(entry -> entry.getValue().priority <= job.getPriority())
+                .min(Comparator.comparingLong(entry -> entry.getValue().startedAtMillis))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    /**
+     * 사용자 요청으로 대기 / 실행 중인 작업 취소 (완료된 세그먼트는 유지되며 resume 으로 이어서 처리할 수 있다)
+     */
+    public VisualizationJobResponseDto cancel(String userId, String jobId) {
+        VisualizationJobEntity job = visualizationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "시각화 작업을 찾을 수 없습니다."));
+        if (!job.getUser().getId().equals(userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN);
+        }
+        if (!requestCancel(jobId, "사용자가 취소했습니다.")) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "대기 / 실행 중인 작업만 취소할 수 있습니다.");
+        }
+        return toDto(visualizationJobRepository.findById(jobId).orElse(job), null);
+    }
+
+    /**
+     * 프로젝트 삭제 시 대기 / 실행 중인 작업 취소 (트랜잭션 안이면 커밋 이후)
+     */
+    public void cancelProject(String projectId) {
+        afterCommit(() -> visualizationJobRepository.findFirstByProjectIdAndStatusIn(projectId, ACTIVE_STATUSES)
+                .ifPresent(job -> requestCancel(job.getId(), "프로젝트가 삭제되었습니다.")));
+    }
+
+    /**
+     * 대기 중이면 바로 CANCELLED 로, 실행 중이면 컨테이너 / 워커를 종료한다. (종료되면 run 이 CANCELLED 로 기록)
+     * dispatch 와 같은 잠금 안에서 상태를 다시 읽어 실행이 시작되는 작업과 엇갈리지 않게 한다.
+     * @return 취소했거나 이미 취소 중이면 true
+     */
+    private synchronized boolean requestCancel(String jobId, String reason) {
+        VisualizationJobEntity job = visualizationJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return false;
+        }
+        if (job.getStatus() == EVisualizationJobStatus.QUEUED) {
+            cancelled.incrementAndGet();
+            markFinished(job, EVisualizationJobStatus.CANCELLED, reason);
+            return true;
+        }
+        if (job.getStatus() != EVisualizationJobStatus.RUNNING) {
+            return false;
+        }
+        if (cancelling.putIfAbsent(jobId, reason) != null) {
+            return true;
+        }
+        // run 이 이미 끝나 가는 중이면 결과를 그대로 둔다.
+        if (!running.containsKey(jobId)) {
+            cancelling.remove(jobId);
+            return false;
+        }
+        cancelled.incrementAndGet();
+        log.info("🛑 시각화 작업 취소 요청 | job: {} | project: {} | reason: {}", jobId, job.getProjectId(), reason);
+
+        String userId = job.getUser().getId();
+        Thread stopper = new Thread(() -> stop(jobId, userId, job.getProjectId()), "visualization-cancel-" + jobId);
+        stopper.setDaemon(true);
+        stopper.start();
+        return true;
+    }
+
+    private void stop(String jobId, String userId, String projectId) {
+        if (visualizationWorkerPool.isEnabled()) {
+            visualizationWorkerPool.cancel(jobId, stopGraceSeconds);
+        } else {
+            visualizationContainerLauncher.stopContainer(userId + "-" + projectId, stopGraceSeconds);
+        }
+    }
+
+    /**
+     * 재시작 전에 실행 중이던 작업은 프로세스를 추적할 수 없으므로 남은 컨테이너를 정리하고 체크포인트부터 다시 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        for (VisualizationJobEntity job : visualizationJobRepository.findAllByStatus(EVisualizationJobStatus.RUNNING)) {
+            if (!running.containsKey(job.getId())) {
+                if (!visualizationWorkerPool.isEnabled()) {
+                    visualizationContainerLauncher.removeContainer(job.getUser().getId() + "-" + job.getProjectId());
+                }
+                finishOrResume(job, EVisualizationJobStatus.FAILED, "서버 재시작으로 중단되었습니다.", true);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * 세그먼트 완료 시 컨테이너가 보낸 체크포인트 기록 (VisualizationMqttSubscriber)
+     * @param completedSegments 완료된 세그먼트 수 (= 다음에 처리할 세그먼트 번호)
+     * @param checkpoint 파일별 다음 읽기 위치 (JSON, 재개 시 컨테이너에 그대로 전달)
+     */
+    public void recordCheckpoint(String projectId, int completedSegments, String checkpoint) {
+        visualizationJobRepository.findFirstByProjectIdAndStatusIn(projectId, List.of(EVisualizationJobStatus.RUNNING))
+                .ifPresent(job -> {
+                    job.setCompletedSegments(completedSegments);
+                    job.setCheckpoint(checkpoint);
+                    visualizationJobRepository.save(job);
+                    log.debug("📌 시각화 체크포인트 | job: {} | completed segments: {}", job.getId(), completedSegments);
+                });
+    }
+
+    /**
+     * 실패한 작업을 마지막 체크포인트부터 다시 실행
+     */
+    public VisualizationJobResponseDto resume(String userId, String jobId) {
+        VisualizationJobEntity job = visualizationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "시각화 작업을 찾을 수 없습니다."));
+        if (!job.getUser().getId().equals(userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN);
+        }
+        if (job.getStatus() != EVisualizationJobStatus.FAILED && job.getStatus() != EVisualizationJobStatus.CANCELLED) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "실패 / 취소된 작업만 재개할 수 있습니다.");
+        }
+        if (!visualizationProjectRepository.existsById(job.getProjectId())) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "프로젝트가 삭제되었습니다.");
+        }
+        if (visualizationJobRepository.findFirstByProjectIdAndStatusIn(job.getProjectId(), ACTIVE_STATUSES).isPresent()) {
+            throw new ApiException(ErrorCode.DUPLICATE_RESOURCE, "이미 대기 / 실행 중인 작업이 있습니다.");
+        }
+        // 선점된 뒤 다른 청사진으로 처리된 프로젝트에 이전 작업을 이어 쓰지 않도록
+        boolean latest = visualizationJobRepository.findFirstByProjectIdOrderByCreatedAtDesc(job.getProjectId())
+                .map(last -> last.getId().equals(jobId))
+                .orElse(false);
+        if (!latest) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "프로젝트의 마지막 작업만 재개할 수 있습니다.");
+        }
+
+        requeue(job, null, false);
+        dispatch();
+        return toDto(job, null);
+    }
+
+    /**
+     * 실행 가능한 대기 작업을 실행 (등록 / 종료 시와 주기적으로 호출)
+     */
+    @Scheduled(fixedDelayString = "${visualization.scheduler.dispatch-interval-ms:10000}")
+    public synchronized void dispatch() {
+        int limit = concurrencyLimit();
+        if (running.size() >= limit) {
+            return;
+        }
+        List<VisualizationJobEntity> queued = new ArrayList<>(
+                visualizationJobRepository.findAllByStatusOrderByPriorityDescCreatedAtAsc(EVisualizationJobStatus.QUEUED));
+
+        Map<String, Integer> runningPerUser = new HashMap<>();
+        running.values().forEach(job -> runningPerUser.merge(job.userId, 1, Integer::sum));
+        // 선점된 작업의 컨테이너가 종료되기 전에는 같은 프로젝트 (같은 컨테이너 이름 / 출력 디렉터리) 를 실행하지 않는다.
+        Set<String> runningProjects = new HashSet<>();
+        running.values().forEach(job -> runningProjects.add(job.projectId));
+
+        // 우선순위 높은 순 → 실행 중인 작업이 적은 사용자 순 → 먼저 요청된 순
+        Comparator<VisualizationJobEntity> order = Comparator
+                .comparingInt(VisualizationJobEntity::getPriority).reversed()
+                .thenComparingInt(job -> runningPerUser.getOrDefault(job.getUser().getId(), 0))
+                .thenComparing(VisualizationJobEntity::getCreatedAt);
+
+        while (running.size() < limit) {
+            VisualizationJobEntity next = queued.stream()
+                    .filter(job -> runningPerUser.getOrDefault(job.getUser().getId(), 0) < maxPerUser)
+                    .filter(job -> !runningProjects.contains(job.getProjectId()))
+                    .min(order)
+                    .orElse(null);
+            if (next == null || !fits(next)) {
+                break; // 다음 차례가 자원을 기다리는 중이면 뒤 작업도 기다린다.
+            }
+            queued.remove(next);
+            runningPerUser.merge(next.getUser().getId(), 1, Integer::sum);
+            runningProjects.add(next.getProjectId());
+            start(next);
+        }
+    }
+
+    /**
+     * 워커 풀을 쓰면 워커 수를 넘겨 실행하지 않는다.
+     */
+    private int concurrencyLimit() {
+        return visualizationWorkerPool.isEnabled() ? Math.min(maxConcurrent, visualizationWorkerPool.getSize()) : maxConcurrent;
+    }
+
+    private boolean fits(VisualizationJobEntity job) {
+        double usedCpus = running.values().stream().mapToDouble(runningJob -> runningJob.cpus).sum();
+        long usedMemoryMb = running.values().stream().mapToLong(runningJob -> runningJob.memoryMb).sum();
+        return usedCpus + job.getCpus() <= hostCpus + 1e-9 && usedMemoryMb + job.getMemoryMb() <= hostMemoryMb;
+    }
+
+    private void start(VisualizationJobEntity job) {
+        String userId = job.getUser().getId();
+        job.setStatus(EVisualizationJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        visualizationJobRepository.save(job);
+        running.put(job.getId(), new RunningJob(userId, job.getProjectId(), job.getPriority(), job.getCpus(), job.getMemoryMb(),
+                System.currentTimeMillis()));
+
+        log.info("🚀 시각화 작업 실행 | job: {} | project: {} | running: {}/{}", job.getId(), job.getProjectId(), running.size(), concurrencyLimit());
+        publish(job);
+
+        Thread worker = new Thread(() -> run(job, userId), "visualization-job-" + job.getId());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void run(VisualizationJobEntity job, String userId) {
+        EVisualizationJobStatus result;
+        String errorMessage = null;
+        // 컨테이너 / 워커가 중간에 죽은 경우만 자동 재개 (프로젝트 / 버킷이 없으면 다시 실행해도 실패)
+        boolean resumable = true;
+        try {
+            if (!visualizationProjectRepository.existsById(job.getProjectId())) {
+                throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "프로젝트가 삭제되었습니다.");
+            }
+            BucketEntity bucket = bucketRepository.findById(job.getBucketId())
+                    .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Bucket"));
+            List<FileMetadataDto> metadataDtos = objectMapper.readValue(job.getFileMetadata(), FILE_METADATA_TYPE);
+
+            VisualizationContainerLauncher.LaunchPayload payload = visualizationContainerLauncher.preparePayload(bucket,
+                    metadataDtos, job.getTeamId(), job.getCheckpoint());
+            if (visualizationWorkerPool.isEnabled()) {
+                // 떠 있는 워커에 맡김 (컨테이너 / 인터프리터 기동 비용 없음)
+                visualizationWorkerPool.execute(job.getId(), userId, job.getProjectId(), payload);
+                result = EVisualizationJobStatus.COMPLETED;
+            } else {
+                if (job.getResumeCount() > 0) {
+                    // 중단된 실행의 컨테이너가 남아 있으면 같은 이름으로 실행할 수 없다.
+                    visualizationContainerLauncher.removeContainer(userId + "-" + job.getProjectId());
+                }
+                if (cancelling.containsKey(job.getId())) {
+                    throw new ApiException(ErrorCode.BAD_REQUEST, "실행 전에 취소되었습니다.");
+                }
+                Process process = visualizationContainerLauncher.launch(userId, job.getProjectId(), payload,
+                        job.getCpus(), job.getMemoryMb());
+                if (cancelling.containsKey(job.getId())) {
+                    // 취소 요청의 docker stop 이 컨테이너 생성보다 먼저 실행된 경우
+                    visualizationContainerLauncher.stopContainer(userId + "-" + job.getProjectId(), stopGraceSeconds);
+                }
+                int exitCode = process.waitFor();
+                result = exitCode == 0 ? EVisualizationJobStatus.COMPLETED : EVisualizationJobStatus.FAILED;
+                if (exitCode != 0) {
+                    errorMessage = "컨테이너 종료 코드 " + exitCode;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = EVisualizationJobStatus.FAILED;
+            errorMessage = "실행이 중단되었습니다.";
+            resumable = false;
+        } catch (ApiException e) {
+            log.error("❌ 시각화 작업 실패 | job: {} | project: {} | {}", job.getId(), job.getProjectId(), e.getMessage());
+            result = EVisualizationJobStatus.FAILED;
+            errorMessage = e.getMessage();
+            resumable = false;
+        } catch (Exception e) {
+            log.error("❌ 시각화 작업 실패 | job: {} | project: {} | {}", job.getId(), job.getProjectId(), e.getMessage());
+            result = EVisualizationJobStatus.FAILED;
+            errorMessage = e.getMessage();
+        }
+
+        RunningJob finished = running.remove(job.getId());
+        String cancelReason = cancelling.remove(job.getId());
+        if (cancelReason != null && result != EVisualizationJobStatus.COMPLETED) {
+            result = EVisualizationJobStatus.CANCELLED;
+            errorMessage = cancelReason;
+            resumable = false;
+            log.info("🛑 시각화 작업 취소됨 | job: {} | project: {} | completed segments kept", job.getId(), job.getProjectId());
+        }
+        if (finished != null && result == EVisualizationJobStatus.COMPLETED) {
+            long runMillis = System.currentTimeMillis() - finished.startedAtMillis;
+            averageRunMillis.updateAndGet(average -> (average * 4 + runMillis) / 5);
+        }
+        try {
+            VisualizationJobEntity current = visualizationJobRepository.findById(job.getId()).orElse(null);
+            if (current != null) {
+                finishOrResume(current, result, errorMessage, resumable);
+            }
+        } catch (Exception e) {
+            log.error("❌ 시각화 작업 상태 저장 실패 | job: {} | {}", job.getId(), e.getMessage());
+        }
+        dispatch();
+    }
+
+    /**
+     * 실패했더라도 자동 재개 횟수가 남아 있으면 체크포인트부터 다시 실행하도록 대기열에 되돌린다.
+     * (수동 재개는 자동 재개 횟수에 포함하지 않는다)
+     */
+    private void finishOrResume(VisualizationJobEntity job, EVisualizationJobStatus status, String errorMessage, boolean resumable) {
+        if (status == EVisualizationJobStatus.FAILED && resumable && job.getAutoResumeCount() < autoResumeAttempts
+                && visualizationProjectRepository.existsById(job.getProjectId())) {
+            requeue(job, errorMessage, true);
+        } else {
+            markFinished(job, status, errorMessage);
+        }
+    }
+
+    /**
+     * @param automatic 실패 후 자동 재개이면 true (수동 재개이면 false)
+     */
+    private void requeue(VisualizationJobEntity job, String reason, boolean automatic) {
+        job.setStatus(EVisualizationJobStatus.QUEUED);
+        job.setResumeCount(job.getResumeCount() + 1);
+        if (automatic) {
+            job.setAutoResumeCount(job.getAutoResumeCount() + 1);
+        }
+        job.setStartedAt(null);
+        job.setFinishedAt(null);
+        job.setErrorMessage(truncate(reason));
+        visualizationJobRepository.save(job);
+
+        // 실패로 되돌렸던 프로젝트는 다시 진행 중으로 표시
+        visualizationProjectRepository.findById(job.getProjectId()).ifPresent(project -> {
+            if (project.getStatus() != EVisualizationProcessStatus.COMPLETE) {
+                project.setStatus(EVisualizationProcessStatus.PROCESSING);
+                visualizationProjectRepository.save(project);
+                visualizationTeamTreeCache.evictUser(job.getUser().getId());
+            }
+        });
+        log.info("🔁 시각화 작업 재개 대기 | job: {} | project: {} | from segment: {} | resume: {} | reason: {}",
+                job.getId(), job.getProjectId(), job.getCompletedSegments(), job.getResumeCount(), reason);
+        publish(job);
+    }
+
+    private void markFinished(VisualizationJobEntity job, EVisualizationJobStatus status, String errorMessage) {
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+        if (errorMessage != null) {
+            job.setErrorMessage(truncate(errorMessage));
+        }
+        visualizationJobRepository.save(job);
+
+        // 완료 메시지를 받지 못한 채 끝났다면 다시 시각화할 수 있도록 되돌린다.
+        if (status == EVisualizationJobStatus.FAILED) {
+            visualizationProjectRepository.findById(job.getProjectId()).ifPresent(project -> {
+                if (project.getStatus() != EVisualizationProcessStatus.COMPLETE) {
+                    project.setStatus(EVisualizationProcessStatus.NOT_STARTED);
+                    visualizationProjectRepository.save(project);
+                    visualizationTeamTreeCache.evictUser(job.getUser().getId());
+                }
+            });
+        }
+        // 취소되면 처리된 세그먼트까지 볼 수 있도록 CANCELLED 로 표시 (같은 프로젝트의 새 작업이 있으면 그 작업의 상태를 따른다)
+        if (status == EVisualizationJobStatus.CANCELLED
+                && visualizationJobRepository.findFirstByProjectIdAndStatusIn(job.getProjectId(), ACTIVE_STATUSES).isEmpty()) {
+            visualizationProjectRepository.findById(job.getProjectId()).ifPresent(project -> {
+                if (project.getStatus() != EVisualizationProcessStatus.COMPLETE) {
+                    project.setStatus(EVisualizationProcessStatus.CANCELLED);
+                    visualizationProjectRepository.save(project);
+                    visualizationTeamTreeCache.evictUser(job.getUser().getId());
+                }
+            });
+        }
+        log.info("🏁 시각화 작업 종료 | job: {} | project: {} | status: {}", job.getId(), job.getProjectId(), status);
+        publish(job);
+    }
+
+    /**
+     * 사용자의 최근 작업 (대기 중이면 전체 대기열 기준 순번과 예상 대기 시간 포함)
+     */
+    public List<VisualizationJobResponseDto> getUserJobs(String userId) {
+        List<VisualizationJobEntity> queued =
+                visualizationJobRepository.findAllByStatusOrderByPriorityDescCreatedAtAsc(EVisualizationJobStatus.QUEUED);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < queued.size(); i++) {
+            positions.put(queued.get(i).getId(), i + 1);
+        }
+        return visualizationJobRepository.findTop50ByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(job -> toDto(job, positions.get(job.getId())))
+                .toList();
+    }
+
+    public VisualizationSchedulerStatsDto getStats() {
+        return new VisualizationSchedulerStatsDto(
+                visualizationJobRepository.findAllByStatus(EVisualizationJobStatus.QUEUED).size(),
+                running.size(),
+                concurrencyLimit(),
+                maxPerUser,
+                running.values().stream().mapToDouble(job -> job.cpus).sum(),
+                hostCpus,
+                running.values().stream().mapToLong(job -> job.memoryMb).sum(),
+                hostMemoryMb,
+                averageRunMillis.get(),
+                preemptPolicy.name(),
+                cancelling.size(),
+                cancelled.get(),
+                preempted.get()
+        );
+    }
+
+    private VisualizationJobResponseDto toDto(VisualizationJobEntity job, Integer queuePosition) {
+        Long waitedMillis = null;
+        if (job.getStartedAt() != null) {
+            waitedMillis = Duration.between(job.getCreatedAt(), job.getStartedAt()).toMillis();
+        } else if (job.getStatus() == EVisualizationJobStatus.QUEUED) {
+            waitedMillis = Duration.between(job.getCreatedAt(), LocalDateTime.now()).toMillis();
+        }
+        return new VisualizationJobResponseDto(
+                job.getId(),
+                job.getProjectId(),
+                job.getStatus(),
+                job.getPriority(),
+                queuePosition,
+                waitedMillis,
+                queuePosition != null ? estimateWaitMillis(queuePosition) : null,
+                job.getErrorMessage(),
+                job.getCompletedSegments(),
+                job.getResumeCount(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    /**
+     * 앞선 대기 작업과 실행 중인 작업이 동시 실행 슬롯을 평균 실행 시간만큼 차지한다고 보고 계산한 대략적인 값
+     */
+    private long estimateWaitMillis(int queuePosition) {
+        long rounds = (queuePosition - 1L + running.size()) / concurrencyLimit();
+        return rounds * averageRunMillis.get();
+    }
+
+    private void publish(VisualizationJobEntity job) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("jobId", job.getId());
+        payload.put("projectId", job.getProjectId());
+        payload.put("status", job.getStatus().name());
+        payload.put("errorMessage", job.getErrorMessage());
+        payload.put("completedSegments", job.getCompletedSegments());
+        payload.put("resumeCount", job.getResumeCount());
+        mqttPublisher.publish(String.format("global/user/%s/visualization/job", job.getUser().getId()), payload);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > ERROR_MESSAGE_LENGTH ? message.substring(0, ERROR_MESSAGE_LENGTH) : message;
+    }
+
+    private String writeFileMetadata(List<FileMetadataDto> metadataDtos) {
+        try {
+            return objectMapper.writeValueAsString(metadataDtos);
+        } catch (JsonProcessingException e) {
+            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "JSON 직렬화 실패");
+        }
+    }
+
+    private static long physicalMemoryMb() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getTotalMemorySize() / (1024 * 1024);
+        }
+        return Runtime.getRuntime().maxMemory() / (1024 * 1024);
+    }
+
+    private record RunningJob(String userId, String projectId, int priority, double cpus, long memoryMb, long startedAtMillis) {
+    }
+}
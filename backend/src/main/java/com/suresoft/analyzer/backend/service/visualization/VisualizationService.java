@@ -1,9 +1,5 @@
 package com.suresoft.analyzer.backend.service.visualization;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.suresoft.analyzer.backend.config.EnvProperties;
 import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
 import com.suresoft.analyzer.backend.dto.storage.UploadFileDto;
 import com.suresoft.analyzer.backend.dto.visualization.*;
@@ -27,24 +23,24 @@ import com.suresoft.analyzer.backend.repository.storage.UploadFileRepository;
 import com.suresoft.analyzer.backend.repository.visualization.RRDFileRepository;
 import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
 import com.suresoft.analyzer.backend.repository.visualization.BlueprintSettingRepository;
-import com.suresoft.analyzer.backend.service.storage.SecureStorageService;
+import com.suresoft.analyzer.backend.service.storage.UploadFileMetadataService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VisualizationService {
 
-    private final EnvProperties env;
     private final VisualizationProjectRepository visualizationProjectRepository;
     private final RRDFileRepository rrdFileRepository;
     private final BlueprintSettingRepository blueprintSettingRepository;
@@ -52,33 +48,38 @@ public class VisualizationService {
     private final TeamRepository teamRepository;
     private final UploadFileRepository uploadFileRepository;
     private final BucketRepository bucketRepository;
-    private final SecureStorageService secureStorageService;
+    private final VisualizationJobScheduler visualizationJobScheduler;
+    private final RRDTieringService rrdTieringService;
+    private final VisualizationTeamTreeCache visualizationTeamTreeCache;
+    private final UploadFileMetadataService uploadFileMetadataService;
 
     @Transactional
     public BlueprintVisualizationStatusResponseDto checkBlueprintVisualizationStatus(String userId, List<CreateProjectBlueprintSettingRequest> dtos){
         String targetSignature = generateBlueprintSignature(dtos);
 
-        // 2. 동일한 signature를 가진 유저의 프로젝트 조회
-        Optional<VisualizationProjectEntity> optionalProject =
-                visualizationProjectRepository.findByUserIdAndBlueprintSignature(userId, targetSignature);
+        // 2. 동일한 signature를 가진 팀 구성원(팀이 없으면 본인)의 프로젝트 조회 (내용 식별자 기준 + 이전 업로드 파일 id 기준)
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "User"));
+        List<String> signatures = List.of(targetSignature, generateLegacyBlueprintSignature(dtos));
+        List<VisualizationProjectEntity> candidates = user.getTeam() != null
+                ? visualizationProjectRepository.findByTeamIdAndBlueprintSignatures(user.getTeam().getId(), userId, signatures)
+                : visualizationProjectRepository.findByUserIdAndBlueprintSignatures(userId, signatures);
+
+        // status == PROCESSING || COMPLETE 인 프로젝트 중 본인 프로젝트 → 최신 순
+        Optional<VisualizationProjectEntity> optionalProject = candidates.stream()
+                .filter(VisualizationProjectEntity::isVisualizationAvailable)
+                .findFirst();
 
         BlueprintVisualizationStatusResponseDto response = new BlueprintVisualizationStatusResponseDto();
 
-        // 3. 결과 판단
+        // 3. 결과 판단 (전체가 같지 않더라도 엔티티 단위 RRD 는 시각화 시 팀 캐시에서 재사용된다)
         if (optionalProject.isPresent()) {
             VisualizationProjectEntity project = optionalProject.get();
-            boolean canVisualize = project.isVisualizationAvailable(); // status == PROCESSING || COMPLETE
-
-            if (canVisualize) {
-                response.setStatus(EBlueprintVisualizationStatus.REUSE_EXISTING);
-                SimpleVisualizationProjectResponseDto dto = new SimpleVisualizationProjectResponseDto();
-                dto.setId(project.getId());
-                dto.setName(project.getName());
-                response.setVisualizedProject(dto);
-            }else{
-                response.setStatus(EBlueprintVisualizationStatus.NEEDS_VISUALIZATION);
-                response.setVisualizedProject(null);
-            }
+            response.setStatus(EBlueprintVisualizationStatus.REUSE_EXISTING);
+            SimpleVisualizationProjectResponseDto dto = new SimpleVisualizationProjectResponseDto();
+            dto.setId(project.getId());
+            dto.setName(project.getName());
+            response.setVisualizedProject(dto);
         }else{
             // 없으면 새로 생성해야함
             response.setStatus(EBlueprintVisualizationStatus.NEEDS_VISUALIZATION);
@@ -87,7 +88,7 @@ public class VisualizationService {
         return response;
     }
 
-    public String startVisualizationProcess(String userId, String projectId, List<CreateProjectBlueprintSettingRequest> blueprints) {
+    public String startVisualizationProcess(String userId, String projectId, Integer priority, List<CreateProjectBlueprintSettingRequest> blueprints) {
         // ✅ 업로드 파일 ID를 blueprint 중 하나에서 가져옴
         String uploadFileId = blueprints.stream()
                 .findFirst()
@@ -102,111 +103,76 @@ public class VisualizationService {
 
         BucketEntity bucket = bucketRepository.findById(bucketId).orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        String accessKey = secureStorageService.decrypt(bucket.getAccessKey());
-        String secretKey = secureStorageService.decrypt(bucket.getSecretKey());
-        String regionName = bucket.getRegion();
-        String bucketName = bucket.getName();
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "User"));
 
-        CredentialDto credentialDto = new CredentialDto(accessKey,secretKey,regionName,bucketName);
         List<FileMetadataDto> metadataDtos = convertToFileMetadataDto(blueprints);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
-
-        String blueprintsBase64;
-        String credentialBase64;
-
-        try {
-            String blueprintsJson = objectMapper.writeValueAsString(metadataDtos);
-            String credentialJson = objectMapper.writeValueAsString(credentialDto);
-
-            System.out.println("[DEBUG] blueprintsJson = " + blueprintsJson);
-            System.out.println("[DEBUG] credentialJson = " + credentialJson);
-
-            blueprintsBase64 = Base64.getEncoder().encodeToString(blueprintsJson.getBytes(StandardCharsets.UTF_8));
-            credentialBase64 = Base64.getEncoder().encodeToString(credentialJson.getBytes(StandardCharsets.UTF_8));
-        } catch (JsonProcessingException e) {
-            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "JSON 직렬화 실패");
-        }
+        VisualizationProjectEntity project = visualizationProjectRepository.findById(projectId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND));
 
-        // ✅ 2. Docker run 명령 실행
-        List<String> command = new ArrayList<>();
-        command.add("docker");
-        command.add("run");
-        command.add("--name");
-        command.add(userId + "-" + projectId);
-        command.add("--network");
-        command.add("coda-network");
-        command.add("--rm");
-
-        // ✅ CPU와 메모리 제한 추가 (이 부분!)
-//        command.add("--cpus");
-//        command.add("1");
-//        command.add("--memory");
-//        command.add("512m");
-
-        // ✅ MQTT 브로커 접근 가능하도록 host.docker.internal을 host-gateway로 설정
-        command.add("--add-host");
-        command.add("host.docker.internal:host-gateway");
-
-        // ✅ 볼륨 마운트는 전체 문자열로 추가
-        command.add("-v");
-        command.add(env.getPath() + "/dbc:/data/dbc");
-
-        command.add("-v");
-        command.add(env.getPath() + "/rrd:/data/rrd");
-
-        command.add("visualization-task");
-        command.add("--server-url");
-        command.add(env.getServerUrl());
-        command.add("--user-id");
-        command.add(userId);
-        command.add("--project-id");
-        command.add(projectId);
-        command.add("--blueprints");
-        command.add(blueprintsBase64);
-        command.add("--credential");
-        command.add(credentialBase64);
+        // ✅ 버킷에 보관된 RRD 는 이어서 처리할 수 있도록 먼저 복원 (다시 처리하면 보관본은 최신이 아님)
+        rrdTieringService.invalidateArchive(projectId);
 
-        try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
-            Process process = pb.start(); // ✅ 여기서 실행만 시키고 대기하지 않음
-
-            new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        System.out.println("[DOCKER LOG] " + line);
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }).start();
-
-            // ✅ 실행 성공했다면 바로 상태 갱신
-            VisualizationProjectEntity project = visualizationProjectRepository.findById(projectId)
-                    .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND));
-            project.setStatus(EVisualizationProcessStatus.PROCESSING);
-            visualizationProjectRepository.save(project);
+        // ✅ 컨테이너는 바로 실행하지 않고 스케줄러 대기열에 등록 (동시 실행 수 / 자원 여유에 따라 실행)
+        project.setStatus(EVisualizationProcessStatus.PROCESSING);
+        visualizationProjectRepository.save(project);
+        visualizationTeamTreeCache.evictUser(userId);
 
-            return EVisualizationProcessStatus.PROCESSING.name();
+        visualizationJobScheduler.enqueue(user, projectId, bucket.getId(), metadataDtos, priority);
 
-        } catch (IOException e) {
-            throw new ApiException(ErrorCode.INTERNAL_SERVER_ERROR, "Docker 실행 중 예외 발생");
-        }
+        return EVisualizationProcessStatus.PROCESSING.name();
     }
 
     public List<RRDFileResponseDto> getRRDFilesByProjectId(String projectId){
+        rrdTieringService.ensureLocal(projectId);
         List<RRDFileEntity> rrdFiles = rrdFileRepository.findByVisualizationProjectId(projectId);
         return rrdFiles.stream()
                 .map(file -> RRDFileResponseDto.builder()
                         .id(file.getId())
                         .name(file.getName())
                         .rrdUrl(file.getRrdUrl())
+                        .entityRrdUrls(splitEntityRrdUrls(file.getEntityRrdUrls()))
                         .build())
                 .toList();
     }
+    /**
+     * [fromUs, toUs) 와 겹치는 세그먼트만 반환 (뷰어가 탐색 위치의 세그먼트만 불러오도록)
+     * 시간 정보가 없는 이전 세그먼트는 포함되지 않는다.
+     */
+    public RRDSegmentManifestResponseDto getSegmentManifest(String userId, String projectId, Long fromUs, Long toUs) {
+        if (!visualizationProjectRepository.existsVisibleToUser(projectId, userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "프로젝트 소유자 또는 같은 팀 구성원만 조회할 수 있습니다.");
+        }
+        rrdTieringService.ensureLocal(projectId);
+        long from = fromUs != null ? fromUs : 0L;
+        long to = toUs != null ? toUs : Long.MAX_VALUE;
+        if (from < 0 || from >= to) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "fromUs 는 0 이상이고 toUs 보다 작아야 합니다.");
+        }
+
+        List<RRDSegmentDto> segments = rrdFileRepository.findOverlapping(projectId, from, to).stream()
+                .map(file -> new RRDSegmentDto(
+                        file.getId(),
+                        file.getSegmentIndex(),
+                        file.getName(),
+                        file.getStartUs(),
+                        file.getEndUs(),
+                        file.getByteSize(),
+                        file.getRrdUrl(),
+                        splitEntityRrdUrls(file.getEntityRrdUrls()),
+                        splitEntityRrdUrls(file.getEntityNames())))
+                .toList();
+        Object[] summary = rrdFileRepository.summarizeByProjectId(projectId).get(0);
+
+        return new RRDSegmentManifestResponseDto(
+                projectId,
+                ((Number) summary[1]).longValue(),
+                ((Number) summary[0]).longValue(),
+                ((Number) summary[2]).longValue(),
+                segments);
+    }
+
     public List<SimpleVisualizationProjectResponseDto> getMyVisualizationProjects(String userId) {
         List<VisualizationProjectEntity> projects = visualizationProjectRepository.findVisualizationProjectsByUserId(userId);
 
@@ -228,6 +194,7 @@ public class VisualizationService {
         if (project.getUser().getId().equals(userId)){
             project.setName(updateName);
             visualizationProjectRepository.save(project);
+            visualizationTeamTreeCache.evictUser(userId);
         }else{
             throw new ApiException(ErrorCode.FORBIDDEN, "자신의 프로젝트만 수정 가능합니다.");
         }
@@ -251,6 +218,11 @@ public class VisualizationService {
             rrdFileRepository.deleteByVisualizationProjectId(project.getId());
 
             visualizationProjectRepository.deleteById(projectId);
+
+            // 처리 중이면 컨테이너 종료 후 로컬 RRD 디렉터리 / 버킷 보관본 회수 (커밋 이후)
+            visualizationJobScheduler.cancelProject(projectId);
+            rrdTieringService.reclaimAfterCommit(userId, projectId);
+            visualizationTeamTreeCache.evictUser(userId);
         }else{
             throw new ApiException(ErrorCode.FORBIDDEN, "자신의 프로젝트만 수정 가능합니다.");
         }
@@ -272,60 +244,46 @@ public class VisualizationService {
 
         visualizationProjectRepository.deleteAll(projects);
 
+        // 처리 중이면 컨테이너 종료 후 로컬 RRD 디렉터리 / 버킷 보관본 회수 (커밋 이후)
+        projects.forEach(project -> {
+            visualizationJobScheduler.cancelProject(project.getId());
+            rrdTieringService.reclaimAfterCommit(userId, project.getId());
+        });
+        visualizationTeamTreeCache.evictUser(userId);
     }
 
+    /**
+     * 팀 구성원별 프로젝트 트리 (프로젝트가 있는 구성원만, 최신 순)
+     * 사용자 / 프로젝트를 한 번에 조회해 만들고 팀별로 캐시한다. (VisualizationTeamTreeCache)
+     */
     public List<TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>> getTeamVisualizationProjects(String teamId) {
+        return visualizationTeamTreeCache.get(teamId, () -> buildTeamTree(teamId));
+    }
 
-        List<UserEntity> users = teamRepository.findUserIdsByTeamId(teamId);
-        Map<UserEntity, List<SimpleVisualizationProjectResponseDto>> map = new HashMap<>();
-
-        for (UserEntity user : users) {
-            List<VisualizationProjectEntity> projects = visualizationProjectRepository.findVisualizationProjectsByUserId(user.getId());
-
-            if (!projects.isEmpty()) {
-                List<SimpleVisualizationProjectResponseDto> dtos = projects.stream()
-                        .map(project -> SimpleVisualizationProjectResponseDto.builder()
-                                .id(project.getId())
-                                .name(project.getName())
-                                .status(project.getStatus())
-                                .createdAt(project.getCreatedAt())
-                                .build()
-                        )
-                        .toList();
-
-                map.put(user,dtos);
-            }
+    private List<TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>> buildTeamTree(String teamId) {
+        // 조회 결과가 소유자 → 최신 순으로 정렬되어 있으므로 순서를 유지하며 묶는다.
+        Map<String, TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>> userNodes = new LinkedHashMap<>();
+        for (Object[] row : visualizationProjectRepository.findTeamProjectRows(teamId)) {
+            String ownerId = (String) row[0];
+            TreeFolderNodeDto<SimpleVisualizationProjectResponseDto> userNode = userNodes.computeIfAbsent(ownerId,
+                    id -> new TreeFolderNodeDto<>((String) row[1], teamId + "-" + id, false, null, new ArrayList<>()));
+
+            SimpleVisualizationProjectResponseDto project = SimpleVisualizationProjectResponseDto.builder()
+                    .id((String) row[2])
+                    .name((String) row[3])
+                    .status((EVisualizationProcessStatus) row[4])
+                    .createdAt((LocalDateTime) row[5])
+                    .build();
+            userNode.getChildren().add(new TreeFolderNodeDto<>(project.getName(), project.getId(), true, project, null));
         }
-
-        return map.entrySet().stream()
-                .map(entry -> {
-                    UserEntity user = entry.getKey(); // userName이 폴더
-                    List<SimpleVisualizationProjectResponseDto> userProjects = entry.getValue();
-
-                    // 유저 노드 생성
-                    return new TreeFolderNodeDto<>(
-                            user.getName(),
-                            user.getTeam().getId() + "-" + user.getId(),
-                            false,
-                            null,
-                            userProjects.stream()
-                                    .sorted(Comparator.comparing(SimpleVisualizationProjectResponseDto::getCreatedAt).reversed())
-                                    .map(project -> new TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>(
-                                            project.getName(),
-                                            project.getId(),
-                                            true,
-                                            project,
-                                            null
-                                    ))
-                                    .collect(Collectors.toList())
-                    );
-                })
-                .toList();
+        return List.copyOf(userNodes.values());
     }
 
     public VisualizationProjectResponseDto getProjectById(String id) {
         VisualizationProjectEntity project = visualizationProjectRepository.findById(id)
                 .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND,"해당Id를 가진 시각화 프로젝트를 찾을 수 없습니다."));
+        // 뷰어가 바로 RRD 를 요청하므로 버킷에 보관된 프로젝트는 여기서 복원
+        rrdTieringService.ensureLocal(id);
         List<RRDFileResponseDto> rrdFiles = rrdFileRepository.findByVisualizationProjectId(id).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
@@ -358,6 +316,7 @@ public class VisualizationService {
         project.setBlueprintSignature(generateBlueprintSignature(dto.getBlueprints()));
 
         VisualizationProjectEntity savedProject = visualizationProjectRepository.save(project);
+        visualizationTeamTreeCache.evictUser(userId);
 
         for (CreateProjectBlueprintSettingRequest blueprint : dto.getBlueprints()){
             String entityName = blueprint.getEntityName();
@@ -384,13 +343,44 @@ public class VisualizationService {
 
     }
 
+    /**
+     * 블루프린트 서명 : 업로드 파일 대신 내용 식별자(+ DBC)를 사용하므로 다른 버킷 / 경로에 복사된 같은 기록은 같은 서명이 된다.
+     * 저장할 때와 조회할 때 같은 키를 쓰도록 내용 식별자가 아직 없는 파일은 (메타데이터 확인 전) 여기서 바로 채운다.
+     * S3 조회에 실패한 파일만 업로드 파일 id 를 사용한다.
+     */
     private String generateBlueprintSignature(List<CreateProjectBlueprintSettingRequest> dtos) {
+        List<String> uploadFileIds = dtos.stream().map(CreateProjectBlueprintSettingRequest::getUploadFileId).distinct().toList();
+        Map<String, String> fileKeys = new HashMap<>();
+        for (UploadFileEntity uploadFile : uploadFileRepository.findAllById(uploadFileIds)) {
+            String contentId = uploadFile.getContentId() != null
+                    ? uploadFile.getContentId()
+                    : uploadFileMetadataService.resolveContentId(uploadFile.getId(), uploadFile.getBucket().getName(), uploadFile.getS3Url());
+            if (contentId != null) {
+                String dbcKey = uploadFile.getDbc() != null ? "#dbc:" + uploadFile.getDbc().getId() : "";
+                fileKeys.put(uploadFile.getId(), contentId + dbcKey);
+            }
+        }
+        Function<CreateProjectBlueprintSettingRequest, String> fileKey =
+                dto -> fileKeys.getOrDefault(dto.getUploadFileId(), dto.getUploadFileId());
+        return buildBlueprintSignature(dtos, fileKey,
+                Comparator.comparing(fileKey).thenComparing(CreateProjectBlueprintSettingRequest::getEntityName));
+    }
+
+    // 내용 식별자 도입 전에 만들어진 프로젝트 조회용 (기존과 같이 업로드 파일 id 로만 정렬)
+    private String generateLegacyBlueprintSignature(List<CreateProjectBlueprintSettingRequest> dtos) {
+        return buildBlueprintSignature(dtos, CreateProjectBlueprintSettingRequest::getUploadFileId,
+                Comparator.comparing(CreateProjectBlueprintSettingRequest::getUploadFileId));
+    }
+
+    private String buildBlueprintSignature(List<CreateProjectBlueprintSettingRequest> dtos,
+                                           Function<CreateProjectBlueprintSettingRequest, String> fileKey,
+                                           Comparator<CreateProjectBlueprintSettingRequest> order) {
         StringBuilder sb = new StringBuilder();
 
         dtos.stream()
-                .sorted(Comparator.comparing(CreateProjectBlueprintSettingRequest::getUploadFileId))
+                .sorted(order)
                 .forEach(dto -> {
-                    sb.append(dto.getUploadFileId())
+                    sb.append(fileKey.apply(dto))
                             .append("|").append(dto.getEntityName())
                             .append("|").append(dto.getViewName());
 
@@ -439,7 +429,8 @@ public class VisualizationService {
         return new RRDFileResponseDto(
                 file.getId(),
                 file.getName(),
-                file.getRrdUrl()
+                file.getRrdUrl(),
+                splitEntityRrdUrls(file.getEntityRrdUrls())
         );
     }
 
@@ -459,12 +450,23 @@ public class VisualizationService {
                         dbc != null ? dbc.getName() : null,  // ✅ null 체크 후 getPath
                         uploadFile.getParser().getId(),
                         uploadFile.getTimestampMicro(),
-                        dbc != null ? dbc.getId() : null
+                        dbc != null ? dbc.getId() : null,
+                        uploadFile.getDurationMicro(),
+                        uploadFile.getFileSize(),
+                        uploadFile.getMetadataStatus()
                 )
         );
     }
 
+    private static List<String> splitEntityRrdUrls(String entityRrdUrls) {
+        return entityRrdUrls == null || entityRrdUrls.isBlank() ? List.of() : List.of(entityRrdUrls.split("\n"));
+    }
+
     private List<FileMetadataDto> convertToFileMetadataDto(List<CreateProjectBlueprintSettingRequest> requests) {
+        List<String> uploadFileIds = requests.stream().map(CreateProjectBlueprintSettingRequest::getUploadFileId).distinct().toList();
+        Map<String, UploadFileEntity> uploadFiles = uploadFileRepository.findAllById(uploadFileIds).stream()
+                .collect(Collectors.toMap(UploadFileEntity::getId, Function.identity()));
+
         return requests.stream().map(req -> {
             List<FileMetadataDto.SelectedSignalDto> selectedSignals = req.getSelectedSignals().stream()
                     .map(signal -> new FileMetadataDto.SelectedSignalDto(
@@ -482,8 +484,34 @@ public class VisualizationService {
                     req.getParserName(),
                     req.getEntityName(),
                     dbcFileName,
-                    selectedSignals
+                    selectedSignals,
+                    null,
+                    generateEntityArtifactKey(req, uploadFiles.get(req.getUploadFileId()))
             );
         }).collect(Collectors.toList());
     }
+
+    /**
+     * 엔티티 RRD 재사용 키 : 파일 내용 식별자 + 파서 + 엔티티 이름 + DBC + 선택 신호
+     * 시간 오프셋은 블루프린트 전체 파일 기준으로 컨테이너에서 계산되므로 컨테이너가 더해서 최종 키를 만든다.
+     */
+    private static String generateEntityArtifactKey(CreateProjectBlueprintSettingRequest req, UploadFileEntity uploadFile) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(uploadFile != null && uploadFile.getContentId() != null ? uploadFile.getContentId() : req.getUploadFileId())
+                .append('|').append(req.getParserName())
+                .append('|').append(req.getEntityName())
+                .append('|').append(uploadFile != null && uploadFile.getDbc() != null ? uploadFile.getDbc().getId() : "");
+
+        req.getSelectedSignals().stream()
+                .sorted(Comparator.comparing(CreateProjectBlueprintSettingRequest.SelectedSignal::getMessageName))
+                .forEach(signal -> sb.append('|').append(signal.getMessageName())
+                        .append(':').append(String.join(",", signal.getSignalNames().stream().sorted().toList())));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("SHA-256 hashing failed", e);
+        }
+    }
 }
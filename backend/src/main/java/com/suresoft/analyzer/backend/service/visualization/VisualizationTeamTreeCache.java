@@ -0,0 +1,91 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.suresoft.analyzer.backend.dto.common.TreeFolderNodeDto;
+import com.suresoft.analyzer.backend.dto.visualization.response.SimpleVisualizationProjectResponseDto;
+import com.suresoft.analyzer.backend.repository.auth.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 팀 프로젝트 트리 캐시 (key : team id)
+ * - 프로젝트 생성 / 이름 변경 / 삭제 / 상태 변경 (MQTT 완료 메시지 포함) 시 소유자의 팀 트리를 비운다.
+ * - 비우는 것은 커밋 이후에 하고, 트리를 만드는 동안 비워졌으면 만든 트리를 버려 이전 내용이 다시 남지 않게 한다.
+ * - 놓친 변경이 오래 남지 않도록 ttl-seconds 가 지나면 다시 만든다.
+ */
+@Slf4j
+@Component
+public class VisualizationTeamTreeCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    private final Map<String, CachedTree> trees = new ConcurrentHashMap<>();
+    // key : team id, value : 비운 횟수 (트리를 만드는 동안 바뀌었는지 확인용)
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public VisualizationTeamTreeCache(UserRepository userRepository,
+                                      @Value("${visualization.team-tree.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public List<TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>> get(
+            String teamId, Supplier<List<TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>>> loader) {
+        CachedTree cached = trees.get(teamId);
+        if (cached != null && cached.expiresAtMillis > System.currentTimeMillis()) {
+            return cached.tree;
+        }
+
+        AtomicLong generation = generationOf(teamId);
+        long before = generation.get();
+        CachedTree built = new CachedTree(loader.get(), System.currentTimeMillis() + ttlMillis);
+        trees.put(teamId, built);
+        // 만드는 동안 비워졌다면 이전 내용일 수 있으므로 남기지 않는다. (이번 요청에는 그대로 반환)
+        if (generation.get() != before) {
+            trees.remove(teamId, built);
+        }
+        return built.tree;
+    }
+
+    /**
+     * 사용자(프로젝트 소유자)가 속한 팀의 트리를 비운다. (트랜잭션 안이면 커밋 이후)
+     */
+    public void evictUser(String userId) {
+        afterCommit(() -> userRepository.findTeamIdById(userId).ifPresent(this::evictTeam));
+    }
+
+    public void evictTeam(String teamId) {
+        generationOf(teamId).incrementAndGet();
+        trees.remove(teamId);
+        log.debug("🧹 팀 프로젝트 트리 캐시 비움 | team: {}", teamId);
+    }
+
+    private AtomicLong generationOf(String teamId) {
+        return generations.computeIfAbsent(teamId, id -> new AtomicLong());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record CachedTree(List<TreeFolderNodeDto<SimpleVisualizationProjectResponseDto>> tree, long expiresAtMillis) {
+    }
+}
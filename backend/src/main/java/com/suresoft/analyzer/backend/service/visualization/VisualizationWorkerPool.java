@@ -0,0 +1,431 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.suresoft.analyzer.backend.dto.visualization.response.VisualizationWorkerDto;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.mqtt.EMqttMessageClass;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 계속 떠 있는 visualization-task 워커 컨테이너 풀 (size > 0 일 때만 사용)
+ * - 워커는 파이썬 / rerun / boto3 를 미리 띄워 두고 visualization/worker/{workerId}/job 으로 작업을 받는다.
+ * - 워커는 visualization/backend/worker/{workerId}/heartbeat 로 주기적으로 상태를, .../done 으로 작업 결과를 보낸다.
+ * - 첫 heartbeat 를 받은 워커만 작업을 받는다. (구독이 끝난 뒤에 작업을 보내기 위함)
+ * - 프로세스가 종료되었거나 heartbeat 가 끊긴 워커는 맡은 작업을 실패 처리하고 다시 띄운다.
+ * - 워커는 작업을 받으면 .../accepted 로 응답하고 heartbeat 에 처리 중인 job_id 를 싣는다.
+ *   작업 전달이 실패했거나, 작업을 맡긴 워커가 받지 못한 채(IDLE / 다른 작업) heartbeat 를 보내면 작업을 실패 처리한다.
+ * - 브로커는 누구나 구독할 수 있으므로 작업 메시지에 버킷 자격 증명을 싣지 않는다.
+ *   작업마다 일회용 token 을 보내고, 워커가 백엔드 API (exchangeCredential) 로 자격 증명을 받아 간다.
+ */
+@Slf4j
+@Service
+public class VisualizationWorkerPool {
+
+    private static final String WORKER_NAME_PREFIX = "visualization-worker-";
+
+    private final VisualizationContainerLauncher visualizationContainerLauncher;
+    private final MqttPublisher mqttPublisher;
+
+    private final int size;
+    private final double workerCpus;
+    private final long workerMemoryMb;
+    private final long heartbeatTimeoutMillis;
+    private final long credentialTokenTtlMillis;
+    private final long jobAckTimeoutMillis;
+    private final long jobTimeoutMinutes;
+    private final SecureRandom random = new SecureRandom();
+
+    // key : worker id (재시작되면 새 Worker 로 교체)
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+    // 작업을 받을 수 있는 워커
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    // key : job id, value : 워커가 아직 받아 가지 않은 자격 증명
+    private final Map<String, IssuedCredential> credentials = new ConcurrentHashMap<>();
+    // 워커를 기다리는 동안 취소된 작업
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean shuttingDown;
+
+    public VisualizationWorkerPool(VisualizationContainerLauncher visualizationContainerLauncher,
+                                   MqttPublisher mqttPublisher,
+                                   @Value("${visualization.worker-pool.size:0}") int size,
+                                   @Value("${visualization.worker-pool.worker-cpus:4}") double workerCpus,
+                                   @Value("${visualization.worker-pool.worker-memory-mb:8192}") long workerMemoryMb,
+                                   @Value("${visualization.worker-pool.heartbeat-timeout-ms:30000}") long heartbeatTimeoutMillis,
+                                   @Value("${visualization.worker-pool.credential-token-ttl-ms:300000}") long credentialTokenTtlMillis,
+                                   @Value("${visualization.worker-pool.job-ack-timeout-ms:15000}") long jobAckTimeoutMillis,
+                                   @Value("${visualization.worker-pool.job-timeout-minutes:360}") long jobTimeoutMinutes) {
+        this.visualizationContainerLauncher = visualizationContainerLauncher;
+        this.mqttPublisher = mqttPublisher;
+        this.size = Math.max(0, size);
+        this.workerCpus = workerCpus;
+        this.workerMemoryMb = workerMemoryMb;
+        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+        this.credentialTokenTtlMillis = credentialTokenTtlMillis;
+        this.jobAckTimeoutMillis = jobAckTimeoutMillis;
+        this.jobTimeoutMinutes = jobTimeoutMinutes;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        for (int i = 1; i <= size; i++) {
+            startWorker(WORKER_NAME_PREFIX + i);
+        }
+        if (isEnabled()) {
+            log.info("👷 시각화 워커 풀 시작 | size: {} | cpus: {} | memory: {}MB", size, workerCpus, workerMemoryMb);
+        }
+    }
+
+    private void startWorker(String workerId) {
+        // 이전 실행에서 남은 같은 이름의 컨테이너 정리
+        visualizationContainerLauncher.removeContainer(workerId);
+
+        Worker worker = new Worker(workerId);
+        Worker previous = workers.put(workerId, worker);
+        if (previous != null) {
+            worker.restarts = previous.restarts + 1;
+        }
+        try {
+            Process process = visualizationContainerLauncher.launchWorker(workerId, workerCpus, workerMemoryMb);
+            worker.process = process;
+            process.onExit().thenRun(() -> onWorkerExit(worker));
+        } catch (IOException e) {
+            log.error("❌ 시각화 워커 실행 실패 | {} | {}", workerId, e.getMessage());
+            worker.state = WorkerState.DEAD;
+        }
+    }
+
+    /**
+     * 작업을 워커에 맡기고 끝날 때까지 대기 (작업 실패 / 워커 중단 / 시간 초과 시 예외)
+     */
+    public void execute(String jobId, String userId, String projectId,
+                        VisualizationContainerLauncher.LaunchPayload payload) throws InterruptedException {
+        Worker worker = acquire();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        worker.result = result;
+        worker.acknowledged = false;
+        worker.jobSentAtMillis = System.currentTimeMillis();
+        worker.jobId = jobId;
+        worker.state = WorkerState.BUSY;
+        // jobId 를 기록한 뒤에 확인해야 cancel 과 엇갈려도 놓치지 않는다.
+        if (cancelled.remove(jobId)) {
+            worker.jobId = null;
+            worker.result = null;
+            worker.state = WorkerState.IDLE;
+            idle.offer(worker);
+            throw new CancellationException("작업이 취소되었습니다.");
+        }
+
+        Map<String, Object> job = new HashMap<>();
+        job.put("job_id", jobId);
+        job.put("user_id", userId);
+        job.put("project_id", projectId);
+        job.put("blueprints", payload.blueprintsBase64());
+        job.put("credential_token", issueCredential(jobId, worker.id, payload.credentialBase64()));
+        job.put("team_id", payload.teamId());
+        job.put("resume", payload.resumeBase64());
+        mqttPublisher.publish(String.format("visualization/worker/%s/job", worker.id), job, EMqttMessageClass.COMMAND)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("⚠️ 시각화 작업 전달 실패 | job: {} | worker: {} | {}", jobId, worker.id, error.getMessage());
+                        finishJob(worker, jobId, new IllegalStateException("워커에 작업을 전달하지 못했습니다.", error));
+                    }
+                });
+        log.info("📦 시각화 작업 전달 | job: {} | worker: {}", jobId, worker.id);
+
+        try {
+            result.get(jobTimeoutMinutes, TimeUnit.MINUTES);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            // 워커 상태를 알 수 없으므로 다시 띄운다. (checkWorkers)
+            log.warn("⏰ 시각화 워커 작업 시간 초과 | job: {} | worker: {} | {}분", jobId, worker.id, jobTimeoutMinutes);
+            markDead(worker, "작업 시간 초과");
+            throw new IllegalStateException("작업 시간 초과 (" + jobTimeoutMinutes + "분)");
+        } finally {
+            cancelled.remove(jobId);
+            credentials.remove(jobId);
+        }
+    }
+
+    private String issueCredential(String jobId, String workerId, String credentialBase64) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        credentials.put(jobId, new IssuedCredential(workerId, token, credentialBase64,
+                System.currentTimeMillis() + credentialTokenTtlMillis));
+        return token;
+    }
+
+    /**
+     * 작업 메시지의 일회용 token 을 자격 증명(Base64 JSON)으로 교환 - 작업을 맡은 워커만, 한 번만, 만료 전에만 받을 수 있다.
+     */
+    public String exchangeCredential(String workerId, String jobId, String token) {
+        IssuedCredential issued = jobId != null ? credentials.get(jobId) : null;
+        if (issued == null || token == null || !issued.workerId().equals(workerId)
+                || !MessageDigest.isEqual(issued.token().getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("⚠️ 워커 자격 증명 요청 거부 | worker: {} | job: {}", workerId, jobId);
+            throw new ApiException(ErrorCode.FORBIDDEN, "유효하지 않은 작업 token 입니다.");
+        }
+        if (!credentials.remove(jobId, issued) || issued.expiresAtMillis() < System.currentTimeMillis()) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "만료되었거나 이미 사용된 작업 token 입니다.");
+        }
+        return issued.credentialBase64();
+    }
+
+    /**
+     * 작업 취소 - 처리 중인 워커에는 visualization/worker/{workerId}/cancel 을 보내 그 작업만 중단시킨다. (워커는 계속 대기)
+     * graceSeconds 안에 작업이 끝나지 않으면 그때 워커 컨테이너를 중지한다. (checkWorkers 가 다시 띄운다)
+     * 아직 워커를 기다리는 작업이면 워커를 받는 즉시 취소된다.
+     */
+    public void cancel(String jobId, long graceSeconds) {
+        cancelled.add(jobId);
+        // 표시한 뒤에 찾아야 execute 가 표시를 확인한 직후 워커를 받은 경우도 놓치지 않는다.
+        // 표시를 먼저 지운 쪽(execute / cancel)만 취소를 처리한다.
+        for (Worker worker : workers.values()) {
+            CompletableFuture<Void> result = worker.result;
+            if (jobId.equals(worker.jobId) && result != null && cancelled.remove(jobId)) {
+                log.info("🛑 시각화 워커 작업 취소 요청 | job: {} | worker: {}", jobId, worker.id);
+                mqttPublisher.publish(String.format("visualization/worker/%s/cancel", worker.id),
+                        Map.of("job_id", jobId), EMqttMessageClass.COMMAND);
+                // 호출한 쪽(스케줄러)을 막지 않도록 대기 / 강제 중지는 별도 스레드에서
+                CompletableFuture.delayedExecutor(graceSeconds, TimeUnit.SECONDS).execute(() -> {
+                    if (!result.isDone() && jobId.equals(worker.jobId)) {
+                        log.warn("⚠️ 시각화 워커가 취소에 응답하지 않음 - 워커 중지 | job: {} | worker: {}", jobId, worker.id);
+                        visualizationContainerLauncher.stopContainer(worker.id, 0);
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private Worker acquire() throws InterruptedException {
+        while (true) {
+            Worker worker = idle.take();
+            // 대기열에 있는 동안 죽었거나 재시작된 워커는 건너뛴다.
+            if (worker.state == WorkerState.IDLE && workers.get(worker.id) == worker) {
+                return worker;
+            }
+        }
+    }
+
+    /**
+     * VisualizationMqttSubscriber 에서 visualization/backend/worker/{workerId}/{event} 메시지 전달
+     */
+    public void onWorkerMessage(String workerId, String event, JsonNode json) {
+        Worker worker = workers.get(workerId);
+        if (worker == null || worker.state == WorkerState.DEAD) {
+            return;
+        }
+        worker.lastHeartbeatMillis = System.currentTimeMillis();
+
+        switch (event) {
+            case "heartbeat":
+                if (worker.state == WorkerState.STARTING) {
+                    worker.state = WorkerState.IDLE;
+                    idle.offer(worker);
+                    log.info("✅ 시각화 워커 준비 완료 | {}", workerId);
+                } else if (worker.state == WorkerState.BUSY) {
+                    checkAssignedJob(worker, json.path("job_id").asText(null));
+                }
+                break;
+            case "accepted":
+                String acceptedJobId = json.path("job_id").asText(null);
+                if (acceptedJobId != null && acceptedJobId.equals(worker.jobId)) {
+                    worker.acknowledged = true;
+                }
+                break;
+            case "done":
+                String jobId = json.path("job_id").asText(null);
+                if (jobId == null) {
+                    return;
+                }
+                // 이전 작업 / 이전 실행의 결과는 finishJob 에서 무시된다.
+                finishJob(worker, jobId, json.path("success").asBoolean(false)
+                        ? null
+                        : new IllegalStateException(json.path("error").asText("워커 작업 실패")));
+                break;
+            default:
+                log.warn("⚠️ 알 수 없는 워커 이벤트: {} | {}", workerId, event);
+        }
+    }
+
+    /**
+     * 작업을 맡긴 워커의 heartbeat 가 다른 job_id(IDLE 이면 null) 를 보고하면 작업이 유실된 것으로 보고 실패 처리한다.
+     * 작업 메시지가 도착하기 전에 보낸 heartbeat 일 수 있으므로 응답(accepted)을 받았거나 응답 대기 시간이 지난 뒤에만 판단한다.
+     */
+    private void checkAssignedJob(Worker worker, String reportedJobId) {
+        String jobId = worker.jobId;
+        if (jobId == null || jobId.equals(reportedJobId)) {
+            if (jobId != null) {
+                worker.acknowledged = true;
+            }
+            return;
+        }
+        if (!worker.acknowledged && System.currentTimeMillis() - worker.jobSentAtMillis < jobAckTimeoutMillis) {
+            return;
+        }
+        if (reportedJobId == null) {
+            log.warn("⚠️ 시각화 워커가 작업 없이 대기 중 - 작업 유실 | job: {} | worker: {}", jobId, worker.id);
+            finishJob(worker, jobId, new IllegalStateException("워커가 작업을 받지 못했습니다."));
+        } else {
+            log.warn("⚠️ 시각화 워커가 다른 작업 처리 중 | job: {} | worker: {} | reported: {}", jobId, worker.id, reportedJobId);
+            markDead(worker, "워커가 다른 작업을 처리 중입니다.");
+        }
+    }
+
+    /**
+     * 워커가 맡은 작업을 끝내고 워커를 다시 대기열에 넣는다. (error 가 null 이면 성공)
+     * 결과 / heartbeat / 전달 실패가 엇갈려도 한 번만 처리되도록 워커 단위로 동기화한다.
+     */
+    private void finishJob(Worker worker, String jobId, Throwable error) {
+        CompletableFuture<Void> result;
+        synchronized (worker) {
+            if (!jobId.equals(worker.jobId) || worker.state != WorkerState.BUSY) {
+                return;
+            }
+            result = worker.result;
+            worker.jobId = null;
+            worker.result = null;
+            worker.acknowledged = false;
+            worker.state = WorkerState.IDLE;
+        }
+        idle.offer(worker);
+        if (error == null) {
+            result.complete(null);
+        } else {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 종료된 워커와 heartbeat 가 끊긴 워커를 다시 띄운다.
+     * 작업을 전달한 뒤 응답 대기 시간 안에 accepted / heartbeat 로 확인되지 않은 워커도 상태를 알 수 없으므로 다시 띄운다.
+     */
+    @Scheduled(fixedDelayString = "${visualization.worker-pool.check-interval-ms:10000}")
+    public void checkWorkers() {
+        if (!isEnabled() || shuttingDown) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Worker worker : new ArrayList<>(workers.values())) {
+            if (worker.state != WorkerState.DEAD && now - worker.lastHeartbeatMillis > heartbeatTimeoutMillis) {
+                log.warn("⚠️ 시각화 워커 응답 없음 | {} | 마지막 heartbeat {}ms 전", worker.id, now - worker.lastHeartbeatMillis);
+                markDead(worker, "워커 응답 없음");
+            } else if (worker.state == WorkerState.BUSY && !worker.acknowledged
+                    && now - worker.jobSentAtMillis > jobAckTimeoutMillis * 2) {
+                log.warn("⚠️ 시각화 워커 작업 수신 확인 없음 | job: {} | worker: {}", worker.jobId, worker.id);
+                markDead(worker, "워커가 작업 수신을 확인하지 않았습니다.");
+            }
+            if (worker.state == WorkerState.DEAD) {
+                log.info("🔁 시각화 워커 재시작 | {} | restarts: {}", worker.id, worker.restarts + 1);
+                startWorker(worker.id);
+            }
+        }
+    }
+
+    private void onWorkerExit(Worker worker) {
+        if (worker.state != WorkerState.DEAD) {
+            log.warn("⚠️ 시각화 워커 종료 | {}", worker.id);
+            markDead(worker, "워커가 종료되었습니다.");
+        }
+    }
+
+    private void markDead(Worker worker, String reason) {
+        CompletableFuture<Void> result;
+        synchronized (worker) {
+            worker.state = WorkerState.DEAD;
+            result = worker.result;
+        }
+        idle.remove(worker);
+        if (result != null) {
+            result.completeExceptionally(new IllegalStateException(reason));
+        }
+        Process process = worker.process;
+        if (process != null && process.isAlive()) {
+            process.destroy();
+        }
+    }
+
+    public List<VisualizationWorkerDto> getWorkers() {
+        long now = System.currentTimeMillis();
+        return workers.values().stream()
+                .map(worker -> new VisualizationWorkerDto(
+                        worker.id,
+                        worker.state.name(),
+                        worker.jobId,
+                        now - worker.lastHeartbeatMillis,
+                        worker.restarts))
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        for (Worker worker : workers.values()) {
+            markDead(worker, "서버 종료");
+            visualizationContainerLauncher.removeContainer(worker.id);
+        }
+    }
+
+    private record IssuedCredential(String workerId, String token, String credentialBase64, long expiresAtMillis) {
+    }
+
+    private enum WorkerState {
+        STARTING, IDLE, BUSY, DEAD
+    }
+
+    private static final class Worker {
+        private final String id;
+        private volatile WorkerState state = WorkerState.STARTING;
+        // 실행 직후에는 시작 시각을 기준으로 응답 여부를 판단
+        private volatile long lastHeartbeatMillis = System.currentTimeMillis();
+        private volatile Process process;
+        private volatile String jobId;
+        private volatile CompletableFuture<Void> result;
+        // 작업 전달 시각 / 워커가 작업 수신을 확인했는지
+        private volatile long jobSentAtMillis;
+        private volatile boolean acknowledged;
+        private int restarts;
+
+        private Worker(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.suresoft.analyzer.backend.dto.storage.BucketUsageDto;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketIndexStateEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketObjectEntity;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import com.suresoft.analyzer.backend.repository.storage.BucketIndexStateRepository;
+import com.suresoft.analyzer.backend.repository.storage.BucketObjectRepository;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.storage.UploadFileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BucketObjectIndexServiceTest {
+
+    private static final int MAX_RANGE_ROWS = 5;
+
+    private BucketObjectRepository bucketObjectRepository;
+    private BucketIndexStateRepository bucketIndexStateRepository;
+    private S3ClientRegistry s3ClientRegistry;
+    private BucketUsageService bucketUsageService;
+    private BucketObjectIndexService service;
+    private BucketEntity bucket;
+
+    @BeforeEach
+    void setUp() {
+        bucket = new BucketEntity();
+        bucket.setId("bucket1");
+        bucket.setName("bucket");
+        BucketRepository bucketRepository = mock(BucketRepository.class);
+        when(bucketRepository.findByName("bucket")).thenReturn(Optional.of(bucket));
+
+        bucketObjectRepository = mock(BucketObjectRepository.class);
+        bucketIndexStateRepository = mock(BucketIndexStateRepository.class);
+        when(bucketIndexStateRepository.save(any(BucketIndexStateEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        s3ClientRegistry = mock(S3ClientRegistry.class);
+        bucketUsageService = mock(BucketUsageService.class);
+
+        service = new BucketObjectIndexService(bucketRepository, bucketObjectRepository, bucketIndexStateRepository,
+                mock(UploadFileRepository.class), s3ClientRegistry, bucketUsageService, mock(S3ParallelLister.class),
+                mock(JdbcTemplate.class), mock(PlatformTransactionManager.class), new ObjectMapper(), MAX_RANGE_ROWS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void unindexedBucketStartsOneBackgroundSyncAndAnswersIndexing() {
+        when(bucketIndexStateRepository.findByBucketId("bucket1")).thenReturn(Optional.empty());
+        // 동기화가 끝나지 않은 상태를 유지
+        CountDownLatch release = new CountDownLatch(1);
+        when(s3ClientRegistry.getClient(bucket)).thenAnswer(invocation -> {
+            release.await();
+            throw new IllegalStateException("stop");
+        });
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> service.getFolderTree("bucket", null))
+                        .isInstanceOf(ApiException.class)
+                        .extracting(e -> ((ApiException) e).getErrorCode())
+                        .isEqualTo(ErrorCode.BUCKET_INDEXING);
+            }
+
+            // 요청 스레드에서는 S3 를 조회하지 않고 한 번만 백그라운드로 동기화한다.
+            verify(s3ClientRegistry, timeout(5_000)).getClient(bucket);
+            verify(bucketObjectRepository, never()).findChildrenOf(anyString(), anyBoolean(), anyString(), any());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void emptyPrefixReadsTopLevelOnlyAndRangesAreBounded() {
+        markIndexed();
+
+        service.getFolderTree("bucket", null);
+        service.getFilesUnderFolder("bucket", "logs/2024/");
+
+        verify(bucketObjectRepository).findChildrenOf("bucket1", true, "", PageRequest.of(0, MAX_RANGE_ROWS));
+        verify(bucketObjectRepository).findInRange("bucket1", false, "logs/2024/", "logs/20240", PageRequest.of(0, MAX_RANGE_ROWS));
+        // 첫 조회가 maxRangeRows 보다 적으면 이어서 조회하지 않는다.
+        verify(bucketObjectRepository, never()).findInRangeAfter(anyString(), anyBoolean(), anyString(), anyString(), any());
+        verify(s3ClientRegistry, never()).getClient(any(BucketEntity.class));
+    }
+
+    @Test
+    void rangeReadsContinueAfterLastKeyInsteadOfTruncating() {
+        markIndexed();
+        PageRequest limit = PageRequest.of(0, MAX_RANGE_ROWS);
+        when(bucketObjectRepository.findInRange("bucket1", false, "logs/", "logs0", limit))
+                .thenReturn(files("logs/1", "logs/2", "logs/3", "logs/4", "logs/5"));
+        when(bucketObjectRepository.findInRangeAfter("bucket1", false, "logs/5", "logs0", limit))
+                .thenReturn(files("logs/6", "logs/7", "logs/8", "logs/9", "logs/a"));
+        when(bucketObjectRepository.findInRangeAfter("bucket1", false, "logs/a", "logs0", limit))
+                .thenReturn(files("logs/b"));
+
+        List<Map<String, Object>> result = service.getFilesUnderFolder("bucket", "logs/");
+
+        assertThat(result).extracting(file -> file.get("filePath")).containsExactly(
+                "logs/1", "logs/2", "logs/3", "logs/4", "logs/5", "logs/6", "logs/7", "logs/8", "logs/9", "logs/a", "logs/b");
+    }
+
+    @Test
+    void emptyPrefixObjectsIncludeTopLevelFolders() {
+        markIndexed();
+        when(bucketUsageService.getBucketUsage(any(BucketIndexStateEntity.class))).thenReturn(new BucketUsageDto(null, 1, 1, LocalDateTime.now(), false));
+        PageRequest limit = PageRequest.of(0, MAX_RANGE_ROWS);
+        when(bucketObjectRepository.findChildrenOf("bucket1", true, "", limit)).thenReturn(List.of(folder("logs/")));
+        when(bucketObjectRepository.findChildrenOf("bucket1", false, "", limit)).thenReturn(files("readme.txt"));
+
+        ObjectNode files = (ObjectNode) service.getBucketObjects("bucket", null).get("files");
+
+        assertThat(files.get("readme.txt").get("type").asText()).isEqualTo("File");
+        assertThat(files.get("logs").get("type").asText()).isEqualTo("Folder");
+        assertThat(files.get("logs").get("filePath").asText()).isEqualTo("logs/");
+    }
+
+    @Test
+    void prefixUpperBoundIsSmallestKeyAfterPrefix() {
+        assertThat(BucketObjectIndexService.prefixUpperBound("a/")).isEqualTo("a0");
+        assertThat(BucketObjectIndexService.prefixUpperBound("a/b")).isEqualTo("a/c");
+        // 보조 문자는 코드포인트 단위로 올린다.
+        assertThat(BucketObjectIndexService.prefixUpperBound("a/😀")).isEqualTo("a/😁");
+    }
+
+    @Test
+    void keyHelpersSplitParentsAndNames() {
+        assertThat(BucketObjectIndexService.parentPrefixOf("a/b/c.txt")).isEqualTo("a/b/");
+        assertThat(BucketObjectIndexService.parentPrefixOf("a/b/")).isEqualTo("a/");
+        assertThat(BucketObjectIndexService.parentPrefixOf("c.txt")).isEmpty();
+        assertThat(BucketObjectIndexService.nameOf("a/b/")).isEqualTo("b");
+        assertThat(BucketObjectIndexService.nameOf("a/b/c.txt")).isEqualTo("c.txt");
+        assertThat(BucketObjectIndexService.depthOf("a/b/")).isEqualTo(2);
+        assertThat(BucketObjectIndexService.foldersOf("a/b/c.txt")).isEqualTo(List.of("a/", "a/b/"));
+    }
+
+    private void markIndexed() {
+        BucketIndexStateEntity state = new BucketIndexStateEntity(bucket);
+        state.setLastSyncedAt(LocalDateTime.now());
+        when(bucketIndexStateRepository.findByBucketId("bucket1")).thenReturn(Optional.of(state));
+    }
+
+    private List<BucketObjectEntity> files(String... keys) {
+        List<BucketObjectEntity> files = new ArrayList<>();
+        for (String key : keys) {
+            BucketObjectEntity file = new BucketObjectEntity();
+            file.setObjectKey(key);
+            file.setName(BucketObjectIndexService.nameOf(key));
+            file.setSize(1);
+            file.setLastModified(Instant.EPOCH);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private BucketObjectEntity folder(String key) {
+        BucketObjectEntity folder = new BucketObjectEntity();
+        folder.setObjectKey(key);
+        folder.setName(BucketObjectIndexService.nameOf(key));
+        folder.setFolder(true);
+        return folder;
+    }
+}
@@ -0,0 +1,70 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3ObjectTreeStreamWriterTest {
+
+    // 필드 이름이 중복되면 읽기에 실패하도록
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
+    @Test
+    void folderWithSameNameAsFileGetsDistinctField() throws Exception {
+        JsonNode files = write(List.of("a/b", "a/b.txt", "a/b/c", "d", "d/"));
+
+        JsonNode a = files.get("a");
+        assertThat(a.get("b").get("type").asText()).isEqualTo("File");
+        assertThat(a.get("b.txt").get("type").asText()).isEqualTo("File");
+        assertThat(a.get("b/").get("c").get("filePath").asText()).isEqualTo("a/b/c");
+        // 하위가 없는 폴더 표시도 같은 이름의 파일과 구분된다.
+        assertThat(files.get("d").get("type").asText()).isEqualTo("File");
+        assertThat(files.get("d/").get("type").asText()).isEqualTo("Folder");
+        assertThat(files.get("d/").get("filePath").asText()).isEqualTo("d/");
+    }
+
+    @Test
+    void emptySegmentsAreWrittenAsSlash() throws Exception {
+        JsonNode files = write(List.of("/x", "a//b", "a/c"));
+
+        assertThat(files.get("/").get("x").get("filePath").asText()).isEqualTo("/x");
+        assertThat(files.get("a").get("/").get("b").get("filePath").asText()).isEqualTo("a//b");
+        assertThat(files.get("a").get("c").get("filePath").asText()).isEqualTo("a/c");
+        assertThat(files.has("")).isFalse();
+    }
+
+    @Test
+    void folderMarkerWithChildrenIsWrittenOnce() throws Exception {
+        JsonNode files = write(List.of("a/", "a/b", "e/"));
+
+        assertThat(files.get("a").get("b").get("type").asText()).isEqualTo("File");
+        assertThat(files.get("a").has("type")).isFalse();
+        assertThat(files.get("e").get("type").asText()).isEqualTo("Folder");
+    }
+
+    /**
+     * 키 끝이 '/' 이면 크기 0 (폴더 표시), 아니면 크기 1 인 객체로 기록
+     */
+    private JsonNode write(List<String> keys) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            S3ObjectTreeStreamWriter writer = new S3ObjectTreeStreamWriter(generator);
+            for (String key : keys) {
+                writer.add(key, key.endsWith("/") ? 0 : 1, "owner", Instant.EPOCH);
+            }
+            writer.finish();
+            generator.writeEndObject();
+        }
+        return objectMapper.readTree(json.toString());
+    }
+}
@@ -0,0 +1,272 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Publisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class S3ParallelListerTest {
+
+    private FakeS3AsyncClient client;
+    private S3ClientRegistry registry;
+    private BucketEntity bucket;
+
+    @BeforeEach
+    void setUp() {
+        client = new FakeS3AsyncClient(2);
+        bucket = new BucketEntity();
+        bucket.setName("bucket");
+        registry = mock(S3ClientRegistry.class);
+        when(registry.getAsyncClient(bucket)).thenReturn(client);
+    }
+
+    @Test
+    void mergesSegmentsInKeyOrder() {
+        List<String> keys = List.of(
+                "a.txt",
+                "b/1", "b/2", "b/3", "b/4", "b/5",
+                "c.txt", "d.txt",
+                "e/1", "e/2", "e/3", "e/4", "e/5", "e/6", "e/7",
+                "f/x",
+                "g.txt");
+        client.put(keys);
+        List<List<String>> pages = new ArrayList<>();
+
+        int count = new S3ParallelLister(registry, 2, 10, 1).list(bucket, null, false, page -> pages.add(keysOf(page)));
+
+        assertThat(count).isEqualTo(pages.size());
+        assertThat(pages).allSatisfy(page -> assertThat(page).isNotEmpty());
+        assertThat(pages.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(keys);
+        // prefix 사이의 바로 아래 객체들은 한 페이지로 합쳐진다.
+        assertThat(pages).contains(List.of("c.txt", "d.txt"));
+        // 각 prefix 는 하위 키 전체를 delimiter 없이 조회한다.
+        assertThat(client.prefixesListed()).contains("b/", "e/", "f/");
+    }
+
+    @Test
+    void descendsIntoSinglePrefix() {
+        List<String> keys = List.of("data/s1/1", "data/s1/2", "data/s1/3", "data/s2/1", "data/s3/1", "data/s3/2");
+        client.put(keys);
+        List<String> listed = new ArrayList<>();
+
+        new S3ParallelLister(registry, 4, 10, 2).list(bucket, null, false, page -> listed.addAll(keysOf(page)));
+
+        assertThat(listed).containsExactlyElementsOf(keys);
+        // 루트에는 data/ 하나뿐이므로 data/ 아래 세션 폴더 단위로 나눈다.
+        assertThat(client.delimiterPrefixesListed()).containsExactly("", "data/");
+        assertThat(client.prefixesListed()).containsExactlyInAnyOrder("data/s1/", "data/s2/", "data/s3/");
+    }
+
+    @Test
+    void limitsPagesFetchedAheadOfConsumer() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add(String.format("a/%02d", i));
+            keys.add(String.format("b/%02d", i));
+        }
+        Collections.sort(keys);
+        client.put(keys);
+        int bufferedPages = 2;
+        AtomicInteger fetchedAheadOfB = new AtomicInteger(-1);
+
+        new S3ParallelLister(registry, 2, 10, bufferedPages).list(bucket, null, false, page -> {
+            if (fetchedAheadOfB.get() < 0) {
+                // 앞 prefix 를 처리하는 동안 뒤 prefix 는 요청한 페이지 수까지만 가져온다.
+                sleep(300);
+                fetchedAheadOfB.set(client.pagesFetched("b/"));
+            }
+        });
+
+        assertThat(fetchedAheadOfB.get()).isBetween(1, bufferedPages);
+        assertThat(client.pagesFetched("b/")).isEqualTo(10);
+    }
+
+    @Test
+    void ordersKeysByUtf8Bytes() {
+        // UTF-16 순서로는 보조 문자(😀, U+1F600)가 U+FF21 보다 앞이지만 S3 (UTF-8) 순서로는 뒤
+        List<String> keys = List.of("\uFF21.txt", "\uFF21/1", "\uFF21/2", "😀.txt", "😀/1", "😀/2");
+        client.put(keys);
+        List<String> listed = new ArrayList<>();
+
+        new S3ParallelLister(registry, 2, 10, 1).list(bucket, null, false, page -> listed.addAll(keysOf(page)));
+
+        assertThat(listed).containsExactlyElementsOf(keys);
+        assertThat(S3ParallelLister.compareUtf8("\uFF21", "😀")).isNegative();
+        assertThat("\uFF21".compareTo("😀")).isPositive();
+    }
+
+    @Test
+    void streamsTopLevelObjectsPageByPage() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            keys.add(String.format("f%02d.txt", i));
+        }
+        keys.add("z/1");
+        client.put(keys);
+        AtomicInteger delimiterPagesAtFirstPage = new AtomicInteger(-1);
+        List<String> listed = new ArrayList<>();
+
+        new S3ParallelLister(registry, 2, 10, 1).list(bucket, null, false, page -> {
+            delimiterPagesAtFirstPage.compareAndSet(-1, client.delimiterPagesFetched());
+            listed.addAll(keysOf(page));
+        });
+
+        assertThat(listed).containsExactlyElementsOf(keys);
+        // 최상위 객체 전체를 읽기 전에 첫 페이지를 전달한다.
+        assertThat(delimiterPagesAtFirstPage.get()).isBetween(1, 3);
+        assertThat(client.delimiterPagesFetched()).isEqualTo(11);
+    }
+
+    @Test
+    void propagatesSegmentFailure() {
+        client.put(List.of("a/1", "b/1", "b/2", "c/1"));
+        client.failOn("b/");
+        List<String> listed = new ArrayList<>();
+
+        assertThatThrownBy(() -> new S3ParallelLister(registry, 4, 10, 2)
+                .list(bucket, null, false, page -> listed.addAll(keysOf(page))))
+                .isInstanceOf(NoSuchBucketException.class);
+        assertThat(listed).containsExactly("a/1");
+    }
+
+    private static List<String> keysOf(List<S3Object> page) {
+        return page.stream().map(S3Object::key).toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 메모리의 키 목록으로 ListObjectsV2 (prefix / delimiter / continuation token) 를 흉내 내는 클라이언트
+     */
+    private static final class FakeS3AsyncClient implements S3AsyncClient {
+        private final int pageSize;
+        private final TreeSet<String> keys = new TreeSet<>(S3ParallelLister.UTF8_ORDER);
+        private final List<String> prefixes = new CopyOnWriteArrayList<>();
+        private final List<String> delimiterPrefixes = new CopyOnWriteArrayList<>();
+        private final Map<String, AtomicInteger> fetched = new ConcurrentHashMap<>();
+        private final AtomicInteger delimiterPages = new AtomicInteger();
+        private volatile String failingPrefix;
+
+        private FakeS3AsyncClient(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        void put(List<String> newKeys) {
+            keys.addAll(newKeys);
+        }
+
+        void failOn(String prefix) {
+            failingPrefix = prefix;
+        }
+
+        List<String> prefixesListed() {
+            return prefixes;
+        }
+
+        List<String> delimiterPrefixesListed() {
+            return delimiterPrefixes;
+        }
+
+        int delimiterPagesFetched() {
+            return delimiterPages.get();
+        }
+
+        int pagesFetched(String prefix) {
+            return fetched.getOrDefault(prefix, new AtomicInteger()).get();
+        }
+
+        @Override
+        public CompletableFuture<ListObjectsV2Response> listObjectsV2(ListObjectsV2Request request) {
+            String prefix = request.prefix() == null ? "" : request.prefix();
+            String delimiter = request.delimiter();
+            if (request.continuationToken() == null) {
+                (delimiter == null ? prefixes : delimiterPrefixes).add(prefix);
+            }
+            if (delimiter == null) {
+                fetched.computeIfAbsent(prefix, key -> new AtomicInteger()).incrementAndGet();
+            } else {
+                delimiterPages.incrementAndGet();
+            }
+            if (prefix.equals(failingPrefix)) {
+                return CompletableFuture.failedFuture(NoSuchBucketException.builder().message("no such bucket").build());
+            }
+            return CompletableFuture.supplyAsync(() -> page(prefix, delimiter, request.continuationToken()));
+        }
+
+        private ListObjectsV2Response page(String prefix, String delimiter, String token) {
+            List<S3Object> contents = new ArrayList<>();
+            List<CommonPrefix> commonPrefixes = new ArrayList<>();
+            String last = null;
+            boolean truncated = false;
+            for (String key : token == null ? keys : keys.tailSet(token, false)) {
+                if (!key.startsWith(prefix)) {
+                    continue;
+                }
+                // 이미 내보낸 common prefix 아래 키는 건너뛴다.
+                if (last != null && last.endsWith("/") && key.startsWith(last)
+                        || token != null && token.endsWith("/") && key.startsWith(token)) {
+                    continue;
+                }
+                if (contents.size() + commonPrefixes.size() == pageSize) {
+                    truncated = true;
+                    break;
+                }
+                int index = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+                if (index >= 0) {
+                    last = key.substring(0, index + 1);
+                    commonPrefixes.add(CommonPrefix.builder().prefix(last).build());
+                } else {
+                    last = key;
+                    contents.add(S3Object.builder().key(key).size(1L).build());
+                }
+            }
+            return ListObjectsV2Response.builder()
+                    .contents(contents)
+                    .commonPrefixes(commonPrefixes)
+                    .isTruncated(truncated)
+                    .nextContinuationToken(truncated ? last : null)
+                    .build();
+        }
+
+        @Override
+        public ListObjectsV2Publisher listObjectsV2Paginator(ListObjectsV2Request request) {
+            return new ListObjectsV2Publisher(this, request);
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import com.suresoft.analyzer.backend.dto.storage.EUploadFileSort;
+import com.suresoft.analyzer.backend.dto.storage.UploadFileCatalogPageDto;
+import com.suresoft.analyzer.backend.dto.storage.request.UploadFileFilterRequestDto;
+import com.suresoft.analyzer.backend.exception.ApiException;
+import com.suresoft.analyzer.backend.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadFileCatalogQueryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UploadFileCatalogQuery query;
+
+    // 조회 결과로 돌려줄 (id, name, created_at) 행
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        query = new UploadFileCatalogQuery(jdbcTemplate);
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(2);
+                    List<Object> mapped = new ArrayList<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        mapped.add(mapper.mapRow(resultSet(rows.get(i)), i));
+                    }
+                    return mapped;
+                });
+    }
+
+    @Test
+    void cursorRoundTripKeepsSeparatorInSortValue() {
+        String cursor = UploadFileCatalogQuery.encodeCursor("a|b|c.mf4", "id-1");
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(UploadFileCatalogQuery.decodeCursor(cursor)).containsExactly("a|b|c.mf4", "id-1");
+    }
+
+    @Test
+    void invalidCursorIsBadRequest() {
+        String withoutSeparator = Base64.getUrlEncoder().encodeToString("no-separator".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("%%%", withoutSeparator)) {
+            assertThatThrownBy(() -> UploadFileCatalogQuery.decodeCursor(cursor))
+                    .isInstanceOf(ApiException.class)
+                    .extracting(e -> ((ApiException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.BAD_REQUEST);
+        }
+    }
+
+    @Test
+    void escapeLikeEscapesWildcardsAndEscapeCharacter() {
+        assertThat(UploadFileCatalogQuery.escapeLike("50%_off\\x")).isEqualTo("50\\%\\_off\\\\x");
+        assertThat(UploadFileCatalogQuery.escapeLike("plain.mf4")).isEqualTo("plain.mf4");
+    }
+
+    @Test
+    void nameCursorSeeksAfterLastRowInAscendingOrder() throws Exception {
+        rows.add(new Object[]{"id-3", "c.mf4", LocalDateTime.of(2024, 1, 3, 0, 0)});
+        rows.add(new Object[]{"id-4", "d.mf4", LocalDateTime.of(2024, 1, 4, 0, 0)});
+        rows.add(new Object[]{"id-5", "e.mf4", LocalDateTime.of(2024, 1, 5, 0, 0)});
+
+        UploadFileFilterRequestDto filter = new UploadFileFilterRequestDto();
+        filter.setSort(EUploadFileSort.NAME);
+        filter.setKeyword(" 10%_ ");
+        filter.setCursor(UploadFileCatalogQuery.encodeCursor("b.mf4", "id-2"));
+        filter.setPageSize(2);
+
+        UploadFileCatalogPageDto page = query.findPage("user1", filter);
+
+        String sql = capturedSql();
+        assertThat(sql).contains("f.name ILIKE ?")
+                .contains("AND (f.name, f.id) > (?, ?)")
+                .endsWith("ORDER BY f.name ASC, f.id ASC LIMIT 3");
+        PreparedStatement ps = bind();
+        verify(ps).setObject(1, "user1");
+        verify(ps).setObject(2, "%10\\%\\_%");
+        verify(ps).setObject(3, "b.mf4");
+        verify(ps).setObject(4, "id-2");
+
+        // 한 행 더 읽어 다음 페이지 여부를 판단하고 커서는 페이지의 마지막 행 기준
+        assertThat(page.getFiles()).extracting("id").containsExactly("id-3", "id-4");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(UploadFileCatalogQuery.decodeCursor(page.getNextCursor())).containsExactly("d.mf4", "id-4");
+    }
+
+    @Test
+    void createdAtCursorSeeksBeforeLastRowByDefault() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        rows.add(new Object[]{"id-1", "a.mf4", createdAt.minusDays(1)});
+
+        UploadFileFilterRequestDto filter = new UploadFileFilterRequestDto();
+        filter.setCursor(UploadFileCatalogQuery.encodeCursor(createdAt.toString(), "id-9"));
+
+        UploadFileCatalogPageDto page = query.findPage("user1", filter);
+
+        assertThat(capturedSql()).contains("AND (f.created_at, f.id) < (?, ?)")
+                .endsWith("ORDER BY f.created_at DESC, f.id DESC LIMIT 101");
+        PreparedStatement ps = bind();
+        verify(ps).setObject(2, Timestamp.valueOf(createdAt));
+        verify(ps).setObject(3, "id-9");
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCreatedAtCursorIsBadRequest() {
+        UploadFileFilterRequestDto filter = new UploadFileFilterRequestDto();
+        filter.setCursor(UploadFileCatalogQuery.encodeCursor("not-a-date", "id-1"));
+
+        assertThatThrownBy(() -> query.findPage("user1", filter))
+                .isInstanceOf(ApiException.class)
+                .extracting(e -> ((ApiException) e).getErrorCode())
+                .isEqualTo(ErrorCode.BAD_REQUEST);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        return sql.getValue();
+    }
+
+    /**
+     * 조회에 넘긴 PreparedStatementSetter 를 mock PreparedStatement 에 적용
+     */
+    @SuppressWarnings("unchecked")
+    private PreparedStatement bind() throws Exception {
+        ArgumentCaptor<PreparedStatementSetter> setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate).query(anyString(), setter.capture(), any(RowMapper.class));
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps);
+        return ps;
+    }
+
+    private static ResultSet resultSet(Object[] row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("id")).thenReturn((String) row[0]);
+        when(rs.getString("name")).thenReturn((String) row[1]);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf((LocalDateTime) row[2]));
+        return rs;
+    }
+}
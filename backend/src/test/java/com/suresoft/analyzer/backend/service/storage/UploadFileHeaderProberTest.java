@@ -0,0 +1,146 @@
+package com.suresoft.analyzer.backend.service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadFileHeaderProberTest {
+
+    private static final long FIRST_SECONDS = 1_700_000_000L;
+    private static final long START_MICRO = FIRST_SECONDS * 1_000_000L;
+
+    @Test
+    void pcapLastRecordEndingAtEofGivesDuration() {
+        byte[] file = pcap(ByteOrder.LITTLE_ENDIAN, 0xa1b2c3d4,
+                packet(FIRST_SECONDS, 250_000, 10),
+                packet(FIRST_SECONDS + 1, 0, 20),
+                packet(FIRST_SECONDS + 3, 500_000, 6));
+
+        UploadFileHeaderProber.ProbeResult result = probe(file);
+
+        assertThat(result.format()).isEqualTo("PCAP");
+        assertThat(result.startMicro()).isEqualTo(START_MICRO + 250_000);
+        assertThat(result.durationMicro()).isEqualTo(3_250_000);
+    }
+
+    @Test
+    void pcapByteOrderAndNanosecondMagicAreHonoured() {
+        // 빅엔디언 파일은 magic 이 바이트 순서가 뒤집힌 값으로 읽힌다.
+        byte[] bigEndian = pcap(ByteOrder.BIG_ENDIAN, 0xa1b2c3d4,
+                packet(FIRST_SECONDS, 1, 4),
+                packet(FIRST_SECONDS + 2, 1, 4));
+        assertThat(probe(bigEndian).startMicro()).isEqualTo(START_MICRO + 1);
+        assertThat(probe(bigEndian).durationMicro()).isEqualTo(2_000_000);
+
+        byte[] nanos = pcap(ByteOrder.LITTLE_ENDIAN, 0xa1b23c4d,
+                packet(FIRST_SECONDS, 1_000, 4),
+                packet(FIRST_SECONDS, 9_000, 4));
+        assertThat(probe(nanos).startMicro()).isEqualTo(START_MICRO + 1);
+        assertThat(probe(nanos).durationMicro()).isEqualTo(8);
+    }
+
+    @Test
+    void pcapTruncatedLastRecordHasNoDuration() {
+        byte[] file = pcap(ByteOrder.LITTLE_ENDIAN, 0xa1b2c3d4,
+                packet(FIRST_SECONDS, 0, 10),
+                packet(FIRST_SECONDS + 1, 0, 10));
+        byte[] truncated = Arrays.copyOf(file, file.length - 4);
+
+        UploadFileHeaderProber.ProbeResult result = probe(truncated);
+
+        assertThat(result.format()).isEqualTo("PCAP");
+        assertThat(result.startMicro()).isEqualTo(START_MICRO);
+        assertThat(result.durationMicro()).isNull();
+    }
+
+    @Test
+    void pcapWithOnlyGlobalHeaderHasNoTimes() {
+        byte[] headerOnly = Arrays.copyOf(pcap(ByteOrder.LITTLE_ENDIAN, 0xa1b2c3d4), 24);
+
+        assertThat(probe(headerOnly)).isEqualTo(new UploadFileHeaderProber.ProbeResult("PCAP", null, null));
+    }
+
+    @Test
+    void shortFileIsUnsupportedWithoutReading() {
+        AtomicInteger reads = new AtomicInteger();
+        byte[] file = new byte[8];
+
+        UploadFileHeaderProber.ProbeResult result = new UploadFileHeaderProber((offset, length) -> {
+            reads.incrementAndGet();
+            return read(file, offset, length);
+        }, file.length).probe();
+
+        assertThat(result.format()).isNull();
+        assertThat(reads).hasValue(0);
+    }
+
+    @Test
+    void badMagicIsUnsupported() {
+        byte[] file = "this is not a recording, just some text".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(probe(file)).isEqualTo(new UploadFileHeaderProber.ProbeResult(null, null, null));
+    }
+
+    @Test
+    void mp4ReadsCreationTimeAndDurationFromMvhd() {
+        ByteBuffer mvhd = ByteBuffer.allocate(8 + 32).order(ByteOrder.BIG_ENDIAN);
+        mvhd.putInt(8 + 32).put("mvhd".getBytes(StandardCharsets.US_ASCII));
+        mvhd.putInt(0); // version 0 + flags
+        mvhd.putInt((int) (2082844800L + FIRST_SECONDS)); // creation_time (1904 기준)
+        mvhd.putInt(0); // modification_time
+        mvhd.putInt(1000); // timescale
+        mvhd.putInt(5_500); // duration
+
+        ByteBuffer file = ByteBuffer.allocate(16 + 8 + 40).order(ByteOrder.BIG_ENDIAN);
+        file.putInt(16).put("ftypisom".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+        file.putInt(8 + 40).put("moov".getBytes(StandardCharsets.US_ASCII)).put(mvhd.array());
+
+        assertThat(probe(file.array())).isEqualTo(new UploadFileHeaderProber.ProbeResult("MP4", START_MICRO, 5_500_000L));
+    }
+
+    @Test
+    void truncatedMp4WithoutMoovHasNoTimes() {
+        ByteBuffer file = ByteBuffer.allocate(16 + 8).order(ByteOrder.BIG_ENDIAN);
+        file.putInt(16).put("ftypisom".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+        // 파일 크기보다 큰 mdat (업로드가 중간에 끊긴 경우)
+        file.putInt(1_000_000).put("mdat".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(probe(file.array())).isEqualTo(new UploadFileHeaderProber.ProbeResult("MP4", null, null));
+    }
+
+    private static UploadFileHeaderProber.ProbeResult probe(byte[] file) {
+        return new UploadFileHeaderProber((offset, length) -> read(file, offset, length), file.length).probe();
+    }
+
+    private static byte[] read(byte[] file, long offset, int length) {
+        int from = (int) Math.min(offset, file.length);
+        return Arrays.copyOfRange(file, from, (int) Math.min(file.length, offset + length));
+    }
+
+    /**
+     * @return {초, 초 이하 값, payload 길이}
+     */
+    private static long[] packet(long seconds, long fraction, int payloadLength) {
+        return new long[]{seconds, fraction, payloadLength};
+    }
+
+    private static byte[] pcap(ByteOrder order, int magic, long[]... packets) {
+        int size = 24;
+        for (long[] packet : packets) {
+            size += 16 + (int) packet[2];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(size, 24 + 16)).order(order);
+        buffer.putInt(magic).putShort((short) 2).putShort((short) 4).putInt(0).putInt(0).putInt(65535).putInt(1);
+        for (long[] packet : packets) {
+            buffer.putInt((int) packet[0]).putInt((int) packet[1]).putInt((int) packet[2]).putInt((int) packet[2]);
+            buffer.put(new byte[(int) packet[2]]);
+        }
+        return Arrays.copyOf(buffer.array(), size);
+    }
+}
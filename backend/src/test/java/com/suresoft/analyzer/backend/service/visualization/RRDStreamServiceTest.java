@@ -0,0 +1,193 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.suresoft.analyzer.backend.config.EnvProperties;
+import com.suresoft.analyzer.backend.repository.auth.UserRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RRDStreamServiceTest {
+
+    private static final String PATH = "user1/proj1/a.rrd";
+    private static final int SIZE = 100;
+    // HTTP 날짜와 비교하므로 초 단위 시각
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+    private static final String ETAG = "\"" + Long.toHexString(SIZE) + "-" + Long.toHexString(LAST_MODIFIED) + "\"";
+
+    @TempDir
+    Path root;
+
+    private RRDStreamService service;
+    private RRDTieringService rrdTieringService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = root.resolve("rrd").resolve(PATH);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(LAST_MODIFIED));
+
+        EnvProperties env = new EnvProperties();
+        env.setPath(root.toString());
+        env.setJwtSecretKey("test-secret");
+        VisualizationProjectRepository projectRepository = mock(VisualizationProjectRepository.class);
+        when(projectRepository.findUserIdById("proj1")).thenReturn(Optional.of("user1"));
+        when(projectRepository.existsVisibleToUser("proj1", "user1")).thenReturn(true);
+
+        rrdTieringService = mock(RRDTieringService.class);
+        service = new RRDStreamService(env, mock(UserRepository.class), projectRepository, rrdTieringService,
+                720, false, 64 * 1024 * 1024, 3600);
+    }
+
+    @Test
+    void closedRangeReturnsPartialContent() throws Exception {
+        MockHttpServletResponse response = stream(request("bytes=10-19"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+    }
+
+    @Test
+    void suffixAndOpenEndedRangesAreClampedToFile() throws Exception {
+        MockHttpServletResponse suffix = stream(request("bytes=-5"));
+        assertThat(suffix.getHeader("Content-Range")).isEqualTo("bytes 95-99/100");
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 95, 100));
+
+        MockHttpServletResponse longerSuffix = stream(request("bytes=-500"));
+        assertThat(longerSuffix.getHeader("Content-Range")).isEqualTo("bytes 0-99/100");
+
+        MockHttpServletResponse openEnded = stream(request("bytes=95-"));
+        assertThat(openEnded.getHeader("Content-Range")).isEqualTo("bytes 95-99/100");
+
+        MockHttpServletResponse pastEnd = stream(request("bytes=90-1000"));
+        assertThat(pastEnd.getHeader("Content-Range")).isEqualTo("bytes 90-99/100");
+    }
+
+    @Test
+    void unsatisfiableRangeReturns416() throws Exception {
+        for (String range : new String[]{"bytes=200-300", "bytes=100-", "bytes=50-40", "bytes=-0"}) {
+            MockHttpServletResponse response = stream(request(range));
+
+            assertThat(response.getStatus()).as(range).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            assertThat(response.getHeader("Content-Range")).as(range).isEqualTo("bytes */100");
+            assertThat(response.getContentAsByteArray()).as(range).isEmpty();
+        }
+    }
+
+    @Test
+    void multipleOrMalformedRangesFallBackToFullBody() throws Exception {
+        for (String range : new String[]{"bytes=0-1,5-6", "items=0-1", "bytes=a-b", "bytes=10"}) {
+            MockHttpServletResponse response = stream(request(range));
+
+            assertThat(response.getStatus()).as(range).isEqualTo(HttpServletResponse.SC_OK);
+            assertThat(response.getHeader("Content-Range")).as(range).isNull();
+            assertThat(response.getContentAsByteArray()).as(range).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void ifRangeHonoursRangeOnlyWhenValidatorMatches() throws Exception {
+        MockHttpServletRequest matchingEtag = request("bytes=0-9");
+        matchingEtag.addHeader("If-Range", ETAG);
+        assertThat(stream(matchingEtag).getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        MockHttpServletRequest matchingDate = request("bytes=0-9");
+        matchingDate.addHeader("If-Range", httpDate(LAST_MODIFIED));
+        assertThat(stream(matchingDate).getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        MockHttpServletRequest staleEtag = request("bytes=0-9");
+        staleEtag.addHeader("If-Range", "\"64-0\"");
+        MockHttpServletResponse stale = stream(staleEtag);
+        assertThat(stale.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(stale.getContentAsByteArray()).isEqualTo(content);
+
+        // If-Range 는 strong 비교만 허용
+        MockHttpServletRequest weakEtag = request("bytes=0-9");
+        weakEtag.addHeader("If-Range", "W/" + ETAG);
+        assertThat(stream(weakEtag).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+
+        MockHttpServletRequest staleDate = request("bytes=0-9");
+        staleDate.addHeader("If-Range", httpDate(LAST_MODIFIED - 1000));
+        assertThat(stream(staleDate).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void conditionalRequestsReturnNotModified() throws Exception {
+        MockHttpServletRequest weakMatch = request(null);
+        weakMatch.addHeader("If-None-Match", "\"other\", W/" + ETAG);
+        MockHttpServletResponse notModified = stream(weakMatch);
+        assertThat(notModified.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(notModified.getHeader("ETag")).isEqualTo(ETAG);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+
+        MockHttpServletRequest gzipMatch = request(null);
+        gzipMatch.addHeader("If-None-Match", ETAG.substring(0, ETAG.length() - 1) + "-gzip\"");
+        assertThat(stream(gzipMatch).getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+
+        MockHttpServletRequest since = request(null);
+        since.addHeader("If-Modified-Since", httpDate(LAST_MODIFIED));
+        assertThat(stream(since).getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+
+        MockHttpServletRequest mismatch = request(null);
+        mismatch.addHeader("If-None-Match", "\"other\"");
+        assertThat(stream(mismatch).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void projectDirectoryIsHeldUntilBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // 잡아 둔 디렉터리를 놓는 시점에 이미 보낸 바이트 수
+        AtomicInteger sentWhenReleased = new AtomicInteger(-1);
+        when(rrdTieringService.openLocal("proj1"))
+                .thenReturn(() -> sentWhenReleased.set(response.getContentAsByteArray().length));
+
+        service.stream("user1", null, PATH, request(null), response);
+
+        verify(rrdTieringService).openLocal("proj1");
+        assertThat(sentWhenReleased.get()).isEqualTo(SIZE);
+    }
+
+    private MockHttpServletResponse stream(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.stream("user1", null, PATH, request, response);
+        return response;
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/visualization/rrd/" + PATH);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,364 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationJobStatus;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationPreemptPolicy;
+import com.suresoft.analyzer.backend.dto.visualization.EVisualizationProcessStatus;
+import com.suresoft.analyzer.backend.dto.visualization.FileMetadataDto;
+import com.suresoft.analyzer.backend.entity.auth.UserEntity;
+import com.suresoft.analyzer.backend.entity.storage.BucketEntity;
+import com.suresoft.analyzer.backend.entity.visualization.VisualizationJobEntity;
+import com.suresoft.analyzer.backend.entity.visualization.VisualizationProjectEntity;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import com.suresoft.analyzer.backend.repository.storage.BucketRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationJobRepository;
+import com.suresoft.analyzer.backend.repository.visualization.VisualizationProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 워커 풀 모드로 실행 : 작업은 execution(jobId) 를 완료 / 실패시킬 때까지 실행 중으로 남는다.
+ */
+class VisualizationJobSchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // VISUALIZATION_JOB 테이블 대신 (key : job id)
+    private final Map<String, VisualizationJobEntity> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger jobSequence = new AtomicInteger();
+    // 처음 RUNNING 으로 저장된 순서
+    private final List<String> startOrder = new CopyOnWriteArrayList<>();
+    // key : job id, value : 진행 중인 실행 (실행할 때마다 교체)
+    private final Map<String, CompletableFuture<Void>> executions = new ConcurrentHashMap<>();
+    // 실행할 때 컨테이너에 넘긴 체크포인트 (key : job id)
+    private final Map<String, List<String>> checkpoints = new ConcurrentHashMap<>();
+    private final List<String> cancelRequests = new CopyOnWriteArrayList<>();
+
+    private VisualizationJobRepository jobRepository;
+    private VisualizationProjectRepository projectRepository;
+    private BucketRepository bucketRepository;
+    private VisualizationContainerLauncher launcher;
+    private VisualizationWorkerPool workerPool;
+    private final Map<String, VisualizationProjectEntity> projects = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jobRepository = mock(VisualizationJobRepository.class);
+        when(jobRepository.save(any(VisualizationJobEntity.class))).thenAnswer(invocation -> save(invocation.getArgument(0)));
+        when(jobRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<String>getArgument(0))));
+        when(jobRepository.findAllByStatus(any())).thenAnswer(invocation -> jobs.values().stream()
+                .filter(job -> job.getStatus() == invocation.getArgument(0))
+                .toList());
+        when(jobRepository.findAllByStatusOrderByPriorityDescCreatedAtAsc(any())).thenAnswer(invocation -> jobs.values().stream()
+                .filter(job -> job.getStatus() == invocation.getArgument(0))
+                .sorted(Comparator.comparingInt(VisualizationJobEntity::getPriority).reversed()
+                        .thenComparing(VisualizationJobEntity::getCreatedAt))
+                .toList());
+        when(jobRepository.findFirstByProjectIdAndStatusIn(anyString(), anyCollection())).thenAnswer(invocation -> {
+            Collection<EVisualizationJobStatus> statuses = invocation.getArgument(1);
+            return jobs.values().stream()
+                    .filter(job -> job.getProjectId().equals(invocation.getArgument(0)) && statuses.contains(job.getStatus()))
+                    .findFirst();
+        });
+        when(jobRepository.findFirstByProjectIdOrderByCreatedAtDesc(anyString())).thenAnswer(invocation -> jobs.values().stream()
+                .filter(job -> job.getProjectId().equals(invocation.getArgument(0)))
+                .max(Comparator.comparing(VisualizationJobEntity::getCreatedAt)));
+
+        projectRepository = mock(VisualizationProjectRepository.class);
+        when(projectRepository.existsById(anyString())).thenReturn(true);
+        when(projectRepository.findById(anyString())).thenAnswer(invocation -> Optional.of(project(invocation.getArgument(0))));
+
+        bucketRepository = mock(BucketRepository.class);
+        BucketEntity bucket = new BucketEntity();
+        bucket.setName("bucket");
+        when(bucketRepository.findById("bucket1")).thenReturn(Optional.of(bucket));
+
+        launcher = mock(VisualizationContainerLauncher.class);
+        when(launcher.preparePayload(any(), anyList(), nullable(String.class), nullable(String.class))).thenAnswer(invocation -> {
+            String checkpoint = invocation.getArgument(3);
+            return new VisualizationContainerLauncher.LaunchPayload("blueprints", "credential", null, checkpoint);
+        });
+
+        workerPool = mock(VisualizationWorkerPool.class);
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.getSize()).thenReturn(16);
+        doAnswer(invocation -> {
+            String jobId = invocation.getArgument(0);
+            VisualizationContainerLauncher.LaunchPayload payload = invocation.getArgument(3);
+            checkpoints.computeIfAbsent(jobId, key -> new CopyOnWriteArrayList<>()).add(String.valueOf(payload.resumeBase64()));
+            CompletableFuture<Void> execution = new CompletableFuture<>();
+            executions.put(jobId, execution);
+            try {
+                execution.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+            return null;
+        }).when(workerPool).execute(anyString(), anyString(), anyString(), any());
+        doAnswer(invocation -> {
+            cancelRequests.add(invocation.getArgument(0));
+            return null;
+        }).when(workerPool).cancel(anyString(), anyLong());
+    }
+
+    @Test
+    void dispatchesByPriorityThenFewestRunningPerUserThenAge() {
+        VisualizationJobScheduler scheduler = scheduler(3, 2, 8, 0, EVisualizationPreemptPolicy.SAME_PROJECT);
+        VisualizationJobEntity a1 = queued("userA", "pA1", 0, 0, 2);
+        VisualizationJobEntity a2 = queued("userA", "pA2", 0, 1, 2);
+        VisualizationJobEntity b1 = queued("userB", "pB1", 0, 2, 2);
+        VisualizationJobEntity c1 = queued("userC", "pC1", 5, 3, 2);
+
+        scheduler.dispatch();
+
+        // 우선순위 → 실행 중인 작업이 적은 사용자 (A 가 하나 실행 중이므로 A2 보다 B1) → 요청 순
+        assertThat(startOrder).containsExactly(c1.getId(), a1.getId(), b1.getId());
+        assertThat(a2.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+
+        execution(b1.getId()).complete(null);
+
+        await().atMost(TIMEOUT).until(() -> a2.getStatus() == EVisualizationJobStatus.RUNNING);
+        assertThat(b1.getStatus()).isEqualTo(EVisualizationJobStatus.COMPLETED);
+    }
+
+    @Test
+    void headOfQueueWaitingForResourcesHoldsBackSmallerJobs() {
+        VisualizationJobScheduler scheduler = scheduler(4, 4, 4, 0, EVisualizationPreemptPolicy.SAME_PROJECT);
+        VisualizationJobEntity small = queued("userA", "p1", 0, 0, 2);
+        scheduler.dispatch();
+
+        VisualizationJobEntity large = queued("userB", "p2", 1, 1, 4);
+        VisualizationJobEntity later = queued("userC", "p3", 0, 2, 2);
+        scheduler.dispatch();
+
+        // 남은 2 CPU 로 later 를 실행할 수 있지만 large 가 먼저다.
+        assertThat(large.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+        assertThat(later.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+
+        execution(small.getId()).complete(null);
+
+        await().atMost(TIMEOUT).until(() -> large.getStatus() == EVisualizationJobStatus.RUNNING);
+        assertThat(later.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+    }
+
+    @Test
+    void newBlueprintPreemptsSameProjectAfterContainerStops() {
+        VisualizationJobScheduler scheduler = scheduler(4, 2, 8, 0, EVisualizationPreemptPolicy.SAME_PROJECT);
+        UserEntity user = user("userA");
+        VisualizationJobEntity first = scheduler.enqueue(user, "p1", "bucket1", metadata("a.mf4"), 0);
+        assertThat(first.getStatus()).isEqualTo(EVisualizationJobStatus.RUNNING);
+
+        // 같은 청사진이면 실행 중인 작업을 그대로 반환
+        assertThat(scheduler.enqueue(user, "p1", "bucket1", metadata("a.mf4"), 0).getId()).isEqualTo(first.getId());
+
+        VisualizationJobEntity second = scheduler.enqueue(user, "p1", "bucket1", metadata("b.mf4"), 0);
+
+        await().atMost(TIMEOUT).until(() -> cancelRequests.contains(first.getId()));
+        // 이전 컨테이너가 끝나기 전에는 같은 프로젝트를 실행하지 않는다.
+        scheduler.dispatch();
+        assertThat(second.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+
+        execution(first.getId()).completeExceptionally(new IllegalStateException("작업이 취소되었습니다."));
+
+        await().atMost(TIMEOUT).until(() -> second.getStatus() == EVisualizationJobStatus.RUNNING);
+        assertThat(first.getStatus()).isEqualTo(EVisualizationJobStatus.CANCELLED);
+        assertThat(first.getErrorMessage()).isEqualTo("새 시각화 작업에 선점되었습니다.");
+        assertThat(first.getResumeCount()).isZero();
+        assertThat(scheduler.getStats().getPreempted()).isEqualTo(1);
+    }
+
+    @Test
+    void noPreemptPolicyKeepsActiveJob() {
+        VisualizationJobScheduler scheduler = scheduler(4, 2, 8, 0, EVisualizationPreemptPolicy.NONE);
+        UserEntity user = user("userA");
+        VisualizationJobEntity first = scheduler.enqueue(user, "p1", "bucket1", metadata("a.mf4"), 0);
+
+        VisualizationJobEntity second = scheduler.enqueue(user, "p1", "bucket1", metadata("b.mf4"), 0);
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(jobs).hasSize(1);
+        verify(workerPool, never()).cancel(anyString(), anyLong());
+    }
+
+    @Test
+    void sameUserPolicyPreemptsOldestRunningJobOfEqualOrLowerPriority() {
+        VisualizationJobScheduler scheduler = scheduler(4, 1, 8, 0, EVisualizationPreemptPolicy.SAME_USER);
+        UserEntity user = user("userA");
+        VisualizationJobEntity first = scheduler.enqueue(user, "p1", "bucket1", metadata("a.mf4"), 0);
+
+        VisualizationJobEntity second = scheduler.enqueue(user, "p2", "bucket1", metadata("b.mf4"), 0);
+        await().atMost(TIMEOUT).until(() -> cancelRequests.contains(first.getId()));
+        execution(first.getId()).completeExceptionally(new IllegalStateException("작업이 취소되었습니다."));
+        await().atMost(TIMEOUT).until(() -> second.getStatus() == EVisualizationJobStatus.RUNNING);
+        assertThat(first.getStatus()).isEqualTo(EVisualizationJobStatus.CANCELLED);
+
+        // 실행 중인 작업보다 우선순위가 낮은 요청은 선점하지 않고 기다린다.
+        VisualizationJobEntity lower = scheduler.enqueue(user, "p3", "bucket1", metadata("c.mf4"), -1);
+        assertThat(lower.getStatus()).isEqualTo(EVisualizationJobStatus.QUEUED);
+        assertThat(cancelRequests).containsExactly(first.getId());
+    }
+
+    @Test
+    void failedRunResumesFromLastCheckpoint() {
+        VisualizationJobScheduler scheduler = scheduler(4, 2, 8, 1, EVisualizationPreemptPolicy.SAME_PROJECT);
+        project("p1").setStatus(EVisualizationProcessStatus.PROCESSING);
+        VisualizationJobEntity job = queued("userA", "p1", 0, 0, 2);
+        scheduler.dispatch();
+        CompletableFuture<Void> firstRun = execution(job.getId());
+
+        scheduler.recordCheckpoint("p1", 3, "{\"a.mf4\":1024}");
+        firstRun.completeExceptionally(new IllegalStateException("워커가 종료되었습니다."));
+
+        // 자동 재개 : 완료된 세그먼트 다음부터
+        await().atMost(TIMEOUT).until(() -> checkpoints.get(job.getId()).size() == 2);
+        assertThat(checkpoints.get(job.getId())).containsExactly("null", "{\"a.mf4\":1024}");
+        assertThat(job.getStatus()).isEqualTo(EVisualizationJobStatus.RUNNING);
+        assertThat(job.getResumeCount()).isEqualTo(1);
+        assertThat(job.getAutoResumeCount()).isEqualTo(1);
+        assertThat(job.getCompletedSegments()).isEqualTo(3);
+
+        // 자동 재개 횟수를 다 쓰면 실패로 남기고 프로젝트를 다시 시각화할 수 있게 되돌린다.
+        execution(job.getId()).completeExceptionally(new IllegalStateException("워커가 종료되었습니다."));
+        await().atMost(TIMEOUT).until(() -> job.getStatus() == EVisualizationJobStatus.FAILED);
+        assertThat(project("p1").getStatus()).isEqualTo(EVisualizationProcessStatus.NOT_STARTED);
+
+        // 수동 재개도 같은 체크포인트부터
+        scheduler.resume("userA", job.getId());
+        await().atMost(TIMEOUT).until(() -> checkpoints.get(job.getId()).size() == 3);
+        assertThat(checkpoints.get(job.getId()).get(2)).isEqualTo("{\"a.mf4\":1024}");
+        assertThat(job.getResumeCount()).isEqualTo(2);
+        assertThat(job.getAutoResumeCount()).isEqualTo(1);
+        assertThat(project("p1").getStatus()).isEqualTo(EVisualizationProcessStatus.PROCESSING);
+
+        execution(job.getId()).complete(null);
+        await().atMost(TIMEOUT).until(() -> job.getStatus() == EVisualizationJobStatus.COMPLETED);
+    }
+
+    @Test
+    void manualResumeDoesNotUseAutomaticResumeBudget() {
+        VisualizationJobScheduler scheduler = scheduler(4, 2, 8, 1, EVisualizationPreemptPolicy.SAME_PROJECT);
+        VisualizationJobEntity job = queued("userA", "p1", 0, 0, 2);
+        job.setStatus(EVisualizationJobStatus.CANCELLED);
+
+        scheduler.resume("userA", job.getId());
+        await().atMost(TIMEOUT).until(() -> checkpoints.containsKey(job.getId()));
+        assertThat(job.getResumeCount()).isEqualTo(1);
+        assertThat(job.getAutoResumeCount()).isZero();
+
+        // 수동 재개 뒤 실패해도 자동 재개 횟수가 남아 있다.
+        execution(job.getId()).completeExceptionally(new IllegalStateException("워커가 종료되었습니다."));
+        await().atMost(TIMEOUT).until(() -> checkpoints.get(job.getId()).size() == 2);
+        assertThat(job.getStatus()).isEqualTo(EVisualizationJobStatus.RUNNING);
+        assertThat(job.getResumeCount()).isEqualTo(2);
+        assertThat(job.getAutoResumeCount()).isEqualTo(1);
+
+        execution(job.getId()).complete(null);
+        await().atMost(TIMEOUT).until(() -> job.getStatus() == EVisualizationJobStatus.COMPLETED);
+    }
+
+    @Test
+    void jobsRunningBeforeRestartResumeOnRecover() {
+        VisualizationJobScheduler scheduler = scheduler(4, 2, 8, 1, EVisualizationPreemptPolicy.SAME_PROJECT);
+        VisualizationJobEntity job = queued("userA", "p1", 0, 0, 2);
+        job.setStatus(EVisualizationJobStatus.RUNNING);
+        job.setCompletedSegments(2);
+        job.setCheckpoint("{\"a.mf4\":512}");
+
+        scheduler.recover();
+
+        await().atMost(TIMEOUT).until(() -> checkpoints.containsKey(job.getId()));
+        assertThat(checkpoints.get(job.getId())).containsExactly("{\"a.mf4\":512}");
+        assertThat(job.getResumeCount()).isEqualTo(1);
+        assertThat(job.getAutoResumeCount()).isEqualTo(1);
+        assertThat(job.getErrorMessage()).isEqualTo("서버 재시작으로 중단되었습니다.");
+    }
+
+    private VisualizationJobScheduler scheduler(int maxConcurrent, int maxPerUser, double hostCpus, int autoResumeAttempts,
+                                                EVisualizationPreemptPolicy preemptPolicy) {
+        return new VisualizationJobScheduler(jobRepository, projectRepository, bucketRepository, launcher, workerPool,
+                mock(VisualizationTeamTreeCache.class), mock(MqttPublisher.class), new ObjectMapper(),
+                maxConcurrent, maxPerUser, 2, 1024, 4, 2048, hostCpus, 8192, 0, 10, autoResumeAttempts, preemptPolicy, 0);
+    }
+
+    private VisualizationJobEntity queued(String userId, String projectId, int priority, int createdMinute, double cpus) {
+        VisualizationJobEntity job = new VisualizationJobEntity();
+        job.setProjectId(projectId);
+        job.setUser(user(userId));
+        job.setBucketId("bucket1");
+        job.setFileMetadata("[]");
+        job.setPriority(priority);
+        job.setCpus(cpus);
+        job.setMemoryMb(1024);
+        job.setCreatedAt(BASE_TIME.plusMinutes(createdMinute));
+        return save(job);
+    }
+
+    private VisualizationJobEntity save(VisualizationJobEntity job) {
+        if (job.getId() == null) {
+            job.setId("job-" + jobSequence.incrementAndGet());
+        }
+        if (job.getCreatedAt() == null) {
+            job.setCreatedAt(BASE_TIME.plusHours(1).plusSeconds(jobSequence.get()));
+        }
+        if (job.getStatus() == EVisualizationJobStatus.RUNNING && !startOrder.contains(job.getId())) {
+            startOrder.add(job.getId());
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private VisualizationProjectEntity project(String projectId) {
+        return projects.computeIfAbsent(projectId, id -> {
+            VisualizationProjectEntity project = new VisualizationProjectEntity();
+            project.setId(id);
+            return project;
+        });
+    }
+
+    /**
+     * 진행 중인 실행 (실행 스레드가 워커에 맡길 때까지 기다림)
+     */
+    private CompletableFuture<Void> execution(String jobId) {
+        await().atMost(TIMEOUT).until(() -> executions.containsKey(jobId) && !executions.get(jobId).isDone());
+        return executions.get(jobId);
+    }
+
+    private static UserEntity user(String userId) {
+        return UserEntity.builder().id(userId).build();
+    }
+
+    private static List<FileMetadataDto> metadata(String path) {
+        FileMetadataDto metadata = new FileMetadataDto();
+        metadata.setUploadFilePath(path);
+        metadata.setParserName("CanParser");
+        return List.of(metadata);
+    }
+}
@@ -0,0 +1,191 @@
+package com.suresoft.analyzer.backend.service.visualization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.suresoft.analyzer.backend.mqtt.EMqttMessageClass;
+import com.suresoft.analyzer.backend.mqtt.MqttPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VisualizationWorkerPoolTest {
+
+    private static final String WORKER_ID = "visualization-worker-1";
+    private static final VisualizationContainerLauncher.LaunchPayload PAYLOAD =
+            new VisualizationContainerLauncher.LaunchPayload("blueprints", "credential", null, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // 발행된 (topic, payload)
+    private final List<Map.Entry<String, Object>> published = new CopyOnWriteArrayList<>();
+
+    private VisualizationContainerLauncher launcher;
+    private VisualizationWorkerPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        launcher = mock(VisualizationContainerLauncher.class);
+        Process process = mock(Process.class);
+        when(process.onExit()).thenReturn(new CompletableFuture<>());
+        when(launcher.launchWorker(anyString(), anyDouble(), anyLong())).thenReturn(process);
+
+        MqttPublisher mqttPublisher = mock(MqttPublisher.class);
+        when(mqttPublisher.publish(anyString(), any(), any(EMqttMessageClass.class))).thenAnswer(invocation -> {
+            published.add(Map.entry(invocation.getArgument(0), invocation.getArgument(1)));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        pool = new VisualizationWorkerPool(launcher, mqttPublisher, 1, 4, 8192, 30_000, 300_000, 15_000, 5);
+        pool.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void jobCancelledWhileWaitingForWorkerIsDroppedOnAcquire() throws Exception {
+        // 워커가 준비되기 전이라 작업은 워커를 기다린다.
+        CompletableFuture<Throwable> waiting = executeAsync("job-1", null);
+        pool.cancel("job-1", 60);
+        assertThat(waiting).isNotDone();
+
+        heartbeat(null);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(jobSent("job-1")).isFalse();
+
+        // 워커는 다음 작업을 받을 수 있다.
+        CompletableFuture<Throwable> next = executeAsync("job-2", null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> jobSent("job-2"));
+        done("job-2", true);
+        assertThat(next.get(5, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void runningJobIsCancelledWithoutStoppingWorker() throws Exception {
+        heartbeat(null);
+        CompletableFuture<Throwable> execution = executeAsync("job-1", null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> jobSent("job-1"));
+
+        pool.cancel("job-1", 60);
+
+        assertThat(cancelSent("job-1")).isTrue();
+        done("job-1", false);
+        assertThat(execution.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class);
+        assertThat(pool.getWorkers()).singleElement()
+                .satisfies(worker -> assertThat(worker.getState()).isEqualTo("IDLE"));
+    }
+
+    @Test
+    void workerIgnoringCancelIsStoppedAfterGrace() throws Exception {
+        heartbeat(null);
+        executeAsync("job-1", null);
+        await().atMost(Duration.ofSeconds(5)).until(() -> jobSent("job-1"));
+
+        pool.cancel("job-1", 0);
+
+        verify(launcher, timeout(5_000)).stopContainer(WORKER_ID, 0);
+    }
+
+    /**
+     * execute 가 워커를 받는 시점과 cancel 이 엇갈려도 취소는 정확히 한 쪽에서 한 번만 처리된다.
+     * - execute 가 먼저 표시를 지우면 작업을 보내지 않고 CancellationException
+     * - cancel 이 먼저 표시를 지우면 작업이 전달된 워커에 cancel 명령
+     */
+    @Test
+    void cancelRacingAcquireIsHandledExactlyOnce() throws Exception {
+        heartbeat(null);
+        for (int i = 0; i < 200; i++) {
+            String jobId = "job-" + i;
+            CountDownLatch go = new CountDownLatch(1);
+            CompletableFuture<Throwable> execution = executeAsync(jobId, go);
+            CompletableFuture<Void> cancel = CompletableFuture.runAsync(() -> {
+                awaitQuietly(go);
+                pool.cancel(jobId, 60);
+            }, executor);
+            go.countDown();
+            cancel.get(5, TimeUnit.SECONDS);
+
+            if (cancelSent(jobId)) {
+                await().atMost(Duration.ofSeconds(5)).until(() -> jobSent(jobId));
+                done(jobId, false);
+                assertThat(execution.get(5, TimeUnit.SECONDS)).as(jobId).isInstanceOf(IllegalStateException.class);
+            } else {
+                assertThat(execution.get(5, TimeUnit.SECONDS)).as(jobId).isInstanceOf(CancellationException.class);
+                assertThat(jobSent(jobId)).as(jobId).isFalse();
+            }
+        }
+    }
+
+    private CompletableFuture<Throwable> executeAsync(String jobId, CountDownLatch go) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (go != null) {
+                awaitQuietly(go);
+            }
+            try {
+                pool.execute(jobId, "user1", "project1", PAYLOAD);
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        }, executor);
+    }
+
+    private void heartbeat(String jobId) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("job_id", jobId);
+        pool.onWorkerMessage(WORKER_ID, "heartbeat", json);
+    }
+
+    private void done(String jobId, boolean success) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("job_id", jobId);
+        json.put("success", success);
+        pool.onWorkerMessage(WORKER_ID, "done", json);
+    }
+
+    private boolean jobSent(String jobId) {
+        return sent("visualization/worker/" + WORKER_ID + "/job", jobId);
+    }
+
+    private boolean cancelSent(String jobId) {
+        return sent("visualization/worker/" + WORKER_ID + "/cancel", jobId);
+    }
+
+    private boolean sent(String topic, String jobId) {
+        return published.stream().anyMatch(message -> message.getKey().equals(topic)
+                && message.getValue() instanceof Map<?, ?> payload && jobId.equals(payload.get("job_id")));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
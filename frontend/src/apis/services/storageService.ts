@@ -7,6 +7,8 @@ import {
   Bucket,
   GetBucketDetailsDto,
   GetBucketFolder,
+  GetFolderChildrenDto,
+  FolderChildrenPage,
   BucketWithoutKeyDto,
   SelectedFileWithParserAndDbc,
 } from '@/types/storage';
@@ -176,6 +178,17 @@ const storageService = {
     });
     return response.data;
   },
+  // 폴더를 펼칠 때 바로 아래 항목만 조회
+  getFolderChildren: async ({
+    bucketName,
+    prefix,
+    cursor,
+  }: GetFolderChildrenDto): Promise<ApiResponse<FolderChildrenPage>> => {
+    const response = await privateApiClient.get<ApiResponse<FolderChildrenPage>>('/s3/folder-children', {
+      params: { bucketName, prefix, ...(cursor && { cursor }) },
+    });
+    return response.data;
+  },
   assignCurrentBucket: async ({ bucketId }: { bucketId: string }) => {
     const response = await privateApiClient.put(`/s3/set-currentUsed-bucket/${bucketId}`);
     return response.data;
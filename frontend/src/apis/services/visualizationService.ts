@@ -7,6 +7,8 @@ import {
   SimpleVisualizationProject,
   CreateProjectRequest,
   CreateProjectBlueprintSettingRequest,
+  RRDSegmentManifest,
+  RRDStreamToken,
 } from '@/types/visualization';
 
 const visualizationService = {
@@ -80,6 +82,20 @@ const visualizationService = {
     return response.data;
   },
 
+  getRRDStreamToken: async (projectId: string) => {
+    const response = await privateApiClient.get<ApiResponse<RRDStreamToken>>(`/visualization/project/${projectId}/rrd-token`);
+    return response.data;
+  },
+
+  // fromUs ~ toUs 와 겹치는 세그먼트만 조회 (생략 시 전체)
+  getSegmentManifest: async (projectId: string, fromUs?: number, toUs?: number) => {
+    const response = await privateApiClient.get<ApiResponse<RRDSegmentManifest>>(
+      `/visualization/project/${projectId}/segments`,
+      { params: { fromUs, toUs } },
+    );
+    return response.data;
+  },
+
   getRRDFiles: async (projectId: string) => {
     const response = await privateApiClient.get(`/visualization/rrd-files?projectId=${projectId}`);
 
@@ -10,9 +10,18 @@ interface FileTreeProps {
   onSelect: (selectedKeys: Key[], info: { node: TreeNode }) => void;
   selectedKeys?: Key[];
   expandedKeys?: Key[];
+  loadData?: (node: TreeNode) => Promise<void>; // 지정하면 펼칠 때 하위 항목을 불러옴
 }
 
-const FileTree = ({ treeData, multiple = false, onExpand, onSelect, selectedKeys, expandedKeys }: FileTreeProps) => {
+const FileTree = ({
+  treeData,
+  multiple = false,
+  onExpand,
+  onSelect,
+  selectedKeys,
+  expandedKeys,
+  loadData,
+}: FileTreeProps) => {
   return (
     <div className={styles.fileTreeContainer}>
       <ConfigProvider
@@ -36,6 +45,7 @@ const FileTree = ({ treeData, multiple = false, onExpand, onSelect, selectedKeys
           treeData={treeData}
           {...(expandedKeys && { expandedKeys })} // ✅
           {...(selectedKeys && { selectedKeys })}
+          loadData={loadData ? (node) => loadData(node as unknown as TreeNode) : undefined}
         />
       </ConfigProvider>
     </div>
@@ -3,7 +3,8 @@ import { FaCloud } from 'react-icons/fa'; // 클라우드 아이콘
 import { set } from 'lodash';
 import { toast } from 'react-toastify';
 import styles from './index.module.scss';
-import { TreeNode, convertToTreeNodes } from '@/types/common';
+import { ApiResponse, TreeNode, isFileNode } from '@/types/common';
+import { FolderChildrenPage } from '@/types/storage';
 import FileTree from '@/components/common/FileTree';
 import { storageService } from '@/apis/services/storageService';
 import StorageQuickSetModal from '@/pages/StorageManagerPage/StorageQuickSetModal/index';
@@ -62,16 +63,50 @@ const StorageManagerPage = () => {
     }
   };
 
-  // `bucketName`이 설정된 후 해당 버킷의 폴더 트리 가져오기
-  const fetchBucketFolders = async (bucketName: string) => {
-    try {
-      const res = await storageService.getBucketFolders({ bucketName, prefix: '' });
-      if (res.success) {
-        const folderTree = convertToTreeNodes(res.result);
-        setTreeData(folderTree);
-      } else {
+  // 폴더 바로 아래의 하위 폴더만 조회 (cursor 로 모든 페이지를 이어받음)
+  const fetchChildFolders = async (bucketName: string, prefix: string): Promise<TreeNode[]> => {
+    const folders: TreeNode[] = [];
+    let cursor: string | null = null;
+    do {
+      const res: ApiResponse<FolderChildrenPage> = await storageService.getFolderChildren({
+        bucketName,
+        prefix,
+        cursor,
+      });
+      if (!res.success) {
         console.error('폴더 트리 불러오기 실패:', res.message);
+        break;
       }
+      // children 을 비워두면 펼칠 때 loadData 로 하위 폴더를 불러온다
+      res.result.folders.forEach((folder) => folders.push({ title: folder.title, key: folder.key } as TreeNode));
+      cursor = res.result.hasMore ? res.result.nextCursor : null;
+    } while (cursor);
+    return folders;
+  };
+
+  // `bucketName`이 설정된 후 해당 버킷의 최상위 폴더 가져오기
+  const fetchBucketFolders = async (bucketName: string) => {
+    try {
+      setTreeData(await fetchChildFolders(bucketName, ''));
+    } catch (err) {
+      console.error('API 호출 에러:', err);
+    }
+  };
+
+  const updateTreeChildren = (nodes: TreeNode[], key: string, children: TreeNode[]): TreeNode[] =>
+    nodes.map((node) => {
+      if (isFileNode(node)) return node;
+      if (node.key === key) return { ...node, children };
+      if (node.children) return { ...node, children: updateTreeChildren(node.children, key, children) };
+      return node;
+    });
+
+  // 폴더를 펼칠 때 하위 폴더 조회
+  const handleLoadData = async (node: TreeNode) => {
+    if (isFileNode(node) || node.children) return;
+    try {
+      const children = await fetchChildFolders(bucketName, node.key);
+      setTreeData((prev) => updateTreeChildren(prev, node.key, children));
     } catch (err) {
       console.error('API 호출 에러:', err);
     }
@@ -165,7 +200,13 @@ const StorageManagerPage = () => {
           {isTreeLoading ? (
             <div className={styles.loadingMessage}>loading...</div>
           ) : (
-            <FileTree treeData={treeData} onExpand={handleExpand} onSelect={handleSelect} selectedKeys={[prefixStr]} />
+            <FileTree
+              treeData={treeData}
+              onExpand={handleExpand}
+              onSelect={handleSelect}
+              selectedKeys={[prefixStr]}
+              loadData={handleLoadData}
+            />
           )}
         </div>
 
@@ -11,6 +11,7 @@ const VisualizationViewPage = () => {
   const [selectedFile, setSelectedFile] = useState<string | null>(null);
   const [showIframe, setShowIframe] = useState(false);
   const [projectStatus, setProjectStatus] = useState<EVisualizationProcessStatus>();
+  const [streamToken, setStreamToken] = useState<string | null>(null);
   const { subscribe, unsubscribe } = useMqttStore();
 
   const userId = useMemo(() => localStorage.getItem('userId'), []);
@@ -24,22 +25,36 @@ const VisualizationViewPage = () => {
         const payload = JSON.parse(clean);
 
         switch (payload.status) {
-          case 'PROGRESSING':
-            if (payload.rrd_url && payload.segment_index !== undefined) {
-              setRrdFiles((prev) => [
-                ...prev,
-                {
-                  id: payload.segment_index,
-                  name: payload.segment_name,
-                  rrdUrl: payload.rrd_url,
-                },
-              ]);
-
-              if (payload.segment_index === 0) {
-                handleClickRRDFile(payload.rrd_url);
-              }
+          case 'PROGRESSING': {
+            // 발행이 밀리면 여러 세그먼트가 segments 로 합쳐져 한 번에 온다.
+            const segments = (payload.segments ?? [payload]).filter(
+              (segment: any) => segment.rrd_url && segment.segment_index !== undefined,
+            );
+            if (segments.length === 0) {
+              break;
+            }
+            setRrdFiles((prev) => {
+              const next = [...prev];
+              segments.forEach((segment: any) => {
+                // 재개된 작업이 다시 보낸 세그먼트는 중복으로 추가하지 않는다.
+                if (!next.some((file) => file.rrdUrl === segment.rrd_url)) {
+                  next.push({
+                    id: segment.segment_index,
+                    name: segment.segment_name,
+                    rrdUrl: segment.rrd_url,
+                    entityRrdUrls: segment.entity_rrd_urls ?? [],
+                  });
+                }
+              });
+              return next;
+            });
+
+            const first = segments.find((segment: any) => segment.segment_index === 0);
+            if (first) {
+              handleClickRRDFile(first.rrd_url);
             }
             break;
+          }
           case 'COMPLETE':
             setProjectStatus(EVisualizationProcessStatus.COMPLETE);
             break;
@@ -59,9 +74,17 @@ const VisualizationViewPage = () => {
   useEffect(() => {
     if (projectId) {
       getRrdFiles(projectId);
+      getStreamToken(projectId);
     }
   }, [projectId]);
 
+  const getStreamToken = async (projectId: string) => {
+    const response = await visualizationService.getRRDStreamToken(projectId);
+    if (response.success) {
+      setStreamToken(response.result.token);
+    }
+  };
+
   const getRrdFiles = async (projectId: string) => {
     const response = await visualizationService.getProjectById(projectId);
     if (response.success) {
@@ -79,6 +102,21 @@ const VisualizationViewPage = () => {
     }, 1500);
   };
 
+  // 프로젝트 세그먼트(blueprint)와 엔티티별 RRD 를 함께 불러온다.
+  // RRD 는 nginx 가 아닌 백엔드가 권한을 확인한 뒤 보낸다. ({server}/rrd/{경로} → /api/visualization/rrd/{경로}?token=)
+  const viewerSrc = useMemo(() => {
+    if (!selectedFile || !streamToken) return null;
+    const entityUrls = rrdFiles.find((file) => file.rrdUrl === selectedFile)?.entityRrdUrls ?? [];
+    const query = [selectedFile, ...entityUrls]
+      .map((url) => {
+        const path = url.substring(url.indexOf('/rrd/') + '/rrd/'.length);
+        const streamUrl = `${import.meta.env.VITE_API_SERVER_BASE_URL}/api/visualization/rrd/${path}?token=${streamToken}`;
+        return `url=${encodeURIComponent(streamUrl)}`;
+      })
+      .join('&');
+    return `${import.meta.env.VITE_NGINX_URL}/rerun-viewer/?${query}`;
+  }, [rrdFiles, selectedFile, streamToken]);
+
   return (
     <div className={styles.container}>
       {rrdFiles.length > 0 && (
@@ -116,10 +154,10 @@ const VisualizationViewPage = () => {
           <div className={styles.loading}>🔄 시각화 로딩 중입니다...</div>
         )}
 
-        {rrdFiles.length > 0 && selectedFile && (
+        {rrdFiles.length > 0 && viewerSrc && (
           <iframe
             className={showIframe ? styles.visibleIframe : styles.hiddenIframe}
-            src={`${import.meta.env.VITE_NGINX_URL}/rerun-viewer/?url=${selectedFile}`}
+            src={viewerSrc}
             title="RRD Viewer"
           />
         )}
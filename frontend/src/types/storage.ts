@@ -51,6 +51,26 @@ export interface GetBucketFolder {
   prefix: string;
 }
 
+export interface GetFolderChildrenDto {
+  bucketName: string;
+  prefix: string;
+  cursor?: string | null;
+}
+
+// 폴더 한 단계 하위 항목 (cursor 로 다음 페이지 조회)
+export interface FolderChildrenPage {
+  prefix: string;
+  folders: { title: string; key: string; isLeaf: false }[];
+  files: {
+    title: string;
+    key: string;
+    isLeaf: true;
+    metadata: { filePath: string; fileSize: number; lastModified: string };
+  }[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 export interface UploadFileCreateRequestDto {
   name: string;
   path: string;
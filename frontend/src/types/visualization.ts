@@ -11,6 +11,7 @@ export enum EVisualizationProcessStatus {
   NOT_STARTED = 'NOT_STARTED',
   PROCESSING = 'PROCESSING',
   COMPLETE = 'COMPLETE',
+  CANCELLED = 'CANCELLED',
 }
 
 // Request
@@ -39,6 +40,35 @@ export interface RRDFile {
   id: string;
   rrdUrl: string;
   name: string;
+  // 같은 세그먼트의 엔티티별 RRD (rrdUrl 에는 blueprint 만 들어 있음)
+  entityRrdUrls?: string[];
+}
+
+// 뷰어가 백엔드 /visualization/rrd/** 에서 RRD 를 받을 때 쓰는 token
+export interface RRDStreamToken {
+  token: string;
+  expiresAt: number;
+}
+
+// 시간 구간 조회용 세그먼트 정보 (us 는 프로젝트 시작 기준)
+export interface RRDSegment {
+  id: string;
+  segmentIndex: number;
+  name: string;
+  startUs: number;
+  endUs: number;
+  byteSize: number | null;
+  rrdUrl: string;
+  entityRrdUrls: string[];
+  entityNames: string[];
+}
+
+export interface RRDSegmentManifest {
+  projectId: string;
+  durationUs: number;
+  segmentCount: number;
+  totalBytes: number;
+  segments: RRDSegment[];
 }
 
 export interface VisualizationProject extends SimpleVisualizationProject {
@@ -13,3 +13,4 @@ class DataType(Enum):
     LIDAR = "LIDAR"
     VIDEO = "VIDEO"
     RIFF = "RIFF"
+    CHECKPOINT = "CHECKPOINT"  # 파일 처리 스레드가 세그먼트 경계를 넘을 때의 읽기 위치
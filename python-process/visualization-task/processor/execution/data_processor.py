@@ -8,7 +8,11 @@ from processor.enums.data_type_enum import DataType
 import random
 import os
 import json
+from processor.execution.entity_artifact import write_manifest
 
+# 프로젝트 / 엔티티 RRD 를 뷰어에서 함께 불러오면 하나의 recording 으로 합쳐지도록 같은 id 를 사용
+APPLICATION_ID = "coda"
+RECORDING_ID = "coda-visualization"
 def _random_color():
     # RGB 랜덤 0~255
     return [random.randint(0, 255) for _ in range(3)]
@@ -208,7 +212,17 @@ def create_optimal_blueprint(sensor_counts, entities):
     )
 
 class DataProcessor(multiprocessing.Process):
-    def __init__(self, server_url, user_id, project_id, save_path, files,mqtt, segment_duration_us=60 * 1_000_000, queue=None):
+    """
+    파일 처리 스레드가 보낸 데이터를 엔티티별 RRD 로 기록
+    - 엔티티마다 별도 RecordingStream 으로 {엔티티 디렉터리}/{세그먼트}.rrd 에 기록한다. (팀 캐시에서 재사용 가능)
+    - 프로젝트 디렉터리의 {세그먼트}.rrd 에는 blueprint / 좌표계만 기록하고,
+      progress 메시지에 같은 세그먼트의 엔티티 RRD 목록(entity_file_paths)을 함께 보낸다.
+    - 재사용한 엔티티는 처리하지 않고 세그먼트 목록에만 포함한다.
+    - 세그먼트 완료 메시지에 다음 세그먼트의 파일별 읽기 위치(checkpoint)를 함께 보내
+      중단되면 start_segment 부터 다시 처리할 수 있다. (sources 에 없는 엔티티는 이미 끝난 것)
+    """
+    def __init__(self, server_url, user_id, project_id, save_path, files,mqtt, segment_duration_us=60 * 1_000_000, queue=None,
+                 blueprint_files=None, entity_dirs=None, owned_dirs=None, reused_entities=None, start_segment=0):
         super().__init__(daemon=True)
         self.server_url = server_url
         self.user_id = user_id
@@ -216,12 +230,20 @@ class DataProcessor(multiprocessing.Process):
         self.user_project_key = f"{user_id}_{project_id}"
         self.save_path = save_path
         self.segment_duration_us = segment_duration_us
-        self.files = files
+        self.files = files  # 처리할 파일 (재사용 엔티티 제외)
+        self.blueprint_files = blueprint_files if blueprint_files is not None else files
+        self.entity_dirs = entity_dirs if entity_dirs is not None else {
+            file.entity_name: f"{save_path}/entities/{file.entity_name}" for file in files}
+        self.owned_dirs = set(owned_dirs or [])  # 팀 캐시에 기록 중인 디렉터리 (완료 시 manifest 기록)
+        self.reused_entities = reused_entities or []
+        self.project_stream = None
+        self.entity_streams = {}
         self.queue = queue
-        self.segment_index = 0
-        self.ego_trajectory_lat_lon = []
+        self.segment_index = start_segment
+        self.checkpoints = {}  # {세그먼트 번호: {엔티티: 읽기 위치}}
+        self.ego_trajectory_lat_lon = {}  # entity별 GPS 궤적
         self.initialized_signal = {}
-        self.last_elapsed_time = 0
+        self.last_elapsed_time = segment_duration_us * start_segment
         self.mqtt = mqtt
         self.segment_start_time = time.time()
         self.process_start_time = time.time()
@@ -244,30 +266,38 @@ class DataProcessor(multiprocessing.Process):
         self.mqtt.loop_start()
         self._log("🚀 시각화 프로세스 시작")
 
-        # rerun 초기화
-        rr.init(self.user_project_key)
+        # rerun 초기화 (프로젝트 blueprint 용 + 엔티티별)
+        self.project_stream = rr.RecordingStream(APPLICATION_ID, recording_id=RECORDING_ID)
+        for entity_name, directory in self.entity_dirs.items():
+            os.makedirs(directory, exist_ok=True)
+            self.entity_streams[entity_name] = rr.RecordingStream(APPLICATION_ID, recording_id=RECORDING_ID)
 
-        # 센서 분석 및 최적 blueprint 적용
-        sensor_counts, entities = analyze_sensors(self.files)
+        # 센서 분석 및 최적 blueprint 적용 (재사용 엔티티 포함)
+        sensor_counts, entities = analyze_sensors(self.blueprint_files)
         self._log(
             f"📊 센서 구성: LiDAR={sensor_counts['lidar']}, Video={sensor_counts['video']}, GPS={sensor_counts['gps']}, RIFF={sensor_counts['riff']}")
+        if self.reused_entities:
+            self._log(f"♻️ 재사용 엔티티: {[entity['entity_name'] for entity in self.reused_entities]}")
 
         self.blueprint = create_optimal_blueprint(sensor_counts, entities)
-        rr.send_blueprint(self.blueprint)
         self._log("🎨 최적화된 Blueprint 적용 완료")
 
         # RRD 저장 시작
         self._save_rrd_segment()
 
-        # 좌표계 설정
-        rr.log("world", rr.ViewCoordinates.RIGHT_HAND_Z_UP)
-
         stop_count = 0 # STOP 메시지 개수 Count
 
         self.segment_start_time = time.time()
         self.process_start_time = time.time()
+
+        # 모든 엔티티를 재사용하거나 재개 시점에 처리할 파일이 남아 있지 않은 경우
+        if not self.files:
+            self._write_manifests()
+            self._send_reused_segments(self.segment_index)
+            self._send_process_complete()
+
         # ✅ 데이터 수신 루프
-        while True:
+        while self.files:
             try:
                 data = self.queue.get(timeout=1)
             except Empty:
@@ -276,12 +306,20 @@ class DataProcessor(multiprocessing.Process):
             if data == "STOP":
                 stop_count += 1
                 if stop_count == len(self.files):
-                    self._send_segment_done(self.last_elapsed_time)
+                    # 모든 파일이 끝났으므로 재개 시 처리할 파일 없음
+                    self._send_segment_done(self.last_elapsed_time,
+                                            checkpoint={"segment_index": self.segment_index + 1, "sources": {}})
+                    self._write_manifests()
+                    self._send_reused_segments(self.segment_index + 1)
                     self._send_process_complete()
                     break
                 else:
                     continue
 
+            if data["type"] == DataType.CHECKPOINT:
+                self.checkpoints.setdefault(data["segment_index"], {})[data["entity_name"]] = data["position"]
+                continue
+
             self._handle_data(data)
 
         self.mqtt.loop_stop()
@@ -290,32 +328,88 @@ class DataProcessor(multiprocessing.Process):
         self._log("✅ DataProcessor 종료")
 
     def _save_rrd_segment(self):
+        self._save_project_segment()
+        for entity_name, stream in self.entity_streams.items():
+            rr.save(self._entity_segment_path(self.entity_dirs[entity_name], self.segment_index), recording=stream)
+
+    def _save_project_segment(self):
         self.current_save_path = f"{self.save_path}/{self.segment_index}.rrd"
-        rr.save(self.current_save_path)
+        rr.save(self.current_save_path, recording=self.project_stream)
 
-        # ✅ 새 세그먼트 시작할 때마다 Blueprint 재적용
+        # ✅ 새 세그먼트 시작할 때마다 Blueprint / 좌표계 재적용
         if self.blueprint is not None:
-            rr.send_blueprint(self.blueprint)
+            rr.send_blueprint(self.blueprint, recording=self.project_stream)
             self._log(f"🎨 Segment {self.segment_index}: Blueprint 재적용 완료")
+        rr.log("world", rr.ViewCoordinates.RIGHT_HAND_Z_UP, static=True, recording=self.project_stream)
 
         self._log(f"📁 Segment {self.segment_index} 저장 시작 → {self.current_save_path}")
 
-    def _send_segment_done(self, elapsed_time_us):
-        start_s = self.segment_duration_us * self.segment_index * 1e-6
-        end_s = elapsed_time_us * 1e-6
-        segment_name = f"{format_mmss(start_s)} ~ {format_mmss(end_s)}"
+    @staticmethod
+    def _entity_segment_path(directory, segment_index):
+        return f"{directory}/{segment_index}.rrd"
+
+    def _write_manifests(self):
+        """팀 캐시에 기록한 엔티티는 완료 표시 (이후 다른 프로젝트에서 재사용)"""
+        for entity_name, directory in self.entity_dirs.items():
+            if directory in self.owned_dirs:
+                write_manifest(directory, entity_name, self.segment_index + 1, self.last_elapsed_time)
+
+    def _send_reused_segments(self, first_index):
+        """처리한 엔티티보다 긴 재사용 엔티티의 남은 세그먼트 발행"""
+        segment_count = max((entity["segment_count"] for entity in self.reused_entities), default=0)
+        last_elapsed_us = max((entity["last_elapsed_us"] for entity in self.reused_entities), default=0)
+        for index in range(first_index, segment_count):
+            if index != self.segment_index:
+                self.segment_index = index
+                self._save_project_segment()
+            end_us = min(self.segment_duration_us * (index + 1), max(last_elapsed_us, self.segment_duration_us * index))
+            self._send_segment_done(end_us, include_processed=False)
+
+    def _send_segment_done(self, elapsed_time_us, include_processed=True, checkpoint=None):
+        start_us = self.segment_duration_us * self.segment_index
+        segment_name = f"{format_mmss(start_us * 1e-6)} ~ {format_mmss(elapsed_time_us * 1e-6)}"
+        entity_files = self._segment_entity_files(include_processed)
 
         topic = f"visualization/backend/progress/{self.user_id}/{self.project_id}"
         payload = json.dumps({
             "status": "PROGRESSING",
             "segment_index": self.segment_index,
             "file_path": to_public_rrd_url(self.server_url, self.current_save_path),
-            "segment_name": segment_name
+            "entity_file_paths": [to_public_rrd_url(self.server_url, path) for _, path in entity_files],
+            "segment_name": segment_name,
+            # 세그먼트 manifest (시간 구간 조회용)
+            "start_us": start_us,
+            "end_us": max(elapsed_time_us, start_us),
+            "byte_size": self._segment_byte_size([self.current_save_path] + [path for _, path in entity_files]),
+            "entities": [entity_name for entity_name, _ in entity_files],
+            "checkpoint": checkpoint
         })
         self.mqtt.publish(topic, payload, qos=1).wait_for_publish()
         duration = time.time() - self.segment_start_time
         self._log(f"✅ Segment {self.segment_index} 완료 → 범위: {segment_name} | 소요 시간: {duration:.2f}s")
 
+    def _segment_entity_files(self, include_processed):
+        """현재 세그먼트의 (엔티티 이름, 엔티티 RRD 경로) 목록 (새로 만든 엔티티 + 팀에서 재사용한 엔티티)"""
+        files = []
+        if include_processed:
+            files += [(entity_name, self._entity_segment_path(directory, self.segment_index))
+                      for entity_name, directory in self.entity_dirs.items()]
+        files += [(entity["entity_name"], self._entity_segment_path(entity["dir"], self.segment_index))
+                  for entity in self.reused_entities if self.segment_index < entity["segment_count"]]
+        return files
+
+    def _segment_byte_size(self, paths):
+        # 쓰고 있는 세그먼트는 버퍼를 파일까지 내보낸 뒤 크기를 잰다.
+        for stream in [self.project_stream, *self.entity_streams.values()]:
+            stream.flush(blocking=True)
+        size = 0
+        for path in paths:
+            try:
+                size += os.path.getsize(path)
+            except OSError:
+                pass
+        return size
+
     def _send_process_complete(self):
         topic = f"visualization/backend/complete/{self.user_id}/{self.project_id}"
         payload = json.dumps({"status": "COMPLETE"})
@@ -329,44 +423,53 @@ class DataProcessor(multiprocessing.Process):
         self.last_elapsed_time = elapsed_time
 
         if elapsed_time > self.segment_duration_us * (self.segment_index + 1):
-            self._send_segment_done(self.segment_duration_us * (self.segment_index + 1))
+            # 처리 중인 모든 스레드는 경계에서 대기하므로 이 시점에는 다음 세그먼트의 읽기 위치가 모두 도착해 있다.
+            next_index = self.segment_index + 1
+            sources = self.checkpoints.pop(next_index, None)
+            self.checkpoints = {index: value for index, value in self.checkpoints.items() if index > next_index}
+            checkpoint = {"segment_index": next_index, "sources": sources} if sources is not None else None
+            self._send_segment_done(self.segment_duration_us * next_index, checkpoint=checkpoint)
             self.segment_index += 1
             self._save_rrd_segment()
             self.segment_start_time = time.time()
             self._log(f"🆕 Segment {self.segment_index} 로깅 시작")
 
-        rr.set_time("timeline", duration=elapsed_time * 1e-6)
-        self._log_data(data)
+        stream = self.entity_streams.get(data["entity_name"])
+        if stream is None:
+            return
+        rr.set_time("timeline", duration=elapsed_time * 1e-6, recording=stream)
+        self._log_data(data, stream)
 
-    def _log_data(self, data):
+    def _log_data(self, data, stream):
         if data["type"] == DataType.GPS:
-            self._log_gps(data)
+            self._log_gps(data, stream)
         elif data["type"] == DataType.LIDAR:
-            self._log_lidar(data)
+            self._log_lidar(data, stream)
         elif data["type"] == DataType.VIDEO:
-            self._log_video(data)
+            self._log_video(data, stream)
         elif data["type"] == DataType.RIFF:
-            self._log_signal(data)
+            self._log_signal(data, stream)
 
-    def _log_video(self,data):
+    def _log_video(self, data, stream):
         rr.log(f"world/{data['entity_name']}",
-               rr.EncodedImage(contents=data['jpeg_bytes'], media_type="image/jpeg"))
+               rr.EncodedImage(contents=data['jpeg_bytes'], media_type="image/jpeg"), recording=stream)
 
-    def _log_gps(self, data):
-        self.ego_trajectory_lat_lon.append([data["latitude"], data["longitude"]])
+    def _log_gps(self, data, stream):
+        trajectory = self.ego_trajectory_lat_lon.setdefault(data['entity_name'], [])
+        trajectory.append([data["latitude"], data["longitude"]])
         rr.log(f"world/{data['entity_name']}",
                rr.GeoPoints(lat_lon=[data["latitude"], data["longitude"]], radii=rr.Radius.ui_points(8.0),
-                            colors=0xFF0000FF))
+                            colors=0xFF0000FF), recording=stream)
         rr.log(f"world/{data['entity_name']}/trajectory",
-               rr.GeoLineStrings(lat_lon=self.ego_trajectory_lat_lon, radii=rr.Radius.ui_points(1.5),
-                                 colors=0xFF0000FF))
+               rr.GeoLineStrings(lat_lon=trajectory, radii=rr.Radius.ui_points(1.5),
+                                 colors=0xFF0000FF), recording=stream)
 
-    def _log_lidar(self, data):
+    def _log_lidar(self, data, stream):
         rr.log(f"world/{data['entity_name']}",
                rr.Points3D(positions=data["positions"], colors=data["colors"],
-                           radii=rr.Radius.ui_points(1)))
+                           radii=rr.Radius.ui_points(1)), recording=stream)
 
-    def _log_signal(self, data):
+    def _log_signal(self, data, stream):
         """✅ 신호 로깅: 차트 + 색상 매칭 대시보드"""
         signal_name = data["signal_name"]
         value = data["value"]
@@ -386,13 +489,13 @@ class DataProcessor(multiprocessing.Process):
                 name=signal_name,
                 color=color,
                 width=2.0
-            ))
+            ), recording=stream)
             self.initialized_signal[chart_path] = True
 
-        rr.log(chart_path, rr.Scalar(value))
+        rr.log(chart_path, rr.Scalar(value), recording=stream)
 
         # 2️⃣ 색상 매칭된 간단한 대시보드 업데이트
-        self._update_dashboard(entity_name, signal_name, value)
+        self._update_dashboard(entity_name, signal_name, value, stream)
 
     def _generate_dashboard_text(self, entity_name):
         """✅ 이모지 제거, 깔끔한 텍스트 대시보드"""
@@ -461,7 +564,7 @@ class DataProcessor(multiprocessing.Process):
 
         return "\n".join(dashboard_lines)
 
-    def _update_dashboard(self, entity_name, signal_name, value):
+    def _update_dashboard(self, entity_name, signal_name, value, stream):
         """✅ 간단한 대시보드 업데이트 (한 줄 띄우기 적용)"""
         # entity별 대시보드 딕셔너리 초기화
         if entity_name not in self.signal_dashboards:
@@ -475,4 +578,4 @@ class DataProcessor(multiprocessing.Process):
 
         # Markdown 형태로 대시보드에 로깅
         rr.log(f"{entity_name}/dashboard",
-               rr.TextDocument(text=dashboard_text, media_type=rr.MediaType.MARKDOWN))
\ No newline at end of file
+               rr.TextDocument(text=dashboard_text, media_type=rr.MediaType.MARKDOWN), recording=stream)
\ No newline at end of file
@@ -0,0 +1,129 @@
+import hashlib
+import json
+import logging
+import os
+import time
+
+logger = logging.getLogger("EntityArtifact")
+
+# 팀이 공유하는 엔티티 RRD 저장 위치 (/data/rrd 아래라 백엔드 /api/visualization/rrd/teams/... 로 제공된다)
+ARTIFACT_ROOT = "/data/rrd/teams"
+MANIFEST_FILE = "manifest.json"
+LOCK_FILE = ".lock"
+# 이 시간보다 오래된 잠금은 중단된 작업이 남긴 것으로 본다.
+LOCK_STALE_SEC = 6 * 60 * 60
+
+
+def artifact_key(base_key, relative_us, segment_duration_us):
+    """백엔드가 만든 키(파일 내용 / 파서 / 엔티티 / DBC / 신호)에 시간 오프셋과 세그먼트 길이를 더한 최종 키"""
+    return hashlib.sha256(f"{base_key}:{relative_us}:{segment_duration_us}".encode("utf-8")).hexdigest()
+
+
+def artifact_dir(team_id, key):
+    return os.path.join(ARTIFACT_ROOT, team_id, "entities", key[:2], key)
+
+
+def read_manifest(directory):
+    """완성된 엔티티 RRD 정보, 없거나 읽을 수 없으면 None"""
+    try:
+        with open(os.path.join(directory, MANIFEST_FILE), "r", encoding="utf-8") as f:
+            return json.load(f)
+    except FileNotFoundError:
+        return None
+    except Exception as e:
+        logger.warning(f"⚠️ manifest 읽기 실패: {directory} - {e}")
+        return None
+
+
+def write_manifest(directory, entity_name, segment_count, last_elapsed_us):
+    """모든 세그먼트를 쓴 뒤에만 호출 (manifest 가 있는 디렉터리만 재사용된다)"""
+    path = os.path.join(directory, MANIFEST_FILE)
+    temp = f"{path}.{os.getpid()}.tmp"
+    with open(temp, "w", encoding="utf-8") as f:
+        json.dump({
+            "entity_name": entity_name,
+            "segment_count": segment_count,
+            "last_elapsed_us": last_elapsed_us,
+            "created_at": int(time.time()),
+        }, f)
+    os.replace(temp, path)
+
+
+def try_lock(directory, owner):
+    """엔티티 RRD 를 만들 권한 획득 (다른 작업이 만들고 있으면 False, 같은 작업의 재개라면 이어서 사용)"""
+    os.makedirs(directory, exist_ok=True)
+    lock_path = os.path.join(directory, LOCK_FILE)
+    for _ in range(2):
+        try:
+            fd = os.open(lock_path, os.O_CREAT | os.O_EXCL | os.O_WRONLY)
+            with os.fdopen(fd, "w") as f:
+                f.write(owner)
+            return True
+        except FileExistsError:
+            try:
+                with open(lock_path, "r", encoding="utf-8") as f:
+                    if f.read() == owner:
+                        return True
+                if time.time() - os.path.getmtime(lock_path) < LOCK_STALE_SEC:
+                    return False
+                logger.warning(f"⚠️ 오래된 잠금 해제: {lock_path}")
+                os.remove(lock_path)
+            except FileNotFoundError:
+                pass
+    return False
+
+
+def release_lock(directory):
+    try:
+        os.remove(os.path.join(directory, LOCK_FILE))
+    except FileNotFoundError:
+        pass
+
+
+def plan_entity_outputs(files, team_id, project_id, file_relative_offsets, save_path, segment_duration_us):
+    """
+    파일(엔티티)별 RRD 출력 위치 결정
+    - 팀 캐시에 완성본이 있으면 재사용 (처리하지 않음)
+    - 없으면 잠금을 잡고 팀 캐시에 직접 기록 (완료 시 manifest 기록)
+    - 다른 작업이 만들고 있거나 팀 / 키가 없으면 프로젝트 디렉터리에 기록 (공유하지 않음)
+    :return: (처리할 파일 목록, {엔티티: 출력 디렉터리}, 잠금을 잡은 디렉터리 목록, 재사용 엔티티 목록)
+    """
+    to_process = []
+    entity_dirs = {}
+    owned_dirs = []
+    reused = []
+
+    for file in files:
+        local_dir = os.path.join(save_path, "entities", file.entity_name)
+        if not team_id or not file.artifact_key:
+            to_process.append(file)
+            entity_dirs[file.entity_name] = local_dir
+            continue
+
+        key = artifact_key(file.artifact_key, file_relative_offsets.get(file.upload_file_path, 0), segment_duration_us)
+        directory = artifact_dir(team_id, key)
+        manifest = read_manifest(directory)
+        if manifest is not None:
+            # 백엔드가 참조를 기록하기 전에 회수 / 보관하지 않도록 재사용 시각을 남긴다. (RRDTieringService)
+            try:
+                os.utime(os.path.join(directory, MANIFEST_FILE))
+            except OSError:
+                pass
+            reused.append({
+                "entity_name": file.entity_name,
+                "dir": directory,
+                "segment_count": manifest["segment_count"],
+                "last_elapsed_us": manifest.get("last_elapsed_us", 0),
+            })
+            logger.info(f"♻️ 엔티티 RRD 재사용: {file.entity_name} ({manifest['segment_count']}개 세그먼트)")
+            continue
+
+        to_process.append(file)
+        if try_lock(directory, project_id):
+            entity_dirs[file.entity_name] = directory
+            owned_dirs.append(directory)
+        else:
+            logger.info(f"⏳ 다른 작업이 생성 중인 엔티티 RRD - 프로젝트 디렉터리에 기록: {file.entity_name}")
+            entity_dirs[file.entity_name] = local_dir
+
+    return to_process, entity_dirs, owned_dirs, reused
@@ -3,6 +3,7 @@ import threading
 import numpy as np
 import time
 import logging
+from queue import Full
 from typing import Callable
 from processor.reader.pcap_reader import PcapReader
 from processor.parser.pcap_gps_parser import PcapGpsParser  # 확장 가능
@@ -14,6 +15,7 @@ from processor.reader.video_reader import VideoReader
 from processor.reader.riff_reader import RiffReader
 from processor.parser.riff_parser import RiffParser
 from processor.util.colormap_util import process_lidar_points_batch
+from processor.execution.segment_barrier import JobCancelled
 
 # --- Logger 설정 ---
 logging.basicConfig(
@@ -50,7 +52,11 @@ class FileProcessorThread(threading.Thread):
             barrier,
             segment_duration_us: int,
             relative_us: int,
-            credential
+            credential,
+            local_path: str = None,
+            start_segment: int = 0,
+            resume_position: dict = None,
+            cancel_event=None
     ):
         super().__init__(daemon=True)
         self.server_url = server_url
@@ -63,11 +69,18 @@ class FileProcessorThread(threading.Thread):
         self.queue = queue
         self.barrier = barrier
         self.segment_duration_us = segment_duration_us
-        self.segment_index = 0
+        self.segment_index = start_segment
         self.relative_us = relative_us
         self.credential = credential
+        self.local_path = local_path
+        # 재개 시 reader 가 이어서 읽을 위치 (처음 실행이면 None)
+        self.resume_position = resume_position
+        # 워커 모드에서 작업 취소 시 set (None 이면 취소 없음)
+        self.cancel_event = cancel_event
 
         self.parser = resolve_parser_class(parser_name)()
+        if resume_position and resume_position.get("parser") and hasattr(self.parser, "restore"):
+            self.parser.restore(resume_position["parser"])
         self._init_reader_and_parser()
 
     def _log(self, message):
@@ -75,23 +88,26 @@ class FileProcessorThread(threading.Thread):
 
     def _init_reader_and_parser(self):
         if self.parser_name == ParserType.PCAP_GPS.value:
-            self.reader = PcapReader(self.file_path, self.relative_us, self.credential)
+            self.reader = PcapReader(self.file_path, self.relative_us, self.credential, self.local_path,
+                                     self.resume_position)
             self.reader.set_data_handler(self.parser.parse)
             self.parser.set_parsed_data_handler(self._handle_gps_data)
 
         elif self.parser_name == ParserType.PCAP_LIDAR.value:
-            self.reader = PcapReader(self.file_path, self.relative_us, self.credential)
+            self.reader = PcapReader(self.file_path, self.relative_us, self.credential, self.local_path,
+                                     self.resume_position)
             self.reader.set_data_handler(self.parser.parse)
             self.parser.set_parsed_data_handler(self._handle_lidar_data)
 
         elif self.parser_name == ParserType.VIDEO.value:
-            self.reader = VideoReader(self.file_path, self.relative_us, self.credential)
+            self.reader = VideoReader(self.file_path, self.relative_us, self.credential, self.local_path,
+                                      self.resume_position, self.segment_index * self.segment_duration_us)
             self.reader.set_data_handler(self.parser.parse)
             self.parser.set_parsed_data_handler(self._handle_video_data)
 
         elif self.parser_name == ParserType.RIFF.value:
             self.reader = RiffReader(self.server_url,self.file_path, self.dbc_file_path, self.selected_signals, self.relative_us,
-                                     self.credential)
+                                     self.credential, self.local_path, self.resume_position)
             self.reader.set_data_handler(self.parser.parse)
             self.parser.set_parsed_data_handler(self._handle_signal_data)
 
@@ -100,20 +116,55 @@ class FileProcessorThread(threading.Thread):
         self.barrier.register(self.entity_name)
 
         start = time.time()
-        self.reader.read()  # 전체 읽기 → parser 통해 처리
+        try:
+            self.reader.read()  # 전체 읽기 → parser 통해 처리
+        except JobCancelled:
+            self._log("🛑 작업 취소 → 파일 처리 중단")
+            self.barrier.deregister(self.entity_name)
+            return
         elapsed = (time.time() - start) * 1000
 
         self._log(f"✅ 전체 파일 처리 완료: ⏱ {elapsed:.2f}ms")
         self.barrier.deregister(self.entity_name)
         self.queue.put("STOP")
 
+    def _is_cancelled(self):
+        return self.cancel_event is not None and self.cancel_event.is_set()
+
+    def _put(self, item):
+        # 큐가 가득 찬 채 DataProcessor 가 종료되어도 멈추지 않도록 취소 여부를 확인하며 넣는다.
+        while True:
+            if self._is_cancelled():
+                raise JobCancelled()
+            try:
+                self.queue.put(item, timeout=1)
+                return
+            except Full:
+                continue
+
     def _wait_if_needed(self, timestamp):
+        if self._is_cancelled():
+            raise JobCancelled()
         while timestamp > (self.segment_index + 1) * self.segment_duration_us:
+            # 다음 세그먼트를 이 위치부터 다시 읽을 수 있도록 DataProcessor 에 알린다. (대기 전에 보내야 세그먼트 완료보다 먼저 도착)
+            self._put({
+                "type": DataType.CHECKPOINT,
+                "entity_name": self.entity_name,
+                "segment_index": self.segment_index + 1,
+                "position": self._checkpoint()
+            })
             self._log(f"⏸ Segment {self.segment_index} 도달 → 동기화 대기")
             self.barrier.wait(self.entity_name)
             self.segment_index += 1
             self._log(f"▶ Segment {self.segment_index} 통과 → 로깅 계속")
 
+    def _checkpoint(self):
+        """reader 읽기 위치 + parser 기준 시각 (있는 경우)"""
+        position = self.reader.checkpoint()
+        if hasattr(self.parser, "checkpoint"):
+            position["parser"] = self.parser.checkpoint()
+        return position
+
     def _handle_gps_data(self, gps: VelodyneGPSData):
         timestamp = gps.timestamp
         self._wait_if_needed(timestamp)
@@ -121,7 +172,7 @@ class FileProcessorThread(threading.Thread):
         lat = gps.latitude_deg + gps.latitude_arc_min / 60
         lon = gps.longitude_deg + gps.longitude_arc_min / 60
 
-        self.queue.put({
+        self._put({
             "type": DataType.GPS,
             "timestamp": timestamp,
             "entity_name": self.entity_name,
@@ -140,7 +191,7 @@ class FileProcessorThread(threading.Thread):
         # ✅ 2단계 최적화: 배치 처리로 좌표 변환과 컬러 매핑을 한 번에
         positions, colors = process_lidar_points_batch(azimuths, elevations, distances, intensities)
 
-        self.queue.put({
+        self._put({
             "type": DataType.LIDAR,
             "timestamp": timestamp,
             "entity_name": self.entity_name,
@@ -150,7 +201,7 @@ class FileProcessorThread(threading.Thread):
 
     def _handle_video_data(self, timestamp: int, jpeg_bytes: bytes):
         self._wait_if_needed(timestamp)
-        self.queue.put({
+        self._put({
             "type": DataType.VIDEO,
             "timestamp": timestamp,
             "entity_name": self.entity_name,
@@ -159,7 +210,7 @@ class FileProcessorThread(threading.Thread):
 
     def _handle_signal_data(self, timestamp: int, signal_name: str, value):
         self._wait_if_needed(timestamp)
-        self.queue.put({
+        self._put({
             "type": DataType.RIFF,
             "timestamp": timestamp,
             "entity_name": self.entity_name,
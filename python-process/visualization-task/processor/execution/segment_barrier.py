@@ -1,11 +1,19 @@
 import threading
 
 
+class JobCancelled(BaseException):
+    """
+    워커 모드에서 백엔드가 작업 취소를 요청해 처리를 중단함
+    reader / parser 의 except Exception 에 걸려 무시되지 않도록 BaseException 을 상속한다.
+    """
+
+
 class SegmentBarrier:
     def __init__(self):
         self.condition = threading.Condition()
         self.active_threads = set()
         self.waiting = 0
+        self.aborted = False
 
     def register(self, thread_id):
         with self.condition:
@@ -18,11 +26,21 @@ class SegmentBarrier:
                 self.waiting = 0
                 self.condition.notify_all()
 
+    def abort(self):
+        """대기 중인 스레드를 모두 깨워 JobCancelled 로 끝낸다. (작업 취소)"""
+        with self.condition:
+            self.aborted = True
+            self.condition.notify_all()
+
     def wait(self, thread_id):
         with self.condition:
+            if self.aborted:
+                raise JobCancelled()
             self.waiting += 1
             if self.waiting >= len(self.active_threads):
                 self.waiting = 0
                 self.condition.notify_all()
             else:
                 self.condition.wait()
+            if self.aborted:
+                raise JobCancelled()
@@ -0,0 +1,162 @@
+import json
+import logging
+import queue
+import threading
+import time
+import traceback
+import urllib.request
+
+import paho.mqtt.client as mqtt
+
+from mqtt.mqtt_client_singleton import BROKER_HOST, BROKER_PORT
+from processor.execution.segment_barrier import JobCancelled
+
+logger = logging.getLogger("VisualizationWorker")
+
+HEARTBEAT_INTERVAL_SEC = 5
+CREDENTIAL_TIMEOUT_SEC = 10
+
+
+class VisualizationWorker:
+    """
+    계속 떠 있으면서 백엔드가 보내는 시각화 작업을 하나씩 처리하는 워커
+    - 작업 수신 : visualization/worker/{worker_id}/job
+    - 작업 취소 : visualization/worker/{worker_id}/cancel (해당 작업만 중단하고 워커는 계속 대기)
+    - 상태 발행 : visualization/backend/worker/{worker_id}/heartbeat (주기적으로, 처리 중인 job_id 포함)
+    - 수신 확인 : visualization/backend/worker/{worker_id}/accepted (작업 시작 시)
+    - 결과 발행 : visualization/backend/worker/{worker_id}/done
+    무거운 모듈(rerun, boto3, cantools 등)은 워커 시작 시 한 번만 import 되므로 작업마다 다시 읽지 않는다.
+    버킷 자격 증명은 브로커로 받지 않고, 작업 메시지의 일회용 token 을 백엔드 API 로 교환해서 받는다.
+    """
+
+    def __init__(self, worker_id, server_url, backend_url, run_job):
+        self.worker_id = worker_id
+        self.server_url = server_url
+        self.backend_url = backend_url.rstrip("/")
+        self.run_job = run_job  # (server_url, user_id, project_id, blueprints, credentials, team_id, resume, cancel_event) -> None
+        self.jobs = queue.Queue()
+        self.current_job_id = None
+        self.cancel_event = threading.Event()
+        # 시작 전에 취소된 작업 (작업 메시지보다 취소가 먼저 처리된 경우 포함)
+        self.cancelled_job_ids = set()
+        self.lock = threading.Lock()
+        self.stopped = threading.Event()
+
+        self.job_topic = f"visualization/worker/{worker_id}/job"
+        self.cancel_topic = f"visualization/worker/{worker_id}/cancel"
+        self.status_topic = f"visualization/backend/worker/{worker_id}"
+
+        self.client = mqtt.Client(client_id=worker_id)
+        self.client.on_connect = self._on_connect
+        self.client.on_message = self._on_message
+
+    def _on_connect(self, client, userdata, flags, rc):
+        # 재연결 시에도 다시 구독
+        client.subscribe([(self.job_topic, 1), (self.cancel_topic, 1)])
+        logger.info(f"📡 작업 토픽 구독: {self.job_topic}, {self.cancel_topic}")
+
+    def _on_message(self, client, userdata, msg):
+        try:
+            payload = json.loads(msg.payload.decode("utf-8"))
+        except Exception as e:
+            logger.error(f"❌ 작업 메시지 파싱 실패: {e}")
+            return
+        if msg.topic == self.cancel_topic:
+            self._cancel(payload.get("job_id"))
+        else:
+            self.jobs.put(payload)
+
+    def _cancel(self, job_id):
+        with self.lock:
+            if job_id == self.current_job_id:
+                logger.warning(f"🛑 작업 취소 요청: {job_id}")
+                self.cancel_event.set()
+            else:
+                self.cancelled_job_ids.add(job_id)
+
+    def _publish(self, event, payload):
+        self.client.publish(f"{self.status_topic}/{event}", json.dumps(payload), qos=1)
+
+    def _fetch_credentials(self, job_id, token):
+        # 일회용 token -> 자격 증명 (Base64 JSON, --credential 과 같은 형식)
+        body = json.dumps({"workerId": self.worker_id, "jobId": job_id, "token": token}).encode("utf-8")
+        request = urllib.request.Request(
+            f"{self.backend_url}/api/visualization/worker/credential",
+            data=body,
+            headers={"Content-Type": "application/json"},
+            method="POST",
+        )
+        with urllib.request.urlopen(request, timeout=CREDENTIAL_TIMEOUT_SEC) as response:
+            return json.loads(response.read().decode("utf-8"))["result"]
+
+    def _heartbeat_loop(self):
+        while not self.stopped.wait(HEARTBEAT_INTERVAL_SEC):
+            self._send_heartbeat()
+
+    def _send_heartbeat(self):
+        self._publish("heartbeat", {
+            "state": "BUSY" if self.current_job_id else "IDLE",
+            "job_id": self.current_job_id,
+        })
+
+    def run_forever(self):
+        self.client.connect(BROKER_HOST, BROKER_PORT)
+        self.client.loop_start()
+        threading.Thread(target=self._heartbeat_loop, name="heartbeat", daemon=True).start()
+        self._send_heartbeat()
+        logger.info(f"👷 워커 대기 시작: {self.worker_id}")
+
+        try:
+            while not self.stopped.is_set():
+                try:
+                    job = self.jobs.get(timeout=1)
+                except queue.Empty:
+                    continue
+                self._handle(job)
+        finally:
+            self.stopped.set()
+            self.client.loop_stop()
+            self.client.disconnect()
+
+    def _handle(self, job):
+        job_id = job.get("job_id")
+        with self.lock:
+            self.current_job_id = job_id
+            self.cancel_event = threading.Event()
+            if job_id in self.cancelled_job_ids:
+                self.cancelled_job_ids.discard(job_id)
+                self.cancel_event.set()
+        self._publish("accepted", {"job_id": job_id})
+        start = time.time()
+        logger.info(f"📦 작업 시작: {job_id} (project: {job.get('project_id')})")
+
+        result = {"job_id": job_id, "success": True, "error": None, "cancelled": False}
+        try:
+            if self.cancel_event.is_set():
+                raise JobCancelled()
+            self.run_job(
+                server_url=self.server_url,
+                user_id=job["user_id"],
+                project_id=job["project_id"],
+                blueprints=job["blueprints"],
+                credentials=self._fetch_credentials(job_id, job["credential_token"]),
+                team_id=job.get("team_id"),
+                resume=job.get("resume"),
+                cancel_event=self.cancel_event,
+            )
+        except JobCancelled:
+            logger.warning(f"🛑 작업 취소됨: {job_id}")
+            result["success"] = False
+            result["error"] = "작업이 취소되었습니다."
+            result["cancelled"] = True
+        except Exception as e:
+            logger.error(f"❌ 작업 실패: {job_id} - {e}")
+            logger.error(traceback.format_exc())
+            result["success"] = False
+            result["error"] = str(e)
+
+        logger.info(f"🏁 작업 종료: {job_id} ({time.time() - start:.2f}초)")
+        # 결과를 먼저 보내야 백엔드가 결과보다 먼저 온 IDLE heartbeat 를 작업 유실로 보지 않는다.
+        self._publish("done", result)
+        with self.lock:
+            self.current_job_id = None
@@ -16,6 +16,10 @@ class FileMetadata:
     entity_name: str
     dbc_file_name: Optional[str]
     selected_signals: List[SelectedSignal]
+    # 백엔드 공유 캐시에 받아둔 파일 경로 (컨테이너 기준, 없으면 S3 에서 직접 읽음)
+    local_path: Optional[str] = None
+    # 엔티티 RRD 재사용 키 (파일 내용 / 파서 / 엔티티 / DBC / 신호, 백엔드에서 생성)
+    artifact_key: Optional[str] = None
 
 
 @dataclass
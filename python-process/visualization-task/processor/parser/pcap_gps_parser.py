@@ -16,6 +16,13 @@ class PcapGpsParser:
     def set_parsed_data_handler(self, handler):
         self.parsed_data_handler = handler
 
+    def checkpoint(self):
+        """재개 시 같은 시간축을 쓰도록 기준 시각 보관"""
+        return {"head_gps_timestamp_us": self.head_gps_timestamp_us}
+
+    def restore(self, state):
+        self.head_gps_timestamp_us = state.get("head_gps_timestamp_us", 0)
+
     def parse(self, ts_us: int,relative_us:int, payload: bytes):
         if self.head_gps_timestamp_us == 0:
             self.head_gps_timestamp_us = ts_us
@@ -104,6 +104,13 @@ class PcapLidarParser:
     def set_parsed_data_handler(self, handler):
         self.parsed_data_handler = handler
 
+    def checkpoint(self):
+        """재개 시 같은 시간축을 쓰도록 기준 시각 보관"""
+        return {"head_timestamp": self.head_timestamp}
+
+    def restore(self, state):
+        self.head_timestamp = state.get("head_timestamp")
+
     def _configure_sensor(self, sensor_type_str):
         if sensor_type_str == self._configured_sensor_type:
             return  # 이미 설정된 경우 skip
@@ -139,7 +146,8 @@ class PcapLidarParser:
 
         if self.current_frame is None:
             self.current_frame = VelodyneLidarFrame()
-            self.head_timestamp = ts_us
+            if self.head_timestamp is None:
+                self.head_timestamp = ts_us
 
         # ✅ 2.5단계 최적화: Numba로 파싱 루프 최적화
         payload_bytes = np.frombuffer(payload, dtype=np.uint8)
@@ -4,20 +4,28 @@ from processor.util.s3_util import open_s3_stream
 
 
 class PcapReader:
-    def __init__(self, file_path, relative_us, credential):
+    def __init__(self, file_path, relative_us, credential, local_path=None, resume_position=None):
         self.file_path = file_path
+        self.local_path = local_path
         self.packet_handler: Callable[[int, int, bytes], None] = None
         self.link_type = None
+        self.endian = "<"
         self.relative_us = relative_us
         self.credential = credential
+        # 재개 시 이어서 읽을 패킷 위치와 첫 패킷 시각 (상대 시간 기준)
+        self.resume_position = resume_position
+        self.position = 24  # 처리 중인 패킷 헤더 위치
+        self.first_timestamp_us = None
 
     def set_data_handler(self, handler: Callable[[int, int, bytes], None]):
         self.packet_handler = handler
 
-    def read(self):
-        first_timestamp_us = None
+    def checkpoint(self):
+        """현재 패킷부터 다시 읽기 위한 위치"""
+        return {"offset": self.position, "first_timestamp_us": self.first_timestamp_us}
 
-        with open_s3_stream(self.file_path, self.credential) as f:
+    def read(self):
+        with open_s3_stream(self.file_path, self.credential, self.local_path) as f:
             # 1. Global Header (24 bytes)
             global_header = f.read(24)
             if len(global_header) != 24:
@@ -25,39 +33,54 @@ class PcapReader:
 
             magic_number = struct.unpack("<I", global_header[0:4])[0]
             is_little_endian = magic_number in (0xa1b2c3d4, 0xa1b23c4d)
-            endian = "<" if is_little_endian else ">"
-            self.link_type = struct.unpack(endian + "I", global_header[20:24])[0]
-
-            while True:
-                pkt_header = f.read(16)
-                if len(pkt_header) < 16:
-                    break  # EOF
-
-                ts_sec, ts_usec, incl_len, orig_len = struct.unpack(endian + "IIII", pkt_header)
-                pkt_data = f.read(incl_len)
-                if len(pkt_data) < incl_len:
-                    break
-
-                ts_us = ts_sec * 1_000_000 + ts_usec
-                if first_timestamp_us is None:
-                    first_timestamp_us = ts_us
-
-                sensor_relative_us = ts_us - first_timestamp_us + self.relative_us
-
-                try:
-                    payload = self._extract_udp_payload(pkt_data)
-
-                    if payload is None:
-                        continue
-
-                    if self._is_gps_packet(payload):
-                        self.packet_handler(sensor_relative_us, self.relative_us, payload)
-                    elif self._is_lidar_packet(payload):
-                        self.packet_handler(sensor_relative_us, self.relative_us, payload)
-                    else:
-                        print("[Reader] Unknown UDP payload structure")
-                except Exception as e:
-                    print(f"[PcapReader] packet error: {e}")
+            self.endian = "<" if is_little_endian else ">"
+            self.link_type = struct.unpack(self.endian + "I", global_header[20:24])[0]
+
+            if not self.resume_position:
+                self._read_packets(f)
+                return
+
+        # 재개 : 헤더만 읽고 체크포인트 위치부터 다시 연다.
+        self.position = self.resume_position["offset"]
+        self.first_timestamp_us = self.resume_position.get("first_timestamp_us")
+        with open_s3_stream(self.file_path, self.credential, self.local_path, self.position) as f:
+            self._read_packets(f)
+
+    def _read_packets(self, f):
+        endian = self.endian
+        next_position = self.position
+        while True:
+            self.position = next_position
+            pkt_header = f.read(16)
+            if len(pkt_header) < 16:
+                break  # EOF
+
+            ts_sec, ts_usec, incl_len, orig_len = struct.unpack(endian + "IIII", pkt_header)
+            pkt_data = f.read(incl_len)
+            if len(pkt_data) < incl_len:
+                break
+            next_position = self.position + 16 + incl_len
+
+            ts_us = ts_sec * 1_000_000 + ts_usec
+            if self.first_timestamp_us is None:
+                self.first_timestamp_us = ts_us
+
+            sensor_relative_us = ts_us - self.first_timestamp_us + self.relative_us
+
+            try:
+                payload = self._extract_udp_payload(pkt_data)
+
+                if payload is None:
+                    continue
+
+                if self._is_gps_packet(payload):
+                    self.packet_handler(sensor_relative_us, self.relative_us, payload)
+                elif self._is_lidar_packet(payload):
+                    self.packet_handler(sensor_relative_us, self.relative_us, payload)
+                else:
+                    print("[Reader] Unknown UDP payload structure")
+            except Exception as e:
+                print(f"[PcapReader] packet error: {e}")
 
     def _is_gps_packet(self, payload: bytes) -> bool:
         return b"$GPRMC" in payload or b"$GNRMC" in payload
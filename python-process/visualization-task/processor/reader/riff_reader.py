@@ -15,11 +15,21 @@ class OptimizedGeneralSignalData:
 
 
 class RiffReader:
-    def __init__(self, server_url: str, riff_path: str, dbc_file_path: str, selected_signals, relative_us, credential):
+    # RIFF 헤더 + chunk 헤더 + 타임스탬프 / 체크섬 + LIST 헤더 (_read_header_optimized)
+    HEADER_SIZE = 42
+
+    def __init__(self, server_url: str, riff_path: str, dbc_file_path: str, selected_signals, relative_us, credential,
+                 local_path=None, resume_position=None):
         self.server_url = server_url
         self.riff_path = riff_path
+        self.local_path = local_path
         self.relative_us = relative_us
         self.credential = credential
+        # 재개 시 이어서 읽을 chunk 위치와 첫 관심 메시지 시각
+        self.resume_position = resume_position
+        self.position = 0  # 처리 중인 신호 chunk 위치
+        self.read_offset = 0  # 다음에 읽을 chunk 위치
+        self.first_timestamp_us = None
         self.packet_handler: Callable[[int, str, float], None] = None
 
         # ✅ 최적화 1: DBC 파일 한 번만 로드 + 메시지 맵 캐싱
@@ -69,47 +79,27 @@ class RiffReader:
         self.signals_logged = 0
         self.signals_throttled = 0
 
+    def checkpoint(self):
+        """처리 중인 신호부터 다시 읽기 위한 위치"""
+        return {"offset": self.position, "first_timestamp_us": self.first_timestamp_us}
+
     def read(self):
         """완전 최적화된 RIFF 읽기"""
         start_time = time.time()
 
-        with open_s3_stream(self.riff_path, self.credential) as f:
+        with open_s3_stream(self.riff_path, self.credential, self.local_path) as f:
             # 헤더 읽기
             self._read_header_optimized(f)
 
-            first_timestamp_us = None
-
-            # ✅ 최적화된 메인 루프
-            while True:
-                signal_data = self._read_signal_data_fast(f)
-                if signal_data is None:
-                    break
-
-                self.total_messages_read += 1
-
-                # ✅ 관심 없는 메시지 ID는 즉시 스킵
-                if signal_data.message_id not in self.target_message_ids:
-                    continue
+            if not self.resume_position:
+                self._read_signals(f, self.HEADER_SIZE)
 
-                self.target_messages_found += 1
-
-                timestamp_us = self.timestamp_offset + signal_data.time_delta
-                if first_timestamp_us is None:
-                    first_timestamp_us = timestamp_us
-
-                sensor_relative_us = timestamp_us - first_timestamp_us + self.relative_us
-
-                # ✅ 배치에 추가
-                self.signal_batch.append((sensor_relative_us, signal_data))
-
-                # 배치 처리 조건 체크
-                if (len(self.signal_batch) >= self.batch_size or
-                        time.time() - self.last_flush_time > self.flush_interval):
-                    self._process_signal_batch()
-
-            # 남은 배치 처리
-            if self.signal_batch:
-                self._process_signal_batch()
+        if self.resume_position:
+            # 재개 : 헤더만 읽고 체크포인트 위치부터 다시 연다.
+            offset = self.resume_position["offset"]
+            self.first_timestamp_us = self.resume_position.get("first_timestamp_us")
+            with open_s3_stream(self.riff_path, self.credential, self.local_path, offset) as f:
+                self._read_signals(f, offset)
 
         # 성능 통계 출력
         elapsed = time.time() - start_time
@@ -122,6 +112,42 @@ class RiffReader:
         print(
             f"  - 신호 제한: {self.signals_throttled:,}개 ({self.signals_throttled / max(1, self.signals_received) * 100:.1f}%)")
 
+    def _read_signals(self, f, offset):
+        self.read_offset = offset
+
+        # ✅ 최적화된 메인 루프
+        while True:
+            chunk_offset = self.read_offset
+            signal_data = self._read_signal_data_fast(f)
+            if signal_data is None:
+                break
+
+            self.total_messages_read += 1
+
+            # ✅ 관심 없는 메시지 ID는 즉시 스킵
+            if signal_data.message_id not in self.target_message_ids:
+                continue
+
+            self.target_messages_found += 1
+
+            timestamp_us = self.timestamp_offset + signal_data.time_delta
+            if self.first_timestamp_us is None:
+                self.first_timestamp_us = timestamp_us
+
+            sensor_relative_us = timestamp_us - self.first_timestamp_us + self.relative_us
+
+            # ✅ 배치에 추가
+            self.signal_batch.append((sensor_relative_us, signal_data, chunk_offset))
+
+            # 배치 처리 조건 체크
+            if (len(self.signal_batch) >= self.batch_size or
+                    time.time() - self.last_flush_time > self.flush_interval):
+                self._process_signal_batch()
+
+        # 남은 배치 처리
+        if self.signal_batch:
+            self._process_signal_batch()
+
 
     def _read_header_optimized(self, f):
         """최적화된 헤더 읽기"""
@@ -155,6 +181,7 @@ class RiffReader:
         # GeneralSignalData가 아니면 스킵
         if chunk_id != 0x69676973:  # "sig"
             f.read(chunk_size)
+            self.read_offset += 8 + chunk_size
             return None
 
         # ✅ 필요한 데이터만 읽기 (type, flags 스킵)
@@ -169,6 +196,9 @@ class RiffReader:
         if message_length % 2 != 0:
             f.read(1)
 
+        # 다음 chunk 위치 (체크포인트용)
+        self.read_offset += 8 + 18 + 4 + message_length + message_length % 2
+
         return OptimizedGeneralSignalData(message_id, time_delta, payload)
 
 
@@ -178,7 +208,8 @@ class RiffReader:
             return
 
         # ✅ 배치 단위로 디코딩 및 100ms 제한 적용
-        for sensor_relative_us, signal_data in self.signal_batch:
+        for sensor_relative_us, signal_data, chunk_offset in self.signal_batch:
+            self.position = chunk_offset
             try:
                 # 메시지 디코딩 (캐싱된 message_map 사용)
                 msg = self.message_map.get(signal_data.message_id)
@@ -1,3 +1,4 @@
+import os
 import av
 import cv2
 import boto3
@@ -7,12 +8,17 @@ import time
 class VideoReader:
     """완전 수정된 비디오 리더 (버그 수정)"""
 
-    def __init__(self, file_path, relative_us, credential):
+    def __init__(self, file_path, relative_us, credential, local_path=None, resume_position=None, resume_us=0):
         self.file_path = file_path
+        self.local_path = local_path
         self.credential = credential
         self.relative_us = relative_us
         self.frame_handler = None
 
+        # 재개 시 첫 프레임 시각을 이어받고 resume_us (세그먼트 시작) 근처 키프레임으로 이동
+        self.first_pts_us = resume_position.get("first_pts_us") if resume_position else None
+        self.resume_us = resume_us if resume_position else 0
+
         # ✅ 5fps + 품질 유지 설정
         self.target_fps = 5
         self.resize_factor = 0.35  # 35% 크기
@@ -25,15 +31,23 @@ class VideoReader:
     def set_data_handler(self, handler):
         self.frame_handler = handler
 
+    def checkpoint(self):
+        """비디오는 시간으로 이동하므로 기준 시각만 보관"""
+        return {"first_pts_us": self.first_pts_us}
+
     def read(self):
         """완전 수정된 비디오 읽기"""
         try:
-            url = self._get_presigned_url()
-            container = av.open(url, options={
-                'timeout': '10000000',
-                'reconnect': '1',
-                'buffer_size': '65536',
-            })
+            if self.local_path and os.path.isfile(self.local_path):
+                # 공유 캐시에 받아둔 파일은 네트워크 없이 바로 연다.
+                container = av.open(self.local_path)
+            else:
+                url = self._get_presigned_url()
+                container = av.open(url, options={
+                    'timeout': '10000000',
+                    'reconnect': '1',
+                    'buffer_size': '65536',
+                })
 
             video_stream = next(s for s in container.streams if s.type == 'video')
             if not video_stream:
@@ -45,9 +59,13 @@ class VideoReader:
             print(f"📹 비디오 처리 시작: {source_fps}fps → {self.target_fps}fps (1/{frame_interval} 처리)")
             print(f"🎨 품질 설정: 크기 {int(self.resize_factor * 100)}%, JPEG 품질 {self.jpeg_quality}")
 
-            first_pts_us = None
             processed_count = 0  # ✅ 여기서 변수 정의
 
+            if self.first_pts_us is not None and self.resume_us > 0:
+                seek_us = self.first_pts_us + self.resume_us - self.relative_us
+                container.seek(int(seek_us * 1e-6 / video_stream.time_base), stream=video_stream)
+                print(f"⏩ 재개 위치로 이동: {self.resume_us * 1e-6:.1f}초")
+
             for i, frame in enumerate(container.decode(video_stream)):
                 # 5fps에 맞는 프레임 간격
                 if i % frame_interval != 0:
@@ -56,11 +74,12 @@ class VideoReader:
                 # 타임스탬프 계산
                 pts_time = float(frame.pts * video_stream.time_base)
                 ts_us = int(pts_time * 1_000_000)
-                if first_pts_us is None:
-                    first_pts_us = ts_us
+                if self.first_pts_us is None:
+                    self.first_pts_us = ts_us
 
-                sensor_relative_us = ts_us - first_pts_us + self.relative_us
-                if sensor_relative_us < 0:
+                sensor_relative_us = ts_us - self.first_pts_us + self.relative_us
+                # 키프레임부터 디코딩하므로 재개 위치 이전 프레임은 건너뛴다.
+                if sensor_relative_us < 0 or (self.resume_us and sensor_relative_us <= self.resume_us):
                     continue
 
                 # ✅ 프레임 처리 (processed_count 전달)
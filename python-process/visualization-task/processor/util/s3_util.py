@@ -2,9 +2,17 @@ from io import BufferedReader
 import boto3
 from io import BytesIO
 import json
+import os
 
 
-def open_s3_stream(file_path: str, credential) -> BufferedReader:
+def open_s3_stream(file_path: str, credential, local_path: str = None, offset: int = 0) -> BufferedReader:
+    # 백엔드가 공유 캐시에 받아둔 파일이 있으면 S3 대신 로컬 파일을 읽는다.
+    if local_path and os.path.isfile(local_path):
+        f = open(local_path, "rb")
+        if offset:
+            f.seek(offset)
+        return f
+
     access_key = credential.access_key
     secret_key = credential.secret_key
     region_name = credential.region_name
@@ -20,7 +28,11 @@ def open_s3_stream(file_path: str, credential) -> BufferedReader:
     )
 
     bucket, key = bucket_name, file_path
-    obj = s3.get_object(Bucket=bucket, Key=key)
+    # 재개 시에는 이어서 읽을 위치부터 받는다.
+    if offset:
+        obj = s3.get_object(Bucket=bucket, Key=key, Range=f"bytes={offset}-")
+    else:
+        obj = s3.get_object(Bucket=bucket, Key=key)
     return BufferedReader(obj["Body"])
 
 
@@ -2,15 +2,18 @@ import argparse
 import json
 import base64
 import os
+import signal
 import multiprocessing
 import logging
 import traceback
 import time
 from processor.execution.data_processor import DataProcessor
+from processor.execution.entity_artifact import plan_entity_outputs, release_lock
 from processor.execution.file_processor_thread import FileProcessorThread
-from processor.execution.segment_barrier import SegmentBarrier
+from processor.execution.segment_barrier import SegmentBarrier, JobCancelled
 from processor.util.s3_util import get_project_info_key, read_json_from_path
 from processor.model.visualization_model import FileMetadata, Credential
+from processor.execution.visualization_worker import VisualizationWorker
 from mqtt.mqtt_client_singleton import get_mqtt_client
 
 
@@ -139,10 +142,26 @@ def prepare_relative_offsets(json_path, files, credential):
     return file_relative_offsets
 
 
-def run_visualization(server_url, user_id, project_id, blueprints, credentials):
-    """메인 시각화 실행 함수 - 예외처리 강화"""
+def _stop_on_sigterm(signum, frame):
+    """
+    docker stop (작업 취소 / 선점) 시 SystemExit 으로 바꿔 finally 블록이 팀 캐시 잠금을 풀고 끝나도록 한다.
+    Exception 이 아니므로 워커의 작업 실패 처리에 걸리지 않고 워커도 함께 종료된다. (백엔드가 다시 띄움)
+    완료된 세그먼트는 이미 기록되어 있으므로 그대로 남는다.
+    """
+    logger.warning("🛑 종료 요청 (SIGTERM) - 처리 중단")
+    raise SystemExit(128 + signum)
+
+
+def run_visualization(server_url, user_id, project_id, blueprints, credentials, team_id=None, resume=None,
+                      cancel_event=None):
+    """
+    메인 시각화 실행 함수 - 예외처리 강화
+    :param resume: 재개할 체크포인트 (Base64 JSON, {"segment_index": 다음 세그먼트, "sources": {엔티티: 읽기 위치}})
+    :param cancel_event: 워커 모드에서 작업 취소 시 set 되는 threading.Event (set 되면 JobCancelled)
+    """
     logger.info(f"🚀 시각화 프로세스 시작")
     logger.info(f"👤 User ID: {user_id}")
+    logger.info(f"👥 Team ID: {team_id}")
     logger.info(f"📁 Project ID: {project_id}")
     logger.info(f"🌐 Server URL: {server_url}")
 
@@ -156,6 +175,7 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
 
         files = [FileMetadata(**f) for f in json.loads(blueprints_json)]
         credential = Credential(**json.loads(credential_json))
+        checkpoint = json.loads(base64.b64decode(resume).decode("utf-8")) if resume else None
 
         logger.info(f"📊 처리할 파일: {len(files)}개")
         for i, file in enumerate(files):
@@ -174,6 +194,63 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
         os.makedirs(save_path, exist_ok=True)
         logger.info(f"💾 저장 경로: {save_path}")
 
+        # 배리어 및 상대 오프셋 준비
+        barrier = SegmentBarrier()
+        logger.info("🚧 세그먼트 배리어 생성 완료")
+
+        project_info_path = get_project_info_key(files[0].upload_file_path)
+        logger.info(f"📋 프로젝트 정보 경로: {project_info_path}")
+
+        # ✅ 최적화된 오프셋 계산
+        file_relative_offsets = prepare_relative_offsets(project_info_path, files, credential)
+
+    except Exception as e:
+        logger.error(f"❌ 오프셋 준비 실패: {e}")
+        logger.error(traceback.format_exc())
+        logger.warning("🔄 모든 파일 오프셋을 0으로 설정하여 계속 진행")
+        file_relative_offsets = {file.upload_file_path: 0 for file in files}
+
+    # 팀 캐시에 같은 엔티티 RRD 가 있으면 재사용, 없으면 만들면서 팀 캐시에 기록
+    all_files = files
+    files, entity_dirs, owned_dirs, reused_entities = plan_entity_outputs(
+        all_files, team_id, project_id, file_relative_offsets, save_path, 60_000_000)
+    logger.info(f"♻️ 엔티티 RRD 재사용: {len(reused_entities)}/{len(all_files)}개")
+
+    # 재개 : 체크포인트에 없는 엔티티는 이미 끝까지 처리된 것
+    start_segment = 0
+    resume_positions = {}
+    if checkpoint:
+        start_segment = checkpoint["segment_index"]
+        resume_positions = checkpoint.get("sources") or {}
+        logger.info(f"⏯️ Segment {start_segment} 부터 재개 (이어서 읽을 엔티티: {list(resume_positions.keys())})")
+
+    try:
+        _run_processing(server_url, user_id, project_id, save_path, all_files, files, entity_dirs, owned_dirs,
+                        reused_entities, file_relative_offsets, barrier, credential, start_segment,
+                        resume_positions if checkpoint else None, cancel_event)
+    finally:
+        for directory in owned_dirs:
+            release_lock(directory)
+
+    # 전체 처리 시간 출력
+    total_time = time.time() - start_time
+    logger.info(f"🎉 시각화 프로세스 완료!")
+    logger.info(f"⏱️ 총 처리 시간: {total_time:.2f}초")
+    logger.info(f"📊 처리 통계: {len(files)}개 파일 처리, {len(reused_entities)}개 재사용, 평균 {total_time / len(all_files):.2f}초/파일")
+
+
+def _run_processing(server_url, user_id, project_id, save_path, all_files, files, entity_dirs, owned_dirs,
+                    reused_entities, file_relative_offsets, barrier, credential, start_segment=0, resume_positions=None,
+                    cancel_event=None):
+    """
+    데이터 프로세서와 파일 처리 스레드를 실행하고 완료까지 대기
+    :param resume_positions: 재개 시 엔티티별 읽기 위치 (None 이면 처음부터)
+    :param cancel_event: set 되면 데이터 프로세서를 종료하고 파일 처리 스레드를 깨워 JobCancelled 로 끝낸다.
+    """
+    if resume_positions is not None:
+        files = [file for file in files if file.entity_name in resume_positions]
+
+    try:
         # 큐 및 프로세서 준비
         queue = multiprocessing.Queue(maxsize=500)
         logger.info("📮 큐 생성 완료 (크기: 20)")
@@ -190,6 +267,11 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
             mqtt=get_mqtt_client(mqtt_topic),
             segment_duration_us=60_000_000,
             queue=queue,
+            blueprint_files=all_files,
+            entity_dirs=entity_dirs,
+            owned_dirs=owned_dirs,
+            reused_entities=reused_entities,
+            start_segment=start_segment,
         )
         processor.start()
         logger.info("⚙️ 데이터 프로세서 시작됨")
@@ -199,23 +281,6 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
         logger.error(traceback.format_exc())
         raise
 
-    try:
-        # 배리어 및 상대 오프셋 준비
-        barrier = SegmentBarrier()
-        logger.info("🚧 세그먼트 배리어 생성 완료")
-
-        project_info_path = get_project_info_key(files[0].upload_file_path)
-        logger.info(f"📋 프로젝트 정보 경로: {project_info_path}")
-
-        # ✅ 최적화된 오프셋 계산
-        file_relative_offsets = prepare_relative_offsets(project_info_path, files, credential)
-
-    except Exception as e:
-        logger.error(f"❌ 오프셋 준비 실패: {e}")
-        logger.error(traceback.format_exc())
-        logger.warning("🔄 모든 파일 오프셋을 0으로 설정하여 계속 진행")
-        file_relative_offsets = {file.upload_file_path: 0 for file in files}
-
     # 파일 처리 스레드 시작
     threads = []
     failed_threads = []
@@ -242,7 +307,11 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
                 barrier=barrier,
                 segment_duration_us=60_000_000,
                 relative_us=relative_us,
-                credential=credential
+                credential=credential,
+                local_path=file.local_path,
+                start_segment=start_segment,
+                resume_position=resume_positions.get(file.entity_name) if resume_positions else None,
+                cancel_event=cancel_event
             )
 
             thread.start()
@@ -258,7 +327,7 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
     if failed_threads:
         logger.error(f"❌ 실패한 스레드들: {failed_threads}")
 
-    if not threads:
+    if files and not threads:
         logger.error("❌ 시작된 스레드가 없음 - 프로세스 종료")
         if processor.is_alive():
             processor.terminate()
@@ -270,9 +339,21 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
     try:
         logger.info("⏳ 데이터 프로세서 완료 대기 중...")
         processor_start = time.time()
-        processor.join()  # wait for rerun logging to finish
+        # wait for rerun logging to finish (취소 요청을 확인하며 대기)
+        while processor.is_alive():
+            processor.join(timeout=1)
+            if cancel_event is not None and cancel_event.is_set():
+                logger.warning("🛑 작업 취소 요청 - 데이터 프로세서 종료")
+                processor.terminate()
+                processor.join()
+                barrier.abort()
+                raise JobCancelled()
         processor_time = time.time() - processor_start
 
+        # 워커 모드에서는 프로세스가 계속 살아 있으므로 데이터 프로세서 비정상 종료(OOM 등)를 실패로 알린다.
+        if processor.exitcode != 0:
+            raise RuntimeError(f"데이터 프로세서 비정상 종료 (exitcode: {processor.exitcode})")
+
         logger.info(f"✅ 데이터 프로세서 완료: {processor_time:.2f}초")
 
     except Exception as e:
@@ -282,20 +363,19 @@ def run_visualization(server_url, user_id, project_id, blueprints, credentials):
             processor.terminate()
         raise
 
-    # 전체 처리 시간 출력
-    total_time = time.time() - start_time
-    logger.info(f"🎉 시각화 프로세스 완료!")
-    logger.info(f"⏱️ 총 처리 시간: {total_time:.2f}초")
-    logger.info(f"📊 처리 통계: {len(threads)}개 파일, 평균 {total_time / len(files):.2f}초/파일")
-
 
 if __name__ == "__main__":
     parser = argparse.ArgumentParser(description="CODA 시각화 프로세스")
-    parser.add_argument("--user-id", required=True, help="사용자 ID")
-    parser.add_argument("--project-id", required=True, help="프로젝트 ID")
-    parser.add_argument("--blueprints", required=True, help="블루프린트 JSON (Base64)")
-    parser.add_argument("--credential", required=True, help="크리덴셜 JSON (Base64)")
+    parser.add_argument("--user-id", help="사용자 ID")
+    parser.add_argument("--project-id", help="프로젝트 ID")
+    parser.add_argument("--blueprints", help="블루프린트 JSON (Base64)")
+    parser.add_argument("--credential", help="크리덴셜 JSON (Base64)")
+    parser.add_argument("--team-id", help="팀 ID (엔티티 RRD 재사용 범위)")
+    parser.add_argument("--resume", help="재개할 체크포인트 JSON (Base64)")
     parser.add_argument("--server-url", required=True, help="서버 URL")
+    parser.add_argument("--worker", action="store_true", help="작업을 MQTT 로 받아 계속 처리하는 워커 모드")
+    parser.add_argument("--worker-id", help="워커 ID (워커 모드)")
+    parser.add_argument("--backend-url", help="자격 증명을 받아 올 백엔드 URL (워커 모드)")
     parser.add_argument("--log-level", default="INFO",
                         choices=["DEBUG", "INFO", "WARNING", "ERROR"],
                         help="로그 레벨 설정")
@@ -304,15 +384,31 @@ if __name__ == "__main__":
 
     # 로그 레벨 설정
     logging.getLogger().setLevel(getattr(logging, args.log_level))
+    signal.signal(signal.SIGTERM, _stop_on_sigterm)
     logger.info(f"🔧 로그 레벨 설정: {args.log_level}")
 
+    if args.worker:
+        if not args.worker_id or not args.backend_url:
+            parser.error("--worker 모드에는 --worker-id 와 --backend-url 이 필요합니다.")
+        try:
+            VisualizationWorker(args.worker_id, args.server_url, args.backend_url, run_visualization).run_forever()
+        except KeyboardInterrupt:
+            logger.warning("⚠️ 워커 중단 (Ctrl+C)")
+        exit(0)
+
+    missing = [name for name in ("user_id", "project_id", "blueprints", "credential") if not getattr(args, name)]
+    if missing:
+        parser.error(f"필수 인자 누락: {', '.join('--' + name.replace('_', '-') for name in missing)}")
+
     try:
         run_visualization(
             server_url=args.server_url,
             user_id=args.user_id,
             project_id=args.project_id,
             blueprints=args.blueprints,
-            credentials=args.credential
+            credentials=args.credential,
+            team_id=args.team_id,
+            resume=args.resume
         )
         logger.info("✅ 프로그램 정상 종료")
 